@@ -21,9 +21,9 @@ package org.neo4j.graphalgo.labelpropagation;
 
 import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
-import org.neo4j.graphalgo.api.RelationshipIterator;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 
@@ -31,7 +31,7 @@ import static org.neo4j.graphalgo.labelpropagation.LabelPropagation.DEFAULT_WEIG
 
 final class ComputeStep implements Step {
 
-    private final RelationshipIterator localRelationshipIterator;
+    private final AdjacencyCursor cursor;
     private final HugeLongArray existingLabels;
     private final PrimitiveLongIterable nodes;
     private final ProgressLogger progressLogger;
@@ -47,7 +47,7 @@ final class ComputeStep implements Step {
         this.existingLabels = existingLabels;
         this.progressLogger = progressLogger;
         this.graph = graph;
-        this.localRelationshipIterator = graph.concurrentCopy();
+        this.cursor = graph.concurrentCopy().adjacencyCursor(DEFAULT_WEIGHT);
         this.nodes = nodes;
         this.consumer = new ComputeStepConsumer(nodeWeights, existingLabels);
     }
@@ -73,18 +73,24 @@ final class ComputeStep implements Step {
 
     private boolean iterateAll(PrimitiveLongIterator nodeIds) {
         boolean didChange = false;
+        long[] targets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        double[] weights = new double[AdjacencyCursor.DEFAULT_BATCH_SIZE];
         while (nodeIds.hasNext()) {
             long nodeId = nodeIds.next();
-            didChange = compute(nodeId, didChange);
+            didChange = compute(nodeId, didChange, targets, weights);
             progressLogger.logProgress(graph.degree(nodeId));
         }
         return didChange;
     }
 
-    private boolean compute(long nodeId, boolean didChange) {
+    private boolean compute(long nodeId, boolean didChange, long[] targets, double[] weights) {
         consumer.clearVotes();
         long label = existingLabels.get(nodeId);
-        localRelationshipIterator.forEachRelationship(nodeId, DEFAULT_WEIGHT, consumer);
+        cursor.init(nodeId);
+        int count;
+        while ((count = cursor.nextBatch(targets, weights)) > 0) {
+            consumer.castVotes(targets, weights, count);
+        }
         long newLabel = consumer.tallyVotes(label);
         if (newLabel != label) {
             existingLabels.set(nodeId, newLabel);
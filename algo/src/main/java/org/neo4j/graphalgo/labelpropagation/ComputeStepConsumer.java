@@ -46,6 +46,12 @@ final class ComputeStepConsumer implements RelationshipWithPropertyConsumer {
         return true;
     }
 
+    void castVotes(long[] candidates, double[] weights, int count) {
+        for (int i = 0; i < count; i++) {
+            castVote(candidates[i], weights[i]);
+        }
+    }
+
     private void castVote(long candidate, double weight) {
         weight = weightOf(candidate, weight);
         long label = existingLabels.get(candidate);
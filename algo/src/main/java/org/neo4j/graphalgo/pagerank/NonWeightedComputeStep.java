@@ -19,17 +19,18 @@
  */
 package org.neo4j.graphalgo.pagerank;
 
+import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.RelationshipConsumer;
-import org.neo4j.graphalgo.api.RelationshipIterator;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
+import static org.neo4j.graphalgo.pagerank.PageRank.DEFAULT_WEIGHT;
 
-public class NonWeightedComputeStep extends BaseComputeStep implements RelationshipConsumer {
+public class NonWeightedComputeStep extends BaseComputeStep {
 
-    private float srcRankDelta;
+    private final AdjacencyCursor cursor;
+    private final long[] targets;
 
     NonWeightedComputeStep(
         double dampingFactor,
@@ -51,31 +52,35 @@ public class NonWeightedComputeStep extends BaseComputeStep implements Relations
             startNode,
             progressLogger
         );
+        this.cursor = relationshipIterator.adjacencyCursor(DEFAULT_WEIGHT);
+        this.targets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
     }
 
     void singleIteration() {
         long startNode = this.startNode;
         long endNode = this.endNode;
-        RelationshipIterator rels = this.relationshipIterator;
+        AdjacencyCursor cursor = this.cursor;
+        long[] targets = this.targets;
         for (long nodeId = startNode; nodeId < endNode; ++nodeId) {
             double delta = deltas[(int) (nodeId - startNode)];
             if (delta > 0.0) {
                 int degree = degrees.degree(nodeId);
                 if (degree > 0) {
-                    srcRankDelta = (float) (delta / degree);
-                    rels.forEachRelationship(nodeId, this);
+                    float srcRankDelta = (float) (delta / degree);
+                    if (srcRankDelta != 0F) {
+                        cursor.init(nodeId);
+                        int count;
+                        while ((count = cursor.nextBatch(targets)) > 0) {
+                            for (int i = 0; i < count; i++) {
+                                long targetNodeId = targets[i];
+                                int idx = binaryLookup(targetNodeId, starts);
+                                nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
+                            }
+                        }
+                    }
                 }
             }
             progressLogger.logProgress(graph.degree(nodeId));
         }
     }
-
-    @Override
-    public boolean accept(long sourceNodeId, long targetNodeId) {
-        if (srcRankDelta != 0F) {
-            int idx = binaryLookup(targetNodeId, starts);
-            nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
-        }
-        return true;
-    }
 }
@@ -19,9 +19,8 @@
  */
 package org.neo4j.graphalgo.pagerank;
 
+import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.RelationshipIterator;
-import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
@@ -29,11 +28,12 @@ import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
 import static org.neo4j.graphalgo.pagerank.PageRank.DEFAULT_WEIGHT;
 
-public class WeightedComputeStep extends BaseComputeStep implements RelationshipWithPropertyConsumer {
+public class WeightedComputeStep extends BaseComputeStep {
 
     private final HugeDoubleArray aggregatedDegrees;
-    private double sumOfWeights;
-    private double delta;
+    private final AdjacencyCursor cursor;
+    private final long[] targets;
+    private final double[] weights;
 
     WeightedComputeStep(
             double dampingFactor,
@@ -54,36 +54,42 @@ public class WeightedComputeStep extends BaseComputeStep implements Relationship
                 progressLogger
         );
         this.aggregatedDegrees = degreeCache.aggregatedDegrees();
+        this.cursor = relationshipIterator.adjacencyCursor(DEFAULT_WEIGHT);
+        this.targets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        this.weights = new double[AdjacencyCursor.DEFAULT_BATCH_SIZE];
     }
 
     void singleIteration() {
         long startNode = this.startNode;
         long endNode = this.endNode;
-        RelationshipIterator rels = this.relationshipIterator;
+        AdjacencyCursor cursor = this.cursor;
+        long[] targets = this.targets;
+        double[] weights = this.weights;
         for (long nodeId = startNode; nodeId < endNode; ++nodeId) {
-            delta = deltas[(int) (nodeId - startNode)];
+            double delta = deltas[(int) (nodeId - startNode)];
             if (delta > 0.0) {
                 int degree = degrees.degree(nodeId);
                 if (degree > 0) {
-                    sumOfWeights = aggregatedDegrees.get(nodeId);
-                    rels.forEachRelationship(nodeId, DEFAULT_WEIGHT, this);
+                    double sumOfWeights = aggregatedDegrees.get(nodeId);
+                    cursor.init(nodeId);
+                    int count;
+                    while ((count = cursor.nextBatch(targets, weights)) > 0) {
+                        for (int i = 0; i < count; i++) {
+                            double property = weights[i];
+                            if (property > 0) {
+                                double proportion = property / sumOfWeights;
+                                float srcRankDelta = (float) (delta * proportion);
+                                if (srcRankDelta != 0F) {
+                                    long targetNodeId = targets[i];
+                                    int idx = binaryLookup(targetNodeId, starts);
+                                    nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
+                                }
+                            }
+                        }
+                    }
                 }
             }
             progressLogger.logProgress(graph.degree(nodeId));
         }
     }
-
-    @Override
-    public boolean accept(long sourceNodeId, long targetNodeId, double property) {
-        if (property > 0) {
-            double proportion = property / sumOfWeights;
-            float srcRankDelta = (float) (delta * proportion);
-            if (srcRankDelta != 0F) {
-                int idx = binaryLookup(targetNodeId, starts);
-                nextScores[idx][(int) (targetNodeId - starts[idx])] += srcRankDelta;
-            }
-        }
-
-        return true;
-    }
 }
@@ -20,11 +20,9 @@
 package org.neo4j.graphalgo.wcc;
 
 import org.neo4j.graphalgo.Algorithm;
+import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.NodeProperties;
-import org.neo4j.graphalgo.api.RelationshipConsumer;
-import org.neo4j.graphalgo.api.RelationshipIterator;
-import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
@@ -141,16 +139,22 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
         return threshold + 1;
     }
 
-    private class WCCTask implements Runnable, RelationshipConsumer {
+    private class WCCTask implements Runnable {
 
         final DisjointSetStruct struct;
-        final RelationshipIterator rels;
+        final AdjacencyCursor cursor;
+        final long[] targets;
         private final long offset;
         private final long end;
 
         WCCTask(DisjointSetStruct struct, long offset) {
+            this(struct, offset, Double.NaN);
+        }
+
+        WCCTask(DisjointSetStruct struct, long offset, double fallbackValue) {
             this.struct = struct;
-            this.rels = graph.concurrentCopy();
+            this.cursor = graph.concurrentCopy().adjacencyCursor(fallbackValue);
+            this.targets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
             this.offset = offset;
             this.end = Math.min(offset + batchSize, nodeCount);
         }
@@ -168,36 +172,38 @@ public class Wcc extends Algorithm<Wcc, DisjointSetStruct> {
         }
 
         void compute(final long node) {
-            rels.forEachRelationship(node, this);
-        }
-
-        @Override
-        public boolean accept(final long sourceNodeId, final long targetNodeId) {
-            struct.union(sourceNodeId, targetNodeId);
-            return true;
+            cursor.init(node);
+            int count;
+            while ((count = cursor.nextBatch(targets)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    struct.union(node, targets[i]);
+                }
+            }
         }
     }
 
-    private class WCCWithThresholdTask extends WCCTask implements RelationshipWithPropertyConsumer {
+    private class WCCWithThresholdTask extends WCCTask {
 
         private final double threshold;
+        private final double[] properties;
 
         WCCWithThresholdTask(double threshold, DisjointSetStruct struct, long offset) {
-            super(struct, offset);
+            super(struct, offset, Wcc.defaultWeight(threshold));
             this.threshold = threshold;
+            this.properties = new double[AdjacencyCursor.DEFAULT_BATCH_SIZE];
         }
 
         @Override
         void compute(final long node) {
-            rels.forEachRelationship(node, Wcc.defaultWeight(threshold), this);
-        }
-
-        @Override
-        public boolean accept(final long sourceNodeId, final long targetNodeId, final double property) {
-            if (property > threshold) {
-                struct.union(sourceNodeId, targetNodeId);
+            cursor.init(node);
+            int count;
+            while ((count = cursor.nextBatch(targets, properties)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    if (properties[i] > threshold) {
+                        struct.union(node, targets[i]);
+                    }
+                }
             }
-            return true;
         }
     }
 }
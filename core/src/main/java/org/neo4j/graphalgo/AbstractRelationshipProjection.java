@@ -22,6 +22,7 @@ package org.neo4j.graphalgo;
 import org.immutables.value.Value;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.DataClass;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
 import org.neo4j.graphalgo.core.Aggregation;
 
 import java.util.Map;
@@ -46,6 +47,15 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
         return Aggregation.DEFAULT;
     }
 
+    /**
+     * Encoding of the compressed targets in the adjacency lists of this projection.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    public AdjacencyEncoding adjacencyEncoding() {
+        return AdjacencyEncoding.VAR_LONG;
+    }
+
     @Value.Default
     @Value.Parameter(false)
     @Override
@@ -61,6 +71,7 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
     public static final String TYPE_KEY = "type";
     public static final String ORIENTATION_KEY = "orientation";
     public static final String AGGREGATION_KEY = "aggregation";
+    public static final String ADJACENCY_ENCODING_KEY = "adjacencyEncoding";
 
     public static RelationshipProjection fromMap(Map<String, Object> map, RelationshipType relationshipType) {
         RelationshipProjection.Builder builder = RelationshipProjection.builder();
@@ -70,6 +81,9 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
         if (map.containsKey(ORIENTATION_KEY)) {
             builder.orientation(Orientation.of(nonEmptyString(map, ORIENTATION_KEY)));
         }
+        if (map.containsKey(ADJACENCY_ENCODING_KEY)) {
+            builder.adjacencyEncoding(AdjacencyEncoding.lookup(nonEmptyString(map, ADJACENCY_ENCODING_KEY)));
+        }
         if (map.containsKey(AGGREGATION_KEY)) {
             Aggregation aggregation = Aggregation.lookup(nonEmptyString(map, AGGREGATION_KEY));
             builder.aggregation(aggregation);
@@ -128,6 +142,9 @@ public abstract class AbstractRelationshipProjection extends ElementProjection {
         value.put(TYPE_KEY, type());
         value.put(ORIENTATION_KEY, orientation().name());
         value.put(AGGREGATION_KEY, aggregation().name());
+        if (adjacencyEncoding() != AdjacencyEncoding.VAR_LONG) {
+            value.put(ADJACENCY_ENCODING_KEY, adjacencyEncoding().name());
+        }
     }
 
     @Override
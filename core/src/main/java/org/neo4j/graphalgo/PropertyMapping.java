@@ -23,6 +23,7 @@ import org.immutables.value.Value;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyEncoding;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 
 import java.util.AbstractMap;
@@ -38,6 +39,7 @@ public abstract class PropertyMapping {
 
     public static final String PROPERTY_KEY = "property";
     public static final String DEFAULT_VALUE_KEY = "defaultValue";
+    public static final String ENCODING_KEY = "encoding";
 
     /**
      * property key in the result map Graph.nodeProperties(`propertyKey`)
@@ -62,6 +64,15 @@ public abstract class PropertyMapping {
         return Aggregation.DEFAULT;
     }
 
+    /**
+     * Storage encoding of the property, only applies to relationship properties.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    public PropertyEncoding encoding() {
+        return PropertyEncoding.DOUBLE;
+    }
+
     public static PropertyMapping fromObject(String propertyKey, Object stringOrMap) {
         if (stringOrMap instanceof String) {
             String neoPropertyKey = (String) stringOrMap;
@@ -109,12 +120,24 @@ public abstract class PropertyMapping {
                 ));
             }
 
-            return PropertyMapping.of(
-                propertyKey,
-                neoPropertyKey,
-                defaultProperty,
-                aggregation
-            );
+            final Object encodingValue = relPropertyMap.get(ENCODING_KEY);
+            PropertyEncoding encoding;
+            if (encodingValue == null) {
+                encoding = PropertyEncoding.DOUBLE;
+            } else if (encodingValue instanceof String) {
+                encoding = PropertyEncoding.lookup((String) encodingValue);
+            } else {
+                throw new IllegalStateException(String.format(
+                    "Expected the value of '%s' to be of type String, but was '%s'",
+                    ENCODING_KEY, encodingValue.getClass().getSimpleName()
+                ));
+            }
+
+            return ImmutablePropertyMapping
+                .builder()
+                .from(PropertyMapping.of(propertyKey, neoPropertyKey, defaultProperty, aggregation))
+                .encoding(encoding)
+                .build();
         } else {
             throw new IllegalStateException(String.format(
                 "Expected stringOrMap to be of type String or Map, but got %s",
@@ -139,6 +162,9 @@ public abstract class PropertyMapping {
         if (includeAggregation) {
             value.put(RelationshipProjection.AGGREGATION_KEY, aggregation().name());
         }
+        if (encoding() != PropertyEncoding.DOUBLE) {
+            value.put(ENCODING_KEY, encoding().name());
+        }
         return new AbstractMap.SimpleImmutableEntry<>(propertyKey(), value);
     }
 
@@ -159,6 +185,7 @@ public abstract class PropertyMapping {
             .propertyKeyId(propertyKeyId)
             .defaultValue(defaultValue())
             .aggregation(aggregation())
+            .encoding(encoding())
             .build();
     }
 
@@ -229,11 +256,13 @@ public abstract class PropertyMapping {
     }
 
     public static PropertyMapping of(ResolvedPropertyMapping resolvedPropertyMapping) {
-        return of(
-            resolvedPropertyMapping.propertyKey(),
-            resolvedPropertyMapping.neoPropertyKey(),
-            resolvedPropertyMapping.defaultValue(),
-            resolvedPropertyMapping.aggregation()
-        );
+        return ImmutablePropertyMapping
+            .builder()
+            .propertyKey(resolvedPropertyMapping.propertyKey())
+            .neoPropertyKey(resolvedPropertyMapping.neoPropertyKey())
+            .defaultValue(resolvedPropertyMapping.defaultValue())
+            .aggregation(resolvedPropertyMapping.aggregation())
+            .encoding(resolvedPropertyMapping.encoding())
+            .build();
     }
 }
@@ -19,7 +19,9 @@
  */
 package org.neo4j.graphalgo;
 
+import org.immutables.value.Value;
 import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
 
 import static org.neo4j.graphalgo.ElementProjection.PROJECT_ALL;
 import static org.neo4j.graphalgo.compat.StatementConstantsProxy.ANY_RELATIONSHIP_TYPE;
@@ -33,12 +35,17 @@ public interface RelationshipProjectionMapping {
     }
 
     static RelationshipProjectionMapping all(Orientation orientation) {
+        return all(orientation, AdjacencyEncoding.VAR_LONG);
+    }
+
+    static RelationshipProjectionMapping all(Orientation orientation, AdjacencyEncoding adjacencyEncoding) {
         return ImmutableRelationshipProjectionMapping.builder()
             .relationshipType(RelationshipType.ALL_RELATIONSHIPS)
             .typeName(PROJECT_ALL)
             .orientation(orientation)
             .typeId(ANY_RELATIONSHIP_TYPE)
             .exists(true)
+            .adjacencyEncoding(adjacencyEncoding)
             .build();
     }
 
@@ -52,6 +59,12 @@ public interface RelationshipProjectionMapping {
 
     boolean exists();
 
+    @Value.Default
+    @Value.Parameter(false)
+    default AdjacencyEncoding adjacencyEncoding() {
+        return AdjacencyEncoding.VAR_LONG;
+    }
+
     static RelationshipProjectionMapping of(String typeName, int typeId) {
         return of(RelationshipType.of(typeName), typeName, Orientation.NATURAL, typeId);
     }
@@ -61,6 +74,16 @@ public interface RelationshipProjectionMapping {
         String typeName,
         Orientation orientation,
         int typeId
+    ) {
+        return of(relationshipType, typeName, orientation, typeId, AdjacencyEncoding.VAR_LONG);
+    }
+
+    static RelationshipProjectionMapping of(
+        RelationshipType relationshipType,
+        String typeName,
+        Orientation orientation,
+        int typeId,
+        AdjacencyEncoding adjacencyEncoding
     ) {
         return ImmutableRelationshipProjectionMapping.builder()
             .relationshipType(relationshipType)
@@ -68,6 +91,7 @@ public interface RelationshipProjectionMapping {
             .orientation(orientation)
             .typeId(typeId)
             .exists(typeId != NO_SUCH_RELATIONSHIP_TYPE)
+            .adjacencyEncoding(adjacencyEncoding)
             .build();
     }
 }
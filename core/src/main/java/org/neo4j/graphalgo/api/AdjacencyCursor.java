@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+/**
+ * A reusable cursor over the relationships of a single node.
+ *
+ * Instead of calling back into a consumer for every relationship, the cursor hands out
+ * the targets (and optionally the relationship properties) in batches. This keeps the
+ * decoding loop free of megamorphic callbacks and lets algorithms process neighbours in
+ * tight loops over plain arrays.
+ *
+ * A cursor is not thread-safe. Every thread should create its own cursor,
+ * e.g. from a {@link RelationshipIterator#concurrentCopy()}, and re-position it
+ * with {@link #init(long)} for every node.
+ */
+public interface AdjacencyCursor {
+
+    long NOT_FOUND = -1L;
+
+    /**
+     * A batch size that matches the block size of the compressed adjacency lists.
+     */
+    int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Positions the cursor before the first relationship of the given node.
+     *
+     * @return the number of relationships of the node
+     */
+    int init(long nodeId);
+
+    /**
+     * Returns the number of relationships that have not been consumed yet.
+     */
+    int remaining();
+
+    /**
+     * Returns true iff there is at least one more relationship to consume.
+     */
+    default boolean hasNext() {
+        return remaining() > 0;
+    }
+
+    /**
+     * Returns the next target without consuming it or {@link #NOT_FOUND} if the cursor is exhausted.
+     */
+    long peek();
+
+    /**
+     * Consumes and returns the next target or returns {@link #NOT_FOUND} if the cursor is exhausted.
+     */
+    long next();
+
+    /**
+     * Consumes the given number of relationships without returning them.
+     *
+     * @return the number of relationships that have actually been skipped
+     */
+    int skip(int count);
+
+    /**
+     * Consumes up to {@code targets.length} relationships and writes their targets into the given buffer.
+     *
+     * @return the number of targets that have been written, 0 iff the cursor is exhausted
+     */
+    int nextBatch(long[] targets);
+
+    /**
+     * Consumes up to {@code min(targets.length, properties.length)} relationships and writes their
+     * targets and property values into the given buffers. If the graph was loaded without a
+     * relationship property, the fallback value of the cursor is written instead.
+     *
+     * @return the number of relationships that have been written, 0 iff the cursor is exhausted
+     */
+    int nextBatch(long[] targets, double[] properties);
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency cursor for graphs without a native implementation.
+ * Collects the relationships of a node through {@link RelationshipIterator#forEachRelationship(long, double, RelationshipWithPropertyConsumer)}
+ * into reusable buffers.
+ */
+final class BufferedAdjacencyCursor implements AdjacencyCursor, RelationshipWithPropertyConsumer {
+
+    private final RelationshipIterator relationships;
+    private final double fallbackValue;
+
+    private long[] targets;
+    private double[] properties;
+    private int length;
+    private int position;
+
+    BufferedAdjacencyCursor(RelationshipIterator relationships, double fallbackValue) {
+        this.relationships = relationships;
+        this.fallbackValue = fallbackValue;
+        this.targets = new long[DEFAULT_BATCH_SIZE];
+        this.properties = new double[DEFAULT_BATCH_SIZE];
+    }
+
+    @Override
+    public int init(long nodeId) {
+        length = 0;
+        position = 0;
+        relationships.forEachRelationship(nodeId, fallbackValue, this);
+        return length;
+    }
+
+    @Override
+    public boolean accept(long sourceNodeId, long targetNodeId, double property) {
+        if (length == targets.length) {
+            targets = Arrays.copyOf(targets, length * 2);
+            properties = Arrays.copyOf(properties, length * 2);
+        }
+        targets[length] = targetNodeId;
+        properties[length] = property;
+        length++;
+        return true;
+    }
+
+    @Override
+    public int remaining() {
+        return length - position;
+    }
+
+    @Override
+    public long peek() {
+        return position < length ? targets[position] : NOT_FOUND;
+    }
+
+    @Override
+    public long next() {
+        return position < length ? targets[position++] : NOT_FOUND;
+    }
+
+    @Override
+    public int skip(int count) {
+        int skipped = Math.max(0, Math.min(count, remaining()));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int nextBatch(long[] targets) {
+        int count = Math.min(targets.length, remaining());
+        System.arraycopy(this.targets, position, targets, 0, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int nextBatch(long[] targets, double[] properties) {
+        int count = Math.min(Math.min(targets.length, properties.length), remaining());
+        System.arraycopy(this.targets, position, targets, 0, count);
+        System.arraycopy(this.properties, position, properties, 0, count);
+        position += count;
+        return count;
+    }
+}
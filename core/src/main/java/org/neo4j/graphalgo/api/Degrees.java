@@ -25,4 +25,14 @@ package org.neo4j.graphalgo.api;
 public interface Degrees {
 
     int degree(long nodeId);
+
+    /**
+     * Returns the number of relationships pointing to the given node.
+     * Only supported on graphs that have been loaded with an inverse index.
+     */
+    default int inverseDegree(long nodeId) {
+        throw new UnsupportedOperationException(
+            "Inverse degree is only supported on graphs that have been created with `indexInverse`."
+        );
+    }
 }
@@ -56,6 +56,11 @@ public abstract class FilterGraph implements Graph {
         graph.canRelease(canRelease);
     }
 
+    @Override
+    public boolean hasInverseIndex() {
+        return graph.hasInverseIndex();
+    }
+
     @Override
     public RelationshipIntersect intersection() {
         return graph.intersection();
@@ -71,6 +76,11 @@ public abstract class FilterGraph implements Graph {
         return graph.degree(nodeId);
     }
 
+    @Override
+    public int inverseDegree(long nodeId) {
+        return graph.inverseDegree(nodeId);
+    }
+
     @Override
     public long toMappedNodeId(long nodeId) {
         return graph.toMappedNodeId(nodeId);
@@ -136,6 +146,16 @@ public abstract class FilterGraph implements Graph {
         graph.forEachRelationship(nodeId, fallbackValue, consumer);
     }
 
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        graph.forEachInverseRelationship(nodeId, consumer);
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        graph.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+    }
+
     @Override
     public boolean exists(long sourceNodeId, long targetNodeId) {
         return graph.exists(sourceNodeId, targetNodeId);
@@ -53,6 +53,14 @@ public interface Graph extends IdMapping, Degrees, NodeIterator, BatchNodeIterab
 
     boolean isUndirected();
 
+    /**
+     * @return true iff incoming relationships can be traversed via
+     *         {@link #forEachInverseRelationship(long, RelationshipConsumer)} and {@link #inverseDegree(long)}.
+     */
+    default boolean hasInverseIndex() {
+        return false;
+    }
+
     boolean hasRelationshipProperty();
 
     void canRelease(boolean canRelease);
@@ -28,6 +28,9 @@ import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromCypherConfig;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.RelationshipImportStrategy;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.logging.Log;
@@ -87,6 +90,34 @@ public class GraphSetup {
         return createConfig.validateRelationships();
     }
 
+    public boolean indexInverse() {
+        return createConfig.indexInverse();
+    }
+
+    public boolean halfUndirectedStorage() {
+        return createConfig.halfUndirectedStorage();
+    }
+
+    public boolean denseDegrees() {
+        return createConfig.denseDegrees();
+    }
+
+    public NodeOrdering nodeOrdering() {
+        return createConfig.nodeOrdering();
+    }
+
+    public PageStorage pageStorage() {
+        return createConfig.pageStorage();
+    }
+
+    public RelationshipImportStrategy relationshipImportStrategy() {
+        return createConfig.relationshipImportStrategy();
+    }
+
+    public boolean parallelAggregation() {
+        return createConfig.parallelAggregation();
+    }
+
     public @NotNull String relationshipType() {
         return createConfig.relationshipProjections().typeFilter();
     }
@@ -166,6 +197,12 @@ public class GraphSetup {
         }
     }
 
+    public int relationshipQueryPartitions() {
+        return createConfig instanceof GraphCreateFromCypherConfig
+            ? ((GraphCreateFromCypherConfig) createConfig).relationshipQueryPartitions()
+            : 1;
+    }
+
     public Log log() {
         return log;
     }
@@ -20,6 +20,7 @@
 package org.neo4j.graphalgo.api;
 
 import com.carrotsearch.hppc.ObjectLongMap;
+import org.immutables.value.Value;
 import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipProjectionMapping;
 import org.neo4j.graphalgo.RelationshipType;
@@ -27,14 +28,20 @@ import org.neo4j.graphalgo.annotation.ValueClass;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.GraphDimensionsReader;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.huge.AdjacencyDegrees;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
 import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.huge.ImmutablePropertyCSR;
 import org.neo4j.graphalgo.core.huge.ImmutableTopologyCSR;
 import org.neo4j.graphalgo.core.loading.GraphStore;
+import org.neo4j.graphalgo.core.loading.HalfUndirectedStorage;
 import org.neo4j.graphalgo.core.loading.IdsAndProperties;
+import org.neo4j.graphalgo.core.loading.NodeOrderingStatistics;
+import org.neo4j.graphalgo.core.loading.NodeReordering;
 import org.neo4j.graphalgo.core.loading.RelationshipsBuilder;
+import org.neo4j.graphalgo.core.loading.StoreScanStatistics;
 import org.neo4j.graphalgo.core.utils.BatchingProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.mem.Assessable;
@@ -43,8 +50,10 @@ import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
@@ -63,6 +72,8 @@ public abstract class GraphStoreFactory implements Assessable {
     protected final ProgressLogger progressLogger;
     protected final GraphCreateConfig graphCreateConfig;
 
+    private Optional<NodeOrderingStatistics> nodeOrderingStatistics = Optional.empty();
+
     public GraphStoreFactory(GraphDatabaseAPI api, GraphSetup setup, GraphCreateConfig graphCreateConfig) {
         this(api, setup, graphCreateConfig, true);
     }
@@ -85,6 +96,14 @@ public abstract class GraphStoreFactory implements Assessable {
         return this.dimensions;
     }
 
+    /**
+     * Effect of the node ordering on the compressed adjacency lists,
+     * present once a reordered graph store has been created.
+     */
+    protected Optional<NodeOrderingStatistics> nodeOrderingStatistics() {
+        return nodeOrderingStatistics;
+    }
+
     protected ProgressLogger initProgressLogger() {
         long relationshipCount = dimensions.relationshipProjectionMappings().stream()
             .mapToLong(mapping -> {
@@ -115,16 +134,27 @@ public abstract class GraphStoreFactory implements Assessable {
         relationshipImportResult.builders().forEach((relationshipProjectionMapping, relationshipsBuilder) -> {
             AdjacencyList adjacencyList = relationshipsBuilder.adjacencyList();
             AdjacencyOffsets adjacencyOffsets = relationshipsBuilder.globalAdjacencyOffsets();
-            long relationshipCount = relationshipImportResult.counts().getOrDefault(relationshipProjectionMapping, 0L);
+            long storedCount = relationshipImportResult.counts().getOrDefault(relationshipProjectionMapping, 0L);
+            // undirected half storage counts every stored relationship in both directions
+            boolean halfStorage = setup.halfUndirectedStorage()
+                && relationshipProjectionMapping.orientation() == Orientation.UNDIRECTED;
+            long relationshipCount = halfStorage ? storedCount * 2 : storedCount;
+
+            Optional<RelationshipsBuilder> maybeInverse = relationshipsBuilder.inverse();
 
+            HugeGraph.TopologyCSR topology = ImmutableTopologyCSR.builder()
+                .list(adjacencyList)
+                .offsets(adjacencyOffsets)
+                .elementCount(relationshipCount)
+                .orientation(relationshipProjectionMapping.orientation())
+                .inverseList(maybeInverse.map(RelationshipsBuilder::adjacencyList))
+                .inverseOffsets(maybeInverse.map(RelationshipsBuilder::globalAdjacencyOffsets))
+                .build();
             relationships.put(
                 relationshipProjectionMapping.relationshipType(),
-                ImmutableTopologyCSR.of(
-                    adjacencyList,
-                    adjacencyOffsets,
-                    relationshipCount,
-                    relationshipProjectionMapping.orientation()
-                )
+                halfStorage
+                    ? HalfUndirectedStorage.of(idsAndProperties.idMap(), topology, setup.concurrency(), tracker)
+                    : topology
             );
 
             if (dimensions.relationshipProperties().hasMappings()) {
@@ -133,39 +163,131 @@ public abstract class GraphStoreFactory implements Assessable {
                     .enumerate()
                     .collect(Collectors.toMap(
                         propertyIdAndMapping -> propertyIdAndMapping.getTwo().propertyKey(),
-                        propertyIdAndMapping -> ImmutablePropertyCSR.of(
-                            relationshipsBuilder.properties(propertyIdAndMapping.getOne()),
-                            relationshipsBuilder.globalPropertyOffsets(propertyIdAndMapping.getOne()),
-                            relationshipCount,
-                            relationshipProjectionMapping.orientation(),
-                            propertyIdAndMapping.getTwo().defaultValue()
-                        )
+                        propertyIdAndMapping -> ImmutablePropertyCSR.builder()
+                            .list(relationshipsBuilder.properties(propertyIdAndMapping.getOne()))
+                            .offsets(relationshipsBuilder.globalPropertyOffsets(propertyIdAndMapping.getOne()))
+                            .elementCount(relationshipCount)
+                            .orientation(relationshipProjectionMapping.orientation())
+                            .defaultPropertyValue(propertyIdAndMapping.getTwo().defaultValue())
+                            .inverseList(maybeInverse.map(inverse -> inverse.properties(propertyIdAndMapping.getOne())))
+                            .inverseOffsets(maybeInverse.map(inverse -> inverse.globalPropertyOffsets(propertyIdAndMapping.getOne())))
+                            .build()
                     ));
                 relationshipProperties.put(relationshipProjectionMapping.relationshipType(), propertyMap);
             }
         });
 
+        if (setup.nodeOrdering() != NodeOrdering.NONE) {
+            NodeReordering.ReorderingResult reordered = NodeReordering.reorder(
+                setup.nodeOrdering(),
+                idsAndProperties.idMap(),
+                idsAndProperties.properties(),
+                relationships,
+                relationshipProperties,
+                setup.concurrency(),
+                threadPool,
+                tracker
+            );
+            NodeOrderingStatistics statistics = NodeOrderingStatistics.of(
+                setup.nodeOrdering(),
+                reordered.compressedSizeBefore(),
+                reordered.compressedSizeAfter()
+            );
+            nodeOrderingStatistics = Optional.of(statistics);
+            log.info(
+                "Node ordering %s: compressed adjacency size %d bytes -> %d bytes (ratio %.2f)",
+                statistics.nodeOrdering(),
+                statistics.compressedSizeBefore(),
+                statistics.compressedSizeAfter(),
+                statistics.compressionRatio()
+            );
+            return GraphStore.of(
+                reordered.idMap(),
+                reordered.nodeProperties(),
+                withDegrees(reordered.topologies(), reordered.idMap().nodeCount(), tracker),
+                reordered.relationshipProperties(),
+                tracker
+            );
+        }
+
         return GraphStore.of(
             idsAndProperties.idMap(),
             idsAndProperties.properties(),
-            relationships,
+            withDegrees(relationships, idsAndProperties.idMap().nodeCount(), tracker),
             relationshipProperties,
             tracker
         );
     }
 
+    private Map<RelationshipType, HugeGraph.TopologyCSR> withDegrees(
+        Map<RelationshipType, HugeGraph.TopologyCSR> topologies,
+        long nodeCount,
+        AllocationTracker tracker
+    ) {
+        if (!setup.denseDegrees()) {
+            return topologies;
+        }
+        Map<RelationshipType, HugeGraph.TopologyCSR> withDegrees = new HashMap<>(topologies.size());
+        topologies.forEach((relationshipType, topology) -> withDegrees.put(
+            relationshipType,
+            AdjacencyDegrees.withDegrees(topology, nodeCount, setup.concurrency(), threadPool, tracker)
+        ));
+        return withDegrees;
+    }
+
     @ValueClass
     public interface ImportResult {
         GraphDimensions dimensions();
 
         GraphStore graphStore();
 
+        /**
+         * Settings of the store scans that have created the graph store, by scanned store.
+         */
+        @Value.Default
+        @Value.Parameter(false)
+        default Map<String, StoreScanStatistics> storeScans() {
+            return Collections.emptyMap();
+        }
+
+        /**
+         * Effect of the node ordering on the compressed adjacency lists, empty if the nodes have not been reordered.
+         */
+        @Value.Parameter(false)
+        Optional<NodeOrderingStatistics> nodeOrdering();
+
         static ImportResult of(GraphDimensions dimensions, GraphStore graphStore) {
             return ImmutableImportResult.builder()
                 .dimensions(dimensions)
                 .graphStore(graphStore)
                 .build();
         }
+
+        static ImportResult of(
+            GraphDimensions dimensions,
+            GraphStore graphStore,
+            Map<String, StoreScanStatistics> storeScans
+        ) {
+            return ImmutableImportResult.builder()
+                .dimensions(dimensions)
+                .graphStore(graphStore)
+                .storeScans(storeScans)
+                .build();
+        }
+
+        static ImportResult of(
+            GraphDimensions dimensions,
+            GraphStore graphStore,
+            Map<String, StoreScanStatistics> storeScans,
+            Optional<NodeOrderingStatistics> nodeOrdering
+        ) {
+            return ImmutableImportResult.builder()
+                .dimensions(dimensions)
+                .graphStore(graphStore)
+                .storeScans(storeScans)
+                .nodeOrdering(nodeOrdering)
+                .build();
+        }
     }
 
     @ValueClass
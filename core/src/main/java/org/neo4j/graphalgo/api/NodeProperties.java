@@ -40,6 +40,54 @@ public interface NodeProperties {
         return nodeProperty(nodeId);
     }
 
+    /**
+     * Returns the property value for a node without converting it to a double.
+     * Integral values of a {@link ValueType#LONG} column are returned exactly.
+     */
+    default long longNodeProperty(long nodeId) {
+        return (long) nodeProperty(nodeId);
+    }
+
+    default float floatNodeProperty(long nodeId) {
+        return (float) nodeProperty(nodeId);
+    }
+
+    /**
+     * Returns the array value for a node or {@code null} if the node has no value.
+     * Only supported by array columns, float arrays are widened to double arrays.
+     */
+    default double[] doubleArrayNodeProperty(long nodeId) {
+        throw new UnsupportedOperationException(String.format(
+            "Node property of type %s can not be read as an array.",
+            valueType()
+        ));
+    }
+
+    /**
+     * Returns the array value for a node or {@code null} if the node has no value.
+     * Only supported by array columns, double arrays are narrowed to float arrays.
+     */
+    default float[] floatArrayNodeProperty(long nodeId) {
+        throw new UnsupportedOperationException(String.format(
+            "Node property of type %s can not be read as an array.",
+            valueType()
+        ));
+    }
+
+    /**
+     * @return the type of the stored values, which determines the accessor that reads them without conversion.
+     */
+    default ValueType valueType() {
+        return ValueType.DOUBLE;
+    }
+
+    /**
+     * @return true if only the existing values are stored, e.g. in a hash map, instead of one value per node.
+     */
+    default boolean isSparse() {
+        return false;
+    }
+
     /**
      * @return the maximum value contained in the mapping or an empty {@link OptionalLong} if the mapping is
      *         empty or the feature is not supported.
@@ -50,6 +98,7 @@ public interface NodeProperties {
 
     /**
      * Release internal data structures and return an estimate how many bytes were freed.
+     * Implementations remove the freed bytes from the tracker they have been allocated with.
      *
      * Note that the mapping is not usable afterwards.
      */
@@ -68,7 +117,7 @@ public interface NodeProperties {
         if (numberType == NumberType.FLOATING_POINT) {
             return (PropertyTranslator.OfDouble<NodeProperties>) NodeProperties::nodeProperty;
         } else if (numberType == NumberType.INTEGRAL) {
-            return (PropertyTranslator.OfLong<NodeProperties>) (data, nodeId) -> (long) data.nodeProperty(nodeId);
+            return (PropertyTranslator.OfLong<NodeProperties>) NodeProperties::longNodeProperty;
         } else {
             throw new UnsupportedOperationException("Can not provide a property translator for non-numeric types.");
         }
@@ -41,6 +41,50 @@ public interface RelationshipIterator extends RelationshipPredicate {
      */
     void forEachRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer);
 
+    /**
+     * Calls the given consumer function for every relationship pointing to the given node.
+     * The consumer receives the given node as first and the respective source node as second argument.
+     * Only supported on graphs that have been loaded with an inverse index.
+     *
+     * @param nodeId id of the node for which to iterate incoming relationships
+     * @param consumer relationship consumer function
+     */
+    default void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        throw new UnsupportedOperationException(
+            "Iterating inverse relationships is only supported on graphs that have been created with `indexInverse`."
+        );
+    }
+
+    /**
+     * Calls the given consumer function for every relationship pointing to the given node.
+     * If the graph was loaded with a relationship property, the property value
+     * of the relationship will be passed into the consumer. Otherwise the given
+     * fallback value will be used.
+     * Only supported on graphs that have been loaded with an inverse index.
+     *
+     * @param nodeId id of the node for which to iterate incoming relationships
+     * @param fallbackValue value used as relationship property if no properties were loaded
+     * @param consumer relationship consumer function
+     */
+    default void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        throw new UnsupportedOperationException(
+            "Iterating inverse relationships is only supported on graphs that have been created with `indexInverse`."
+        );
+    }
+
+    /**
+     * Creates a new cursor that returns the relationships of a node in batches.
+     * If the graph was loaded with a relationship property, the cursor returns the property values
+     * of the relationships. Otherwise the given fallback value will be used.
+     *
+     * The cursor is bound to this iterator and must not be shared between threads.
+     *
+     * @param fallbackValue value used as relationship property if no properties were loaded
+     */
+    default AdjacencyCursor adjacencyCursor(double fallbackValue) {
+        return new BufferedAdjacencyCursor(this, fallbackValue);
+    }
+
     /**
      * @return a copy of this iterator that reuses new cursors internally,
      *         so that iterations happen independent from other iterations.
@@ -19,33 +19,75 @@
  */
 package org.neo4j.graphalgo.api;
 
-import com.carrotsearch.hppc.BitSet;
 import org.neo4j.graphalgo.NodeLabel;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.util.Map;
 
 public class UnionNodeProperties implements NodeProperties {
 
     private final Map<NodeLabel, NodeProperties> labelToNodePropertiesMap;
-    private final Map<NodeLabel, BitSet> elementIdentifierToBitSetMap;
+    private final Map<NodeLabel, Roaring64NavigableMap> elementIdentifierToBitSetMap;
 
-    public UnionNodeProperties(Map<NodeLabel, NodeProperties> labelToNodePropertiesMap, Map<NodeLabel, BitSet> elementIdentifierToBitSetMap) {
+    public UnionNodeProperties(Map<NodeLabel, NodeProperties> labelToNodePropertiesMap, Map<NodeLabel, Roaring64NavigableMap> elementIdentifierToBitSetMap) {
         this.labelToNodePropertiesMap = labelToNodePropertiesMap;
         this.elementIdentifierToBitSetMap = elementIdentifierToBitSetMap;
     }
 
     @Override
     public double nodeProperty(long nodeId) {
+        NodeProperties nodeProperties = propertiesFor(nodeId);
+        return nodeProperties == null ? Double.NaN : nodeProperties.nodeProperty(nodeId);
+    }
+
+    @Override
+    public long longNodeProperty(long nodeId) {
+        NodeProperties nodeProperties = propertiesFor(nodeId);
+        return nodeProperties == null ? 0L : nodeProperties.longNodeProperty(nodeId);
+    }
+
+    @Override
+    public double[] doubleArrayNodeProperty(long nodeId) {
+        NodeProperties nodeProperties = propertiesFor(nodeId);
+        return nodeProperties == null ? null : nodeProperties.doubleArrayNodeProperty(nodeId);
+    }
+
+    @Override
+    public float[] floatArrayNodeProperty(long nodeId) {
+        NodeProperties nodeProperties = propertiesFor(nodeId);
+        return nodeProperties == null ? null : nodeProperties.floatArrayNodeProperty(nodeId);
+    }
+
+    /**
+     * The union has the most general type of all label columns.
+     */
+    @Override
+    public ValueType valueType() {
+        ValueType valueType = null;
+        for (NodeProperties nodeProperties : labelToNodePropertiesMap.values()) {
+            ValueType labelValueType = nodeProperties.valueType();
+            if (valueType == null || valueType.ordinal() < labelValueType.ordinal()) {
+                valueType = labelValueType;
+            }
+        }
+        return valueType == null ? ValueType.DOUBLE : valueType;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return labelToNodePropertiesMap.values().stream().anyMatch(NodeProperties::isSparse);
+    }
+
+    private NodeProperties propertiesFor(long nodeId) {
         for (NodeLabel label : elementIdentifierToBitSetMap.keySet()) {
-            if (elementIdentifierToBitSetMap.get(label).get(nodeId)) {
+            if (elementIdentifierToBitSetMap.get(label).contains(nodeId)) {
                 NodeProperties nodeProperties = labelToNodePropertiesMap.get(label);
                 if (nodeProperties != null) {
-                    return nodeProperties.nodeProperty(nodeId);
+                    return nodeProperties;
                 }
             }
         }
-
-        return Double.NaN;
+        return null;
     }
 
     @Override
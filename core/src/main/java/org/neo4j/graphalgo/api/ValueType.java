@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.api;
+
+/**
+ * The type of the values that are stored in a node property column.
+ * Within scalars and arrays, the types are ordered from the most specific to the most general one.
+ */
+public enum ValueType {
+    LONG,
+    DOUBLE,
+    FLOAT_ARRAY,
+    DOUBLE_ARRAY;
+
+    public boolean isArray() {
+        return this == FLOAT_ARRAY || this == DOUBLE_ARRAY;
+    }
+}
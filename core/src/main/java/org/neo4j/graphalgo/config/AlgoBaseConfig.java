@@ -58,6 +58,25 @@ public interface AlgoBaseConfig extends BaseConfig {
         return relationshipTypes().stream().map(RelationshipType::of).collect(Collectors.toList());
     }
 
+    /**
+     * If true, the adjacencies of multiple relationship types are merged into a single sorted adjacency
+     * that is cached in the graph store, instead of iterating the relationship types one after another.
+     */
+    @Value.Default
+    default boolean materializeUnion() {
+        return false;
+    }
+
+    /**
+     * If true, a node label filter is applied by copying the relationships between the filtered nodes
+     * into a compact adjacency that is cached in the graph store, instead of filtering every relationship
+     * during the traversal.
+     */
+    @Value.Default
+    default boolean materializeSubgraph() {
+        return false;
+    }
+
     @Value.Default
     default List<String> nodeLabels() {
         return Collections.singletonList(PROJECT_ALL);
@@ -25,7 +25,10 @@ import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.annotation.Configuration;
 import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.PageStorage;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.RelationshipImportStrategy;
 
 import java.time.LocalDateTime;
 
@@ -93,6 +96,141 @@ public interface GraphCreateConfig extends BaseConfig {
         return false;
     }
 
+    /**
+     * If true, directed relationship projections also store the adjacency in
+     * the opposite direction, so that a single projection can serve both
+     * outgoing and incoming traversals.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean indexInverse() {
+        return false;
+    }
+
+    /**
+     * If true, the degree of every node is stored in a dense column at import time,
+     * so that degree lookups do not need to access the adjacency lists.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean denseDegrees() {
+        return false;
+    }
+
+    /**
+     * Renumbers the loaded nodes to improve the locality and compression of the adjacency lists.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.NodeOrdering#parse")
+    default NodeOrdering nodeOrdering() {
+        return NodeOrdering.NONE;
+    }
+
+    /**
+     * Where the pages of the compressed adjacency lists are stored once the graph has been loaded.
+     * Off-heap storages keep large graphs out of the Java heap.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.PageStorage#parse")
+    default PageStorage pageStorage() {
+        return PageStorage.HEAP;
+    }
+
+    /**
+     * If true, undirected relationship projections store every relationship only once, towards the node
+     * with the higher id. Traversals still see every relationship in both directions, the neighbours with
+     * a lower id are indexed from the stored half when a graph is first traversed. Intersections, and
+     * therefore triangle counting, work on the stored half directly and never build that index.
+     * Filtered and unioned graphs are materialized with every relationship stored in both directions.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean halfUndirectedStorage() {
+        return false;
+    }
+
+    /**
+     * If true, node properties are not imported while the graph is created.
+     * Each property is imported from the store when its values are first accessed,
+     * which includes writing a snapshot of the graph.
+     * A property can only be imported as long as no transaction has been committed since the graph has been created,
+     * afterwards accessing it fails instead of mixing later writes into the projection.
+     * Graphs with properties that have not been imported yet are not spilled by the catalog.
+     * Only native projections support this, Cypher projections always load their properties.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean lazyNodeProperties() {
+        return false;
+    }
+
+    /**
+     * If true, the node set of this graph is reused by later named graphs of the same user that project
+     * the same node labels, so that they do not need to scan the node store again. Their node properties are reused
+     * as well if they project the same properties. Nodes are only reused while no transaction has been committed since
+     * they have been loaded. Only native projections without node ordering support this.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean shareNodes() {
+        return false;
+    }
+
+    /**
+     * Fraction of the node store pages whose nodes are sampled to estimate the size of the compressed adjacency lists.
+     * With a ratio of 0, the size is estimated from the average degree only.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.DoubleRange(min = 0, max = 1)
+    default double estimationSamplingRatio() {
+        return 0.0;
+    }
+
+    /**
+     * How native projections build the adjacency lists, see {@link RelationshipImportStrategy}.
+     * Cypher projections always use the buffered import.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    @Configuration.ConvertWith("org.neo4j.graphalgo.core.RelationshipImportStrategy#parse")
+    default RelationshipImportStrategy relationshipImportStrategy() {
+        return RelationshipImportStrategy.BUFFERED;
+    }
+
+    /**
+     * If true, native projections adjust the number of pages that are fetched at once and the number of threads
+     * that scan the store at the same time to the throughput that is measured while the store is scanned.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean adaptiveScanning() {
+        return false;
+    }
+
+    /**
+     * If true, native projections read the store files into the page cache before scanning them.
+     * This only pays off if the page cache is large enough to hold the scanned store files.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean warmUpPageCache() {
+        return false;
+    }
+
+    /**
+     * If true, native projections aggregate parallel relationships in a parallel pass over all nodes
+     * once the relationship store has been scanned.
+     * Without it, parallel relationships are aggregated while each adjacency page is compressed.
+     */
+    @Value.Default
+    @Value.Parameter(false)
+    default boolean parallelAggregation() {
+        return false;
+    }
+
     @Value.Default
     @Value.Parameter(false)
     default boolean isCypher() {
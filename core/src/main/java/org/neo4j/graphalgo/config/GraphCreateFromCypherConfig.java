@@ -80,6 +80,16 @@ public interface GraphCreateFromCypherConfig extends GraphCreateConfig {
         return Collections.emptyMap();
     }
 
+    /**
+     * Splits the relationship query into the given number of source id ranges that are loaded concurrently,
+     * each in its own transaction. The bounds of a range are passed to the query as the parameters
+     * {@code lowerId} (inclusive) and {@code upperId} (exclusive).
+     */
+    @Value.Default
+    default int relationshipQueryPartitions() {
+        return 1;
+    }
+
     @Override
     @Value.Default
     @Value.Parameter(false)
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.config;
+
+import org.immutables.value.Value;
+import org.neo4j.graphalgo.annotation.Configuration;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+
+@ValueClass
+@Configuration("GraphSnapshotConfigImpl")
+@SuppressWarnings("immutables:subtype")
+public interface GraphSnapshotConfig extends BaseConfig {
+
+    @Configuration.Parameter
+    String graphName();
+
+    /**
+     * Name of the snapshot file, which is resolved against the snapshot directory.
+     */
+    @Configuration.Parameter
+    String fileName();
+
+    @Value.Default
+    default int concurrency() {
+        return AlgoBaseConfig.DEFAULT_CONCURRENCY;
+    }
+
+    @Value.Check
+    default void validate() {
+        String graphName = graphName();
+        if (graphName.contains("/") || graphName.contains("\\")) {
+            throw new IllegalArgumentException(String.format(
+                "`graphName` must not contain path separators, but was `%s`.",
+                graphName
+            ));
+        }
+        String fileName = fileName();
+        if (fileName.isEmpty()
+            || fileName.contains("/")
+            || fileName.contains("\\")
+            || fileName.equals(".")
+            || fileName.equals("..")) {
+            throw new IllegalArgumentException(String.format(
+                "`fileName` must be the name of a file in the snapshot directory, but was `%s`.",
+                fileName
+            ));
+        }
+    }
+
+    static GraphSnapshotConfig of(String username, String graphName, String fileName, CypherMapWrapper config) {
+        return new GraphSnapshotConfigImpl(graphName, fileName, username, config);
+    }
+}
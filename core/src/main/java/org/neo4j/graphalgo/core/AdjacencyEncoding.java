@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Encoding of the delta-compressed targets within each block of an adjacency list.
+ */
+public enum AdjacencyEncoding {
+    /**
+     * Every delta is stored as a variable-length long, using 7 bits per byte.
+     */
+    VAR_LONG,
+    /**
+     * Frame-of-reference encoding: all deltas of a block but the first are bit-packed
+     * with the bit width of the largest one. Blocks are decoded without branching on
+     * every byte, at the cost of some space for blocks with a few large deltas.
+     */
+    PACKED;
+
+    public static AdjacencyEncoding lookup(String name) {
+        try {
+            return AdjacencyEncoding.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            String availableEncodings = Arrays
+                .stream(AdjacencyEncoding.values())
+                .map(AdjacencyEncoding::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(String.format(
+                "Adjacency encoding `%s` is not supported. Must be one of: %s.",
+                name,
+                availableEncodings
+            ));
+        }
+    }
+
+    public static AdjacencyEncoding parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof String) {
+            return lookup((String) object);
+        }
+        if (object instanceof AdjacencyEncoding) {
+            return (AdjacencyEncoding) object;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.graphalgo.annotation.ValueClass;
+
+/**
+ * Size of the compressed adjacency lists of a sample of nodes.
+ * Extrapolates the size of the adjacency lists of all nodes together with a confidence interval.
+ */
+@ValueClass
+public interface AdjacencySample {
+
+    // two-sided 95% confidence interval of a normal distribution
+    double Z_SCORE = 1.96;
+
+    long sampledNodes();
+
+    /**
+     * Mean size of the compressed adjacency list of a sampled node in bytes.
+     */
+    double meanBytes();
+
+    /**
+     * Sample variance of the size of the compressed adjacency list of a sampled node.
+     */
+    double varianceBytes();
+
+    default long expectedBytes(long nodeCount) {
+        return (long) Math.ceil(meanBytes() * nodeCount);
+    }
+
+    /**
+     * Half the width of the confidence interval around the expected size.
+     * The finite population correction narrows the interval to zero when every node has been sampled.
+     */
+    default long marginOfError(long nodeCount) {
+        long sampledNodes = sampledNodes();
+        if (sampledNodes == 0 || nodeCount == 0) {
+            return 0L;
+        }
+        double populationCorrection = Math.max(0.0, 1.0 - (double) sampledNodes / nodeCount);
+        double standardError = nodeCount * Math.sqrt(varianceBytes() / sampledNodes * populationCorrection);
+        return (long) Math.ceil(Z_SCORE * standardError);
+    }
+
+    static AdjacencySample fromSums(long sampledNodes, double sumBytes, double sumSquaredBytes) {
+        if (sampledNodes == 0) {
+            return ImmutableAdjacencySample.of(0L, 0.0, 0.0);
+        }
+        double mean = sumBytes / sampledNodes;
+        double variance = sampledNodes > 1
+            ? Math.max(0.0, (sumSquaredBytes - sampledNodes * mean * mean) / (sampledNodes - 1))
+            : 0.0;
+        return ImmutableAdjacencySample.of(sampledNodes, mean, variance);
+    }
+}
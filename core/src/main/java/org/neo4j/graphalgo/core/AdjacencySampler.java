@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongSet;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipProjectionMapping;
+import org.neo4j.graphalgo.RelationshipProjectionMappings;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.neo4j.graphalgo.compat.StatementConstantsProxy.ANY_RELATIONSHIP_TYPE;
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodedVLongSize;
+import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+
+/**
+ * Measures the compressed adjacency lists of the nodes on an evenly spread fraction of the node store pages.
+ * Every sampled node contributes its complete adjacency list, which is delta encoded the way the importer does it.
+ * Neighbour ids are scaled from the Neo4j id space to the denser id space of the loaded graph.
+ *
+ * Parallel relationships are not aggregated and neighbours are not filtered by label,
+ * so the sample tends to overestimate graphs that are loaded with an aggregation or with label filters.
+ */
+final class AdjacencySampler {
+
+    // node records are 15 bytes, a page holds 8 KiB
+    static final int NODES_PER_PAGE = 8192 / 15;
+
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+    private final Read dataRead;
+    private final CursorFactory cursors;
+    private final LongSet nodeLabelIds;
+    private final RelationshipProjectionMappings relationshipProjectionMappings;
+    private final long nodeCount;
+    private final long highestNeoId;
+
+    AdjacencySampler(
+        Read dataRead,
+        CursorFactory cursors,
+        LongSet nodeLabelIds,
+        RelationshipProjectionMappings relationshipProjectionMappings,
+        long nodeCount,
+        long highestNeoId
+    ) {
+        this.dataRead = dataRead;
+        this.cursors = cursors;
+        this.nodeLabelIds = nodeLabelIds;
+        this.relationshipProjectionMappings = relationshipProjectionMappings;
+        this.nodeCount = nodeCount;
+        this.highestNeoId = highestNeoId;
+    }
+
+    Map<RelationshipType, Map<Orientation, AdjacencySample>> sample(double samplingRatio) {
+        List<RelationshipProjectionMapping> mappings = new ArrayList<>();
+        relationshipProjectionMappings.forEach(mapping -> {
+            if (mapping.exists()) {
+                mappings.add(mapping);
+            }
+        });
+        if (mappings.isEmpty() || highestNeoId == 0L || samplingRatio <= 0.0) {
+            return Map.of();
+        }
+
+        // sums of sizes and squared sizes per mapping and stored orientation
+        double[][] sums = new double[mappings.size()][ORIENTATIONS.length];
+        double[][] squaredSums = new double[mappings.size()][ORIENTATIONS.length];
+        long sampledNodes = 0L;
+
+        LongArrayList[] neighbours = new LongArrayList[ORIENTATIONS.length];
+        Arrays.setAll(neighbours, i -> new LongArrayList());
+
+        long pageCount = ceilDiv(highestNeoId, NODES_PER_PAGE);
+        long sampledPages = Math.min(pageCount, Math.max(1L, (long) Math.ceil(pageCount * samplingRatio)));
+
+        try (NodeCursor nodeCursor = cursors.allocateNodeCursor();
+             RelationshipTraversalCursor relationshipCursor = cursors.allocateRelationshipTraversalCursor()) {
+            for (long sampledPage = 0; sampledPage < sampledPages; sampledPage++) {
+                long page = sampledPage * pageCount / sampledPages;
+                long startNode = page * NODES_PER_PAGE;
+                long endNode = Math.min(highestNeoId, startNode + NODES_PER_PAGE);
+                for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                    dataRead.singleNode(nodeId, nodeCursor);
+                    if (!nodeCursor.next() || !hasProjectedLabel(nodeCursor)) {
+                        continue;
+                    }
+                    sampledNodes++;
+                    for (int mappingIndex = 0; mappingIndex < mappings.size(); mappingIndex++) {
+                        collectNeighbours(nodeId, nodeCursor, relationshipCursor, mappings.get(mappingIndex).typeId(), neighbours);
+                        for (Orientation orientation : ORIENTATIONS) {
+                            double bytes = compressedSize(neighbours[orientation.ordinal()]);
+                            sums[mappingIndex][orientation.ordinal()] += bytes;
+                            squaredSums[mappingIndex][orientation.ordinal()] += bytes * bytes;
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<RelationshipType, Map<Orientation, AdjacencySample>> samples = new HashMap<>();
+        for (int mappingIndex = 0; mappingIndex < mappings.size(); mappingIndex++) {
+            Map<Orientation, AdjacencySample> samplesByOrientation = new EnumMap<>(Orientation.class);
+            for (Orientation orientation : ORIENTATIONS) {
+                samplesByOrientation.put(orientation, AdjacencySample.fromSums(
+                    sampledNodes,
+                    sums[mappingIndex][orientation.ordinal()],
+                    squaredSums[mappingIndex][orientation.ordinal()]
+                ));
+            }
+            samples.put(mappings.get(mappingIndex).relationshipType(), samplesByOrientation);
+        }
+        return samples;
+    }
+
+    private boolean hasProjectedLabel(NodeCursor nodeCursor) {
+        if (nodeLabelIds.isEmpty()) {
+            return true;
+        }
+        for (LongCursor labelId : nodeLabelIds) {
+            if (nodeCursor.hasLabel((int) labelId.value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the neighbours of the node for every orientation the adjacency list can be stored in.
+     */
+    private void collectNeighbours(
+        long nodeId,
+        NodeCursor nodeCursor,
+        RelationshipTraversalCursor relationshipCursor,
+        int typeId,
+        LongArrayList[] neighbours
+    ) {
+        for (LongArrayList list : neighbours) {
+            list.clear();
+        }
+        nodeCursor.allRelationships(relationshipCursor);
+        while (relationshipCursor.next()) {
+            if (typeId != ANY_RELATIONSHIP_TYPE && relationshipCursor.type() != typeId) {
+                continue;
+            }
+            long source = relationshipCursor.sourceNodeReference();
+            long target = relationshipCursor.targetNodeReference();
+            if (source == nodeId) {
+                neighbours[Orientation.NATURAL.ordinal()].add(target);
+                neighbours[Orientation.UNDIRECTED.ordinal()].add(target);
+            }
+            if (target == nodeId) {
+                neighbours[Orientation.REVERSE.ordinal()].add(source);
+                neighbours[Orientation.UNDIRECTED.ordinal()].add(source);
+            }
+        }
+    }
+
+    /**
+     * Size of the compressed adjacency list with the given neighbours, see {@link AdjacencyList}.
+     */
+    private long compressedSize(LongArrayList neighbours) {
+        int degree = neighbours.size();
+        if (degree == 0) {
+            return 0L;
+        }
+        long[] targets = neighbours.toArray();
+        for (int i = 0; i < degree; i++) {
+            // the loaded graph assigns consecutive ids to the projected nodes
+            targets[i] = (long) ((double) targets[i] * nodeCount / highestNeoId);
+        }
+        Arrays.sort(targets);
+
+        long bytes = Integer.BYTES + AdjacencyList.blockIndexSize(degree);
+        long previous = 0L;
+        for (long target : targets) {
+            bytes += encodedVLongSize(target - previous);
+            previous = target;
+        }
+        return bytes;
+    }
+}
@@ -24,10 +24,12 @@ import com.carrotsearch.hppc.LongSet;
 import org.immutables.value.Value;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipProjectionMappings;
 import org.neo4j.graphalgo.RelationshipType;
 import org.neo4j.graphalgo.ResolvedPropertyMappings;
 import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -76,6 +78,15 @@ public interface GraphDimensions {
         return RelationshipProjectionMappings.all();
     }
 
+    /**
+     * Sampled sizes of the compressed adjacency lists, by relationship type and the orientation they are stored in.
+     * Only present if the graph is created with an `estimationSamplingRatio`.
+     */
+    @Value.Default
+    default Map<RelationshipType, Map<Orientation, AdjacencySample>> adjacencySamples() {
+        return Collections.emptyMap();
+    }
+
     default Set<NodeLabel> nodeLabels() {
         var nodeLabels = new HashSet<NodeLabel>();
         if (labelTokenNodeLabelMapping() != null) {
@@ -102,4 +113,18 @@ public interface GraphDimensions {
         }
         return aggregations;
     }
+
+    /**
+     * Creates new codecs for storing the relationship properties, one per property mapping.
+     * Codecs may hold state that is collected during import and must not be shared between relationship types.
+     */
+    default RelationshipPropertyCodec[] relationshipPropertyCodecs() {
+        return relationshipProperties().stream()
+            .map(property -> RelationshipPropertyCodec.of(
+                property.encoding(),
+                property.propertyKey(),
+                property.defaultValue()
+            ))
+            .toArray(RelationshipPropertyCodec[]::new);
+    }
 }
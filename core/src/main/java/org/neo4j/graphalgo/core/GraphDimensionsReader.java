@@ -91,14 +91,16 @@ public final class GraphDimensionsReader extends StatementFunction<GraphDimensio
 
                 String typeName = relationshipProjection.type();
                 Orientation orientation = relationshipProjection.orientation();
+                AdjacencyEncoding adjacencyEncoding = relationshipProjection.adjacencyEncoding();
 
                 RelationshipProjectionMapping mapping = relationshipProjection.projectAll()
-                    ? RelationshipProjectionMapping.all(orientation)
+                    ? RelationshipProjectionMapping.all(orientation, adjacencyEncoding)
                     : RelationshipProjectionMapping.of(
                         relationshipType,
                         typeName,
                         orientation,
-                        tokenRead.relationshipType(typeName)
+                        tokenRead.relationshipType(typeName),
+                        adjacencyEncoding
                     );
                 mappingsBuilder.addMapping(mapping);
             });
@@ -124,6 +126,15 @@ public final class GraphDimensionsReader extends StatementFunction<GraphDimensio
         );
         long maxRelCount = relationshipCounts.values().stream().mapToLong(Long::longValue).sum();
 
+        Map<RelationshipType, Map<Orientation, AdjacencySample>> adjacencySamples = new AdjacencySampler(
+            dataRead,
+            transaction.cursors(),
+            labelTokenNodeLabelMappings.keys(),
+            relationshipProjectionMappings,
+            finalNodeCount,
+            allNodesCount
+        ).sample(graphCreateConfig.estimationSamplingRatio());
+
         return ImmutableGraphDimensions.builder()
                 .nodeCount(finalNodeCount)
                 .highestNeoId(allNodesCount)
@@ -134,6 +145,7 @@ public final class GraphDimensionsReader extends StatementFunction<GraphDimensio
                 .nodePropertyTokens(nodePropertyTokens)
                 .relationshipProjectionMappings(relationshipProjectionMappings)
                 .relationshipProperties(relProperties)
+                .adjacencySamples(adjacencySamples)
                 .build();
     }
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Order in which nodes are assigned internal ids after a graph has been loaded.
+ * A good ordering places adjacent nodes close to each other, which yields smaller
+ * deltas in the compressed adjacency lists and better cache locality during traversals.
+ */
+public enum NodeOrdering {
+    /**
+     * Keep the order in which nodes have been loaded.
+     */
+    NONE,
+    /**
+     * Nodes are ordered by descending degree, so that high degree nodes receive the smallest ids.
+     */
+    DEGREE,
+    /**
+     * Reverse Cuthill-McKee ordering: nodes are numbered in breadth-first order,
+     * starting from a low degree node and visiting neighbours by ascending degree.
+     */
+    BFS,
+    /**
+     * Nodes of the same community are assigned consecutive ids.
+     * Communities are detected with a few rounds of label propagation.
+     */
+    COMMUNITY;
+
+    public static NodeOrdering lookup(String name) {
+        try {
+            return NodeOrdering.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            String availableOrderings = Arrays
+                .stream(NodeOrdering.values())
+                .map(NodeOrdering::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(String.format(
+                "Node ordering `%s` is not supported. Must be one of: %s.",
+                name,
+                availableOrderings
+            ));
+        }
+    }
+
+    public static NodeOrdering parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof String) {
+            return lookup((String) object);
+        }
+        if (object instanceof NodeOrdering) {
+            return (NodeOrdering) object;
+        }
+        return null;
+    }
+}
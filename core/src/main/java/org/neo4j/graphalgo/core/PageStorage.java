@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Storage backend for the pages of compressed adjacency lists and relationship properties.
+ */
+public enum PageStorage {
+    /**
+     * Pages are byte arrays on the Java heap.
+     */
+    HEAP,
+    /**
+     * Pages are stored in direct memory outside of the Java heap.
+     */
+    DIRECT,
+    /**
+     * Pages are stored in a temporary file that is mapped into memory.
+     * The operating system is free to evict pages that are not in use.
+     */
+    MAPPED;
+
+    public static PageStorage lookup(String name) {
+        try {
+            return PageStorage.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            String availableStorages = Arrays
+                .stream(PageStorage.values())
+                .map(PageStorage::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(String.format(
+                "Page storage `%s` is not supported. Must be one of: %s.",
+                name,
+                availableStorages
+            ));
+        }
+    }
+
+    public static PageStorage parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof String) {
+            return lookup((String) object);
+        }
+        if (object instanceof PageStorage) {
+            return (PageStorage) object;
+        }
+        return null;
+    }
+}
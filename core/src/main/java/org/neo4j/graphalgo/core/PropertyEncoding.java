@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Storage encoding of a relationship property.
+ * Values are always exposed as {@code double}, the encoding only determines how they are stored.
+ */
+public enum PropertyEncoding {
+    /**
+     * 8 bytes per value, lossless.
+     */
+    DOUBLE(Long.BYTES),
+    /**
+     * 4 bytes per value, values are narrowed to single precision.
+     */
+    FLOAT(Float.BYTES),
+    /**
+     * 4 bytes per value, values are stored as fixed-point numbers
+     * with {@link #QUANTIZATION_SCALE} fractional precision.
+     */
+    QUANTIZED(Integer.BYTES),
+    /**
+     * 1 byte per value, values are stored as an index into a dictionary
+     * of at most {@link #MAX_DICTIONARY_SIZE} distinct values.
+     */
+    DICTIONARY(Byte.BYTES),
+    /**
+     * No storage per value, all values must be equal to the default value of the property.
+     */
+    CONSTANT(0);
+
+    public static final double QUANTIZATION_SCALE = 10_000D;
+    public static final int MAX_DICTIONARY_SIZE = 256;
+
+    private final int bytesPerValue;
+
+    PropertyEncoding(int bytesPerValue) {
+        this.bytesPerValue = bytesPerValue;
+    }
+
+    public int bytesPerValue() {
+        return bytesPerValue;
+    }
+
+    public static PropertyEncoding lookup(String name) {
+        try {
+            return PropertyEncoding.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            String availableEncodings = Arrays
+                .stream(PropertyEncoding.values())
+                .map(PropertyEncoding::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(String.format(
+                "Property encoding `%s` is not supported. Must be one of: %s.",
+                name,
+                availableEncodings
+            ));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * How native projections build the compressed adjacency lists from the relationship store.
+ */
+public enum RelationshipImportStrategy {
+    /**
+     * Relationships are collected in growing per-node buffers during a single scan,
+     * which are compressed once the scan has finished.
+     */
+    BUFFERED,
+    /**
+     * A first scan counts the compressed size of the relationships of every node, so that the second scan
+     * can collect them in compressed buffers of the counted size, without growth slack or copies.
+     * Trades an additional scan for a lower peak memory.
+     */
+    COUNTING;
+
+    public static RelationshipImportStrategy lookup(String name) {
+        try {
+            return RelationshipImportStrategy.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            String availableStrategies = Arrays
+                .stream(RelationshipImportStrategy.values())
+                .map(RelationshipImportStrategy::name)
+                .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException(String.format(
+                "Relationship import strategy `%s` is not supported. Must be one of: %s.",
+                name,
+                availableStrategies
+            ));
+        }
+    }
+
+    public static RelationshipImportStrategy parse(Object object) {
+        if (object == null) {
+            return null;
+        }
+        if (object instanceof String) {
+            return lookup((String) object);
+        }
+        if (object instanceof RelationshipImportStrategy) {
+            return (RelationshipImportStrategy) object;
+        }
+        return null;
+    }
+}
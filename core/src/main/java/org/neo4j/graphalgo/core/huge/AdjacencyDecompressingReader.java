@@ -19,23 +19,39 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
 import org.neo4j.graphalgo.core.loading.MutableIntValue;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import static org.neo4j.graphalgo.core.huge.PackedDecoding.decodeDeltaPacked;
 import static org.neo4j.graphalgo.core.huge.VarLongDecoding.decodeDeltaVLongs;
 
 final class AdjacencyDecompressingReader {
 
-    private static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_SIZE = AdjacencyList.BLOCK_SIZE;
 
     private final long[] block;
+    private final boolean packed;
     private int pos;
+    // either the heap page or the off-heap page of the current adjacency is set
     private byte[] array;
+    private ByteBuffer buffer;
     private int offset;
 
+    private int degree;
+    private int blockIndexOffset;
+    private int dataOffset;
+    private int currentBlock;
+
     AdjacencyDecompressingReader() {
+        this(AdjacencyEncoding.VAR_LONG);
+    }
+
+    AdjacencyDecompressingReader(AdjacencyEncoding encoding) {
         this.block = new long[CHUNK_SIZE];
+        this.packed = encoding == AdjacencyEncoding.PACKED;
     }
 
     //@formatter:off
@@ -64,13 +80,36 @@ final class AdjacencyDecompressingReader {
         System.arraycopy(other.block, 0, block, 0, CHUNK_SIZE);
         pos = other.pos;
         array = other.array;
+        buffer = other.buffer;
         offset = other.offset;
+        degree = other.degree;
+        blockIndexOffset = other.blockIndexOffset;
+        dataOffset = other.dataOffset;
+        currentBlock = other.currentBlock;
     }
 
     int reset(byte[] adjacencyPage, int offset) {
         this.array = adjacencyPage;
-        int numAdjacencies = readInt(adjacencyPage, offset); // offset should not be 0
-        this.offset = decodeDeltaVLongs(0L, adjacencyPage, Integer.BYTES + offset, Math.min(numAdjacencies, CHUNK_SIZE), block);
+        this.buffer = null;
+        return reset(offset);
+    }
+
+    /**
+     * Decodes the adjacency directly from the given off-heap page, without copying it to the heap.
+     */
+    int reset(ByteBuffer adjacencyPage, int offset) {
+        this.array = null;
+        this.buffer = adjacencyPage;
+        return reset(offset);
+    }
+
+    private int reset(int offset) {
+        int numAdjacencies = readInt(offset); // offset should not be 0
+        this.degree = numAdjacencies;
+        this.blockIndexOffset = Integer.BYTES + offset;
+        this.dataOffset = blockIndexOffset + AdjacencyList.blockIndexSize(numAdjacencies);
+        this.currentBlock = 0;
+        this.offset = decode(0L, dataOffset, Math.min(numAdjacencies, CHUNK_SIZE));
         pos = 0;
         return numAdjacencies;
     }
@@ -83,22 +122,79 @@ final class AdjacencyDecompressingReader {
         return readNextBlock(remaining);
     }
 
+    /**
+     * Return the next target without consuming it.
+     * The caller must ensure that there is at least one more target left.
+     */
+    long peek(int remaining) {
+        if (pos >= CHUNK_SIZE) {
+            readNextBlock(remaining);
+            pos = 0;
+        }
+        return block[pos];
+    }
+
+    /**
+     * Copy the next {@code count} targets into the given array, decoding further blocks as needed.
+     * The caller must ensure that there are at least {@code count} targets left.
+     */
+    void nextBatch(long[] targets, int count, int remaining) {
+        int copied = 0;
+        while (copied < count) {
+            if (pos >= CHUNK_SIZE) {
+                readNextBlock(remaining - copied);
+                pos = 0;
+            }
+            int length = Math.min(count - copied, CHUNK_SIZE - pos);
+            System.arraycopy(block, pos, targets, copied, length);
+            pos += length;
+            copied += length;
+        }
+    }
+
     private long readNextBlock(int remaining) {
         pos = 1;
-        offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, Math.min(remaining, CHUNK_SIZE), block);
+        currentBlock++;
+        offset = decode(block[CHUNK_SIZE - 1], offset, Math.min(remaining, CHUNK_SIZE));
         return block[0];
     }
 
+    /**
+     * Skip {@code count} targets and return the next one.
+     * The caller must ensure that there are more than {@code count} targets left.
+     */
+    long advanceBy(int count) {
+        int targetPos = pos + count;
+        if (targetPos >= CHUNK_SIZE) {
+            int targetBlock = currentBlock + targetPos / CHUNK_SIZE;
+            decodeBlock(targetBlock);
+            targetPos %= CHUNK_SIZE;
+        }
+        pos = 1 + targetPos;
+        return block[targetPos];
+    }
+
     long skipUntil(long target, int remaining, MutableIntValue consumed) {
         int pos = this.pos;
         long[] block = this.block;
         int available = remaining;
 
+        // jump directly to the block that contains the first target larger than `target`
+        if (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] <= target) {
+            int targetBlock = searchBlock(target, true);
+            if (targetBlock > currentBlock) {
+                available -= (targetBlock - currentBlock) * CHUNK_SIZE - pos;
+                decodeBlock(targetBlock);
+                pos = 0;
+            }
+        }
+
         // skip blocks until we have either not enough available to decode or have advanced far enough
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] <= target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            offset = decode(block[CHUNK_SIZE - 1], offset, needToDecode);
+            currentBlock++;
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -121,11 +217,22 @@ final class AdjacencyDecompressingReader {
         long[] block = this.block;
         int available = remaining;
 
+        // jump directly to the block that contains the first target larger than or equal to `target`
+        if (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] < target) {
+            int targetBlock = searchBlock(target, false);
+            if (targetBlock > currentBlock) {
+                available -= (targetBlock - currentBlock) * CHUNK_SIZE - pos;
+                decodeBlock(targetBlock);
+                pos = 0;
+            }
+        }
+
         // skip blocks until we have either not enough available to decode or have advanced far enough
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] < target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            offset = decode(block[CHUNK_SIZE - 1], offset, needToDecode);
+            currentBlock++;
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -139,6 +246,66 @@ final class AdjacencyDecompressingReader {
         return block[targetPos];
     }
 
+    /**
+     * Binary search over the block index for the last block after the current one
+     * whose preceding target is smaller than {@code target} (or equal to it, if {@code inclusive}).
+     * Returns the current block if there is no such block.
+     */
+    private int searchBlock(long target, boolean inclusive) {
+        int numberOfBlocks = (degree + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int low = currentBlock + 1;
+        int high = numberOfBlocks - 1;
+        int found = currentBlock;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long precedingTarget = readLong(blockIndexEntry(mid));
+            if (precedingTarget < target || (inclusive && precedingTarget == target)) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void decodeBlock(int blockId) {
+        int entry = blockIndexEntry(blockId);
+        long precedingTarget = readLong(entry);
+        int blockOffset = dataOffset + readInt(entry + Long.BYTES);
+        int targetsInBlock = Math.min(CHUNK_SIZE, degree - blockId * CHUNK_SIZE);
+        offset = decode(precedingTarget, blockOffset, targetsInBlock);
+        currentBlock = blockId;
+    }
+
+    /**
+     * Decodes the block starting at {@code offset} into {@link #block} and returns the offset of the next block.
+     */
+    private int decode(long startValue, int offset, int count) {
+        if (array == null) {
+            return packed
+                ? decodeDeltaPacked(startValue, buffer, offset, count, block)
+                : decodeDeltaVLongs(startValue, buffer, offset, count, block);
+        }
+        if (packed) {
+            return decodeDeltaPacked(startValue, array, offset, count, block);
+        }
+        return decodeDeltaVLongs(startValue, array, offset, count, block);
+    }
+
+    private int readInt(int offset) {
+        return array == null ? buffer.getInt(offset) : readInt(array, offset);
+    }
+
+    private long readLong(int offset) {
+        return array == null ? buffer.getLong(offset) : readLong(array, offset);
+    }
+
+    private int blockIndexEntry(int blockId) {
+        // the first block has no index entry
+        return blockIndexOffset + (blockId - 1) * AdjacencyList.BLOCK_INDEX_ENTRY_SIZE;
+    }
+
     private int findPosStrictlyGreaterInBlock(long target, int pos, int limit, long[] block) {
         return findPosInBlock(1L + target, pos, limit, block);
     }
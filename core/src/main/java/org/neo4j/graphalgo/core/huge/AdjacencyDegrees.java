@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds dense degree columns for compressed adjacency lists.
+ * With a degree column, {@link HugeGraph#degree(long)} is a single array lookup
+ * and does not need to read the degree header out of the adjacency pages.
+ */
+public final class AdjacencyDegrees {
+
+    private AdjacencyDegrees() {}
+
+    /**
+     * Returns a copy of the given topology that carries the degree columns of its adjacency lists.
+     * Topologies with undirected half storage already carry their degree column and are returned as they are.
+     */
+    public static HugeGraph.TopologyCSR withDegrees(
+        HugeGraph.TopologyCSR topology,
+        long nodeCount,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        if (topology.lowerNeighbours().isPresent()) {
+            return topology;
+        }
+        ImmutableTopologyCSR.Builder builder = ImmutableTopologyCSR.builder()
+            .from(topology)
+            .degrees(compute(topology.list(), topology.offsets(), nodeCount, concurrency, executor, tracker));
+        if (topology.inverseList().isPresent() && topology.inverseOffsets().isPresent()) {
+            builder.inverseDegrees(compute(
+                topology.inverseList().get(),
+                topology.inverseOffsets().get(),
+                nodeCount,
+                concurrency,
+                executor,
+                tracker
+            ));
+        }
+        return builder.build();
+    }
+
+    public static HugeIntArray compute(
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        long nodeCount,
+        int concurrency,
+        ExecutorService executor,
+        AllocationTracker tracker
+    ) {
+        HugeIntArray degrees = HugeIntArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executor, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long offset = adjacencyOffsets.get(nodeId);
+                degrees.set(nodeId, offset == 0L ? 0 : adjacencyList.getDegree(offset));
+            }
+        });
+        return degrees;
+    }
+}
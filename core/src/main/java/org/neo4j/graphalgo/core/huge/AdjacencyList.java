@@ -19,14 +19,25 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
+import org.neo4j.graphalgo.core.AdjacencySample;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.PropertyEncoding;
 import org.neo4j.graphalgo.core.loading.MutableIntValue;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+
 import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
 import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodedVLongSize;
 import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
@@ -39,7 +50,19 @@ public final class AdjacencyList {
     public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
     public static final long PAGE_MASK = PAGE_SIZE - 1;
 
+    /**
+     * Number of targets that are delta-decoded together.
+     * Adjacencies with more than one block are prefixed with a block index that stores,
+     * for every block but the first, the last target of the preceding block and the
+     * byte offset of the block relative to the start of the compressed targets.
+     */
+    public static final int BLOCK_SIZE = 64;
+    public static final int BLOCK_INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
     private final long allocatedMemory;
+    private final RelationshipPropertyCodec propertyCodec;
+    private final AdjacencyEncoding adjacencyEncoding;
+    private final OffHeapPages offHeapPages;
     private byte[][] pages;
 
     public static MemoryEstimation compressedMemoryEstimation(long avgDegree, long nodeCount) {
@@ -85,20 +108,66 @@ public final class AdjacencyList {
         });
     }
 
+    /**
+     * Estimates the adjacency lists of the given relationship type, stored in the given orientation.
+     * If the adjacency has been sampled, the estimation is the confidence interval around the extrapolated sample,
+     * otherwise it is the range between the best and worst case for the average degree.
+     */
+    public static MemoryEstimation compressedMemoryEstimation(RelationshipType relationshipType, Orientation orientation) {
+        return MemoryEstimations.setup("", dimensions -> {
+            AdjacencySample sample = dimensions
+                .adjacencySamples()
+                .getOrDefault(relationshipType, Collections.emptyMap())
+                .get(orientation);
+            if (sample == null) {
+                return compressedMemoryEstimation(relationshipType, orientation == Orientation.UNDIRECTED);
+            }
+            return sampledMemoryEstimation(sample, dimensions.nodeCount());
+        });
+    }
+
+    static MemoryEstimation sampledMemoryEstimation(AdjacencySample sample, long nodeCount) {
+        long expectedAdjacencySize = sample.expectedBytes(nodeCount);
+        long marginOfError = sample.marginOfError(nodeCount);
+        long minAdjacencySize = Math.max(0L, expectedAdjacencySize - marginOfError);
+        long maxAdjacencySize = expectedAdjacencySize + marginOfError;
+
+        return MemoryEstimations
+            .builder(AdjacencyList.class)
+            .fixed("pages", MemoryRange.of(pagesMemory(minAdjacencySize), pagesMemory(maxAdjacencySize)))
+            .build();
+    }
+
+    private static long pagesMemory(long adjacencySize) {
+        int pages = PageUtil.numPagesFor(adjacencySize, PAGE_SHIFT, PAGE_MASK);
+        return pages * MemoryUsage.sizeOfByteArray(PAGE_SIZE) + MemoryUsage.sizeOfObjectArray(pages);
+    }
+
     public static MemoryEstimation uncompressedMemoryEstimation(boolean undirected) {
         return uncompressedMemoryEstimation(ALL_RELATIONSHIPS, undirected);
     }
 
     public static MemoryEstimation uncompressedMemoryEstimation(RelationshipType relationshipType, boolean undirected) {
+        return uncompressedMemoryEstimation(relationshipType, undirected, PropertyEncoding.DOUBLE);
+    }
 
-        return MemoryEstimations
-            .builder(AdjacencyList.class)
+    public static MemoryEstimation uncompressedMemoryEstimation(
+        RelationshipType relationshipType,
+        boolean undirected,
+        PropertyEncoding encoding
+    ) {
+        int bytesPerValue = encoding.bytesPerValue();
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(AdjacencyList.class);
+        if (encoding == PropertyEncoding.DICTIONARY) {
+            builder.fixed("dictionary", MemoryUsage.sizeOfLongArray(PropertyEncoding.MAX_DICTIONARY_SIZE));
+        }
+        return builder
             .perGraphDimension("pages", (dimensions, concurrency) -> {
                 long nodeCount = dimensions.nodeCount();
                 long relCountForType = dimensions.relationshipCounts().getOrDefault(relationshipType, dimensions.maxRelCount());
                 long relCount = undirected ? relCountForType * 2 : relCountForType;
 
-                long uncompressedAdjacencySize = relCount * Long.BYTES + nodeCount * Integer.BYTES;
+                long uncompressedAdjacencySize = relCount * bytesPerValue + nodeCount * Integer.BYTES;
                 int pages = PageUtil.numPagesFor(uncompressedAdjacencySize, PAGE_SHIFT, PAGE_MASK);
                 long bytesPerPage = MemoryUsage.sizeOfByteArray(PAGE_SIZE);
 
@@ -112,15 +181,80 @@ public final class AdjacencyList {
         long firstAdjacencyIdAvgByteSize = (avgDegree > 0) ? ceilDiv(encodedVLongSize(nodeCount), 2) : 0L;
         int relationshipByteSize = encodedVLongSize(delta);
         int degreeByteSize = Integer.BYTES;
+        long blockIndexByteSize = blockIndexSize(avgDegree);
         long compressedAdjacencyByteSize = relationshipByteSize * Math.max(0, (avgDegree - 1));
-        return (degreeByteSize + firstAdjacencyIdAvgByteSize + compressedAdjacencyByteSize) * nodeCount;
+        return (degreeByteSize + blockIndexByteSize + firstAdjacencyIdAvgByteSize + compressedAdjacencyByteSize) * nodeCount;
+    }
+
+    /**
+     * Returns the number of bytes of the block index for an adjacency with the given degree.
+     */
+    public static int blockIndexSize(int degree) {
+        return Math.toIntExact(blockIndexSize((long) degree));
+    }
+
+    private static long blockIndexSize(long degree) {
+        if (degree <= BLOCK_SIZE) {
+            return 0L;
+        }
+        return (ceilDiv(degree, BLOCK_SIZE) - 1) * BLOCK_INDEX_ENTRY_SIZE;
     }
 
     public AdjacencyList(byte[][] pages) {
+        this(pages, RelationshipPropertyCodec.DOUBLE);
+    }
+
+    public AdjacencyList(byte[][] pages, RelationshipPropertyCodec propertyCodec) {
+        this(pages, propertyCodec, AdjacencyEncoding.VAR_LONG);
+    }
+
+    public AdjacencyList(
+        byte[][] pages,
+        RelationshipPropertyCodec propertyCodec,
+        AdjacencyEncoding adjacencyEncoding
+    ) {
         this.pages = pages;
+        this.propertyCodec = propertyCodec;
+        this.adjacencyEncoding = adjacencyEncoding;
+        this.offHeapPages = null;
         this.allocatedMemory = memoryOfPages(pages);
     }
 
+    public AdjacencyList(OffHeapPages offHeapPages, RelationshipPropertyCodec propertyCodec) {
+        this(offHeapPages, propertyCodec, AdjacencyEncoding.VAR_LONG);
+    }
+
+    public AdjacencyList(
+        OffHeapPages offHeapPages,
+        RelationshipPropertyCodec propertyCodec,
+        AdjacencyEncoding adjacencyEncoding
+    ) {
+        this.pages = null;
+        this.propertyCodec = propertyCodec;
+        this.adjacencyEncoding = adjacencyEncoding;
+        this.offHeapPages = offHeapPages;
+        this.allocatedMemory = 0L;
+    }
+
+    /**
+     * Creates a list whose pages are mapped from the given file, where they are stored consecutively
+     * starting at {@code position}.
+     */
+    public static AdjacencyList mapped(
+        FileChannel channel,
+        long position,
+        int[] pageLengths,
+        RelationshipPropertyCodec propertyCodec,
+        AdjacencyEncoding adjacencyEncoding,
+        AllocationTracker tracker
+    ) throws IOException {
+        return new AdjacencyList(
+            OffHeapPages.map(channel, position, pageLengths, tracker),
+            propertyCodec,
+            adjacencyEncoding
+        );
+    }
+
     private static long memoryOfPages(byte[][] pages) {
         long memory = MemoryUsage.sizeOfObjectArray(pages.length);
         for (byte[] page : pages) {
@@ -132,12 +266,23 @@ public final class AdjacencyList {
     }
 
     int getDegree(long index) {
+        if (offHeapPages != null) {
+            return offHeapPages.readInt(pageIndex(index, PAGE_SHIFT), indexInPage(index, PAGE_MASK));
+        }
         return AdjacencyDecompressingReader.readInt(
                 pages[pageIndex(index, PAGE_SHIFT)],
                 indexInPage(index, PAGE_MASK));
     }
 
+    /**
+     * Releases the pages and returns the number of freed bytes on the heap.
+     * Off-heap memory is removed from the tracker that has been used to allocate it.
+     */
     public final long release() {
+        if (offHeapPages != null) {
+            offHeapPages.release();
+            return 0L;
+        }
         if (pages == null) {
             return 0L;
         }
@@ -148,14 +293,52 @@ public final class AdjacencyList {
     // Cursors
 
     Cursor cursor(long offset) {
-        return new Cursor(pages).init(offset);
+        return rawCursor().init(offset);
+    }
+
+    /**
+     * Returns a new, uninitialized property cursor. Call {@link Cursor#init(long)}.
+     */
+    Cursor rawCursor() {
+        return new Cursor(pages, offHeapPages, propertyCodec);
+    }
+
+    public PropertyEncoding propertyEncoding() {
+        return propertyCodec.encoding();
+    }
+
+    public AdjacencyEncoding adjacencyEncoding() {
+        return adjacencyEncoding;
+    }
+
+    public PageStorage pageStorage() {
+        return offHeapPages == null ? PageStorage.HEAP : offHeapPages.storage();
+    }
+
+    public RelationshipPropertyCodec propertyCodec() {
+        return propertyCodec;
+    }
+
+    public int pageCount() {
+        return offHeapPages == null ? pages.length : offHeapPages.pageCount();
+    }
+
+    /**
+     * Returns a read-only view of the bytes of the given page, regardless of where the pages are stored.
+     */
+    public ByteBuffer page(int pageIndex) {
+        if (offHeapPages != null) {
+            return offHeapPages.page(pageIndex);
+        }
+        byte[] page = pages[pageIndex];
+        return ByteBuffer.wrap(page == null ? new byte[0] : page).asReadOnlyBuffer();
     }
 
     /**
      * Returns a new, uninitialized delta cursor. Call {@link DecompressingCursor#init(long)}.
      */
     DecompressingCursor rawDecompressingCursor() {
-        return new DecompressingCursor(pages);
+        return new DecompressingCursor(pages, offHeapPages, adjacencyEncoding);
     }
 
     /**
@@ -174,18 +357,26 @@ public final class AdjacencyList {
 
     public static final class Cursor extends MutableIntValue {
 
-        static final Cursor EMPTY = new Cursor(new byte[0][]);
+        static final Cursor EMPTY = new Cursor(new byte[0][], null, RelationshipPropertyCodec.DOUBLE);
 
         // TODO: free
         private final byte[][] pages;
+        private final OffHeapPages offHeapPages;
+        private final RelationshipPropertyCodec codec;
+        private final int bytesPerValue;
 
+        // either the heap page or the off-heap page of the current values is set
         private byte[] currentPage;
+        private ByteBuffer currentBuffer;
         private int degree;
         private int offset;
-        private int limit;
+        private int remaining;
 
-        private Cursor(byte[][] pages) {
+        private Cursor(byte[][] pages, OffHeapPages offHeapPages, RelationshipPropertyCodec codec) {
             this.pages = pages;
+            this.offHeapPages = offHeapPages;
+            this.codec = codec;
+            this.bytesPerValue = codec.bytesPerValue();
         }
 
         public int length() {
@@ -196,7 +387,7 @@ public final class AdjacencyList {
          * Return true iff there is at least one more target to decode.
          */
         boolean hasNextLong() {
-            return offset < limit;
+            return remaining > 0;
         }
 
         /**
@@ -204,17 +395,57 @@ public final class AdjacencyList {
          * It is undefined behavior if this is called after {@link #hasNextLong()} returns {@code false}.
          */
         long nextLong() {
-            long value = AdjacencyDecompressingReader.readLong(currentPage, offset);
-            offset += Long.BYTES;
+            long value = currentPage == null ? codec.decode(currentBuffer, offset) : codec.decode(currentPage, offset);
+            offset += bytesPerValue;
+            remaining--;
             return value;
         }
 
+        /**
+         * Read the next {@code count} values as doubles into the given array.
+         * The caller must ensure that there are at least {@code count} values left.
+         */
+        void nextDoubles(double[] values, int count) {
+            byte[] page = currentPage;
+            int offset = this.offset;
+            if (page == null) {
+                ByteBuffer buffer = currentBuffer;
+                for (int i = 0; i < count; i++) {
+                    values[i] = Double.longBitsToDouble(codec.decode(buffer, offset));
+                    offset += bytesPerValue;
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    values[i] = Double.longBitsToDouble(codec.decode(page, offset));
+                    offset += bytesPerValue;
+                }
+            }
+            this.offset = offset;
+            remaining -= count;
+        }
+
+        /**
+         * Skip the given number of values without reading them.
+         */
+        void skip(int count) {
+            count = Math.min(remaining, count);
+            offset += count * bytesPerValue;
+            remaining -= count;
+        }
+
         Cursor init(long fromIndex) {
-            this.currentPage = pages[pageIndex(fromIndex, PAGE_SHIFT)];
-            this.offset = indexInPage(fromIndex, PAGE_MASK);
-            this.degree = AdjacencyDecompressingReader.readInt(currentPage, offset);
+            int pageIndex = pageIndex(fromIndex, PAGE_SHIFT);
+            int offsetInPage = indexInPage(fromIndex, PAGE_MASK);
+            this.offset = offsetInPage;
+            if (offHeapPages == null) {
+                this.currentPage = pages[pageIndex];
+                this.degree = AdjacencyDecompressingReader.readInt(currentPage, offset);
+            } else {
+                this.currentBuffer = offHeapPages.sharedPage(pageIndex);
+                this.degree = currentBuffer.getInt(offset);
+            }
             this.offset += Integer.BYTES;
-            this.limit = offset + degree * Long.BYTES;
+            this.remaining = degree;
             return this;
         }
     }
@@ -224,14 +455,16 @@ public final class AdjacencyList {
         public static final long NOT_FOUND = -1;
         // TODO: free
         private byte[][] pages;
+        private final OffHeapPages offHeapPages;
         private final AdjacencyDecompressingReader decompress;
 
         private int maxTargets;
         private int currentTarget;
 
-        private DecompressingCursor(byte[][] pages) {
+        private DecompressingCursor(byte[][] pages, OffHeapPages offHeapPages, AdjacencyEncoding encoding) {
             this.pages = pages;
-            this.decompress = new AdjacencyDecompressingReader();
+            this.offHeapPages = offHeapPages;
+            this.decompress = new AdjacencyDecompressingReader(encoding);
         }
 
         /**
@@ -274,6 +507,23 @@ public final class AdjacencyList {
             return decompress.next(remaining);
         }
 
+        /**
+         * Return the next target id without consuming it.
+         * It is undefined behavior if this is called after {@link #hasNextVLong()} returns {@code false}.
+         */
+        long peekVLong() {
+            return decompress.peek(remaining());
+        }
+
+        /**
+         * Read and decode the next {@code count} target ids into the given array.
+         * The caller must ensure that there are at least {@code count} targets left.
+         */
+        void nextVLongs(long[] targets, int count) {
+            decompress.nextBatch(targets, count, remaining());
+            currentTarget += count;
+        }
+
         /**
          * Read and decode target ids until it is strictly larger than (`>`) the provided {@code target}.
          * Might return an id that is less than or equal to {@code target} iff the cursor did exhaust before finding an
@@ -304,10 +554,33 @@ public final class AdjacencyList {
             return value;
         }
 
+        /**
+         * Skip the given number of targets and decode the one after them.
+         * Returns {@link #NOT_FOUND} if there are not enough targets left.
+         */
+        long advanceBy(int count) {
+            if (count < 0 || count >= remaining()) {
+                return NOT_FOUND;
+            }
+            this.currentTarget += count + 1;
+            return decompress.advanceBy(count);
+        }
+
+        /**
+         * Return the position of the most recently decoded target.
+         */
+        int position() {
+            return currentTarget - 1;
+        }
+
         DecompressingCursor init(long fromIndex) {
-            maxTargets = decompress.reset(
-                    pages[pageIndex(fromIndex, PAGE_SHIFT)],
-                    indexInPage(fromIndex, PAGE_MASK));
+            int pageIndex = pageIndex(fromIndex, PAGE_SHIFT);
+            int offsetInPage = indexInPage(fromIndex, PAGE_MASK);
+            if (offHeapPages == null) {
+                maxTargets = decompress.reset(pages[pageIndex], offsetInPage);
+            } else {
+                maxTargets = decompress.reset(offHeapPages.sharedPage(pageIndex), offsetInPage);
+            }
             currentTarget = 0;
             return this;
         }
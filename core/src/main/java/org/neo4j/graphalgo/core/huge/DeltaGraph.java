@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.FilterGraph;
+import org.neo4j.graphalgo.api.IdMapGraph;
+import org.neo4j.graphalgo.api.IntersectionConsumer;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIntersect;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.core.loading.IdMap;
+
+/**
+ * A graph that merges the pending updates of a {@link RelationshipDelta} with the compressed adjacency
+ * of a {@link HugeGraph}. The added relationships of a node are merged into the compressed adjacency
+ * while it is decoded, skipping removed targets, so that the targets are visited in ascending order.
+ * Added relationships to a target of the compressed adjacency follow the stored relationships to that target.
+ */
+public class DeltaGraph extends FilterGraph implements IdMapGraph {
+
+    private final HugeGraph hugeGraph;
+    private final RelationshipDelta delta;
+    private final int propertyIndex;
+
+    /**
+     * @param propertyIndex the index of the relationship property of the given graph within the delta,
+     *                      or -1 if the graph has been created without a relationship property
+     */
+    public DeltaGraph(HugeGraph graph, RelationshipDelta delta, int propertyIndex) {
+        super(graph);
+        this.hugeGraph = graph;
+        this.delta = delta;
+        this.propertyIndex = propertyIndex;
+    }
+
+    @Override
+    public IdMap idMap() {
+        return hugeGraph.idMap();
+    }
+
+    @Override
+    public long relationshipCount() {
+        return super.relationshipCount() + delta.relationshipCount();
+    }
+
+    @Override
+    public int degree(long nodeId) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.outgoing(nodeId);
+        int degree = super.degree(nodeId);
+        return nodeDelta == null ? degree : degree + nodeDelta.degreeChange();
+    }
+
+    @Override
+    public int inverseDegree(long nodeId) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.incoming(nodeId);
+        int inverseDegree = super.inverseDegree(nodeId);
+        return nodeDelta == null ? inverseDegree : inverseDegree + nodeDelta.degreeChange();
+    }
+
+    @Override
+    public void forEachRelationship(long nodeId, RelationshipConsumer consumer) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.outgoing(nodeId);
+        if (nodeDelta == null) {
+            super.forEachRelationship(nodeId, consumer);
+            return;
+        }
+        DeltaConsumer deltaConsumer = new DeltaConsumer(nodeDelta, consumer);
+        super.forEachRelationship(nodeId, deltaConsumer);
+        deltaConsumer.acceptRemaining(nodeId);
+    }
+
+    @Override
+    public void forEachRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.outgoing(nodeId);
+        if (nodeDelta == null) {
+            super.forEachRelationship(nodeId, fallbackValue, consumer);
+            return;
+        }
+        DeltaWithPropertyConsumer deltaConsumer = deltaConsumer(nodeDelta, fallbackValue, consumer);
+        super.forEachRelationship(nodeId, fallbackValue, deltaConsumer);
+        deltaConsumer.acceptRemaining(nodeId);
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.incoming(nodeId);
+        if (nodeDelta == null) {
+            super.forEachInverseRelationship(nodeId, consumer);
+            return;
+        }
+        DeltaConsumer deltaConsumer = new DeltaConsumer(nodeDelta, consumer);
+        super.forEachInverseRelationship(nodeId, deltaConsumer);
+        deltaConsumer.acceptRemaining(nodeId);
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.incoming(nodeId);
+        if (nodeDelta == null) {
+            super.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+            return;
+        }
+        DeltaWithPropertyConsumer deltaConsumer = deltaConsumer(nodeDelta, fallbackValue, consumer);
+        super.forEachInverseRelationship(nodeId, fallbackValue, deltaConsumer);
+        deltaConsumer.acceptRemaining(nodeId);
+    }
+
+    @Override
+    public boolean exists(long sourceNodeId, long targetNodeId) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.outgoing(sourceNodeId);
+        if (nodeDelta == null) {
+            return super.exists(sourceNodeId, targetNodeId);
+        }
+        if (nodeDelta.addedIndexOf(targetNodeId) >= 0) {
+            return true;
+        }
+        return !nodeDelta.isRemoved(targetNodeId) && super.exists(sourceNodeId, targetNodeId);
+    }
+
+    @Override
+    public double relationshipProperty(long sourceNodeId, long targetNodeId) {
+        return relationshipProperty(sourceNodeId, targetNodeId, hugeGraph.defaultRelationshipProperty());
+    }
+
+    @Override
+    public double relationshipProperty(long sourceNodeId, long targetNodeId, double fallbackValue) {
+        RelationshipDelta.NodeDelta nodeDelta = delta.outgoing(sourceNodeId);
+        if (nodeDelta == null || !hasRelationshipProperty()) {
+            return super.relationshipProperty(sourceNodeId, targetNodeId, fallbackValue);
+        }
+        if (!nodeDelta.isRemoved(targetNodeId) && super.exists(sourceNodeId, targetNodeId)) {
+            return super.relationshipProperty(sourceNodeId, targetNodeId, fallbackValue);
+        }
+        int index = nodeDelta.addedIndexOf(targetNodeId);
+        return index >= 0
+            ? nodeDelta.addedProperty(propertyIndex, index)
+            : hugeGraph.defaultRelationshipProperty();
+    }
+
+    @Override
+    public long getTarget(long nodeId, long index) {
+        if (delta.outgoing(nodeId) == null) {
+            return super.getTarget(nodeId, index);
+        }
+        HugeGraph.GetTargetConsumer consumer = new HugeGraph.GetTargetConsumer(index);
+        forEachRelationship(nodeId, consumer);
+        return consumer.target;
+    }
+
+    /**
+     * Intersects the merged adjacency, the added relationships of every node are merged
+     * with the neighbours of its compressed adjacency that have a higher id.
+     */
+    @Override
+    public RelationshipIntersect intersection() {
+        return new DeltaIntersect(hugeGraph.concurrentCopy(), delta);
+    }
+
+    @Override
+    public IdMapGraph concurrentCopy() {
+        return new DeltaGraph(hugeGraph.concurrentCopy(), delta, propertyIndex);
+    }
+
+    private DeltaWithPropertyConsumer deltaConsumer(
+        RelationshipDelta.NodeDelta nodeDelta,
+        double fallbackValue,
+        RelationshipWithPropertyConsumer consumer
+    ) {
+        return new DeltaWithPropertyConsumer(
+            nodeDelta,
+            hasRelationshipProperty() ? propertyIndex : -1,
+            fallbackValue,
+            consumer
+        );
+    }
+
+    /**
+     * Passes the added targets that are lower than the next target of the compressed adjacency on first.
+     */
+    private static final class DeltaConsumer implements RelationshipConsumer {
+        private final RelationshipDelta.NodeDelta nodeDelta;
+        private final RelationshipConsumer consumer;
+        private int addedIndex = 0;
+        private boolean proceed = true;
+
+        DeltaConsumer(RelationshipDelta.NodeDelta nodeDelta, RelationshipConsumer consumer) {
+            this.nodeDelta = nodeDelta;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            while (addedIndex < nodeDelta.addedCount() && nodeDelta.addedTarget(addedIndex) < targetNodeId) {
+                proceed = consumer.accept(sourceNodeId, nodeDelta.addedTarget(addedIndex++));
+                if (!proceed) {
+                    return false;
+                }
+            }
+            if (nodeDelta.isRemoved(targetNodeId)) {
+                return true;
+            }
+            proceed = consumer.accept(sourceNodeId, targetNodeId);
+            return proceed;
+        }
+
+        void acceptRemaining(long sourceNodeId) {
+            while (proceed && addedIndex < nodeDelta.addedCount()) {
+                proceed = consumer.accept(sourceNodeId, nodeDelta.addedTarget(addedIndex++));
+            }
+        }
+    }
+
+    private static final class DeltaWithPropertyConsumer implements RelationshipWithPropertyConsumer {
+        private final RelationshipDelta.NodeDelta nodeDelta;
+        private final int propertyIndex;
+        private final double fallbackValue;
+        private final RelationshipWithPropertyConsumer consumer;
+        private int addedIndex = 0;
+        private boolean proceed = true;
+
+        /**
+         * @param propertyIndex the index of the property values of the added relationships,
+         *                      or -1 if the fallback value is used instead
+         */
+        DeltaWithPropertyConsumer(
+            RelationshipDelta.NodeDelta nodeDelta,
+            int propertyIndex,
+            double fallbackValue,
+            RelationshipWithPropertyConsumer consumer
+        ) {
+            this.nodeDelta = nodeDelta;
+            this.propertyIndex = propertyIndex;
+            this.fallbackValue = fallbackValue;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId, double property) {
+            while (addedIndex < nodeDelta.addedCount() && nodeDelta.addedTarget(addedIndex) < targetNodeId) {
+                if (!acceptAdded(sourceNodeId)) {
+                    return false;
+                }
+            }
+            if (nodeDelta.isRemoved(targetNodeId)) {
+                return true;
+            }
+            proceed = consumer.accept(sourceNodeId, targetNodeId, property);
+            return proceed;
+        }
+
+        void acceptRemaining(long sourceNodeId) {
+            while (proceed && addedIndex < nodeDelta.addedCount()) {
+                acceptAdded(sourceNodeId);
+            }
+        }
+
+        private boolean acceptAdded(long sourceNodeId) {
+            double property = propertyIndex >= 0 ? nodeDelta.addedProperty(propertyIndex, addedIndex) : fallbackValue;
+            proceed = consumer.accept(sourceNodeId, nodeDelta.addedTarget(addedIndex++), property);
+            return proceed;
+        }
+    }
+
+    /**
+     * Like {@link HugeGraphIntersectImpl}, only neighbours with a higher id than the intersected nodes are considered.
+     * The merged neighbours of a node are buffered, as they are read from two sources.
+     * An instance of this is not thread-safe.
+     */
+    private static final class DeltaIntersect implements RelationshipIntersect {
+        private final HugeGraph graph;
+        private final RelationshipDelta delta;
+        private final NeighbourBuffer neighboursA;
+        private final NeighbourBuffer neighboursB;
+
+        DeltaIntersect(HugeGraph graph, RelationshipDelta delta) {
+            this.graph = graph;
+            this.delta = delta;
+            this.neighboursA = new NeighbourBuffer();
+            this.neighboursB = new NeighbourBuffer();
+        }
+
+        @Override
+        public void intersectAll(long nodeIdA, IntersectionConsumer consumer) {
+            long[] targetsA = readHigherNeighbours(nodeIdA, neighboursA);
+            int countA = neighboursA.length;
+            for (int indexB = 0; indexB < countA; indexB++) {
+                long nodeIdB = targetsA[indexB];
+                long[] targetsB = readHigherNeighbours(nodeIdB, neighboursB);
+                int countB = neighboursB.length;
+
+                // the neighbours of A after B are all at least as high as B
+                int a = indexB + 1;
+                int b = 0;
+                while (a < countA && b < countB) {
+                    long targetA = targetsA[a];
+                    long targetB = targetsB[b];
+                    if (targetA < targetB) {
+                        a++;
+                    } else if (targetA > targetB) {
+                        b++;
+                    } else {
+                        consumer.accept(nodeIdA, nodeIdB, targetA);
+                        a++;
+                        b++;
+                    }
+                }
+            }
+        }
+
+        private long[] readHigherNeighbours(long nodeId, NeighbourBuffer buffer) {
+            RelationshipDelta.NodeDelta nodeDelta = delta.outgoing(nodeId);
+            buffer.reset(graph.degree(nodeId) + (nodeDelta == null ? 0 : nodeDelta.addedCount()));
+            if (nodeDelta == null) {
+                graph.forEachHigherNeighbour(nodeId, buffer);
+                return buffer.targets;
+            }
+            DeltaConsumer deltaConsumer = new DeltaConsumer(nodeDelta, (source, target) -> {
+                if (target > source) {
+                    buffer.accept(source, target);
+                }
+                return true;
+            });
+            graph.forEachHigherNeighbour(nodeId, deltaConsumer);
+            deltaConsumer.acceptRemaining(nodeId);
+            return buffer.targets;
+        }
+    }
+
+    private static final class NeighbourBuffer implements RelationshipConsumer {
+        private long[] targets = new long[0];
+        private int length;
+
+        void reset(int capacity) {
+            if (targets.length < capacity) {
+                targets = new long[capacity];
+            }
+            length = 0;
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            targets[length++] = targetNodeId;
+            return true;
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.core.huge;
 
 import org.apache.commons.lang3.mutable.MutableDouble;
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
 import org.neo4j.graphalgo.core.loading.IdMap;
 
 import java.util.OptionalLong;
@@ -29,7 +30,7 @@ public class FilteredNodeProperties implements NodeProperties {
     private final NodeProperties properties;
     private IdMap idMap;
 
-    FilteredNodeProperties(NodeProperties properties, IdMap idMap) {
+    public FilteredNodeProperties(NodeProperties properties, IdMap idMap) {
         this.properties = properties;
         this.idMap = idMap;
     }
@@ -44,8 +45,41 @@ public class FilteredNodeProperties implements NodeProperties {
         return properties.nodeProperty(idMap.toOriginalNodeId(nodeId), defaultValue);
     }
 
+    @Override
+    public long longNodeProperty(long nodeId) {
+        return properties.longNodeProperty(idMap.toOriginalNodeId(nodeId));
+    }
+
+    @Override
+    public float floatNodeProperty(long nodeId) {
+        return properties.floatNodeProperty(idMap.toOriginalNodeId(nodeId));
+    }
+
+    @Override
+    public double[] doubleArrayNodeProperty(long nodeId) {
+        return properties.doubleArrayNodeProperty(idMap.toOriginalNodeId(nodeId));
+    }
+
+    @Override
+    public float[] floatArrayNodeProperty(long nodeId) {
+        return properties.floatArrayNodeProperty(idMap.toOriginalNodeId(nodeId));
+    }
+
+    @Override
+    public ValueType valueType() {
+        return properties.valueType();
+    }
+
+    @Override
+    public boolean isSparse() {
+        return properties.isSparse();
+    }
+
     @Override
     public OptionalLong getMaxPropertyValue() {
+        if (valueType().isArray()) {
+            return OptionalLong.empty();
+        }
         MutableDouble currentMax = new MutableDouble(Double.NEGATIVE_INFINITY);
         idMap.forEachNode(id -> {
             currentMax.setValue(Math.max(currentMax.doubleValue(), nodeProperty(id, Double.MIN_VALUE)));
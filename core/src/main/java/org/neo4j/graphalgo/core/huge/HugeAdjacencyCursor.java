@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.api.AdjacencyCursor;
+
+import java.util.Arrays;
+
+/**
+ * Batch cursor over the compressed adjacency lists of a {@link HugeGraph}.
+ * Targets are copied block-wise out of the {@link AdjacencyList.DecompressingCursor},
+ * property values are read lazily and only when they are requested.
+ */
+final class HugeAdjacencyCursor implements AdjacencyCursor {
+
+    private final AdjacencyOffsets adjacencyOffsets;
+    private final AdjacencyOffsets propertyOffsets;
+    private final double fallbackValue;
+
+    private final AdjacencyList.DecompressingCursor adjacencyCursor;
+    private final AdjacencyList.DecompressingCursor emptyCursor;
+    private final AdjacencyList.Cursor propertyCursor;
+
+    private AdjacencyList.DecompressingCursor current;
+    private boolean hasProperties;
+    // number of property values that have been consumed from the property cursor
+    private int propertyPosition;
+
+    HugeAdjacencyCursor(
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        AdjacencyList properties,
+        AdjacencyOffsets propertyOffsets,
+        double fallbackValue
+    ) {
+        this.adjacencyOffsets = adjacencyOffsets;
+        this.propertyOffsets = propertyOffsets;
+        this.fallbackValue = fallbackValue;
+        this.adjacencyCursor = adjacencyList.rawDecompressingCursor();
+        this.emptyCursor = adjacencyList.rawDecompressingCursor();
+        this.propertyCursor = properties != null ? properties.rawCursor() : null;
+        this.current = emptyCursor;
+    }
+
+    @Override
+    public int init(long nodeId) {
+        long offset = adjacencyOffsets.get(nodeId);
+        if (offset == 0L) {
+            current = emptyCursor;
+            hasProperties = false;
+            return 0;
+        }
+        current = adjacencyCursor.init(offset);
+        long propertyOffset = propertyCursor != null ? propertyOffsets.get(nodeId) : 0L;
+        hasProperties = propertyOffset != 0L;
+        if (hasProperties) {
+            propertyCursor.init(propertyOffset);
+        }
+        propertyPosition = 0;
+        return current.cost();
+    }
+
+    @Override
+    public int remaining() {
+        return current.remaining();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return current.hasNextVLong();
+    }
+
+    @Override
+    public long peek() {
+        return current.hasNextVLong() ? current.peekVLong() : NOT_FOUND;
+    }
+
+    @Override
+    public long next() {
+        return current.hasNextVLong() ? current.nextVLong() : NOT_FOUND;
+    }
+
+    @Override
+    public int skip(int count) {
+        int skipped = Math.min(count, current.remaining());
+        if (skipped <= 0) {
+            return 0;
+        }
+        // skips `skipped - 1` targets and decodes the last skipped one
+        current.advanceBy(skipped - 1);
+        return skipped;
+    }
+
+    @Override
+    public int nextBatch(long[] targets) {
+        int count = Math.min(targets.length, current.remaining());
+        current.nextVLongs(targets, count);
+        return count;
+    }
+
+    @Override
+    public int nextBatch(long[] targets, double[] properties) {
+        int count = Math.min(Math.min(targets.length, properties.length), current.remaining());
+        int position = current.cost() - current.remaining();
+        current.nextVLongs(targets, count);
+        if (hasProperties) {
+            propertyCursor.skip(position - propertyPosition);
+            propertyCursor.nextDoubles(properties, count);
+            propertyPosition = position + count;
+        } else {
+            Arrays.fill(properties, 0, count, fallbackValue);
+        }
+        return count;
+    }
+}
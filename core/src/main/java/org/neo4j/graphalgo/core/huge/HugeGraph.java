@@ -19,11 +19,13 @@
  */
 package org.neo4j.graphalgo.core.huge;
 
+import org.immutables.value.Value;
 import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterable;
 import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.AdjacencyCursor;
 import org.neo4j.graphalgo.api.IdMapGraph;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
@@ -31,6 +33,7 @@ import org.neo4j.graphalgo.api.RelationshipIntersect;
 import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
 import org.neo4j.graphalgo.core.loading.IdMap;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
 
 import java.util.Collection;
 import java.util.Map;
@@ -92,8 +95,27 @@ public class HugeGraph implements IdMapGraph {
     private @Nullable AdjacencyList properties;
     private @Nullable AdjacencyOffsets propertyOffsets;
 
+    private @Nullable AdjacencyList inverseAdjacencyList;
+    private @Nullable AdjacencyOffsets inverseAdjacencyOffsets;
+    private @Nullable AdjacencyList inverseProperties;
+    private @Nullable AdjacencyOffsets inversePropertyOffsets;
+
+    // precomputed degrees, shared between all concurrent copies
+    private @Nullable HugeIntArray degrees;
+    private @Nullable HugeIntArray inverseDegrees;
+
     private AdjacencyList.DecompressingCursor emptyCursor;
     private AdjacencyList.DecompressingCursor cursorCache;
+    private AdjacencyList.DecompressingCursor inverseCursorCache;
+
+    // undirected graphs that store every relationship only once, towards the node with the higher id
+    private final boolean halfStorage;
+    private @Nullable LowerNeighbours lowerNeighbours;
+    private @Nullable AdjacencyList lowerAdjacencyList;
+    private @Nullable AdjacencyOffsets lowerAdjacencyOffsets;
+    private AdjacencyList.DecompressingCursor lowerCursorCache;
+    private AdjacencyList.DecompressingCursor propertyLookupCursor;
+    private AdjacencyList.Cursor propertyCursorCache;
 
     private boolean canRelease = true;
 
@@ -116,6 +138,13 @@ public class HugeGraph implements IdMapGraph {
             maybePropertyCSR.map(PropertyCSR::defaultPropertyValue).orElse(Double.NaN),
             maybePropertyCSR.map(PropertyCSR::list).orElse(null),
             maybePropertyCSR.map(PropertyCSR::offsets).orElse(null),
+            topologyCSR.inverseList().orElse(null),
+            topologyCSR.inverseOffsets().orElse(null),
+            maybePropertyCSR.flatMap(PropertyCSR::inverseList).orElse(null),
+            maybePropertyCSR.flatMap(PropertyCSR::inverseOffsets).orElse(null),
+            topologyCSR.degrees().orElse(null),
+            topologyCSR.inverseDegrees().orElse(null),
+            topologyCSR.lowerNeighbours().orElse(null),
             topologyCSR.orientation(),
             tracker
         );
@@ -133,6 +162,128 @@ public class HugeGraph implements IdMapGraph {
         @Nullable AdjacencyOffsets propertyOffsets,
         Orientation orientation,
         AllocationTracker tracker
+    ) {
+        this(
+            idMapping,
+            nodeProperties,
+            relationshipCount,
+            adjacencyList,
+            adjacencyOffsets,
+            hasRelationshipProperty,
+            defaultPropertyValue,
+            properties,
+            propertyOffsets,
+            null,
+            null,
+            null,
+            null,
+            orientation,
+            tracker
+        );
+    }
+
+    public HugeGraph(
+        IdMap idMapping,
+        Map<String, NodeProperties> nodeProperties,
+        long relationshipCount,
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        boolean hasRelationshipProperty,
+        double defaultPropertyValue,
+        @Nullable AdjacencyList properties,
+        @Nullable AdjacencyOffsets propertyOffsets,
+        @Nullable AdjacencyList inverseAdjacencyList,
+        @Nullable AdjacencyOffsets inverseAdjacencyOffsets,
+        @Nullable AdjacencyList inverseProperties,
+        @Nullable AdjacencyOffsets inversePropertyOffsets,
+        Orientation orientation,
+        AllocationTracker tracker
+    ) {
+        this(
+            idMapping,
+            nodeProperties,
+            relationshipCount,
+            adjacencyList,
+            adjacencyOffsets,
+            hasRelationshipProperty,
+            defaultPropertyValue,
+            properties,
+            propertyOffsets,
+            inverseAdjacencyList,
+            inverseAdjacencyOffsets,
+            inverseProperties,
+            inversePropertyOffsets,
+            null,
+            null,
+            orientation,
+            tracker
+        );
+    }
+
+    public HugeGraph(
+        IdMap idMapping,
+        Map<String, NodeProperties> nodeProperties,
+        long relationshipCount,
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        boolean hasRelationshipProperty,
+        double defaultPropertyValue,
+        @Nullable AdjacencyList properties,
+        @Nullable AdjacencyOffsets propertyOffsets,
+        @Nullable AdjacencyList inverseAdjacencyList,
+        @Nullable AdjacencyOffsets inverseAdjacencyOffsets,
+        @Nullable AdjacencyList inverseProperties,
+        @Nullable AdjacencyOffsets inversePropertyOffsets,
+        @Nullable HugeIntArray degrees,
+        @Nullable HugeIntArray inverseDegrees,
+        Orientation orientation,
+        AllocationTracker tracker
+    ) {
+        this(
+            idMapping,
+            nodeProperties,
+            relationshipCount,
+            adjacencyList,
+            adjacencyOffsets,
+            hasRelationshipProperty,
+            defaultPropertyValue,
+            properties,
+            propertyOffsets,
+            inverseAdjacencyList,
+            inverseAdjacencyOffsets,
+            inverseProperties,
+            inversePropertyOffsets,
+            degrees,
+            inverseDegrees,
+            null,
+            orientation,
+            tracker
+        );
+    }
+
+    /**
+     * @param lowerNeighbours if not null, the undirected adjacency stores every relationship only once,
+     *                        towards the node with the higher id, see {@link LowerNeighbours}
+     */
+    public HugeGraph(
+        IdMap idMapping,
+        Map<String, NodeProperties> nodeProperties,
+        long relationshipCount,
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        boolean hasRelationshipProperty,
+        double defaultPropertyValue,
+        @Nullable AdjacencyList properties,
+        @Nullable AdjacencyOffsets propertyOffsets,
+        @Nullable AdjacencyList inverseAdjacencyList,
+        @Nullable AdjacencyOffsets inverseAdjacencyOffsets,
+        @Nullable AdjacencyList inverseProperties,
+        @Nullable AdjacencyOffsets inversePropertyOffsets,
+        @Nullable HugeIntArray degrees,
+        @Nullable HugeIntArray inverseDegrees,
+        @Nullable LowerNeighbours lowerNeighbours,
+        Orientation orientation,
+        AllocationTracker tracker
     ) {
         this.idMapping = idMapping;
         this.tracker = tracker;
@@ -145,8 +296,21 @@ public class HugeGraph implements IdMapGraph {
         this.propertyOffsets = propertyOffsets;
         this.orientation = orientation;
         this.hasRelationshipProperty = hasRelationshipProperty;
+        this.inverseAdjacencyList = inverseAdjacencyList;
+        this.inverseAdjacencyOffsets = inverseAdjacencyOffsets;
+        this.inverseProperties = inverseProperties;
+        this.inversePropertyOffsets = inversePropertyOffsets;
+        this.degrees = degrees;
+        this.inverseDegrees = inverseDegrees;
         this.cursorCache = newAdjacencyCursor(this.adjacencyList);
+        this.inverseCursorCache = newAdjacencyCursor(this.inverseAdjacencyList);
         this.emptyCursor = newAdjacencyCursor(this.adjacencyList);
+        this.lowerNeighbours = lowerNeighbours;
+        this.halfStorage = lowerNeighbours != null;
+        if (halfStorage && properties != null) {
+            this.propertyLookupCursor = newAdjacencyCursor(this.adjacencyList);
+            this.propertyCursorCache = properties.rawCursor();
+        }
     }
 
     @Override
@@ -188,7 +352,9 @@ public class HugeGraph implements IdMapGraph {
         double maybeValue;
 
         if (properties != null) {
-            maybeValue = findPropertyValue(sourceId, targetId);
+            maybeValue = halfStorage && sourceId > targetId
+                ? findPropertyValue(targetId, sourceId)
+                : findPropertyValue(sourceId, targetId);
             if (!Double.isNaN(maybeValue)) {
                 return maybeValue;
             }
@@ -205,12 +371,13 @@ public class HugeGraph implements IdMapGraph {
         long propertyOffset = propertyOffsets.get(fromId);
 
         AdjacencyList.DecompressingCursor relDecompressingCursor = adjacencyList.decompressingCursor(relOffset);
-        AdjacencyList.Cursor propertyCursor = properties.cursor(propertyOffset);
-
-        while (relDecompressingCursor.hasNextVLong() && propertyCursor.hasNextLong() && relDecompressingCursor.nextVLong() != toId) {
-            propertyCursor.nextLong();
+        if (relDecompressingCursor.advance(toId) != toId) {
+            return NO_PROPERTY_VALUE;
         }
 
+        AdjacencyList.Cursor propertyCursor = properties.cursor(propertyOffset);
+        propertyCursor.skip(relDecompressingCursor.position());
+
         if (!propertyCursor.hasNextLong()) {
             return NO_PROPERTY_VALUE;
         }
@@ -239,8 +406,69 @@ public class HugeGraph implements IdMapGraph {
         runForEach(nodeId, fallbackValue, consumer);
     }
 
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        if (isUndirected()) {
+            runForEach(nodeId, consumer);
+        } else {
+            validateInverseIndex();
+            AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(
+                inverseAdjacencyList,
+                inverseAdjacencyOffsets,
+                inverseCursorCache,
+                nodeId
+            );
+            consumeAdjacentNodes(nodeId, adjacencyCursor, consumer);
+        }
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        if (isUndirected()) {
+            runForEach(nodeId, fallbackValue, consumer);
+        } else if (!hasRelationshipProperty()) {
+            forEachInverseRelationship(nodeId, (s, t) -> consumer.accept(s, t, fallbackValue));
+        } else {
+            validateInverseIndex();
+            AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(
+                inverseAdjacencyList,
+                inverseAdjacencyOffsets,
+                inverseCursorCache,
+                nodeId
+            );
+            AdjacencyList.Cursor propertyCursor = propertyCursorForIteration(
+                inverseProperties,
+                inversePropertyOffsets,
+                nodeId
+            );
+            consumeAdjacentNodesWithProperty(nodeId, adjacencyCursor, propertyCursor, consumer);
+        }
+    }
+
+    /**
+     * Graphs with undirected half storage always have a degree column that counts both directions.
+     */
     @Override
     public int degree(long node) {
+        if (degrees != null) {
+            return degrees.get(node);
+        }
+        return degree(adjacencyList, adjacencyOffsets, node);
+    }
+
+    @Override
+    public int inverseDegree(long node) {
+        if (isUndirected()) {
+            return degree(node);
+        }
+        validateInverseIndex();
+        if (inverseDegrees != null) {
+            return inverseDegrees.get(node);
+        }
+        return degree(inverseAdjacencyList, inverseAdjacencyOffsets, node);
+    }
+
+    private static int degree(AdjacencyList adjacencyList, AdjacencyOffsets adjacencyOffsets, long node) {
         if (adjacencyOffsets == null) {
             return 0;
         }
@@ -251,6 +479,19 @@ public class HugeGraph implements IdMapGraph {
         return adjacencyList.getDegree(offset);
     }
 
+    @Override
+    public boolean hasInverseIndex() {
+        return isUndirected() || inverseAdjacencyOffsets != null;
+    }
+
+    private void validateInverseIndex() {
+        if (inverseAdjacencyOffsets == null) {
+            throw new UnsupportedOperationException(
+                "Inverse relationships are only available on graphs that have been created with `indexInverse`."
+            );
+        }
+    }
+
     @Override
     public long toMappedNodeId(long nodeId) {
         return idMapping.toMappedNodeId(nodeId);
@@ -283,37 +524,102 @@ public class HugeGraph implements IdMapGraph {
             defaultPropertyValue,
             properties,
             propertyOffsets,
+            inverseAdjacencyList,
+            inverseAdjacencyOffsets,
+            inverseProperties,
+            inversePropertyOffsets,
+            degrees,
+            inverseDegrees,
+            lowerNeighbours,
             orientation,
             tracker
         );
     }
 
+    /**
+     * The cursor decodes the adjacency lists directly and does not share any state with this graph.
+     * Graphs with undirected half storage are read through a concurrent copy.
+     */
+    @Override
+    public AdjacencyCursor adjacencyCursor(double fallbackValue) {
+        if (halfStorage) {
+            return concurrentCopy().bufferedAdjacencyCursor(fallbackValue);
+        }
+        return new HugeAdjacencyCursor(
+            adjacencyList,
+            adjacencyOffsets,
+            hasRelationshipProperty ? properties : null,
+            propertyOffsets,
+            fallbackValue
+        );
+    }
+
+    private AdjacencyCursor bufferedAdjacencyCursor(double fallbackValue) {
+        return IdMapGraph.super.adjacencyCursor(fallbackValue);
+    }
+
+    /**
+     * Only considers neighbours with a higher id than the intersected node,
+     * so graphs with undirected half storage intersect their stored half directly.
+     */
     @Override
     public RelationshipIntersect intersection() {
         return new HugeGraphIntersectImpl(adjacencyList, adjacencyOffsets);
     }
 
     /**
-     * O(n) !
+     * Visits the neighbours with a higher id than the given node in ascending order, the same neighbours
+     * that {@link #intersection()} considers. Graphs with undirected half storage read their stored half.
+     */
+    void forEachHigherNeighbour(long nodeId, RelationshipConsumer consumer) {
+        AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(nodeId);
+        long targetId = adjacencyCursor.skipUntil(nodeId);
+        if (targetId > nodeId && consumer.accept(nodeId, targetId)) {
+            consumeAdjacentNodes(nodeId, adjacencyCursor, consumer);
+        }
+    }
+
+    /**
+     * O(log(degree)), uses the block index of the adjacency list.
      */
     @Override
     public boolean exists(long sourceNodeId, long targetNodeId) {
-        ExistsConsumer consumer = new ExistsConsumer(targetNodeId);
-        runForEach(sourceNodeId, consumer);
-        return consumer.found;
+        if (halfStorage && sourceNodeId > targetNodeId) {
+            return exists(targetNodeId, sourceNodeId);
+        }
+        AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(sourceNodeId);
+        return adjacencyCursor.advance(targetNodeId) == targetNodeId;
     }
 
     /*
-     * O(n) !
+     * O(1) block lookup using the block index of the adjacency list.
+     * Graphs with undirected half storage iterate the neighbours instead.
      */
     @Override
     public long getTarget(long sourceNodeId, long index) {
-        GetTargetConsumer consumer = new GetTargetConsumer(index);
-        runForEach(sourceNodeId, consumer);
-        return consumer.target;
+        if (halfStorage) {
+            GetTargetConsumer consumer = new GetTargetConsumer(index);
+            runForEach(sourceNodeId, consumer);
+            return consumer.target;
+        }
+        AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(sourceNodeId);
+        if (index >= adjacencyCursor.remaining()) {
+            return GetTargetConsumer.TARGET_NOT_FOUND;
+        }
+        return adjacencyCursor.advanceBy((int) index);
     }
 
+    /**
+     * With undirected half storage, the neighbours with a lower id are read from their index first,
+     * so that the neighbours are visited in ascending order, the same as for a fully stored graph.
+     */
     private void runForEach(long sourceId, RelationshipConsumer consumer) {
+        if (halfStorage) {
+            if (consumeAdjacentNodes(sourceId, lowerCursorForIteration(sourceId), consumer)) {
+                consumeStoredHalf(sourceId, adjacencyCursorForIteration(sourceId), consumer);
+            }
+            return;
+        }
         AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(sourceId);
         consumeAdjacentNodes(sourceId, adjacencyCursor, consumer);
     }
@@ -321,6 +627,15 @@ public class HugeGraph implements IdMapGraph {
     private void runForEach(long sourceId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
         if (!hasRelationshipProperty()) {
             runForEach(sourceId, (s, t) -> consumer.accept(s, t, fallbackValue));
+        } else if (halfStorage) {
+            if (consumeLowerNodesWithProperty(sourceId, consumer)) {
+                consumeStoredHalfWithProperty(
+                    sourceId,
+                    adjacencyCursorForIteration(sourceId),
+                    propertyCursorForIteration(sourceId),
+                    consumer
+                );
+            }
         } else {
             AdjacencyList.DecompressingCursor adjacencyCursor = adjacencyCursorForIteration(sourceId);
             AdjacencyList.Cursor propertyCursor = propertyCursorForIteration(sourceId);
@@ -329,6 +644,25 @@ public class HugeGraph implements IdMapGraph {
     }
 
     private AdjacencyList.DecompressingCursor adjacencyCursorForIteration(long sourceNodeId) {
+        return adjacencyCursorForIteration(adjacencyList, adjacencyOffsets, cursorCache, sourceNodeId);
+    }
+
+    private AdjacencyList.DecompressingCursor lowerCursorForIteration(long sourceNodeId) {
+        if (lowerAdjacencyList == null) {
+            TopologyCSR index = lowerNeighbours.index();
+            lowerAdjacencyList = index.list();
+            lowerAdjacencyOffsets = index.offsets();
+            lowerCursorCache = newAdjacencyCursor(lowerAdjacencyList);
+        }
+        return adjacencyCursorForIteration(lowerAdjacencyList, lowerAdjacencyOffsets, lowerCursorCache, sourceNodeId);
+    }
+
+    private AdjacencyList.DecompressingCursor adjacencyCursorForIteration(
+        AdjacencyList adjacencyList,
+        AdjacencyOffsets adjacencyOffsets,
+        AdjacencyList.DecompressingCursor reuse,
+        long sourceNodeId
+    ) {
         if (adjacencyOffsets == null) {
             throw new NullPointerException();
         }
@@ -336,11 +670,18 @@ public class HugeGraph implements IdMapGraph {
         if (offset == 0L) {
             return emptyCursor;
         }
-        return adjacencyList.decompressingCursor(cursorCache, offset);
-
+        return adjacencyList.decompressingCursor(reuse, offset);
     }
 
     private AdjacencyList.Cursor propertyCursorForIteration(long sourceNodeId) {
+        return propertyCursorForIteration(properties, propertyOffsets, sourceNodeId);
+    }
+
+    private AdjacencyList.Cursor propertyCursorForIteration(
+        AdjacencyList properties,
+        AdjacencyOffsets propertyOffsets,
+        long sourceNodeId
+    ) {
         if (!hasRelationshipProperty()) {
             throw new UnsupportedOperationException(
                 "Can not create property cursor on a graph without relationship property");
@@ -370,8 +711,34 @@ public class HugeGraph implements IdMapGraph {
             adjacencyOffsets = null;
             propertyOffsets = null;
         }
+        if (inverseAdjacencyList != null) {
+            tracker.remove(inverseAdjacencyList.release());
+            tracker.remove(inverseAdjacencyOffsets.release());
+            inverseAdjacencyList = null;
+            inverseProperties = null;
+            inverseAdjacencyOffsets = null;
+            inversePropertyOffsets = null;
+        }
+        if (degrees != null) {
+            tracker.remove(degrees.release());
+            degrees = null;
+        }
+        if (inverseDegrees != null) {
+            tracker.remove(inverseDegrees.release());
+            inverseDegrees = null;
+        }
+        if (lowerNeighbours != null) {
+            lowerNeighbours.release();
+            lowerNeighbours = null;
+            lowerAdjacencyList = null;
+            lowerAdjacencyOffsets = null;
+        }
         emptyCursor = null;
         cursorCache = null;
+        inverseCursorCache = null;
+        lowerCursorCache = null;
+        propertyLookupCursor = null;
+        propertyCursorCache = null;
     }
 
     @Override
@@ -393,15 +760,29 @@ public class HugeGraph implements IdMapGraph {
     }
 
     public Relationships relationships() {
-        return Relationships.of(
+        Relationships relationships = Relationships.of(
             relationshipCount,
             orientation,
             adjacencyList,
             adjacencyOffsets,
             properties,
             propertyOffsets,
+            inverseAdjacencyList,
+            inverseAdjacencyOffsets,
+            inverseProperties,
+            inversePropertyOffsets,
             defaultPropertyValue
         );
+        // keep the degree columns, so that a graph store created from this graph does not lose them
+        return ImmutableRelationships.of(
+            ImmutableTopologyCSR.builder()
+                .from(relationships.topology())
+                .degrees(Optional.ofNullable(degrees))
+                .inverseDegrees(Optional.ofNullable(inverseDegrees))
+                .lowerNeighbours(Optional.ofNullable(lowerNeighbours))
+                .build(),
+            relationships.properties()
+        );
     }
 
     @Override
@@ -417,18 +798,106 @@ public class HugeGraph implements IdMapGraph {
         return adjacency != null ? adjacency.rawDecompressingCursor() : null;
     }
 
-    private void consumeAdjacentNodes(
+    /**
+     * @return false iff the consumer stopped the iteration
+     */
+    private boolean consumeAdjacentNodes(
         long sourceId,
         AdjacencyList.DecompressingCursor adjacencyCursor,
         RelationshipConsumer consumer
     ) {
         while (adjacencyCursor.hasNextVLong()) {
             if (!consumer.accept(sourceId, adjacencyCursor.nextVLong())) {
-                break;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A self loop is stored once in the half storage and is visited twice,
+     * the same as for a fully stored graph.
+     */
+    private void consumeStoredHalf(
+        long sourceId,
+        AdjacencyList.DecompressingCursor adjacencyCursor,
+        RelationshipConsumer consumer
+    ) {
+        while (adjacencyCursor.hasNextVLong()) {
+            long targetId = adjacencyCursor.nextVLong();
+            if (!consumer.accept(sourceId, targetId)) {
+                return;
+            }
+            if (targetId == sourceId && !consumer.accept(sourceId, targetId)) {
+                return;
             }
         }
     }
 
+    private void consumeStoredHalfWithProperty(
+        long sourceId,
+        AdjacencyList.DecompressingCursor adjacencyCursor,
+        AdjacencyList.Cursor propertyCursor,
+        RelationshipWithPropertyConsumer consumer
+    ) {
+        while (adjacencyCursor.hasNextVLong()) {
+            long targetId = adjacencyCursor.nextVLong();
+            double property = Double.longBitsToDouble(propertyCursor.nextLong());
+            if (!consumer.accept(sourceId, targetId, property)) {
+                return;
+            }
+            if (targetId == sourceId && !consumer.accept(sourceId, targetId, property)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The index of the lower neighbours does not store properties.
+     * The property of every lower neighbour is looked up in the stored adjacency of that neighbour,
+     * parallel relationships are matched by the order in which they occur.
+     *
+     * @return false iff the consumer stopped the iteration
+     */
+    private boolean consumeLowerNodesWithProperty(long sourceId, RelationshipWithPropertyConsumer consumer) {
+        AdjacencyList.DecompressingCursor lowerCursor = lowerCursorForIteration(sourceId);
+        long previousTarget = -1L;
+        int occurrence = 0;
+        while (lowerCursor.hasNextVLong()) {
+            long targetId = lowerCursor.nextVLong();
+            occurrence = targetId == previousTarget ? occurrence + 1 : 0;
+            previousTarget = targetId;
+            if (!consumer.accept(sourceId, targetId, storedPropertyValue(targetId, sourceId, occurrence))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * O(log(degree)), uses the block index of the adjacency list to find the stored relationship.
+     */
+    private double storedPropertyValue(long sourceId, long targetId, int occurrence) {
+        long relOffset = adjacencyOffsets.get(sourceId);
+        long propertyOffset = propertyOffsets.get(sourceId);
+        if (relOffset == NO_SUCH_NODE || propertyOffset == 0L) {
+            return defaultPropertyValue;
+        }
+        AdjacencyList.DecompressingCursor relDecompressingCursor = adjacencyList.decompressingCursor(
+            propertyLookupCursor,
+            relOffset
+        );
+        if (relDecompressingCursor.advance(targetId) != targetId) {
+            return defaultPropertyValue;
+        }
+        AdjacencyList.Cursor propertyCursor = propertyCursorCache.init(propertyOffset);
+        propertyCursor.skip(relDecompressingCursor.position() + occurrence);
+        if (!propertyCursor.hasNextLong()) {
+            return defaultPropertyValue;
+        }
+        return Double.longBitsToDouble(propertyCursor.nextLong());
+    }
+
     private void consumeAdjacentNodesWithProperty(
         long sourceId,
         AdjacencyList.DecompressingCursor adjacencyCursor,
@@ -468,24 +937,6 @@ public class HugeGraph implements IdMapGraph {
         }
     }
 
-    private static class ExistsConsumer implements RelationshipConsumer {
-        private final long targetNodeId;
-        private boolean found = false;
-
-        ExistsConsumer(long targetNodeId) {
-            this.targetNodeId = targetNodeId;
-        }
-
-        @Override
-        public boolean accept(long s, long t) {
-            if (t == targetNodeId) {
-                found = true;
-                return false;
-            }
-            return true;
-        }
-    }
-
     @ValueClass
     public interface Relationships {
 
@@ -502,16 +953,54 @@ public class HugeGraph implements IdMapGraph {
             @Nullable AdjacencyOffsets propertyOffsets,
             double defaultPropertyValue
         ) {
-            TopologyCSR topologyCSR = ImmutableTopologyCSR.of(adjacencyList, adjacencyOffsets, relationshipCount, orientation);
+            return of(
+                relationshipCount,
+                orientation,
+                adjacencyList,
+                adjacencyOffsets,
+                properties,
+                propertyOffsets,
+                null,
+                null,
+                null,
+                null,
+                defaultPropertyValue
+            );
+        }
+
+        static Relationships of(
+            long relationshipCount,
+            Orientation orientation,
+            AdjacencyList adjacencyList,
+            AdjacencyOffsets adjacencyOffsets,
+            @Nullable AdjacencyList properties,
+            @Nullable AdjacencyOffsets propertyOffsets,
+            @Nullable AdjacencyList inverseAdjacencyList,
+            @Nullable AdjacencyOffsets inverseAdjacencyOffsets,
+            @Nullable AdjacencyList inverseProperties,
+            @Nullable AdjacencyOffsets inversePropertyOffsets,
+            double defaultPropertyValue
+        ) {
+            TopologyCSR topologyCSR = ImmutableTopologyCSR.builder()
+                .list(adjacencyList)
+                .offsets(adjacencyOffsets)
+                .elementCount(relationshipCount)
+                .orientation(orientation)
+                .inverseList(Optional.ofNullable(inverseAdjacencyList))
+                .inverseOffsets(Optional.ofNullable(inverseAdjacencyOffsets))
+                .build();
 
             Optional<PropertyCSR> maybePropertyCSR = properties != null && propertyOffsets != null
-                ? Optional.of(ImmutablePropertyCSR.of(
-                    properties,
-                    propertyOffsets,
-                    relationshipCount,
-                    orientation,
-                    defaultPropertyValue
-                )) : Optional.empty();
+                ? Optional.of(ImmutablePropertyCSR.builder()
+                    .list(properties)
+                    .offsets(propertyOffsets)
+                    .elementCount(relationshipCount)
+                    .orientation(orientation)
+                    .defaultPropertyValue(defaultPropertyValue)
+                    .inverseList(Optional.ofNullable(inverseProperties))
+                    .inverseOffsets(Optional.ofNullable(inversePropertyOffsets))
+                    .build()
+                ) : Optional.empty();
 
             return ImmutableRelationships.of(topologyCSR, maybePropertyCSR);
         }
@@ -526,6 +1015,33 @@ public class HugeGraph implements IdMapGraph {
         long elementCount();
 
         Orientation orientation();
+
+        /**
+         * The adjacency in the opposite direction of {@link #orientation()}.
+         * Only present for directed projections that have been created with {@code indexInverse}.
+         */
+        @Value.Parameter(false)
+        Optional<AdjacencyList> inverseList();
+
+        @Value.Parameter(false)
+        Optional<AdjacencyOffsets> inverseOffsets();
+
+        /**
+         * The degree of every node, only present for graphs that have been created with {@code denseDegrees}.
+         */
+        @Value.Parameter(false)
+        Optional<HugeIntArray> degrees();
+
+        @Value.Parameter(false)
+        Optional<HugeIntArray> inverseDegrees();
+
+        /**
+         * Only present for undirected projections that have been created with {@code halfUndirectedStorage}.
+         * {@link #list()} then holds every relationship once, towards the node with the higher id,
+         * and {@link #degrees()} counts the relationships of every node in both directions.
+         */
+        @Value.Parameter(false)
+        Optional<LowerNeighbours> lowerNeighbours();
     }
 
     @ValueClass
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.function.Supplier;
+
+/**
+ * The neighbours with a lower id of an undirected topology that stores every relationship only once,
+ * towards the node with the higher id.
+ * <p>
+ * The index is built from the stored half when a graph of the topology is first traversed and is
+ * shared by all graphs of the topology. Degrees, intersections, property lookups and
+ * {@link HugeGraph#exists(long, long)} work on the stored half and never build the index.
+ * Self loops are only part of the stored half.
+ */
+public final class LowerNeighbours {
+
+    private final Supplier<HugeGraph.TopologyCSR> indexBuilder;
+    private final AllocationTracker tracker;
+
+    private volatile @Nullable HugeGraph.TopologyCSR index;
+    private boolean released;
+
+    /**
+     * @param indexBuilder builds the lower neighbours of every node, its memory is tracked with the given tracker
+     */
+    public LowerNeighbours(Supplier<HugeGraph.TopologyCSR> indexBuilder, AllocationTracker tracker) {
+        this.indexBuilder = indexBuilder;
+        this.tracker = tracker;
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    HugeGraph.TopologyCSR index() {
+        HugeGraph.TopologyCSR index = this.index;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (this.index == null) {
+                if (released) {
+                    throw new IllegalStateException("The lower neighbours of a released topology can not be indexed.");
+                }
+                this.index = indexBuilder.get();
+            }
+            return this.index;
+        }
+    }
+
+    synchronized void release() {
+        released = true;
+        HugeGraph.TopologyCSR index = this.index;
+        if (index != null) {
+            tracker.remove(index.list().release());
+            tracker.remove(index.offsets().release());
+            this.index = null;
+        }
+    }
+}
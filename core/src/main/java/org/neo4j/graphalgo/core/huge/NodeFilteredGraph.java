@@ -39,7 +39,7 @@ public class NodeFilteredGraph extends FilterGraph implements IdMapGraph {
 
     private final IdMap filteredIdMap;
 
-    public NodeFilteredGraph(HugeGraph graph, IdMap filteredIdMap) {
+    public NodeFilteredGraph(IdMapGraph graph, IdMap filteredIdMap) {
         super(graph);
         this.filteredIdMap = filteredIdMap;
     }
@@ -74,6 +74,11 @@ public class NodeFilteredGraph extends FilterGraph implements IdMapGraph {
         return super.degree(filteredIdMap.toOriginalNodeId(nodeId));
     }
 
+    @Override
+    public int inverseDegree(long nodeId) {
+        return super.inverseDegree(filteredIdMap.toOriginalNodeId(nodeId));
+    }
+
     @Override
     public long nodeCount() {
         return filteredIdMap.nodeCount();
@@ -106,6 +111,18 @@ public class NodeFilteredGraph extends FilterGraph implements IdMapGraph {
         super.forEachRelationship(filteredIdMap.toOriginalNodeId(nodeId), fallbackValue, (s, t, p) -> filterAndConsume(s, t, p, consumer));
     }
 
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        super.forEachInverseRelationship(filteredIdMap.toOriginalNodeId(nodeId), (s, t) -> filterAndConsume(s, t, consumer));
+    }
+
+    @Override
+    public void forEachInverseRelationship(
+        long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer
+    ) {
+        super.forEachInverseRelationship(filteredIdMap.toOriginalNodeId(nodeId), fallbackValue, (s, t, p) -> filterAndConsume(s, t, p, consumer));
+    }
+
     @Override
     public long getTarget(long sourceNodeId, long index) {
         HugeGraph.GetTargetConsumer consumer = new HugeGraph.GetTargetConsumer(index);
@@ -134,7 +151,7 @@ public class NodeFilteredGraph extends FilterGraph implements IdMapGraph {
 
     @Override
     public IdMapGraph concurrentCopy() {
-        return new NodeFilteredGraph((HugeGraph) graph.concurrentCopy(), filteredIdMap);
+        return new NodeFilteredGraph((IdMapGraph) graph.concurrentCopy(), filteredIdMap);
     }
 
     @Override
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Pages of an {@link AdjacencyList} that are stored outside of the Java heap,
+ * either in direct memory or in a memory-mapped file.
+ *
+ * Pages are grouped into chunks of at most {@link #MAX_CHUNK_SIZE} bytes,
+ * so that a large list does not require one allocation or mapping per page.
+ */
+public final class OffHeapPages {
+
+    static final int MAX_CHUNK_SIZE = 1 << 30;
+    static final int MAX_BUILDER_CHUNK_SIZE = AdjacencyList.PAGE_SIZE << 6;
+    private static final ByteBuffer EMPTY_PAGE = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final PageStorage storage;
+    private final AllocationTracker tracker;
+    private final long allocatedMemory;
+    private final Path file;
+    private ByteBuffer[] pages;
+
+    /**
+     * Creates a builder that allocates the pages in the given storage as soon as they are written,
+     * so that pages never have to be held on the heap once they have been filled.
+     */
+    public static Builder builder(PageStorage storage, AllocationTracker tracker) {
+        if (storage != PageStorage.DIRECT && storage != PageStorage.MAPPED) {
+            throw new IllegalArgumentException(String.format(
+                "Page storage `%s` is not an off-heap storage.",
+                storage
+            ));
+        }
+        return new Builder(storage, tracker);
+    }
+
+    /**
+     * Maps pages with the given lengths that are stored consecutively in the given file, starting at {@code position}.
+     * The mapping stays valid after the channel has been closed. The file is not deleted on {@link #release()}.
+     */
+    public static OffHeapPages map(
+        FileChannel channel,
+        long position,
+        int[] pageLengths,
+        AllocationTracker tracker
+    ) throws IOException {
+        ByteBuffer[] pages = new ByteBuffer[pageLengths.length];
+        long allocatedMemory = 0L;
+        int chunkStart = 0;
+        while (chunkStart < pageLengths.length) {
+            int chunkEnd = chunkEnd(pageLengths, chunkStart);
+            int chunkSize = chunkSize(pageLengths, chunkStart, chunkEnd);
+            ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position + allocatedMemory, chunkSize);
+            int chunkPosition = 0;
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                pages[i] = slice(chunk, chunkPosition, pageLengths[i]);
+                chunkPosition += pageLengths[i];
+            }
+            allocatedMemory += chunkSize;
+            chunkStart = chunkEnd;
+        }
+        tracker.addOffHeap(allocatedMemory);
+        return new OffHeapPages(PageStorage.MAPPED, pages, allocatedMemory, null, tracker);
+    }
+
+    private OffHeapPages(
+        PageStorage storage,
+        ByteBuffer[] pages,
+        long allocatedMemory,
+        Path file,
+        AllocationTracker tracker
+    ) {
+        this.storage = storage;
+        this.pages = pages;
+        this.allocatedMemory = allocatedMemory;
+        this.file = file;
+        this.tracker = tracker;
+    }
+
+    public PageStorage storage() {
+        return storage;
+    }
+
+    int pageCount() {
+        return pages.length;
+    }
+
+    int pageLength(int pageIndex) {
+        return pages[pageIndex].capacity();
+    }
+
+    int readInt(int pageIndex, int offset) {
+        return pages[pageIndex].getInt(offset);
+    }
+
+    /**
+     * Returns a read-only view of the bytes of the given page.
+     */
+    ByteBuffer page(int pageIndex) {
+        return pages[pageIndex].asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the little-endian page itself, so that cursors can decode it in place.
+     * The page is shared between all cursors, it must only be read with absolute gets.
+     */
+    ByteBuffer sharedPage(int pageIndex) {
+        return pages[pageIndex];
+    }
+
+    /**
+     * Releases the pages and returns the number of freed off-heap bytes.
+     * Direct memory is reclaimed once the buffers are garbage collected, a mapped file is deleted.
+     */
+    long release() {
+        if (pages == null) {
+            return 0L;
+        }
+        pages = null;
+        deleteQuietly(file);
+        tracker.removeOffHeap(allocatedMemory);
+        return allocatedMemory;
+    }
+
+    private static int chunkEnd(int[] pageLengths, int chunkStart) {
+        long chunkSize = 0L;
+        int chunkEnd = chunkStart;
+        while (chunkEnd < pageLengths.length) {
+            int pageLength = pageLengths[chunkEnd];
+            if (chunkEnd > chunkStart && chunkSize + pageLength > MAX_CHUNK_SIZE) {
+                break;
+            }
+            chunkSize += pageLength;
+            chunkEnd++;
+        }
+        return chunkEnd;
+    }
+
+    private static int chunkSize(int[] pageLengths, int chunkStart, int chunkEnd) {
+        int chunkSize = 0;
+        for (int i = chunkStart; i < chunkEnd; i++) {
+            chunkSize += pageLengths[i];
+        }
+        return chunkSize;
+    }
+
+    private static ByteBuffer slice(ByteBuffer chunk, int position, int length) {
+        ByteBuffer page = chunk.duplicate();
+        page.position(position).limit(position + length);
+        return page.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // the file is deleted right after
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // the file is left behind in the temporary directory
+        }
+    }
+
+    /**
+     * Allocates the pages of a list while it is being built.
+     * Chunks start at the size of a single page and double up to {@link #MAX_BUILDER_CHUNK_SIZE},
+     * which bounds the unused tail of the last chunk for small as well as for large lists.
+     * Pages can be written in any order and from any thread, but every page must be written only once.
+     */
+    public static final class Builder {
+
+        private final PageStorage storage;
+        private final AllocationTracker tracker;
+
+        private ByteBuffer[] pages;
+        private ByteBuffer chunk;
+        private long allocatedMemory;
+        private Path file;
+        private FileChannel channel;
+
+        private Builder(PageStorage storage, AllocationTracker tracker) {
+            this.storage = storage;
+            this.tracker = tracker;
+            this.pages = new ByteBuffer[0];
+        }
+
+        /**
+         * Copies the first {@code length} bytes of the given page into the storage.
+         * The stored page has the length of the given array, the remaining bytes are zero.
+         */
+        public void write(int pageIndex, byte[] page, int length) {
+            ByteBuffer target = reserve(pageIndex, page.length).duplicate();
+            target.put(page, 0, length);
+        }
+
+        /**
+         * Returns the pages that have been written, pages that have not been written are empty.
+         * A mapped file is deleted when the returned pages are released.
+         */
+        public synchronized OffHeapPages build(int pageCount) {
+            ByteBuffer[] builtPages = new ByteBuffer[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                builtPages[i] = i < pages.length && pages[i] != null ? pages[i] : EMPTY_PAGE;
+            }
+            pages = null;
+            chunk = null;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    deleteQuietly(file);
+                    tracker.removeOffHeap(allocatedMemory);
+                    throw new UncheckedIOException("Could not create memory-mapped adjacency pages", e);
+                }
+            }
+            return new OffHeapPages(storage, builtPages, allocatedMemory, file, tracker);
+        }
+
+        private synchronized ByteBuffer reserve(int pageIndex, int pageLength) {
+            if (pages == null) {
+                throw new IllegalStateException("The pages have already been built.");
+            }
+            if (chunk == null || chunk.remaining() < pageLength) {
+                chunk = allocateChunk(Math.max(pageLength, nextChunkSize()));
+            }
+            ByteBuffer page = slice(chunk, chunk.position(), pageLength);
+            chunk.position(chunk.position() + pageLength);
+            if (pageIndex >= pages.length) {
+                pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length * 2));
+            }
+            pages[pageIndex] = page;
+            return page;
+        }
+
+        private int nextChunkSize() {
+            return (int) Math.min(MAX_BUILDER_CHUNK_SIZE, Math.max(AdjacencyList.PAGE_SIZE, allocatedMemory));
+        }
+
+        private ByteBuffer allocateChunk(int chunkSize) {
+            ByteBuffer newChunk = storage == PageStorage.DIRECT
+                ? ByteBuffer.allocateDirect(chunkSize)
+                : mapChunk(chunkSize);
+            allocatedMemory += chunkSize;
+            tracker.addOffHeap(chunkSize);
+            return newChunk;
+        }
+
+        private ByteBuffer mapChunk(int chunkSize) {
+            try {
+                if (channel == null) {
+                    file = Files.createTempFile("gds-adjacency-", ".pages");
+                    channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                return channel.map(FileChannel.MapMode.READ_WRITE, allocatedMemory, chunkSize);
+            } catch (IOException e) {
+                closeQuietly(channel);
+                deleteQuietly(file);
+                tracker.removeOffHeap(allocatedMemory);
+                pages = null;
+                throw new UncheckedIOException("Could not create memory-mapped adjacency pages", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decodes blocks written by {@link org.neo4j.graphalgo.core.loading.PackedEncoding}.
+ * The packed deltas are unpacked in a branch-free loop and summed up in a second pass.
+ */
+final class PackedDecoding {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(
+        long[].class,
+        ByteOrder.LITTLE_ENDIAN
+    );
+
+    static int decodeDeltaPacked(
+            long startValue,
+            byte[] adjacencyPage,
+            int offset,
+            int limit,
+            long[] out) {
+        if (limit == 0) {
+            return offset;
+        }
+        int bits = adjacencyPage[offset++] & 255;
+
+        long input, value = 0L;
+        int shift = 0;
+        do {
+            input = adjacencyPage[offset++];
+            value += (input & 127L) << shift;
+            shift += 7;
+        } while ((input & 128L) == 0L);
+        out[0] = startValue + value;
+
+        if (bits == Long.SIZE) {
+            for (int i = 1; i < limit; i++) {
+                out[i] = (long) LONGS.get(adjacencyPage, offset);
+                offset += Long.BYTES;
+            }
+        } else {
+            long mask = (1L << bits) - 1L;
+            for (int i = 1, bit = 0; i < limit; i++, bit += bits) {
+                long word = (long) LONGS.get(adjacencyPage, offset + (bit >>> 3));
+                out[i] = (word >>> (bit & 7)) & mask;
+            }
+            offset += (int) (((long) (limit - 1) * bits + 7L) >>> 3);
+        }
+
+        for (int i = 1; i < limit; i++) {
+            out[i] += out[i - 1];
+        }
+        return offset;
+    }
+
+    /**
+     * Decodes a block of a little-endian off-heap page.
+     */
+    static int decodeDeltaPacked(
+            long startValue,
+            ByteBuffer adjacencyPage,
+            int offset,
+            int limit,
+            long[] out) {
+        if (limit == 0) {
+            return offset;
+        }
+        int bits = adjacencyPage.get(offset++) & 255;
+
+        long input, value = 0L;
+        int shift = 0;
+        do {
+            input = adjacencyPage.get(offset++);
+            value += (input & 127L) << shift;
+            shift += 7;
+        } while ((input & 128L) == 0L);
+        out[0] = startValue + value;
+
+        if (bits == Long.SIZE) {
+            for (int i = 1; i < limit; i++) {
+                out[i] = adjacencyPage.getLong(offset);
+                offset += Long.BYTES;
+            }
+        } else {
+            long mask = (1L << bits) - 1L;
+            for (int i = 1, bit = 0; i < limit; i++, bit += bits) {
+                long word = adjacencyPage.getLong(offset + (bit >>> 3));
+                out[i] = (word >>> (bit & 7)) & mask;
+            }
+            offset += (int) (((long) (limit - 1) * bits + 7L) >>> 3);
+        }
+
+        for (int i = 1; i < limit; i++) {
+            out[i] += out[i - 1];
+        }
+        return offset;
+    }
+
+    private PackedDecoding() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.api.IdMapping;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.paged.PageUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Relationships that have been added to or removed from a relationship type after its adjacency has been built.
+ * <p>
+ * Added relationships are kept in sorted uncompressed per-node lists, removed relationships are stored
+ * as per-node tombstones for targets of the compressed adjacency. A {@link DeltaGraph} merges both
+ * with the compressed adjacency when the relationships of a node are iterated, until the delta is
+ * folded back into a new adjacency by a compaction.
+ * <p>
+ * The deltas are stored in pages per node id. An update copies the page table and only those pages
+ * and node deltas that it modifies, all other pages are shared with the previous delta.
+ * <p>
+ * A delta is never modified once it has been created, {@link #update(IdMapping, RelationshipIterator, Consumer)}
+ * returns a new delta, so that graphs which have been created before an update are not affected by it.
+ */
+public final class RelationshipDelta {
+
+    private final Orientation orientation;
+    private final List<String> propertyKeys;
+    private final double[] defaultPropertyValues;
+    private final NodeDeltas outgoing;
+    private final @Nullable NodeDeltas incoming;
+    private final long relationshipCount;
+    private final int version;
+
+    /**
+     * @param nodeCount             the number of nodes of the adjacency
+     * @param indexInverse          if true, the incoming relationships of every node are tracked as well
+     * @param propertyKeys          the relationship properties of the relationship type
+     * @param defaultPropertyValues the values used for properties that are not given for an added relationship
+     */
+    public static RelationshipDelta empty(
+        long nodeCount,
+        Orientation orientation,
+        boolean indexInverse,
+        List<String> propertyKeys,
+        double[] defaultPropertyValues
+    ) {
+        return new RelationshipDelta(
+            orientation,
+            propertyKeys,
+            defaultPropertyValues,
+            new NodeDeltas(nodeCount),
+            indexInverse && orientation != Orientation.UNDIRECTED ? new NodeDeltas(nodeCount) : null,
+            0L,
+            0
+        );
+    }
+
+    private RelationshipDelta(
+        Orientation orientation,
+        List<String> propertyKeys,
+        double[] defaultPropertyValues,
+        NodeDeltas outgoing,
+        @Nullable NodeDeltas incoming,
+        long relationshipCount,
+        int version
+    ) {
+        this.orientation = orientation;
+        this.propertyKeys = Collections.unmodifiableList(propertyKeys);
+        this.defaultPropertyValues = defaultPropertyValues;
+        this.outgoing = outgoing;
+        this.incoming = incoming;
+        this.relationshipCount = relationshipCount;
+        this.version = version;
+    }
+
+    public boolean isEmpty() {
+        return outgoing.isEmpty();
+    }
+
+    /**
+     * @return the number of added relationships minus the number of removed relationships
+     */
+    public long relationshipCount() {
+        return relationshipCount;
+    }
+
+    public List<String> propertyKeys() {
+        return propertyKeys;
+    }
+
+    /**
+     * @return the index of the property values of the given key, or -1 if the property does not exist
+     */
+    public int propertyIndex(String propertyKey) {
+        return propertyKeys.indexOf(propertyKey);
+    }
+
+    @Nullable NodeDelta outgoing(long nodeId) {
+        return outgoing.get(nodeId);
+    }
+
+    @Nullable NodeDelta incoming(long nodeId) {
+        if (orientation == Orientation.UNDIRECTED) {
+            return outgoing.get(nodeId);
+        }
+        return incoming == null ? null : incoming.get(nodeId);
+    }
+
+    /**
+     * Applies the given updates on top of this delta.
+     *
+     * @param nodes            maps the original node ids of the updates to the ids of the adjacency
+     * @param baseAdjacency    the compressed adjacency, used to find the relationships which are hidden by a removal
+     * @param updateFunction   receives the updates, source and target are interpreted in the orientation of the relationship type
+     * @return a new delta, this delta is not modified
+     */
+    public RelationshipDelta update(
+        IdMapping nodes,
+        RelationshipIterator baseAdjacency,
+        Consumer<Updates> updateFunction
+    ) {
+        Updater updater = new Updater(nodes, baseAdjacency);
+        updateFunction.accept(updater);
+        return new RelationshipDelta(
+            orientation,
+            propertyKeys,
+            defaultPropertyValues,
+            updater.outgoing,
+            updater.incoming,
+            updater.relationshipCount,
+            updater.version
+        );
+    }
+
+    public interface Updates {
+
+        /**
+         * Adds a relationship, all relationship properties are set to their default values.
+         */
+        void addRelationship(long sourceNodeId, long targetNodeId);
+
+        /**
+         * Adds a relationship, relationship properties that are not contained in the given map
+         * are set to their default values.
+         */
+        void addRelationship(long sourceNodeId, long targetNodeId, Map<String, Double> properties);
+
+        /**
+         * Removes all relationships between the given nodes, including relationships that have
+         * been added by a previous update.
+         */
+        void removeRelationship(long sourceNodeId, long targetNodeId);
+    }
+
+    private final class Updater implements Updates {
+
+        private final IdMapping nodes;
+        private final RelationshipIterator baseAdjacency;
+        private final NodeDeltas outgoing;
+        private final @Nullable NodeDeltas incoming;
+        private final int version;
+        private long relationshipCount;
+
+        Updater(IdMapping nodes, RelationshipIterator baseAdjacency) {
+            this.nodes = nodes;
+            this.baseAdjacency = baseAdjacency;
+            this.outgoing = RelationshipDelta.this.outgoing.copy();
+            this.incoming = RelationshipDelta.this.incoming == null
+                ? null
+                : RelationshipDelta.this.incoming.copy();
+            this.version = RelationshipDelta.this.version + 1;
+            this.relationshipCount = RelationshipDelta.this.relationshipCount;
+        }
+
+        @Override
+        public void addRelationship(long sourceNodeId, long targetNodeId) {
+            addRelationship(sourceNodeId, targetNodeId, Collections.emptyMap());
+        }
+
+        @Override
+        public void addRelationship(long sourceNodeId, long targetNodeId, Map<String, Double> properties) {
+            long source = mappedNodeId(sourceNodeId, "source");
+            long target = mappedNodeId(targetNodeId, "target");
+            double[] propertyValues = propertyValues(properties);
+
+            modifiableDelta(outgoing, source).add(target, propertyValues);
+            relationshipCount++;
+            if (orientation == Orientation.UNDIRECTED) {
+                modifiableDelta(outgoing, target).add(source, propertyValues);
+                relationshipCount++;
+            } else if (incoming != null) {
+                modifiableDelta(incoming, target).add(source, propertyValues);
+            }
+        }
+
+        @Override
+        public void removeRelationship(long sourceNodeId, long targetNodeId) {
+            long source = mappedNodeId(sourceNodeId, "source");
+            long target = mappedNodeId(targetNodeId, "target");
+
+            relationshipCount -= remove(outgoing, source, target, false);
+            if (orientation == Orientation.UNDIRECTED) {
+                relationshipCount -= remove(outgoing, target, source, false);
+            } else if (incoming != null) {
+                remove(incoming, target, source, true);
+            }
+        }
+
+        private int remove(NodeDeltas deltas, long nodeId, long target, boolean inverse) {
+            NodeDelta current = deltas.get(nodeId);
+            int addedCount = current == null ? 0 : current.addedCount(target);
+            int baseCount = current != null && current.isRemoved(target) ? 0 : baseCount(nodeId, target, inverse);
+            if (addedCount == 0 && baseCount == 0) {
+                return 0;
+            }
+
+            NodeDelta delta = modifiableDelta(deltas, nodeId);
+            delta.removeAdded(target);
+            if (baseCount > 0) {
+                delta.addTombstone(target, baseCount);
+            }
+            if (delta.isEmpty()) {
+                deltas.remove(nodeId, version);
+            }
+            return addedCount + baseCount;
+        }
+
+        private int baseCount(long nodeId, long target, boolean inverse) {
+            int[] count = {0};
+            RelationshipConsumer counter = (s, t) -> {
+                if (t == target) {
+                    count[0]++;
+                }
+                return true;
+            };
+            if (inverse) {
+                baseAdjacency.forEachInverseRelationship(nodeId, counter);
+            } else {
+                baseAdjacency.forEachRelationship(nodeId, counter);
+            }
+            return count[0];
+        }
+
+        private NodeDelta modifiableDelta(NodeDeltas deltas, long nodeId) {
+            NodeDelta delta = deltas.get(nodeId);
+            if (delta == null) {
+                delta = new NodeDelta(version, propertyKeys.size());
+                deltas.put(nodeId, delta, version);
+            } else if (delta.version != version) {
+                // the delta is shared with the previous version, copy it before it is modified
+                delta = delta.copy(version);
+                deltas.put(nodeId, delta, version);
+            }
+            return delta;
+        }
+
+        private long mappedNodeId(long nodeId, String side) {
+            if (!nodes.contains(nodeId)) {
+                throw new IllegalArgumentException(String.format(
+                    "Failed to update relationship with unknown %s-node id %s.",
+                    side,
+                    nodeId
+                ));
+            }
+            return nodes.toMappedNodeId(nodeId);
+        }
+
+        private double[] propertyValues(Map<String, Double> properties) {
+            properties.keySet().forEach(propertyKey -> {
+                if (!propertyKeys.contains(propertyKey)) {
+                    throw new IllegalArgumentException(String.format(
+                        "Relationship property `%s` does not exist. Available properties: %s.",
+                        propertyKey,
+                        propertyKeys
+                    ));
+                }
+            });
+            double[] values = new double[propertyKeys.size()];
+            for (int i = 0; i < values.length; i++) {
+                Double value = properties.get(propertyKeys.get(i));
+                values[i] = value == null ? defaultPropertyValues[i] : value;
+            }
+            return values;
+        }
+    }
+
+    /**
+     * The node deltas by node id, in pages that are copied on write.
+     * A page is owned by the version that created or copied it, other versions must copy it before modifying it.
+     */
+    private static final class NodeDeltas {
+
+        private static final int PAGE_SHIFT = 12;
+        private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+        private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+        private final NodeDelta[][] pages;
+        private final int[] pageVersions;
+        private long size;
+
+        NodeDeltas(long nodeCount) {
+            int numPages = PageUtil.numPagesFor(nodeCount, PAGE_SHIFT, PAGE_MASK);
+            this.pages = new NodeDelta[numPages][];
+            this.pageVersions = new int[numPages];
+        }
+
+        private NodeDeltas(NodeDeltas other) {
+            this.pages = other.pages.clone();
+            this.pageVersions = other.pageVersions.clone();
+            this.size = other.size;
+        }
+
+        NodeDeltas copy() {
+            return new NodeDeltas(this);
+        }
+
+        boolean isEmpty() {
+            return size == 0L;
+        }
+
+        @Nullable NodeDelta get(long nodeId) {
+            NodeDelta[] page = pages[PageUtil.pageIndex(nodeId, PAGE_SHIFT)];
+            return page == null ? null : page[PageUtil.indexInPage(nodeId, PAGE_MASK)];
+        }
+
+        void put(long nodeId, NodeDelta delta, int version) {
+            NodeDelta[] page = modifiablePage(PageUtil.pageIndex(nodeId, PAGE_SHIFT), version);
+            int indexInPage = PageUtil.indexInPage(nodeId, PAGE_MASK);
+            if (page[indexInPage] == null) {
+                size++;
+            }
+            page[indexInPage] = delta;
+        }
+
+        void remove(long nodeId, int version) {
+            if (get(nodeId) != null) {
+                modifiablePage(PageUtil.pageIndex(nodeId, PAGE_SHIFT), version)[PageUtil.indexInPage(nodeId, PAGE_MASK)] = null;
+                size--;
+            }
+        }
+
+        private NodeDelta[] modifiablePage(int pageIndex, int version) {
+            NodeDelta[] page = pages[pageIndex];
+            if (page == null) {
+                page = new NodeDelta[PAGE_SIZE];
+            } else if (pageVersions[pageIndex] != version) {
+                page = page.clone();
+            } else {
+                return page;
+            }
+            pages[pageIndex] = page;
+            pageVersions[pageIndex] = version;
+            return page;
+        }
+    }
+
+    /**
+     * The added relationships and the tombstones of a single node.
+     * Tombstones only hide relationships of the compressed adjacency, never added relationships.
+     */
+    static final class NodeDelta {
+
+        private final int version;
+
+        // sorted, relationships to the same target are kept in the order they have been added
+        private long[] addedTargets;
+        private double[][] addedProperties;
+        private int addedCount;
+
+        // sorted, so that tombstones can be looked up while the compressed adjacency is decoded
+        private long[] tombstones;
+        private int tombstoneCount;
+        // the number of relationships of the compressed adjacency that are hidden by the tombstones
+        private int removedCount;
+
+        NodeDelta(int version, int propertyCount) {
+            this.version = version;
+            this.addedTargets = new long[0];
+            this.addedProperties = new double[propertyCount][0];
+            this.tombstones = new long[0];
+        }
+
+        private NodeDelta(NodeDelta other, int version) {
+            this.version = version;
+            this.addedTargets = Arrays.copyOf(other.addedTargets, other.addedCount);
+            this.addedProperties = new double[other.addedProperties.length][];
+            for (int i = 0; i < addedProperties.length; i++) {
+                addedProperties[i] = Arrays.copyOf(other.addedProperties[i], other.addedCount);
+            }
+            this.addedCount = other.addedCount;
+            this.tombstones = Arrays.copyOf(other.tombstones, other.tombstoneCount);
+            this.tombstoneCount = other.tombstoneCount;
+            this.removedCount = other.removedCount;
+        }
+
+        NodeDelta copy(int version) {
+            return new NodeDelta(this, version);
+        }
+
+        int addedCount() {
+            return addedCount;
+        }
+
+        long addedTarget(int index) {
+            return addedTargets[index];
+        }
+
+        double addedProperty(int propertyIndex, int index) {
+            return addedProperties[propertyIndex][index];
+        }
+
+        int removedCount() {
+            return removedCount;
+        }
+
+        boolean hasTombstones() {
+            return tombstoneCount > 0;
+        }
+
+        boolean isRemoved(long target) {
+            return tombstoneCount > 0 && Arrays.binarySearch(tombstones, 0, tombstoneCount, target) >= 0;
+        }
+
+        /**
+         * @return the index of the first added relationship to the given target, or -1 if there is none
+         */
+        int addedIndexOf(long target) {
+            int index = lowerBound(target);
+            return index < addedCount && addedTargets[index] == target ? index : -1;
+        }
+
+        int degreeChange() {
+            return addedCount - removedCount;
+        }
+
+        boolean isEmpty() {
+            return addedCount == 0 && tombstoneCount == 0;
+        }
+
+        private int addedCount(long target) {
+            return lowerBound(target + 1) - lowerBound(target);
+        }
+
+        /**
+         * @return the index of the first added relationship with a target that is not less than the given one
+         */
+        private int lowerBound(long target) {
+            int low = 0;
+            int high = addedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (addedTargets[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void add(long target, double[] propertyValues) {
+            if (addedCount == addedTargets.length) {
+                int newLength = Math.max(4, addedCount + (addedCount >> 1));
+                addedTargets = Arrays.copyOf(addedTargets, newLength);
+                for (int i = 0; i < addedProperties.length; i++) {
+                    addedProperties[i] = Arrays.copyOf(addedProperties[i], newLength);
+                }
+            }
+            // after all relationships to the same target
+            int index = lowerBound(target + 1);
+            int moved = addedCount - index;
+            System.arraycopy(addedTargets, index, addedTargets, index + 1, moved);
+            addedTargets[index] = target;
+            for (int i = 0; i < addedProperties.length; i++) {
+                System.arraycopy(addedProperties[i], index, addedProperties[i], index + 1, moved);
+                addedProperties[i][index] = propertyValues[i];
+            }
+            addedCount++;
+        }
+
+        private void removeAdded(long target) {
+            int kept = 0;
+            for (int i = 0; i < addedCount; i++) {
+                if (addedTargets[i] != target) {
+                    addedTargets[kept] = addedTargets[i];
+                    for (double[] properties : addedProperties) {
+                        properties[kept] = properties[i];
+                    }
+                    kept++;
+                }
+            }
+            addedCount = kept;
+        }
+
+        private void addTombstone(long target, int hiddenRelationships) {
+            int index = Arrays.binarySearch(tombstones, 0, tombstoneCount, target);
+            if (index >= 0) {
+                return;
+            }
+            int insertionPoint = -index - 1;
+            if (tombstoneCount == tombstones.length) {
+                tombstones = Arrays.copyOf(tombstones, Math.max(4, tombstoneCount + (tombstoneCount >> 1)));
+            }
+            System.arraycopy(tombstones, insertionPoint, tombstones, insertionPoint + 1, tombstoneCount - insertionPoint);
+            tombstones[insertionPoint] = target;
+            tombstoneCount++;
+            removedCount += hiddenRelationships;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import org.neo4j.graphalgo.core.PropertyEncoding;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.neo4j.graphalgo.core.PropertyEncoding.MAX_DICTIONARY_SIZE;
+import static org.neo4j.graphalgo.core.PropertyEncoding.QUANTIZATION_SCALE;
+import static org.neo4j.graphalgo.core.loading.AdjacencyCompression.writeInt;
+import static org.neo4j.graphalgo.core.loading.AdjacencyCompression.writeLong;
+
+/**
+ * Encodes relationship property values (as double bits) into the pages of a property
+ * {@link AdjacencyList} and decodes them when reading through {@link AdjacencyList.Cursor}.
+ * Every value occupies {@link #bytesPerValue()} bytes, so cursors can skip values without decoding them.
+ */
+public abstract class RelationshipPropertyCodec {
+
+    public static final RelationshipPropertyCodec DOUBLE = new DoubleCodec();
+
+    public static RelationshipPropertyCodec of(PropertyEncoding encoding, String propertyKey, double defaultValue) {
+        switch (encoding) {
+            case DOUBLE:
+                return DOUBLE;
+            case FLOAT:
+                return new FloatCodec();
+            case QUANTIZED:
+                return new QuantizedCodec(propertyKey);
+            case DICTIONARY:
+                return new DictionaryCodec(propertyKey);
+            case CONSTANT:
+                return new ConstantCodec(propertyKey, defaultValue);
+            default:
+                throw new IllegalArgumentException("Unsupported property encoding: " + encoding);
+        }
+    }
+
+    /**
+     * Creates a codec that decodes values which have been encoded by a codec with the given dictionary.
+     * The dictionary is only used for {@link PropertyEncoding#DICTIONARY}.
+     */
+    public static RelationshipPropertyCodec of(
+        PropertyEncoding encoding,
+        String propertyKey,
+        double defaultValue,
+        long[] dictionary
+    ) {
+        RelationshipPropertyCodec codec = of(encoding, propertyKey, defaultValue);
+        if (codec instanceof DictionaryCodec) {
+            for (long value : dictionary) {
+                ((DictionaryCodec) codec).codeOf(value);
+            }
+        }
+        return codec;
+    }
+
+    public abstract PropertyEncoding encoding();
+
+    /**
+     * Returns the distinct values that have been encoded so far, indexed by their code.
+     * Only {@link PropertyEncoding#DICTIONARY} keeps a dictionary, all other codecs return an empty array.
+     */
+    public long[] dictionary() {
+        return new long[0];
+    }
+
+    public final int bytesPerValue() {
+        return encoding().bytesPerValue();
+    }
+
+    /**
+     * Encodes the first {@code length} values into {@code out}, starting at {@code offset}.
+     *
+     * @return the offset after the last written byte
+     */
+    public abstract int encode(long[] values, int length, byte[] out, int offset);
+
+    /**
+     * Decodes the value starting at {@code offset} and returns its double bits.
+     */
+    abstract long decode(byte[] page, int offset);
+
+    /**
+     * Decodes the value starting at {@code offset} of a little-endian off-heap page and returns its double bits.
+     */
+    abstract long decode(ByteBuffer page, int offset);
+
+    private static final class DoubleCodec extends RelationshipPropertyCodec {
+
+        @Override
+        public PropertyEncoding encoding() {
+            return PropertyEncoding.DOUBLE;
+        }
+
+        @Override
+        public int encode(long[] values, int length, byte[] out, int offset) {
+            for (int i = 0; i < length; i++) {
+                offset = writeLong(out, offset, values[i]);
+            }
+            return offset;
+        }
+
+        @Override
+        long decode(byte[] page, int offset) {
+            return AdjacencyDecompressingReader.readLong(page, offset);
+        }
+
+        @Override
+        long decode(ByteBuffer page, int offset) {
+            return page.getLong(offset);
+        }
+    }
+
+    private static final class FloatCodec extends RelationshipPropertyCodec {
+
+        @Override
+        public PropertyEncoding encoding() {
+            return PropertyEncoding.FLOAT;
+        }
+
+        @Override
+        public int encode(long[] values, int length, byte[] out, int offset) {
+            for (int i = 0; i < length; i++) {
+                float value = (float) Double.longBitsToDouble(values[i]);
+                offset = writeInt(out, offset, Float.floatToRawIntBits(value));
+            }
+            return offset;
+        }
+
+        @Override
+        long decode(byte[] page, int offset) {
+            float value = Float.intBitsToFloat(AdjacencyDecompressingReader.readInt(page, offset));
+            return Double.doubleToRawLongBits(value);
+        }
+
+        @Override
+        long decode(ByteBuffer page, int offset) {
+            return Double.doubleToRawLongBits(Float.intBitsToFloat(page.getInt(offset)));
+        }
+    }
+
+    private static final class QuantizedCodec extends RelationshipPropertyCodec {
+
+        // NaN can not be represented as fixed-point number
+        private static final int NAN = Integer.MIN_VALUE;
+
+        private final String propertyKey;
+
+        QuantizedCodec(String propertyKey) {
+            this.propertyKey = propertyKey;
+        }
+
+        @Override
+        public PropertyEncoding encoding() {
+            return PropertyEncoding.QUANTIZED;
+        }
+
+        @Override
+        public int encode(long[] values, int length, byte[] out, int offset) {
+            for (int i = 0; i < length; i++) {
+                double value = Double.longBitsToDouble(values[i]);
+                int quantized;
+                if (Double.isNaN(value)) {
+                    quantized = NAN;
+                } else {
+                    long scaled = Math.round(value * QUANTIZATION_SCALE);
+                    if (scaled <= NAN || scaled > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException(String.format(
+                            "Value %s of relationship property `%s` is out of range for encoding %s.",
+                            value,
+                            propertyKey,
+                            PropertyEncoding.QUANTIZED
+                        ));
+                    }
+                    quantized = (int) scaled;
+                }
+                offset = writeInt(out, offset, quantized);
+            }
+            return offset;
+        }
+
+        @Override
+        long decode(byte[] page, int offset) {
+            return dequantize(AdjacencyDecompressingReader.readInt(page, offset));
+        }
+
+        @Override
+        long decode(ByteBuffer page, int offset) {
+            return dequantize(page.getInt(offset));
+        }
+
+        private static long dequantize(int quantized) {
+            double value = quantized == NAN ? Double.NaN : quantized / QUANTIZATION_SCALE;
+            return Double.doubleToRawLongBits(value);
+        }
+    }
+
+    /**
+     * The importer threads share the codec, every value must have the same code in all pages.
+     * Codes are assigned in a concurrent map. Every thread remembers the codes it has seen in its
+     * own map, so only values that are new to a thread reach the shared map.
+     */
+    private static final class DictionaryCodec extends RelationshipPropertyCodec {
+
+        private final String propertyKey;
+        private final ConcurrentHashMap<Long, Integer> codes;
+        private final AtomicInteger nextCode;
+        private final long[] dictionary;
+        private final ThreadLocal<LongIntHashMap> localCodes;
+
+        DictionaryCodec(String propertyKey) {
+            this.propertyKey = propertyKey;
+            this.codes = new ConcurrentHashMap<>();
+            this.nextCode = new AtomicInteger();
+            this.dictionary = new long[MAX_DICTIONARY_SIZE];
+            this.localCodes = ThreadLocal.withInitial(LongIntHashMap::new);
+        }
+
+        @Override
+        public PropertyEncoding encoding() {
+            return PropertyEncoding.DICTIONARY;
+        }
+
+        @Override
+        public int encode(long[] values, int length, byte[] out, int offset) {
+            LongIntHashMap localCodes = this.localCodes.get();
+            for (int i = 0; i < length; i++) {
+                out[offset++] = (byte) codeOf(values[i], localCodes);
+            }
+            return offset;
+        }
+
+        /**
+         * Only consistent once no more values are encoded, as after the import.
+         */
+        @Override
+        public long[] dictionary() {
+            return Arrays.copyOf(dictionary, codes.size());
+        }
+
+        private int codeOf(long value) {
+            return codeOf(value, localCodes.get());
+        }
+
+        private int codeOf(long value, LongIntHashMap localCodes) {
+            int index = localCodes.indexOf(value);
+            if (localCodes.indexExists(index)) {
+                return localCodes.indexGet(index);
+            }
+            int code = codes.computeIfAbsent(value, this::newCode);
+            localCodes.indexInsert(index, value, code);
+            return code;
+        }
+
+        // called at most once per value, while the shared map holds the lock of its bin
+        private Integer newCode(long value) {
+            int code = nextCode.getAndIncrement();
+            if (code >= MAX_DICTIONARY_SIZE) {
+                throw new IllegalArgumentException(String.format(
+                    "Relationship property `%s` has more than %d distinct values and can not be stored with encoding %s.",
+                    propertyKey,
+                    MAX_DICTIONARY_SIZE,
+                    PropertyEncoding.DICTIONARY
+                ));
+            }
+            dictionary[code] = value;
+            return code;
+        }
+
+        @Override
+        long decode(byte[] page, int offset) {
+            return dictionary[page[offset] & 0xFF];
+        }
+
+        @Override
+        long decode(ByteBuffer page, int offset) {
+            return dictionary[page.get(offset) & 0xFF];
+        }
+    }
+
+    private static final class ConstantCodec extends RelationshipPropertyCodec {
+
+        private final String propertyKey;
+        private final double defaultValue;
+        private final long defaultValueBits;
+
+        ConstantCodec(String propertyKey, double defaultValue) {
+            this.propertyKey = propertyKey;
+            this.defaultValue = defaultValue;
+            this.defaultValueBits = Double.doubleToLongBits(defaultValue);
+        }
+
+        @Override
+        public PropertyEncoding encoding() {
+            return PropertyEncoding.CONSTANT;
+        }
+
+        @Override
+        public int encode(long[] values, int length, byte[] out, int offset) {
+            for (int i = 0; i < length; i++) {
+                double value = Double.longBitsToDouble(values[i]);
+                if (Double.compare(value, defaultValue) != 0) {
+                    throw new IllegalArgumentException(String.format(
+                        "Value %s of relationship property `%s` differs from the default value %s, " +
+                        "which is required for encoding %s.",
+                        value,
+                        propertyKey,
+                        defaultValue,
+                        PropertyEncoding.CONSTANT
+                    ));
+                }
+            }
+            return offset;
+        }
+
+        @Override
+        long decode(byte[] page, int offset) {
+            return defaultValueBits;
+        }
+
+        @Override
+        long decode(ByteBuffer page, int offset) {
+            return defaultValueBits;
+        }
+    }
+}
@@ -128,9 +128,41 @@ public final class UnionGraph implements IdMapGraph {
         }
     }
 
+    @Override
+    public void forEachInverseRelationship(long nodeId, RelationshipConsumer consumer) {
+        for (Graph graph : graphs) {
+            graph.forEachInverseRelationship(nodeId, consumer);
+        }
+    }
+
+    @Override
+    public void forEachInverseRelationship(long nodeId, double fallbackValue, RelationshipWithPropertyConsumer consumer) {
+        for (Graph graph : graphs) {
+            graph.forEachInverseRelationship(nodeId, fallbackValue, consumer);
+        }
+    }
+
     @Override
     public int degree(long nodeId) {
-        return Math.toIntExact(graphs.stream().mapToLong(g -> g.degree(nodeId)).sum());
+        long degree = 0L;
+        for (IdMapGraph graph : graphs) {
+            degree += graph.degree(nodeId);
+        }
+        return Math.toIntExact(degree);
+    }
+
+    @Override
+    public int inverseDegree(long nodeId) {
+        long degree = 0L;
+        for (IdMapGraph graph : graphs) {
+            degree += graph.inverseDegree(nodeId);
+        }
+        return Math.toIntExact(degree);
+    }
+
+    @Override
+    public boolean hasInverseIndex() {
+        return graphs.stream().allMatch(Graph::hasInverseIndex);
     }
 
     @Override
@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.compat.GraphDatabaseApiProxy;
 import org.neo4j.graphalgo.core.utils.BitUtil;
 import org.neo4j.graphalgo.core.utils.paged.PaddedAtomicLong;
@@ -95,6 +96,8 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
         private long fetchedUntilPage;
         // the current offset into the page
         private int offset;
+        // number of pages that have been read by the last batch
+        private long scannedPages;
 
         Cursor(PageCursor pageCursor, Record record) {
             this.lastOffset = offsetForId(maxId, pageSize, recordSize);
@@ -106,7 +109,8 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
         }
 
         int bulkSize() {
-            return prefetchSize * recordsPerPage;
+            // the prefetch size of an adaptive scan never exceeds its maximum
+            return (tuner == null ? prefetchSize : tuner.maxPrefetchSize()) * recordsPerPage;
         }
 
         private long calculateLastPageId(long maxId, long recordsPerPage, int lastPageOffset) {
@@ -119,10 +123,19 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
         }
 
         boolean bulkNext(RecordConsumer<Record> consumer) {
+            StoreScanTuner tuner = AbstractStorePageCacheScanner.this.tuner;
+            if (tuner != null) {
+                tuner.beforeBatch();
+            }
+            scannedPages = 0L;
             try {
                 return bulkNext0(consumer);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
+            } finally {
+                if (tuner != null) {
+                    tuner.afterBatch(scannedPages);
+                }
             }
         }
 
@@ -151,6 +164,7 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
             }
 
             int offset = this.offset;
+            long startPage = page;
             long recordId = page * (long) recordsPerPage;
             int recordSize = AbstractStorePageCacheScanner.this.recordSize;
             PageCursor pageCursor = this.pageCursor;
@@ -175,13 +189,15 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
             currentPage = page;
             this.offset = offset;
             this.recordId = recordId;
+            this.scannedPages = page - startPage;
 
             return true;
         }
 
         private void preFetchPages() throws IOException {
             PageCursor pageCursor = this.pageCursor;
-            long prefetchSize = AbstractStorePageCacheScanner.this.prefetchSize;
+            StoreScanTuner tuner = AbstractStorePageCacheScanner.this.tuner;
+            long prefetchSize = tuner == null ? AbstractStorePageCacheScanner.this.prefetchSize : tuner.prefetchSize();
             long startPage = nextPageId.getAndAdd(prefetchSize);
             long endPage = Math.min(lastPage, startPage + prefetchSize);
             long preFetchedPage = startPage;
@@ -226,6 +242,8 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
 
     // fetch this many pages at once
     private final int prefetchSize;
+    // adjusts the prefetch size and the number of scanning threads, if the scan is adaptive
+    private final @Nullable StoreScanTuner tuner;
     // global pointer which block of pages need to be fetched next
     private final AtomicLong nextPageId;
     // global cursor pool to return this one to
@@ -247,6 +265,18 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
         int prefetchSize,
         GraphDatabaseService api,
         Access<Record> access) {
+        this(prefetchSize, api, access, null);
+    }
+
+    /**
+     * @param tuner if not null, the prefetch size and the number of concurrent scans are adjusted by the tuner
+     *              and the given prefetch size is only the initial one
+     */
+    AbstractStorePageCacheScanner(
+        int prefetchSize,
+        GraphDatabaseService api,
+        Access<Record> access,
+        @Nullable StoreScanTuner tuner) {
 
         NeoStores neoStores = GraphDatabaseApiProxy.neoStores(api);
 
@@ -271,6 +301,7 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
         }
 
         this.prefetchSize = prefetchSize;
+        this.tuner = tuner;
         this.nextPageId = new PaddedAtomicLong();
         this.cursors = new ThreadLocal<>();
         this.recordSize = recordSize;
@@ -309,6 +340,26 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
         return cursor;
     }
 
+    /**
+     * Reads every page of the store once, so that a following scan finds them in the page cache,
+     * as far as the page cache is large enough to hold the store.
+     *
+     * @return the number of pages that have been read
+     */
+    final long warmUp() {
+        long pages = 0L;
+        try (PageCursor pageCursor = pagedFile != null
+            ? pagedFile.io(0L, PagedFile.PF_READ_AHEAD | PagedFile.PF_SHARED_READ_LOCK)
+            : store.openPageCursorForReading(0L)) {
+            while (pageCursor.next()) {
+                pages++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return pages;
+    }
+
     final long storeSize() {
         if (pagedFile != null) {
             return pagedFile.file().length();
@@ -19,22 +19,34 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.LongsRef;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.neo4j.graphalgo.compat.StatementConstantsProxy.NO_SUCH_PROPERTY_KEY;
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodedVLongSize;
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.zigZag;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfIntArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
 
 public abstract class AdjacencyBuilder {
 
+    // counted sizes are clamped, so that the buffers never exceed the maximum array length
+    private static final long MAX_COUNTED_SIZE = ArrayUtil.MAX_ARRAY_LENGTH;
+
     abstract void addAll(
             long[] batch,
             long[] targets,
@@ -43,6 +55,13 @@ public abstract class AdjacencyBuilder {
             int length,
             AllocationTracker tracker);
 
+    /**
+     * Tasks that deduplicate and aggregate the buffered relationships before the {@link #flushTasks()} compress them.
+     */
+    Collection<Runnable> aggregationTasks() {
+        return Collections.emptyList();
+    }
+
     abstract Collection<Runnable> flushTasks();
 
     public static AdjacencyBuilder compressing(
@@ -54,6 +73,131 @@ public abstract class AdjacencyBuilder {
             int[] propertyKeyIds,
             double[] defaultValues,
             Aggregation[] aggregations
+    ) {
+        return compressing(
+            globalBuilder,
+            numPages,
+            pageSize,
+            tracker,
+            relationshipCounter,
+            propertyKeyIds,
+            defaultValues,
+            aggregations,
+            false
+        );
+    }
+
+    /**
+     * @param parallelAggregation if true, parallel relationships are aggregated by {@link #aggregationTasks()},
+     *                            which split the pages into ranges of a similar number of relationships
+     */
+    public static AdjacencyBuilder compressing(
+            RelationshipsBuilder globalBuilder,
+            int numPages,
+            int pageSize,
+            AllocationTracker tracker,
+            LongAdder relationshipCounter,
+            int[] propertyKeyIds,
+            double[] defaultValues,
+            Aggregation[] aggregations,
+            boolean parallelAggregation
+    ) {
+        return compressing(
+            globalBuilder,
+            numPages,
+            pageSize,
+            tracker,
+            relationshipCounter,
+            propertyKeyIds,
+            defaultValues,
+            aggregations,
+            parallelAggregation,
+            null,
+            null
+        );
+    }
+
+    /**
+     * Only counts the compressed size of every adjacency list into the given builder, which prepares it
+     * for a second import with {@link #presized}.
+     *
+     * @param countDegrees if true, the degrees are counted as well, which presize the buffers of the properties
+     */
+    public static AdjacencyBuilder counting(
+            RelationshipsBuilder globalBuilder,
+            int numPages,
+            int pageSize,
+            AllocationTracker tracker,
+            boolean countDegrees
+    ) {
+        if (globalBuilder == null) {
+            return NoAdjacency.INSTANCE;
+        }
+        int[][] compressedSizes = countingPages(numPages, pageSize, tracker);
+        int[][] degrees = countDegrees ? countingPages(numPages, pageSize, tracker) : null;
+        globalBuilder.setCountedSizes(compressedSizes, degrees);
+        return new SizeCounting(compressedSizes, degrees, pageSize);
+    }
+
+    private static int[][] countingPages(int numPages, int pageSize, AllocationTracker tracker) {
+        int[][] pages = new int[numPages][];
+        tracker.add(sizeOfObjectArray(numPages));
+        for (int idx = 0; idx < numPages; idx++) {
+            tracker.add(sizeOfIntArray(pageSize));
+            pages[idx] = new int[pageSize];
+        }
+        return pages;
+    }
+
+    /**
+     * Collects the relationships in compressed buffers of the sizes that have been counted for the given builder,
+     * see {@link #counting}. The buffers only grow if the relationship store has changed since they have been counted.
+     */
+    public static AdjacencyBuilder presized(
+            RelationshipsBuilder globalBuilder,
+            int numPages,
+            int pageSize,
+            AllocationTracker tracker,
+            LongAdder relationshipCounter,
+            int[] propertyKeyIds,
+            double[] defaultValues,
+            Aggregation[] aggregations,
+            boolean parallelAggregation
+    ) {
+        if (globalBuilder == null) {
+            return NoAdjacency.INSTANCE;
+        }
+        int[][] compressedSizes = globalBuilder.countedCompressedSizes();
+        if (compressedSizes == null || compressedSizes.length != numPages) {
+            throw new IllegalStateException("Sizes need to be counted before the relationships are imported.");
+        }
+        return compressing(
+            globalBuilder,
+            numPages,
+            pageSize,
+            tracker,
+            relationshipCounter,
+            propertyKeyIds,
+            defaultValues,
+            aggregations,
+            parallelAggregation,
+            compressedSizes,
+            globalBuilder.countedDegrees()
+        );
+    }
+
+    private static AdjacencyBuilder compressing(
+            RelationshipsBuilder globalBuilder,
+            int numPages,
+            int pageSize,
+            AllocationTracker tracker,
+            LongAdder relationshipCounter,
+            int[] propertyKeyIds,
+            double[] defaultValues,
+            Aggregation[] aggregations,
+            boolean parallelAggregation,
+            @Nullable int[][] compressedSizes,
+            @Nullable int[][] degrees
     ) {
         if (globalBuilder == null) {
             return NoAdjacency.INSTANCE;
@@ -83,7 +227,11 @@ public abstract class AdjacencyBuilder {
             propertyKeyIds,
             defaultValues,
             aggregations,
-            atLeastOnePropertyToLoad
+            atLeastOnePropertyToLoad,
+            parallelAggregation,
+            compressedSizes,
+            degrees,
+            tracker
         );
         for (int idx = 0; idx < numPages; idx++) {
             compressingPagedAdjacency.addAdjacencyImporter(tracker, idx);
@@ -92,6 +240,7 @@ public abstract class AdjacencyBuilder {
         return compressingPagedAdjacency;
     }
 
+
     abstract int[] getPropertyKeyIds();
 
     abstract double[] getDefaultValues();
@@ -102,6 +251,8 @@ public abstract class AdjacencyBuilder {
 
     private static final class CompressingPagedAdjacency extends AdjacencyBuilder {
 
+        private static final int AGGREGATION_BATCH_SIZE = ParallelUtil.DEFAULT_BATCH_SIZE;
+
         private final RelationshipsBuilder globalBuilder;
         private final ThreadLocalRelationshipsBuilder[] localBuilders;
         private final CompressedLongArray[][] compressedAdjacencyLists;
@@ -118,6 +269,11 @@ public abstract class AdjacencyBuilder {
         private final double[] defaultValues;
         private final Aggregation[] aggregations;
         private final boolean atLeastOnePropertyToLoad;
+        private final boolean parallelAggregation;
+        // counted sizes of the buffers, released page by page when the page is flushed
+        private final @Nullable int[][] compressedSizes;
+        private final @Nullable int[][] degrees;
+        private final AllocationTracker tracker;
 
         private CompressingPagedAdjacency(
             RelationshipsBuilder globalBuilder,
@@ -131,7 +287,11 @@ public abstract class AdjacencyBuilder {
             int[] propertyKeyIds,
             double[] defaultValues,
             Aggregation[] aggregations,
-            boolean atLeastOnePropertyToLoad
+            boolean atLeastOnePropertyToLoad,
+            boolean parallelAggregation,
+            @Nullable int[][] compressedSizes,
+            @Nullable int[][] degrees,
+            AllocationTracker tracker
         ) {
             this.globalBuilder = globalBuilder;
             this.localBuilders = localBuilders;
@@ -149,6 +309,10 @@ public abstract class AdjacencyBuilder {
             this.defaultValues = defaultValues;
             this.aggregations = aggregations;
             this.atLeastOnePropertyToLoad = atLeastOnePropertyToLoad;
+            this.parallelAggregation = parallelAggregation;
+            this.compressedSizes = compressedSizes;
+            this.degrees = degrees;
+            this.tracker = tracker;
         }
 
         void addAdjacencyImporter(AllocationTracker tracker, int pageIndex) {
@@ -224,7 +388,15 @@ public abstract class AdjacencyBuilder {
 
                     CompressedLongArray compressedTargets = this.compressedAdjacencyLists[pageIndex][localId];
                     if (compressedTargets == null) {
-                        compressedTargets = new CompressedLongArray(tracker, propertyValues == null ? 0 : propertyValues.length);
+                        int numberOfProperties = propertyValues == null ? 0 : propertyValues.length;
+                        compressedTargets = compressedSizes == null
+                            ? new CompressedLongArray(tracker, numberOfProperties)
+                            : new CompressedLongArray(
+                                tracker,
+                                numberOfProperties,
+                                compressedSizes[pageIndex][localId],
+                                degrees == null ? 0 : degrees[pageIndex][localId]
+                            );
                         this.compressedAdjacencyLists[pageIndex][localId] = compressedTargets;
                     }
 
@@ -243,6 +415,45 @@ public abstract class AdjacencyBuilder {
             }
         }
 
+        @Override
+        Collection<Runnable> aggregationTasks() {
+            if (!parallelAggregation || Arrays.stream(aggregations).allMatch(d -> d == Aggregation.NONE)) {
+                return Collections.emptyList();
+            }
+            List<Runnable> tasks = new ArrayList<>();
+            for (CompressedLongArray[] allTargets : compressedAdjacencyLists) {
+                int startId = 0;
+                long relationships = 0L;
+                for (int localId = 0; localId < allTargets.length; ++localId) {
+                    if (allTargets[localId] != null) {
+                        relationships += allTargets[localId].length();
+                    }
+                    if (relationships >= AGGREGATION_BATCH_SIZE) {
+                        tasks.add(aggregationTask(allTargets, startId, localId + 1));
+                        startId = localId + 1;
+                        relationships = 0L;
+                    }
+                }
+                if (relationships > 0L) {
+                    tasks.add(aggregationTask(allTargets, startId, allTargets.length));
+                }
+            }
+            return tasks;
+        }
+
+        private Runnable aggregationTask(CompressedLongArray[] allTargets, int startId, int endId) {
+            return () -> {
+                LongsRef buffer = new LongsRef();
+                for (int localId = startId; localId < endId; ++localId) {
+                    CompressedLongArray compressedAdjacencyList = allTargets[localId];
+                    if (compressedAdjacencyList != null && compressedAdjacencyList.length() > 1) {
+                        // only called if at least one aggregation is not NONE
+                        AdjacencyCompression.aggregate(compressedAdjacencyList, buffer, aggregations, false);
+                    }
+                }
+            };
+        }
+
         @Override
         Collection<Runnable> flushTasks() {
             Runnable[] runnables = new Runnable[localBuilders.length];
@@ -262,11 +473,23 @@ public abstract class AdjacencyBuilder {
                         allTargets[localId] = null;
                     }
                 }
+                releaseCountedSizes(index);
                 relationshipCounter.add(importedRelationships);
             });
             return Arrays.asList(runnables);
         }
 
+        private void releaseCountedSizes(int pageIndex) {
+            if (compressedSizes != null) {
+                tracker.remove(sizeOfIntArray(compressedSizes[pageIndex].length));
+                compressedSizes[pageIndex] = null;
+            }
+            if (degrees != null) {
+                tracker.remove(sizeOfIntArray(degrees[pageIndex].length));
+                degrees[pageIndex] = null;
+            }
+        }
+
         @Override
         int[] getPropertyKeyIds() {
             return propertyKeyIds;
@@ -288,6 +511,108 @@ public abstract class AdjacencyBuilder {
         }
     }
 
+    /**
+     * Counts the compressed size of the adjacency list of every source node and optionally its degree.
+     * The targets of a node are compressed as deltas in the order in which they arrive, which can only differ
+     * from the order of the counting scan at the start of a batch, so the counted sizes are close to exact.
+     */
+    private static final class SizeCounting extends AdjacencyBuilder {
+
+        private final int[][] compressedSizes;
+        private final @Nullable int[][] degrees;
+        private final ReentrantLock[] locks;
+        private final int pageShift;
+        private final long pageMask;
+
+        private SizeCounting(int[][] compressedSizes, @Nullable int[][] degrees, int pageSize) {
+            this.compressedSizes = compressedSizes;
+            this.degrees = degrees;
+            this.locks = new ReentrantLock[compressedSizes.length];
+            Arrays.setAll(locks, i -> new ReentrantLock());
+            this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+            this.pageMask = pageSize - 1;
+        }
+
+        @Override
+        void addAll(
+                long[] batch,
+                long[] targets,
+                long[][] propertyValues,
+                int[] offsets,
+                int length,
+                AllocationTracker tracker) {
+            ReentrantLock lock = null;
+            int lastPageIndex = -1;
+            int endOffset, startOffset = 0;
+            try {
+                for (int i = 0; i < length; ++i) {
+                    endOffset = offsets[i];
+                    if (endOffset <= startOffset) {
+                        continue;
+                    }
+
+                    long source = batch[startOffset << 2];
+                    int pageIndex = (int) (source >>> pageShift);
+
+                    if (pageIndex > lastPageIndex) {
+                        if (lock != null) {
+                            lock.unlock();
+                        }
+                        lock = locks[pageIndex];
+                        lock.lock();
+                        lastPageIndex = pageIndex;
+                    }
+
+                    int localId = (int) (source & pageMask);
+                    long compressedSize = compressedSizes[pageIndex][localId] + compressedSize(targets, startOffset, endOffset);
+                    compressedSizes[pageIndex][localId] = (int) Math.min(compressedSize, MAX_COUNTED_SIZE);
+                    if (degrees != null) {
+                        degrees[pageIndex][localId] += endOffset - startOffset;
+                    }
+                    startOffset = endOffset;
+                }
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private static long compressedSize(long[] targets, int start, int end) {
+            // the previous target of the node is not known here, the first delta is estimated from the target itself
+            long size = encodedVLongSize(zigZag(targets[start]));
+            for (int i = start + 1; i < end; i++) {
+                size += encodedVLongSize(zigZag(targets[i] - targets[i - 1]));
+            }
+            return size;
+        }
+
+        @Override
+        Collection<Runnable> flushTasks() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        int[] getPropertyKeyIds() {
+            return new int[0];
+        }
+
+        @Override
+        double[] getDefaultValues() {
+            return new double[0];
+        }
+
+        @Override
+        Aggregation[] getAggregations() {
+            return new Aggregation[0];
+        }
+
+        @Override
+        boolean atLeastOnePropertyToLoad() {
+            return false;
+        }
+    }
+
     private static final class NoAdjacency extends AdjacencyBuilder {
 
         private static final AdjacencyBuilder INSTANCE = new NoAdjacency();
@@ -21,14 +21,17 @@ package org.neo4j.graphalgo.core.loading;
 
 import com.carrotsearch.hppc.sorting.IndirectSort;
 import org.apache.lucene.util.LongsRef;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
 import org.neo4j.graphalgo.core.utils.AscendingLongComparator;
 
 import java.util.Arrays;
 
 import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodeVLongs;
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodedVLongSize;
 
-final class AdjacencyCompression {
+public final class AdjacencyCompression {
 
     private static long[] growWithDestroy(long[] values, int newLength) {
         if (values.length < newLength) {
@@ -53,6 +56,18 @@ final class AdjacencyCompression {
         return data.length = applyDelta(data.longs, data.length, aggregation);
     }
 
+    /**
+     * Delta encodes targets that have already been sorted and aggregated by {@link #aggregate}.
+     * Their properties are already in the order of the targets.
+     */
+    static int applySortedDeltaEncoding(LongsRef data) {
+        long[] values = data.longs;
+        for (int i = data.length - 1; i > 0; i--) {
+            values[i] -= values[i - 1];
+        }
+        return data.length;
+    }
+
     // TODO: requires lots of additional memory ... inline indirect sort to make reuse of - to be created - buffers
     static int applyDeltaEncoding(LongsRef data, long[][] weights, Aggregation[] aggregations, boolean noAggregation) {
         int[] order = IndirectSort.mergesort(0, data.length, new AscendingLongComparator(data.longs));
@@ -80,6 +95,27 @@ final class AdjacencyCompression {
         return data.length;
     }
 
+    /**
+     * Sorts the values of the given array and merges parallel relationships with the given aggregations.
+     * The array keeps the sorted target ids and is marked as sorted, so that the flush only delta encodes them
+     * with {@link #applySortedDeltaEncoding(LongsRef)} instead of sorting them again.
+     *
+     * @param buffer reusable buffer for the uncompressed values
+     */
+    static void aggregate(CompressedLongArray array, LongsRef buffer, Aggregation[] aggregations, boolean noAggregation) {
+        copyFrom(buffer, array);
+        long[][] weights = array.weights();
+        int degree = array.hasWeights()
+            ? applyDeltaEncoding(buffer, weights, aggregations, noAggregation)
+            : applyDeltaEncoding(buffer, aggregations[0]);
+
+        long[] values = buffer.longs;
+        for (int i = 1; i < degree; i++) {
+            values[i] += values[i - 1];
+        }
+        array.reset(values, weights, degree);
+    }
+
     static int compress(LongsRef data, byte[] out) {
         return compress(data.longs, out, data.length);
     }
@@ -88,16 +124,121 @@ final class AdjacencyCompression {
         return encodeVLongs(data, length, out, 0);
     }
 
-    //@formatter:off
+    static int compress(LongsRef data, byte[] out, AdjacencyEncoding encoding) {
+        if (encoding == AdjacencyEncoding.PACKED) {
+            return PackedEncoding.encode(data.longs, data.length, out, 0);
+        }
+        return compress(data, out);
+    }
+
+    /**
+     * Returns an array that is large enough to hold the given deltas in the given encoding.
+     * The {@code storage} of a {@link CompressedLongArray} always fits the var-long encoded deltas,
+     * but packed blocks can exceed it if a few deltas are much larger than the others.
+     */
+    static byte[] ensureCapacity(LongsRef data, byte[] storage, AdjacencyEncoding encoding) {
+        if (encoding == AdjacencyEncoding.PACKED) {
+            int requiredBytes = PackedEncoding.encodedSize(data.longs, data.length);
+            if (storage.length < requiredBytes) {
+                return new byte[requiredBytes];
+            }
+        }
+        return storage;
+    }
+
+    /**
+     * Returns the number of bytes required to store the given sorted targets as a compressed adjacency list,
+     * including the degree header and the block index.
+     */
+    static long compressedSize(long[] sortedTargets, int length) {
+        if (length == 0) {
+            return 0L;
+        }
+        long size = Integer.BYTES + AdjacencyList.blockIndexSize(length);
+        long previous = 0L;
+        for (int i = 0; i < length; i++) {
+            size += encodedVLongSize(sortedTargets[i] - previous);
+            previous = sortedTargets[i];
+        }
+        return size;
+    }
+
     static int writeDegree(byte[] out, int offset, int degree) {
-        out[    offset] = (byte) (degree);
-        out[1 + offset] = (byte) (degree >>> 8);
-        out[2 + offset] = (byte) (degree >>> 16);
-        out[3 + offset] = (byte) (degree >>> 24);
+        return writeInt(out, offset, degree);
+    }
+
+    //@formatter:off
+    /**
+     * Writes the value in little-endian byte order, as it is read from adjacency and property pages.
+     *
+     * @return the offset after the last written byte
+     */
+    public static int writeInt(byte[] out, int offset, int value) {
+        out[    offset] = (byte) (value);
+        out[1 + offset] = (byte) (value >>> 8);
+        out[2 + offset] = (byte) (value >>> 16);
+        out[3 + offset] = (byte) (value >>> 24);
         return 4 + offset;
     }
+
+    /**
+     * Writes the value in little-endian byte order, as it is read from adjacency and property pages.
+     *
+     * @return the offset after the last written byte
+     */
+    public static int writeLong(byte[] out, int offset, long value) {
+        out[    offset] = (byte) (value);
+        out[1 + offset] = (byte) (value >>> 8);
+        out[2 + offset] = (byte) (value >>> 16);
+        out[3 + offset] = (byte) (value >>> 24);
+        out[4 + offset] = (byte) (value >>> 32);
+        out[5 + offset] = (byte) (value >>> 40);
+        out[6 + offset] = (byte) (value >>> 48);
+        out[7 + offset] = (byte) (value >>> 56);
+        return 8 + offset;
+    }
     //@formatter:on
 
+    /**
+     * Writes the block index for the given delta-encoded targets, see {@link AdjacencyList#BLOCK_SIZE}.
+     * Each entry consists of the last target of the preceding block and the byte offset of the
+     * block within the compressed targets. Writes {@link AdjacencyList#blockIndexSize(int)} bytes.
+     */
+    static int writeBlockIndex(byte[] out, int offset, long[] deltas, int degree) {
+        return writeBlockIndex(out, offset, deltas, degree, AdjacencyEncoding.VAR_LONG);
+    }
+
+    static int writeBlockIndex(byte[] out, int offset, long[] deltas, int degree, AdjacencyEncoding encoding) {
+        if (degree <= AdjacencyList.BLOCK_SIZE) {
+            return offset;
+        }
+        long target = 0L;
+        int compressedBytes = 0;
+        for (int from = 0; from < degree; from += AdjacencyList.BLOCK_SIZE) {
+            int to = Math.min(degree, from + AdjacencyList.BLOCK_SIZE);
+            if (from > 0) {
+                offset = writeLong(out, offset, target);
+                offset = writeDegree(out, offset, compressedBytes);
+            }
+            for (int i = from; i < to; i++) {
+                target += deltas[i];
+            }
+            compressedBytes += blockSize(deltas, from, to, encoding);
+        }
+        return offset;
+    }
+
+    private static int blockSize(long[] deltas, int from, int to, AdjacencyEncoding encoding) {
+        if (encoding == AdjacencyEncoding.PACKED) {
+            return PackedEncoding.blockSize(deltas, from, to);
+        }
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            size += encodedVLongSize(deltas[i]);
+        }
+        return size;
+    }
+
     private static int applyDelta(long[] values, int length, Aggregation aggregation) {
         long value = values[0], delta;
         int in = 1, out = 1;
@@ -19,11 +19,17 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
+import org.neo4j.graphalgo.core.PageStorage;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.OffHeapPages;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
@@ -43,42 +49,128 @@ final class AdjacencyListBuilder {
     private static final int NO_SKIP = -1;
 
     private final AllocationTracker tracker;
+    private final RelationshipPropertyCodec propertyCodec;
+    private final AdjacencyEncoding adjacencyEncoding;
     private final ReentrantLock growLock;
     private final AtomicInteger allocatedPages;
+    private final OffHeapPages.Builder offHeapPages;
+    private final List<Allocator> offHeapAllocators;
 
     @SuppressWarnings("FieldMayBeFinal")
     private volatile byte[][] pages;
 
+    private AdjacencyList offHeapList;
+
     static AdjacencyListBuilder newBuilder(AllocationTracker tracker) {
-        return new AdjacencyListBuilder(tracker);
+        return newBuilder(tracker, RelationshipPropertyCodec.DOUBLE);
+    }
+
+    static AdjacencyListBuilder newBuilder(AllocationTracker tracker, RelationshipPropertyCodec propertyCodec) {
+        return newBuilder(tracker, propertyCodec, PageStorage.HEAP);
+    }
+
+    /**
+     * @param pageStorage for off-heap storages, every allocator fills a single page on the heap
+     *                    that is written into the storage as soon as the allocator moves on to the next page
+     */
+    static AdjacencyListBuilder newBuilder(
+        AllocationTracker tracker,
+        RelationshipPropertyCodec propertyCodec,
+        PageStorage pageStorage
+    ) {
+        return newBuilder(tracker, propertyCodec, pageStorage, AdjacencyEncoding.VAR_LONG);
+    }
+
+    /**
+     * @param adjacencyEncoding encoding of the targets that are written into the pages,
+     *                          which is stored with the built list so that cursors can decode them
+     */
+    static AdjacencyListBuilder newBuilder(
+        AllocationTracker tracker,
+        RelationshipPropertyCodec propertyCodec,
+        PageStorage pageStorage,
+        AdjacencyEncoding adjacencyEncoding
+    ) {
+        return new AdjacencyListBuilder(tracker, propertyCodec, pageStorage, adjacencyEncoding);
     }
 
-    private AdjacencyListBuilder(AllocationTracker tracker) {
+    private AdjacencyListBuilder(
+        AllocationTracker tracker,
+        RelationshipPropertyCodec propertyCodec,
+        PageStorage pageStorage,
+        AdjacencyEncoding adjacencyEncoding
+    ) {
         this.tracker = tracker;
+        this.propertyCodec = propertyCodec;
+        this.adjacencyEncoding = adjacencyEncoding;
         growLock = new ReentrantLock(true);
         allocatedPages = new AtomicInteger();
         pages = new byte[0][];
         tracker.add(sizeOfObjectArray(0));
+        if (pageStorage == PageStorage.HEAP) {
+            offHeapPages = null;
+            offHeapAllocators = null;
+        } else {
+            offHeapPages = OffHeapPages.builder(pageStorage, tracker);
+            offHeapAllocators = new ArrayList<>();
+        }
     }
 
     Allocator newAllocator() {
-        return new Allocator(this);
+        Allocator allocator = new Allocator(this);
+        if (offHeapPages != null) {
+            growLock.lock();
+            try {
+                offHeapAllocators.add(allocator);
+            } finally {
+                growLock.unlock();
+            }
+        }
+        return allocator;
     }
 
     public AdjacencyList build() {
-        return new AdjacencyList(pages);
+        if (offHeapPages == null) {
+            return new AdjacencyList(pages, propertyCodec, adjacencyEncoding);
+        }
+        growLock.lock();
+        try {
+            if (offHeapList == null) {
+                for (Allocator allocator : offHeapAllocators) {
+                    allocator.flush();
+                }
+                offHeapAllocators.clear();
+                offHeapList = new AdjacencyList(
+                    offHeapPages.build(allocatedPages.get()),
+                    propertyCodec,
+                    adjacencyEncoding
+                );
+            }
+            return offHeapList;
+        } finally {
+            growLock.unlock();
+        }
     }
 
     private long insertDefaultSizedPage(Allocator into) {
         int pageIndex = allocatedPages.getAndIncrement();
-        grow(pageIndex + 1, NO_SKIP);
         long intoIndex = PageUtil.capacityFor(pageIndex, PAGE_SHIFT);
+        if (offHeapPages != null) {
+            into.setNewOffHeapPage(pageIndex);
+            return intoIndex;
+        }
+        grow(pageIndex + 1, NO_SKIP);
         into.setNewPages(pages, intoIndex);
         return intoIndex;
     }
 
     private long insertOversizedPage(byte[] page, Allocator into) {
         int pageIndex = allocatedPages.getAndIncrement();
+        if (offHeapPages != null) {
+            tracker.add(sizeOfByteArray(page.length));
+            into.insertPage(page, pageIndex);
+            return PageUtil.capacityFor(pageIndex, PAGE_SHIFT);
+        }
         grow(pageIndex + 1, pageIndex);
 
         // We already increased `pages` for the oversize page in `grow()`.
@@ -96,7 +188,7 @@ final class AdjacencyListBuilder {
         } finally {
             growLock.unlock();
         }
-        into.insertPage(page);
+        into.insertPage(page, pageIndex);
 
         return PageUtil.capacityFor(pageIndex, PAGE_SHIFT);
     }
@@ -116,6 +208,17 @@ final class AdjacencyListBuilder {
         }
     }
 
+    /**
+     * Writes the first {@code length} bytes of a filled page into the off-heap storage.
+     * Oversized pages are not used any further and are no longer tracked.
+     */
+    private void writeOffHeap(int pageIndex, byte[] page, int length) {
+        offHeapPages.write(pageIndex, page, length);
+        if (page.length != PAGE_SIZE) {
+            tracker.remove(sizeOfByteArray(page.length));
+        }
+    }
+
     private boolean capacityLeft(long newNumPages) {
         return newNumPages <= PAGES_UPDATER.get(this).length;
     }
@@ -149,7 +252,9 @@ final class AdjacencyListBuilder {
         private long top;
 
         private byte[][] pages;
+        private byte[] prevPage;
         private int prevOffset;
+        private int oversizedPageIndex;
         private int toPageIndex;
         private int currentPageIndex;
 
@@ -159,6 +264,7 @@ final class AdjacencyListBuilder {
         private Allocator(AdjacencyListBuilder builder) {
             this.builder = builder;
             prevOffset = -1;
+            oversizedPageIndex = -1;
         }
 
         void prepare() {
@@ -219,8 +325,10 @@ final class AdjacencyListBuilder {
 
         private boolean reset() {
             if (prevOffset != -1) {
-                page = pages[currentPageIndex];
+                writeOversizedPage();
+                page = prevPage;
                 offset = prevOffset;
+                prevPage = null;
                 prevOffset = -1;
                 return true;
             }
@@ -228,12 +336,11 @@ final class AdjacencyListBuilder {
         }
 
         private boolean next() {
-            if (++currentPageIndex <= toPageIndex) {
-                page = pages[currentPageIndex];
+            if (currentPageIndex < toPageIndex) {
+                page = pages[++currentPageIndex];
                 offset = 0;
                 return true;
             }
-            page = null;
             return false;
         }
 
@@ -246,12 +353,51 @@ final class AdjacencyListBuilder {
             offset = 0;
         }
 
-        private void insertPage(byte[] page) {
+        private void insertPage(byte[] page, int pageIndex) {
             if (prevOffset == -1) {
+                prevPage = this.page;
                 prevOffset = offset;
+            } else {
+                writeOversizedPage();
             }
             this.page = page;
             offset = 0;
+            oversizedPageIndex = pageIndex;
+        }
+
+        private void setNewOffHeapPage(int pageIndex) {
+            if (page == null) {
+                builder.tracker.add(PAGE_SIZE_IN_BYTES);
+                page = new byte[PAGE_SIZE];
+            } else {
+                reset();
+                builder.writeOffHeap(currentPageIndex, page, offset);
+            }
+            currentPageIndex = pageIndex;
+            toPageIndex = pageIndex;
+            offset = 0;
+        }
+
+        private void writeOversizedPage() {
+            if (builder.offHeapPages != null) {
+                builder.writeOffHeap(oversizedPageIndex, page, offset);
+            }
+            oversizedPageIndex = -1;
+        }
+
+        /**
+         * Writes the pages that are still being filled into the off-heap storage and drops them from the heap.
+         */
+        private void flush() {
+            if (page == null) {
+                return;
+            }
+            if (prevOffset != -1) {
+                reset();
+            }
+            builder.writeOffHeap(currentPageIndex, page, offset);
+            builder.tracker.remove(PAGE_SIZE_IN_BYTES);
+            page = null;
         }
     }
 }
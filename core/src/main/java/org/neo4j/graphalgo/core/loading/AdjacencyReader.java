@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+
+/**
+ * Reads the targets of a node together with all of its relationship property values.
+ * Each property is read from its own graph, as the graphs share the topology the values are aligned.
+ */
+final class AdjacencyReader {
+    private final Graph[] graphs;
+    private final boolean hasProperties;
+    private final boolean inverse;
+
+    long[] targets;
+    double[][] properties;
+    private int length;
+
+    AdjacencyReader(Graph[] graphs, boolean hasProperties, boolean inverse) {
+        this.graphs = graphs;
+        this.hasProperties = hasProperties;
+        this.inverse = inverse;
+        this.targets = new long[0];
+        this.properties = new double[hasProperties ? graphs.length : 0][0];
+    }
+
+    int read(long nodeId) {
+        int degree = inverse ? graphs[0].inverseDegree(nodeId) : graphs[0].degree(nodeId);
+        if (targets.length < degree) {
+            targets = new long[degree];
+            for (int i = 0; i < properties.length; i++) {
+                properties[i] = new double[degree];
+            }
+        }
+
+        length = 0;
+        if (!hasProperties) {
+            forEach(graphs[0], nodeId, (source, target, property) -> {
+                targets[length++] = target;
+                return true;
+            });
+            return length;
+        }
+
+        for (int i = 0; i < graphs.length; i++) {
+            int propertyIndex = i;
+            length = 0;
+            forEach(graphs[propertyIndex], nodeId, (source, target, property) -> {
+                targets[length] = target;
+                properties[propertyIndex][length++] = property;
+                return true;
+            });
+        }
+        return length;
+    }
+
+    private void forEach(
+        Graph graph,
+        long nodeId,
+        RelationshipWithPropertyConsumer consumer
+    ) {
+        if (inverse) {
+            graph.forEachInverseRelationship(nodeId, Double.NaN, consumer);
+        } else {
+            graph.forEachRelationship(nodeId, Double.NaN, consumer);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfDoubleArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfFloatArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+
+/**
+ * Node property column of numeric arrays. The arrays are stored as they have been loaded,
+ * either as {@code float[]} or {@code double[]}, and are only converted if they are read
+ * as the other type. The column owns the arrays, they are untracked when it is released.
+ */
+public final class ArrayNodePropertyMap implements NodeProperties {
+
+    // the lengths of the arrays are not known before loading, the maximum assumes an empty array per node
+    private static final MemoryEstimation MEMORY_ESTIMATION = MemoryEstimations
+            .builder(ArrayNodePropertyMap.class)
+            .rangePerNode("arrays", nodeCount -> MemoryRange.of(
+                sizeOfObjectArray(nodeCount),
+                sizeOfObjectArray(nodeCount) + nodeCount * sizeOfDoubleArray(0)
+            ))
+            .build();
+
+    private HugeObjectArray<Object> properties;
+    private final ValueType valueType;
+    private final long size;
+    private final AllocationTracker tracker;
+
+    static MemoryEstimation memoryEstimation() {
+        return MEMORY_ESTIMATION;
+    }
+
+    ArrayNodePropertyMap(HugeObjectArray<Object> properties, ValueType valueType, long size, AllocationTracker tracker) {
+        assert valueType.isArray();
+        this.properties = properties;
+        this.valueType = valueType;
+        this.size = size;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public double nodeProperty(long nodeId) {
+        throw new UnsupportedOperationException(String.format(
+            "Node property of type %s can not be read as a single number.",
+            valueType
+        ));
+    }
+
+    @Override
+    public double[] doubleArrayNodeProperty(long nodeId) {
+        Object value = properties.get(nodeId);
+        if (value instanceof float[]) {
+            float[] floats = (float[]) value;
+            double[] doubles = new double[floats.length];
+            for (int i = 0; i < floats.length; i++) {
+                doubles[i] = floats[i];
+            }
+            return doubles;
+        }
+        return (double[]) value;
+    }
+
+    @Override
+    public float[] floatArrayNodeProperty(long nodeId) {
+        Object value = properties.get(nodeId);
+        if (value instanceof double[]) {
+            double[] doubles = (double[]) value;
+            float[] floats = new float[doubles.length];
+            for (int i = 0; i < doubles.length; i++) {
+                floats[i] = (float) doubles[i];
+            }
+            return floats;
+        }
+        return (float[]) value;
+    }
+
+    @Override
+    public ValueType valueType() {
+        return valueType;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Moves the arrays into a new column that stores the array of every node at its new id.
+     * The arrays themselves are not copied, they are owned by the new column and this column
+     * is released.
+     *
+     * @param newToOld the old id of every node, indexed by its new id
+     */
+    ArrayNodePropertyMap reorder(
+        HugeLongArray newToOld,
+        int concurrency,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = newToOld.size();
+        HugeObjectArray<Object> newProperties = HugeObjectArray.newArray(Object.class, nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                newProperties.set(nodeId, properties.get(newToOld.get(nodeId)));
+            }
+        });
+        tracker.remove(properties.release());
+        properties = null;
+        return new ArrayNodePropertyMap(newProperties, valueType, size, tracker);
+    }
+
+    /**
+     * Releases the column together with its arrays.
+     */
+    @Override
+    public long release() {
+        if (properties != null) {
+            long freed = 0L;
+            for (long nodeId = 0; nodeId < properties.size(); nodeId++) {
+                Object value = properties.get(nodeId);
+                if (value instanceof float[]) {
+                    freed += sizeOfFloatArray(((float[]) value).length);
+                } else if (value instanceof double[]) {
+                    freed += sizeOfDoubleArray(((double[]) value).length);
+                }
+            }
+            freed += properties.release();
+            properties = null;
+            tracker.remove(freed);
+            return freed;
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ReverseNodeMapping} for sparse original id spaces.
+ *
+ * The memory of a {@link SparseNodeMapping} depends on the highest original id, which is wasteful if only
+ * a small fraction of the id space is loaded. This mapping stores the sorted original ids instead,
+ * split into an index over their high bits and the low bits of every id, similar to an Elias-Fano encoding.
+ * The number of low bits is chosen so that every bucket of the index holds only a few ids, which are
+ * binary searched on lookup.
+ *
+ * If the internal ids are assigned in the order of the original ids, the position of an original id
+ * is its internal id and the internal ids are not stored at all.
+ */
+public final class CompactNodeMapping implements ReverseNodeMapping {
+
+    // the expected number of ids per bucket is between 2^BUCKET_SHIFT and 2^(BUCKET_SHIFT + 1)
+    private static final int BUCKET_SHIFT = 3;
+    private static final int MAX_LOW_BITS = Integer.SIZE;
+
+    private final long capacity;
+    private final int lowBits;
+    private final long lowMask;
+    private final long numberOfBuckets;
+    private final HugeLongArray bucketOffsets;
+    private final HugeIntArray lowerIds;
+    // null if the internal ids are the positions of the sorted original ids
+    private final HugeLongArray internalIds;
+
+    /**
+     * @param maxId highest id that we need to represent
+     * @param maxEntries number of identifiers we need to store
+     * @param storesInternalIds whether the internal ids are not assigned in the order of the original ids
+     */
+    public static long memoryEstimation(long maxId, long maxEntries, boolean storesInternalIds) {
+        int lowBits = lowBits(maxId, maxEntries);
+        long numberOfBuckets = (maxId >>> lowBits) + 1;
+        return MemoryUsage.sizeOfInstance(CompactNodeMapping.class)
+               + HugeLongArray.memoryEstimation(numberOfBuckets + 1)
+               + HugeIntArray.memoryEstimation(maxEntries)
+               + (storesInternalIds ? HugeLongArray.memoryEstimation(maxEntries) : 0L);
+    }
+
+    static CompactNodeMapping build(HugeLongArray graphIds, long maxId, int concurrency, AllocationTracker tracker) {
+        long nodeCount = graphIds.size();
+        long capacity = Math.max(1L, maxId);
+        int lowBits = lowBits(capacity, nodeCount);
+        long lowMask = (1L << lowBits) - 1L;
+        long numberOfBuckets = (capacity >>> lowBits) + 1;
+
+        // count the ids per bucket, the offsets of a bucket are the counts of all previous buckets
+        HugeLongArray bucketOffsets = HugeLongArray.newArray(numberOfBuckets + 1, tracker);
+        boolean sorted = true;
+        long previousId = -1L;
+        for (long internalId = 0; internalId < nodeCount; internalId++) {
+            long originalId = graphIds.get(internalId);
+            sorted &= originalId > previousId;
+            previousId = originalId;
+            bucketOffsets.addTo((originalId >>> lowBits) + 1, 1L);
+        }
+        for (long bucket = 1; bucket <= numberOfBuckets; bucket++) {
+            bucketOffsets.addTo(bucket, bucketOffsets.get(bucket - 1));
+        }
+
+        HugeIntArray lowerIds = HugeIntArray.newArray(nodeCount, tracker);
+        if (sorted) {
+            lowerIds.setAll(internalId -> (int) (graphIds.get(internalId) & lowMask));
+            return new CompactNodeMapping(capacity, lowBits, numberOfBuckets, bucketOffsets, lowerIds, null);
+        }
+
+        HugeLongArray internalIds = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray positions = bucketOffsets.copyOf(numberOfBuckets, AllocationTracker.EMPTY);
+        for (long internalId = 0; internalId < nodeCount; internalId++) {
+            long originalId = graphIds.get(internalId);
+            long bucket = originalId >>> lowBits;
+            long position = positions.get(bucket);
+            positions.set(bucket, position + 1);
+            lowerIds.set(position, (int) (originalId & lowMask));
+            internalIds.set(position, internalId);
+        }
+
+        ParallelUtil.readParallel(concurrency, numberOfBuckets, Pools.DEFAULT, (start, end) -> {
+            for (long bucket = start; bucket < end; bucket++) {
+                sortBucket(lowerIds, internalIds, bucketOffsets.get(bucket), bucketOffsets.get(bucket + 1));
+            }
+        });
+
+        return new CompactNodeMapping(capacity, lowBits, numberOfBuckets, bucketOffsets, lowerIds, internalIds);
+    }
+
+    private CompactNodeMapping(
+        long capacity,
+        int lowBits,
+        long numberOfBuckets,
+        HugeLongArray bucketOffsets,
+        HugeIntArray lowerIds,
+        HugeLongArray internalIds
+    ) {
+        this.capacity = capacity;
+        this.lowBits = lowBits;
+        this.lowMask = (1L << lowBits) - 1L;
+        this.numberOfBuckets = numberOfBuckets;
+        this.bucketOffsets = bucketOffsets;
+        this.lowerIds = lowerIds;
+        this.internalIds = internalIds;
+    }
+
+    @Override
+    public long get(long originalId) {
+        long bucket = originalId >>> lowBits;
+        if (bucket >= numberOfBuckets) {
+            return NOT_FOUND;
+        }
+        long lowerId = originalId & lowMask;
+        long low = bucketOffsets.get(bucket);
+        long high = bucketOffsets.get(bucket + 1) - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long midId = Integer.toUnsignedLong(lowerIds.get(mid));
+            if (midId < lowerId) {
+                low = mid + 1;
+            } else if (midId > lowerId) {
+                high = mid - 1;
+            } else {
+                return internalIds == null ? mid : internalIds.get(mid);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    @Override
+    public boolean contains(long originalId) {
+        return get(originalId) != NOT_FOUND;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    static int lowBits(long maxId, long maxEntries) {
+        long averageGap = maxId / Math.max(1L, maxEntries);
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(averageGap) + BUCKET_SHIFT;
+        return Math.min(bits, MAX_LOW_BITS);
+    }
+
+    private static void sortBucket(HugeIntArray lowerIds, HugeLongArray internalIds, long from, long to) {
+        int length = (int) (to - from);
+        if (length < 2) {
+            return;
+        }
+        // sort the unsigned low bits together with their index in the bucket,
+        // flipping the sign bit turns the unsigned into the signed order
+        long[] entries = new long[length];
+        long[] bucketInternalIds = new long[length];
+        for (int i = 0; i < length; i++) {
+            entries[i] = ((Integer.toUnsignedLong(lowerIds.get(from + i)) << Integer.SIZE) | i) ^ Long.MIN_VALUE;
+            bucketInternalIds[i] = internalIds.get(from + i);
+        }
+        Arrays.sort(entries);
+        for (int i = 0; i < length; i++) {
+            long entry = entries[i] ^ Long.MIN_VALUE;
+            lowerIds.set(from + i, (int) (entry >>> Integer.SIZE));
+            internalIds.set(from + i, bucketInternalIds[(int) entry]);
+        }
+    }
+}
@@ -41,6 +41,8 @@ final class CompressedLongArray {
     private int pos;
     private long lastValue;
     private int length;
+    // whether the values have been sorted and aggregated, see #reset
+    private boolean sorted;
 
     CompressedLongArray(AllocationTracker tracker) {
         this(tracker, 0);
@@ -52,6 +54,25 @@ final class CompressedLongArray {
         weights = new long[numberOfProperties][0];
     }
 
+    /**
+     * Creates an array that holds the given number of compressed bytes and properties without growing.
+     */
+    CompressedLongArray(AllocationTracker tracker, int numberOfProperties, int compressedSize, int degree) {
+        this.tracker = tracker;
+        storage = EMPTY_BYTES;
+        weights = new long[numberOfProperties][0];
+        if (compressedSize > 0) {
+            tracker.add(sizeOfByteArray(compressedSize));
+            storage = new byte[compressedSize];
+        }
+        if (degree > 0) {
+            for (int i = 0; i < numberOfProperties; i++) {
+                tracker.add(sizeOfDoubleArray(degree));
+                weights[i] = new long[degree];
+            }
+        }
+    }
+
     /**
      * @param values values to write
      * @param start  start index in values
@@ -59,6 +80,7 @@ final class CompressedLongArray {
      * @implNote For memory efficiency, we reuse the {@code values}. They cannot be reused after calling this method.
      */
     void add(long[] values, int start, int end) {
+        this.sorted = false;
         // not inlined to avoid field access
         long currentLastValue = this.lastValue;
         long delta;
@@ -96,6 +118,29 @@ final class CompressedLongArray {
         add(values, start, end);
     }
 
+    /**
+     * Replaces all values and weights of this array with the given sorted and aggregated ones.
+     * The storage is reused, which always fits, since there are at most as many values as before.
+     * The array is then {@link #isSorted() sorted}, until further values are added.
+     *
+     * @implNote For memory efficiency, we reuse the {@code values}. They cannot be reused after calling this method.
+     */
+    void reset(long[] values, long[][] allWeights, int length) {
+        this.pos = 0;
+        this.lastValue = 0L;
+        this.length = 0;
+        if (hasWeights()) {
+            add(values, allWeights, 0, length);
+        } else {
+            add(values, 0, length);
+        }
+        this.sorted = true;
+    }
+
+    boolean isSorted() {
+        return sorted;
+    }
+
     private void addWeights(long[] weights, int start, int end, int weightIndex) {
         int targetCount = end - start;
         ensureCapacity(length, targetCount, weightIndex);
@@ -103,7 +148,7 @@ final class CompressedLongArray {
     }
 
     private void ensureCapacity(int pos, int required, byte[] storage) {
-        if (storage.length <= pos + required) {
+        if (storage.length < pos + required) {
             int newLength = ArrayUtil.oversize(pos + required, Byte.BYTES);
             tracker.remove(sizeOfByteArray(storage.length));
             tracker.add(sizeOfByteArray(newLength));
@@ -112,7 +157,7 @@ final class CompressedLongArray {
     }
 
     private void ensureCapacity(int pos, int required, int weightIndex) {
-        if (weights[weightIndex].length <= pos + required) {
+        if (weights[weightIndex].length < pos + required) {
             int newLength = ArrayUtil.oversize(pos + required, Long.BYTES);
             tracker.remove(sizeOfDoubleArray(weights[weightIndex].length));
             tracker.add(sizeOfDoubleArray(newLength));
@@ -144,7 +189,11 @@ final class CompressedLongArray {
     void release() {
         if (storage.length > 0) {
             tracker.remove(sizeOfByteArray(storage.length));
-            tracker.remove(sizeOfDoubleArray(weights.length));
+        }
+        for (long[] weight : weights) {
+            if (weight.length > 0) {
+                tracker.remove(sizeOfDoubleArray(weight.length));
+            }
         }
         storage = null;
         weights = null;
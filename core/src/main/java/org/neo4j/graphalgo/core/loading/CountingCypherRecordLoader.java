@@ -40,7 +40,12 @@ class CountingCypherRecordLoader extends CypherRecordLoader<BatchLoadResult> {
     @Override
     BatchLoadResult loadSingleBatch(Transaction tx, int bufferSize) {
         ResultCountingVisitor visitor = new ResultCountingVisitor();
-        runLoadingQuery(tx).accept(visitor);
+        if (queryType == QueryType.RELATIONSHIP && setup.relationshipQueryPartitions() > 1) {
+            // count the relationships of all partitions at once
+            runLoadingQuery(tx, CypherRelationshipLoader.partitionParameters(0L, Long.MAX_VALUE)).accept(visitor);
+        } else {
+            runLoadingQuery(tx).accept(visitor);
+        }
         return new BatchLoadResult(visitor.rows(), -1L);
     }
 
@@ -34,6 +34,7 @@ import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.Collections;
 import java.util.function.Function;
 
 import static org.neo4j.graphalgo.compat.GraphDatabaseApiProxy.newKernelTransaction;
@@ -68,12 +69,22 @@ public class CypherFactory extends GraphStoreFactory {
             .maxRelCount(relCount.rows())
             .build();
 
-        return NativeFactory.getMemoryEstimation(estimateDimensions);
+        return NativeFactory.getMemoryEstimation(
+            estimateDimensions,
+            graphCreateConfig.indexInverse(),
+            graphCreateConfig.denseDegrees(),
+            graphCreateConfig.halfUndirectedStorage()
+        );
     }
 
     @Override
     public MemoryEstimation memoryEstimation(GraphDimensions dimensions) {
-        return NativeFactory.getMemoryEstimation(dimensions);
+        return NativeFactory.getMemoryEstimation(
+            dimensions,
+            graphCreateConfig.indexInverse(),
+            graphCreateConfig.denseDegrees(),
+            graphCreateConfig.halfUndirectedStorage()
+        );
     }
 
     @Override
@@ -106,7 +117,12 @@ public class CypherFactory extends GraphStoreFactory {
             );
 
             progressLogger.logMessage(setup.tracker());
-            return ImportResult.of(relationships.dimensions(), graphStore);
+            return ImportResult.of(
+                relationships.dimensions(),
+                graphStore,
+                Collections.emptyMap(),
+                nodeOrderingStatistics()
+            );
         }
     }
 
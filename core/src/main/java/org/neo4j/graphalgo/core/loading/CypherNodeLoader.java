@@ -135,6 +135,7 @@ class CypherNodeLoader extends CypherRecordLoader<CypherNodeLoader.LoadResult> {
 
         GraphDimensions resultDimensions = ImmutableGraphDimensions.builder()
             .from(outerDimensions)
+            .highestNeoId(maxNodeId)
             .nodePropertyTokens(propertyIds)
             .build();
 
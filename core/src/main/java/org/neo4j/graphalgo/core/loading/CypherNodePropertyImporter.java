@@ -25,6 +25,7 @@ import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.values.storable.Value;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -89,7 +90,7 @@ public class CypherNodePropertyImporter {
         }
     }
 
-    public int importProperties(long nodeId, long[] labels, Map<String, Number> nodeProperties) {
+    public int importProperties(long nodeId, long[] labels, Map<String, Value> nodeProperties) {
         int propertiesImported = 0;
 
         // If there is a node projection for ANY label, then we need to consume the node properties regardless.
@@ -123,7 +124,7 @@ public class CypherNodePropertyImporter {
 
     private int setPropertyForLabel(
         ElementIdentifier labelIdentifier,
-        Map<String, Number> nodeProperties,
+        Map<String, Value> nodeProperties,
         long nodeId
     ) {
         int propertiesImported = 0;
@@ -131,10 +132,10 @@ public class CypherNodePropertyImporter {
         if (buildersByNodeLabel.containsKey(labelIdentifier)) {
             Map<String, NodePropertiesBuilder> buildersByProperty = buildersByNodeLabel.get(labelIdentifier);
 
-            for (Map.Entry<String, Number> propertyEntry : nodeProperties.entrySet()) {
+            for (Map.Entry<String, Value> propertyEntry : nodeProperties.entrySet()) {
                 if (buildersByProperty.containsKey(propertyEntry.getKey())) {
                     NodePropertiesBuilder builder = buildersByProperty.get(propertyEntry.getKey());
-                    builder.set(nodeId, propertyEntry.getValue().doubleValue());
+                    builder.set(nodeId, propertyEntry.getValue());
                     propertiesImported++;
                 }
             }
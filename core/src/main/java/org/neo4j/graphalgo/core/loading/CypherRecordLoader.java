@@ -30,8 +30,11 @@ import org.neo4j.graphdb.security.AuthorizationViolationException;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -73,7 +76,7 @@ abstract class CypherRecordLoader<R> {
     final R load(CypherFactory.Ktx ktx) {
         try {
             int bufferSize = (int) Math.min(recordCount, RecordsBatchBuffer.DEFAULT_BUFFER_SIZE);
-            BatchLoadResult result = ktx.run(tx -> loadSingleBatch(tx, bufferSize));
+            BatchLoadResult result = loadBatches(ktx, bufferSize);
             updateCounts(result);
             return result();
         } catch (AuthorizationViolationException ex) {
@@ -83,6 +86,14 @@ abstract class CypherRecordLoader<R> {
 
     abstract QueryType queryType();
 
+    String loadQuery() {
+        return loadQuery;
+    }
+
+    BatchLoadResult loadBatches(CypherFactory.Ktx ktx, int bufferSize) {
+        return ktx.run(tx -> loadSingleBatch(tx, bufferSize));
+    }
+
     abstract BatchLoadResult loadSingleBatch(
         Transaction tx,
         int bufferSize
@@ -106,7 +117,16 @@ abstract class CypherRecordLoader<R> {
     }
 
     Result runLoadingQuery(Transaction tx) {
-        Result result = runQueryWithoutClosingTheResult(tx, loadQuery, setup.parameters());
+        return runLoadingQuery(tx, Collections.emptyMap());
+    }
+
+    Result runLoadingQuery(Transaction tx, Map<String, Object> additionalParameters) {
+        Map<String, Object> parameters = setup.parameters();
+        if (!additionalParameters.isEmpty()) {
+            parameters = new HashMap<>(parameters);
+            parameters.putAll(additionalParameters);
+        }
+        Result result = runQueryWithoutClosingTheResult(tx, loadQuery, parameters);
         validateMandatoryColumns(Lists.newArrayList(result.columns().iterator()));
         return result;
     }
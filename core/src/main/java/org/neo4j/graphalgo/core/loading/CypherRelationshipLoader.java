@@ -25,6 +25,7 @@ import org.apache.commons.lang3.mutable.MutableInt;
 import org.eclipse.collections.impl.map.mutable.primitive.ObjectDoubleHashMap;
 import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
 import org.immutables.value.Value;
+import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.RelationshipProjectionMapping;
 import org.neo4j.graphalgo.RelationshipProjectionMappings;
@@ -37,17 +38,21 @@ import org.neo4j.graphalgo.core.Aggregation;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.BitUtil;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static org.neo4j.graphalgo.PropertyMapping.DEFAULT_FALLBACK_VALUE;
@@ -57,6 +62,9 @@ import static org.neo4j.graphalgo.core.Aggregation.NONE;
 @Value.Enclosing
 class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoader.LoadResult> {
 
+    static final String LOWER_ID_PARAMETER = "lowerId";
+    static final String UPPER_ID_PARAMETER = "upperId";
+
     private final IdMap idMap;
     private final Context loaderContext;
     private final GraphDimensions outerDimensions;
@@ -122,12 +130,7 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
         GraphDimensions newDimensions = ImmutableGraphDimensions.builder()
             .from(dimensions)
             .relationshipProperties(ResolvedPropertyMappings.of(dimensions.relationshipProperties().stream()
-                .map(mapping -> PropertyMapping.of(
-                    mapping.propertyKey(),
-                    mapping.neoPropertyKey(),
-                    mapping.defaultValue(),
-                    mapping.aggregation()
-                ))
+                .map(PropertyMapping::of)
                 .map(mapping -> mapping.resolveWith(propertyKeyIdsByName.get(mapping.neoPropertyKey())))
                 .collect(Collectors.toList())))
             .build();
@@ -140,16 +143,91 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
         return newDimensions;
     }
 
+    /**
+     * Loads the id ranges of a partitioned relationship query concurrently, each in its own transaction.
+     * Without partitions, the rows of the single query are imported by a pipeline of importer threads.
+     */
+    @Override
+    BatchLoadResult loadBatches(CypherFactory.Ktx ktx, int bufferSize) {
+        int partitions = setup.relationshipQueryPartitions();
+        if (partitions < 1) {
+            throw new IllegalArgumentException(String.format(
+                "The value of `relationshipQueryPartitions` must be greater than 0, but got %d.",
+                partitions
+            ));
+        }
+        if (partitions == 1) {
+            int importThreads = setup.concurrency() > 1 ? setup.concurrency() : 0;
+            return ktx.run(tx -> loadSingleBatch(tx, bufferSize, Collections.emptyMap(), importThreads));
+        }
+        String query = loadQuery();
+        if (!referencesParameter(query, LOWER_ID_PARAMETER) || !referencesParameter(query, UPPER_ID_PARAMETER)) {
+            throw new IllegalArgumentException(String.format(
+                "A partitioned relationship query must restrict the source nodes using the parameters `$%s` and `$%s`. Query: [%s]",
+                LOWER_ID_PARAMETER,
+                UPPER_ID_PARAMETER,
+                query
+            ));
+        }
+
+        // the upper bounds are exclusive, the last partition includes the highest loaded id
+        long idSpace = outerDimensions.highestNeoId() + 1;
+        long partitionSize = BitUtil.ceilDiv(idSpace, partitions);
+        LongAdder rows = new LongAdder();
+        List<Runnable> tasks = new ArrayList<>(partitions);
+        for (long lowerId = 0; lowerId < idSpace; lowerId += partitionSize) {
+            Map<String, Object> parameters = partitionParameters(lowerId, Math.min(lowerId + partitionSize, idSpace));
+            // partitions are already loaded in parallel, so each of them imports its own batches
+            tasks.add(() -> rows.add(ktx.fork(tx -> loadSingleBatch(tx, bufferSize, parameters, 0)).rows()));
+        }
+        ParallelUtil.run(tasks, setup.executor());
+        return new BatchLoadResult(rows.sum(), -1L);
+    }
+
     @Override
     BatchLoadResult loadSingleBatch(Transaction tx, int bufferSize) {
-        Result queryResult = runLoadingQuery(tx);
+        return loadSingleBatch(tx, bufferSize, Collections.emptyMap(), 0);
+    }
+
+    private BatchLoadResult loadSingleBatch(
+        Transaction tx,
+        int bufferSize,
+        Map<String, Object> partitionParameters,
+        int importThreads
+    ) {
+        Result queryResult = runLoadingQuery(tx, partitionParameters);
 
         List<String> allColumns = queryResult.columns();
+        initFromPropertyColumns(getPropertyColumns(queryResult));
+
+        boolean isAnyRelTypeQuery = !allColumns.contains(RelationshipRowVisitor.TYPE_COLUMN);
+
+        if (isAnyRelTypeQuery) {
+            loaderContext.getOrCreateImporterBuilder(RelationshipProjectionMapping.all());
+        }
+
+        RelationshipRowVisitor visitor = new RelationshipRowVisitor(
+            idMap,
+            loaderContext,
+            propertyKeyIdsByName,
+            propertyDefaultValueByName,
+            bufferSize,
+            isAnyRelTypeQuery,
+            setup.validateRelationships(),
+            setup.executor(),
+            // one buffer is filled by the visiting thread while the others are imported
+            importThreads + 1
+        );
 
+        queryResult.accept(visitor);
+        visitor.flushAll();
+        return new BatchLoadResult(visitor.rows(), -1L);
+    }
+
+    private synchronized void initFromPropertyColumns(Collection<String> propertyColumns) {
         // If the user specifies property mappings, we use those.
         // Otherwise, we create new property mappings from the result columns.
         // We do that only once, as each batch has the same columns.
-        Collection<String> propertyColumns = getPropertyColumns(queryResult);
         if (!hasExplicitPropertyMappings && !initializedFromResult) {
             List<ResolvedPropertyMapping> propertyMappings = propertyColumns
                 .stream()
@@ -174,26 +252,17 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
             validatePropertyColumns(propertyColumns, outerDimensions.relationshipProperties());
             initializedFromResult = true;
         }
+    }
 
-        boolean isAnyRelTypeQuery = !allColumns.contains(RelationshipRowVisitor.TYPE_COLUMN);
-
-        if (isAnyRelTypeQuery) {
-            loaderContext.getOrCreateImporterBuilder(RelationshipProjectionMapping.all());
-        }
-
-        RelationshipRowVisitor visitor = new RelationshipRowVisitor(
-            idMap,
-            loaderContext,
-            propertyKeyIdsByName,
-            propertyDefaultValueByName,
-            bufferSize,
-            isAnyRelTypeQuery,
-            setup.validateRelationships()
-        );
+    private static boolean referencesParameter(String query, String parameter) {
+        return Pattern.compile("\\$" + parameter + "\\b").matcher(query).find();
+    }
 
-        queryResult.accept(visitor);
-        visitor.flushAll();
-        return new BatchLoadResult(visitor.rows(), -1L);
+    static Map<String, Object> partitionParameters(long lowerId, long upperId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(LOWER_ID_PARAMETER, lowerId);
+        parameters.put(UPPER_ID_PARAMETER, upperId);
+        return parameters;
     }
 
     @Override
@@ -269,7 +338,9 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
             RelationshipsBuilder builder = new RelationshipsBuilder(
                 aggregations,
                 setup.tracker(),
-                propertyKeyIds.length
+                resultDimensions.relationshipPropertyCodecs(),
+                setup.indexInverse() && typeMapping.orientation() != Orientation.UNDIRECTED,
+                setup.pageStorage()
             );
 
             allBuilders.put(typeMapping, builder);
@@ -306,8 +377,27 @@ class CypherRelationshipLoader extends CypherRecordLoader<CypherRelationshipLoad
                 aggregations
             );
 
-            RelationshipImporter relationshipImporter = new RelationshipImporter(setup.tracker(), adjacencyBuilder);
-            return new SingleTypeRelationshipImporter.Builder(mapping, relationshipImporter, relationshipCounter, setup.validateRelationships());
+            AdjacencyBuilder inverseAdjacencyBuilder = relationshipsBuilder.inverse()
+                .map(inverseBuilder -> AdjacencyBuilder.compressing(
+                    inverseBuilder,
+                    numberOfPages,
+                    pageSize,
+                    tracker,
+                    new LongAdder(),
+                    propertyKeyIds,
+                    propertyDefaultValues,
+                    aggregations
+                ))
+                .orElse(null);
+
+            RelationshipImporter relationshipImporter = new RelationshipImporter(setup.tracker(), adjacencyBuilder, inverseAdjacencyBuilder);
+            return new SingleTypeRelationshipImporter.Builder(
+                mapping,
+                relationshipImporter,
+                relationshipCounter,
+                setup.validateRelationships(),
+                setup.halfUndirectedStorage()
+            );
         }
     }
 
@@ -19,7 +19,9 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
-import com.carrotsearch.hppc.BitSet;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.jetbrains.annotations.Nullable;
 import org.immutables.builder.Builder.AccessibleFields;
 import org.neo4j.graphalgo.ElementIdentifier;
 import org.neo4j.graphalgo.NodeLabel;
@@ -29,14 +31,19 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.IdMapGraph;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.api.UnionNodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
 import org.neo4j.graphalgo.core.huge.NodeFilteredGraph;
+import org.neo4j.graphalgo.core.huge.RelationshipDelta;
 import org.neo4j.graphalgo.core.huge.UnionGraph;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.values.storable.NumberType;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -46,11 +53,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toMap;
@@ -68,10 +78,22 @@ public final class GraphStore {
 
     private final Set<Graph> createdGraphs;
 
+    // merged adjacencies of multiple relationship types, keyed by the types and the relationship property
+    private final Map<Pair<Set<RelationshipType>, Optional<String>>, HugeGraph.Relationships> materializedUnions;
+
+    // re-indexed subgraphs of node label filters, keyed by the filtered labels
+    private final Map<Set<NodeLabel>, MaterializedSubgraph> materializedSubgraphs;
+
+    // relationships that have been added or removed after the adjacency of a relationship type has been built
+    private final Map<RelationshipType, RelationshipDelta> relationshipDeltas;
+
     private final AllocationTracker tracker;
 
     private LocalDateTime modificationTime;
 
+    // nodes that are shared with later named graphs once this graph has been added to the catalog
+    private @Nullable SharedNodes sharedNodesOffer;
+
     public static GraphStore of(
         IdMap nodes,
         Map<NodeLabel, Map<String, NodeProperties>> nodeProperties,
@@ -84,7 +106,12 @@ public final class GraphStore {
             NodePropertyStore.Builder builder = NodePropertyStore.builder();
             propertyMap.forEach((propertyKey, propertyValues) -> builder.putNodeProperty(
                 propertyKey,
-                NodeProperty.of(propertyKey, NumberType.FLOATING_POINT, PropertyState.PERSISTENT, propertyValues)
+                NodeProperty.of(
+                    propertyKey,
+                    numberType(propertyValues),
+                    PropertyState.PERSISTENT,
+                    propertyValues
+                )
             ));
             nodePropertyStores.put(nodeLabel, builder.build());
         });
@@ -108,6 +135,21 @@ public final class GraphStore {
         );
     }
 
+    // lazy properties are not loaded to find out their type, they keep the most general scalar type
+    private static NumberType numberType(NodeProperties propertyValues) {
+        if (propertyValues instanceof LazyNodeProperties) {
+            return NumberType.FLOATING_POINT;
+        }
+        switch (propertyValues.valueType()) {
+            case LONG:
+                return NumberType.INTEGRAL;
+            case DOUBLE:
+                return NumberType.FLOATING_POINT;
+            default:
+                return NumberType.NO_NUMBER;
+        }
+    }
+
     public static GraphStore of(
         HugeGraph graph,
         String relationshipType,
@@ -116,7 +158,7 @@ public final class GraphStore {
     ) {
         HugeGraph.Relationships relationships = graph.relationships();
 
-        Map<RelationshipType, HugeGraph.TopologyCSR> topology = singletonMap(RelationshipType.of(relationshipType), relationships.topology());
+        Map<RelationshipType, HugeGraph.TopologyCSR> topology = new HashMap<>(singletonMap(RelationshipType.of(relationshipType), relationships.topology()));
 
         Map<NodeLabel, Map<String, NodeProperties>> nodeProperties = new HashMap<>();
         nodeProperties.put(
@@ -150,10 +192,35 @@ public final class GraphStore {
         this.relationships = relationships;
         this.relationshipProperties = relationshipProperties;
         this.createdGraphs = new HashSet<>();
+        this.materializedUnions = new ConcurrentHashMap<>();
+        this.materializedSubgraphs = new ConcurrentHashMap<>();
+        this.relationshipDeltas = new ConcurrentHashMap<>();
         this.modificationTime = LocalDateTime.now();
         this.tracker = tracker;
     }
 
+    /**
+     * Offers the nodes of this graph to later named graphs.
+     * The offer is dropped together with this graph unless the graph is added to the catalog.
+     */
+    synchronized void offerSharedNodes(SharedNodes nodes) {
+        this.sharedNodesOffer = nodes;
+    }
+
+    synchronized Optional<SharedNodes> takeSharedNodesOffer() {
+        SharedNodes offer = sharedNodesOffer;
+        sharedNodesOffer = null;
+        return Optional.ofNullable(offer);
+    }
+
+    /**
+     * @return the heap and off-heap memory that the tracker of this graph store accounts for,
+     *     0 if it has been created without tracking its allocations
+     */
+    long trackedMemory() {
+        return tracker.tracked() + tracker.trackedOffHeap();
+    }
+
     public LocalDateTime modificationTime() {
         return modificationTime;
     }
@@ -227,6 +294,7 @@ public final class GraphStore {
                 var nodePropertyStore = labelAndPropertyStore.getValue();
                 if (nodePropertyStore.containsKey(propertyKey)) {
                     var nodeProperty = nodePropertyStore.get(propertyKey);
+                    load(nodeProperty.values());
                     unionValues.put(nodeLabel, nodeProperty.values());
                     unionType = nodeProperty.type();
                     unionOrigin = nodeProperty.state();
@@ -240,7 +308,7 @@ public final class GraphStore {
                 new UnionNodeProperties(unionValues, nodes.maybeLabelInformation.get())
             );
         }
-        return nodeProperties.get(ALL_NODES).get(propertyKey);
+        return load(nodeProperties.get(ALL_NODES).get(propertyKey));
     }
 
     public NumberType nodePropertyType(String propertyKey) {
@@ -251,6 +319,9 @@ public final class GraphStore {
             .orElse(NumberType.NO_NUMBER);
     }
 
+    /**
+     * Returns the column as it is stored, without loading it if it is a lazy column.
+     */
     public NodeProperty nodeProperty(NodeLabel label, String propertyKey) {
         return this.nodeProperties.getOrDefault(label, NodePropertyStore.empty()).get(propertyKey);
     }
@@ -264,13 +335,24 @@ public final class GraphStore {
     }
 
     public long relationshipCount() {
-        return relationships.values().stream()
-            .mapToLong(HugeGraph.TopologyCSR::elementCount)
+        return relationships.keySet().stream()
+            .mapToLong(this::relationshipCount)
             .sum();
     }
 
     public long relationshipCount(RelationshipType relationshipType) {
-        return relationships.get(relationshipType).elementCount();
+        return relationships.get(relationshipType).elementCount() + deltaRelationshipCount(relationshipType);
+    }
+
+    /**
+     * @return the compressed adjacency of the relationship type, which does not contain pending relationship updates
+     */
+    public HugeGraph.TopologyCSR topology(RelationshipType relationshipType) {
+        return relationships.get(relationshipType);
+    }
+
+    public RelationshipProperty relationshipProperty(RelationshipType relationshipType, String propertyKey) {
+        return relationshipProperties.getOrDefault(relationshipType, RelationshipPropertyStore.empty()).get(propertyKey);
     }
 
     public NumberType relationshipPropertyType(String propertyKey) {
@@ -283,13 +365,14 @@ public final class GraphStore {
 
     public long relationshipPropertyCount() {
         return relationshipProperties
-            .values()
+            .entrySet()
             .stream()
-            .flatMapToLong(relationshipPropertyStore -> relationshipPropertyStore
+            .flatMapToLong(typeAndPropertyStore -> typeAndPropertyStore
+                .getValue()
                 .values()
                 .stream()
                 .map(RelationshipProperty::values)
-                .mapToLong(HugeGraph.PropertyCSR::elementCount))
+                .mapToLong(propertyCSR -> propertyCSR.elementCount() + deltaRelationshipCount(typeAndPropertyStore.getKey())))
             .sum();
     }
 
@@ -313,6 +396,7 @@ public final class GraphStore {
     ) {
         updateGraphStore(graphStore -> {
             if (!hasRelationshipType(relationshipType)) {
+                graphStore.invalidateMaterializedRelationships(relationshipType);
                 graphStore.relationships.put(relationshipType, relationships.topology());
 
                 if (relationshipPropertyKey.isPresent()
@@ -352,18 +436,161 @@ public final class GraphStore {
     public DeletionResult deleteRelationships(RelationshipType relationshipType) {
         return DeletionResult.of(builder ->
             updateGraphStore(graphStore -> {
-                builder.deletedRelationships(graphStore.relationships.get(relationshipType).elementCount());
+                builder.deletedRelationships(graphStore.relationshipCount(relationshipType));
                 graphStore.relationshipProperties
                     .getOrDefault(relationshipType, RelationshipPropertyStore.empty())
                     .relationshipProperties().values().forEach(property -> {
-                    builder.putDeletedProperty(property.key(), property.values().elementCount());
+                    builder.putDeletedProperty(
+                        property.key(),
+                        property.values().elementCount() + graphStore.deltaRelationshipCount(relationshipType)
+                    );
                 });
                 graphStore.relationships.remove(relationshipType);
                 graphStore.relationshipProperties.remove(relationshipType);
+                graphStore.relationshipDeltas.remove(relationshipType);
+                graphStore.invalidateMaterializedRelationships(relationshipType);
             })
         );
     }
 
+    /**
+     * Adds and removes relationships of the given type without rebuilding its adjacency.
+     * The updates are kept on top of the compressed adjacency until they are folded into it by
+     * {@link #compactRelationships(RelationshipType, int)}. Graphs that have been created before
+     * the update are not affected by it.
+     */
+    public void updateRelationships(RelationshipType relationshipType, Consumer<RelationshipDelta.Updates> updateFunction) {
+        updateGraphStore(graphStore -> {
+            graphStore.validateRelationshipType(relationshipType);
+            HugeGraph baseGraph = HugeGraph.create(
+                graphStore.nodes,
+                Collections.emptyMap(),
+                graphStore.relationships.get(relationshipType),
+                Optional.empty(),
+                graphStore.tracker
+            );
+            RelationshipDelta delta = graphStore.relationshipDeltas
+                .getOrDefault(relationshipType, graphStore.emptyDelta(relationshipType))
+                .update(graphStore.nodes, baseGraph, updateFunction);
+            if (delta.isEmpty()) {
+                graphStore.relationshipDeltas.remove(relationshipType);
+            } else {
+                graphStore.relationshipDeltas.put(relationshipType, delta);
+            }
+            graphStore.invalidateMaterializedRelationships(relationshipType);
+        });
+    }
+
+    /**
+     * Folds the pending relationship updates of the given type into a new compressed adjacency.
+     * Compaction only happens when requested, creating graphs merges the pending updates while iterating.
+     * The adjacency that has been replaced is released, graphs of the relationship type that have been
+     * created before must no longer be used.
+     */
+    public void compactRelationships(RelationshipType relationshipType, int concurrency) {
+        updateGraphStore(graphStore -> {
+            graphStore.validateRelationshipType(relationshipType);
+            RelationshipDelta delta = graphStore.relationshipDeltas.get(relationshipType);
+            if (delta == null) {
+                return;
+            }
+
+            RelationshipPropertyStore propertyStore = graphStore.relationshipProperties
+                .getOrDefault(relationshipType, RelationshipPropertyStore.empty());
+            List<HugeGraph.PropertyCSR> propertyCSRs = delta.propertyKeys().stream()
+                .map(propertyKey -> propertyStore.get(propertyKey).values())
+                .collect(Collectors.toList());
+
+            RelationshipCompaction.CompactionResult result = graphStore.compact(relationshipType, delta, concurrency);
+
+            HugeGraph.TopologyCSR replacedTopology = graphStore.relationships.put(relationshipType, result.topology());
+            HugeGraph
+                .create(graphStore.nodes, Collections.emptyMap(), replacedTopology, Optional.empty(), graphStore.tracker)
+                .releaseTopology();
+            propertyCSRs.forEach(propertyCSR -> {
+                graphStore.tracker.remove(propertyCSR.list().release());
+                propertyCSR.inverseList().ifPresent(list -> graphStore.tracker.remove(list.release()));
+            });
+            if (!propertyStore.isEmpty()) {
+                RelationshipPropertyStore.Builder builder = RelationshipPropertyStore.builder();
+                propertyStore.values().forEach(property -> builder.putRelationshipProperty(
+                    property.key(),
+                    RelationshipProperty.of(
+                        property.key(),
+                        property.type(),
+                        property.state(),
+                        result.properties().get(property.key())
+                    )
+                ));
+                graphStore.relationshipProperties.put(relationshipType, builder.build());
+            }
+            graphStore.relationshipDeltas.remove(relationshipType);
+            graphStore.invalidateMaterializedRelationships(relationshipType);
+        });
+    }
+
+    /**
+     * Folds the pending relationship updates of the given type into a new compressed adjacency,
+     * like {@link #compactRelationships(RelationshipType, int)}, but keeps the adjacency of this graph store
+     * and its pending updates. The caller owns the new adjacency and releases it with
+     * {@link #releaseCompactedRelationships(RelationshipCompaction.CompactionResult)}.
+     *
+     * @return empty if there are no pending updates for the relationship type
+     */
+    synchronized Optional<RelationshipCompaction.CompactionResult> compactedRelationships(
+        RelationshipType relationshipType,
+        int concurrency
+    ) {
+        validateRelationshipType(relationshipType);
+        return Optional
+            .ofNullable(relationshipDeltas.get(relationshipType))
+            .map(delta -> compact(relationshipType, delta, concurrency));
+    }
+
+    void releaseCompactedRelationships(RelationshipCompaction.CompactionResult result) {
+        HugeGraph.create(nodes, Collections.emptyMap(), result.topology(), Optional.empty(), tracker).releaseTopology();
+        // the property lists have the layout of a topology, which releases its lists and offsets
+        result.properties().values().forEach(propertyCSR -> HugeGraph
+            .create(nodes, Collections.emptyMap(), propertyCSR, Optional.empty(), tracker)
+            .releaseTopology());
+    }
+
+    private RelationshipCompaction.CompactionResult compact(
+        RelationshipType relationshipType,
+        RelationshipDelta delta,
+        int concurrency
+    ) {
+        RelationshipPropertyStore propertyStore = relationshipProperties
+            .getOrDefault(relationshipType, RelationshipPropertyStore.empty());
+        List<HugeGraph.PropertyCSR> propertyCSRs = delta.propertyKeys().stream()
+            .map(propertyKey -> propertyStore.get(propertyKey).values())
+            .collect(Collectors.toList());
+
+        return new RelationshipCompaction(
+            nodes,
+            relationships.get(relationshipType),
+            delta.propertyKeys(),
+            propertyCSRs,
+            delta,
+            concurrency,
+            tracker
+        ).compact();
+    }
+
+    /**
+     * Folds the pending relationship updates of all relationship types into new compressed adjacencies.
+     */
+    public void compactRelationships(int concurrency) {
+        new ArrayList<>(relationshipDeltas.keySet()).forEach(relationshipType -> compactRelationships(
+            relationshipType,
+            concurrency
+        ));
+    }
+
+    public boolean hasPendingRelationshipUpdates(RelationshipType relationshipType) {
+        return relationshipDeltas.containsKey(relationshipType);
+    }
+
     public Graph getGraph(RelationshipType... relationshipTypes) {
         return getGraph(nodeLabels(), Arrays.asList(relationshipTypes), Optional.empty(), 1);
     }
@@ -374,7 +601,8 @@ public final class GraphStore {
 
     public Graph getGraph(Collection<RelationshipType> relationshipTypes, Optional<String> maybeRelationshipProperty) {
         validateInput(relationshipTypes, maybeRelationshipProperty);
-        return createGraph(nodeLabels(), relationshipTypes, maybeRelationshipProperty, 1);
+        loadNodeProperties(nodeLabels());
+        return createGraph(nodeLabels(), relationshipTypes, maybeRelationshipProperty, 1, false, false);
     }
 
     public Graph getGraph(
@@ -382,9 +610,49 @@ public final class GraphStore {
         Collection<RelationshipType> relationshipTypes,
         Optional<String> maybeRelationshipProperty,
         int concurrency
+    ) {
+        return getGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty, concurrency, false);
+    }
+
+    /**
+     * @param materializeUnion if true, multiple relationship types are merged into a single sorted adjacency,
+     *                         which is cached until one of the relationship types is modified
+     */
+    public Graph getGraph(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        int concurrency,
+        boolean materializeUnion
+    ) {
+        return getGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty, concurrency, materializeUnion, false);
+    }
+
+    /**
+     * @param materializeUnion    if true, multiple relationship types are merged into a single sorted adjacency,
+     *                            which is cached until one of the relationship types is modified
+     * @param materializeSubgraph if true, a node label filter is applied by copying the relationships between
+     *                            the filtered nodes into a compact, re-indexed adjacency, which is cached per label set
+     *                            until one of the relationship types is modified
+     */
+    public Graph getGraph(
+        Collection<NodeLabel> nodeLabels,
+        Collection<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        int concurrency,
+        boolean materializeUnion,
+        boolean materializeSubgraph
     ) {
         validateInput(relationshipTypes, maybeRelationshipProperty);
-        return createGraph(nodeLabels, relationshipTypes, maybeRelationshipProperty, concurrency);
+        loadNodeProperties(nodeLabels);
+        return createGraph(
+            nodeLabels,
+            relationshipTypes,
+            maybeRelationshipProperty,
+            concurrency,
+            materializeUnion,
+            materializeSubgraph
+        );
     }
 
     public IdMapGraph getUnion() {
@@ -411,6 +679,31 @@ public final class GraphStore {
 
     public void release() {
         createdGraphs.forEach(Graph::release);
+        materializedUnions.clear();
+        materializedSubgraphs.clear();
+        relationshipDeltas.clear();
+    }
+
+    /**
+     * Releases the relationships, but keeps the node properties, as they might be shared with other graph stores.
+     */
+    public void releaseTopology() {
+        createdGraphs.forEach(Graph::releaseTopology);
+        materializedUnions.clear();
+        materializedSubgraphs.clear();
+        relationshipDeltas.clear();
+    }
+
+    /**
+     * Releases the node property columns that match the filter.
+     */
+    public void releaseNodeProperties(Predicate<NodeProperties> filter) {
+        nodeProperties.values().forEach(nodePropertyStore -> nodePropertyStore
+            .nodePropertyValues()
+            .values()
+            .stream()
+            .filter(filter)
+            .forEach(NodeProperties::release));
     }
 
     public long nodeCount() {
@@ -422,62 +715,276 @@ public final class GraphStore {
         RelationshipType relationshipType,
         Optional<String> maybeRelationshipProperty
     ) {
-        return createGraph(nodeLabels, singletonList(relationshipType), maybeRelationshipProperty, 1);
+        return createGraph(nodeLabels, singletonList(relationshipType), maybeRelationshipProperty, 1, false, false);
     }
 
     private IdMapGraph createGraph(
         Collection<NodeLabel> filteredLabels,
         Collection<RelationshipType> relationshipTypes,
         Optional<String> maybeRelationshipProperty,
-        int concurrency
+        int concurrency,
+        boolean materializeUnion,
+        boolean materializeSubgraph
     ) {
         boolean loadAllNodes = filteredLabels.containsAll(nodeLabels());
 
         boolean containsAllNodes = true;
-        BitSet combinedBitSet = BitSet.newInstance();
+        Roaring64NavigableMap combinedBitmap = new Roaring64NavigableMap();
 
         if (this.nodes.maybeLabelInformation.isPresent() && !loadAllNodes) {
-            Map<NodeLabel, BitSet> labelInformation = this.nodes.maybeLabelInformation.get();
+            Map<NodeLabel, Roaring64NavigableMap> labelInformation = this.nodes.maybeLabelInformation.get();
             validateNodeLabelFilter(filteredLabels, labelInformation);
-            filteredLabels.forEach(label -> combinedBitSet.union(labelInformation.get(label)));
-            containsAllNodes = combinedBitSet.cardinality() == this.nodes.nodeCount();
+            filteredLabels.forEach(label -> combinedBitmap.or(labelInformation.get(label)));
+            containsAllNodes = combinedBitmap.getLongCardinality() == this.nodes.nodeCount();
         }
 
         Optional<IdMap> filteredNodes = loadAllNodes || !this.nodes.maybeLabelInformation.isPresent() || containsAllNodes
             ? Optional.empty()
-            : Optional.of(this.nodes.withFilteredLabels(combinedBitSet, concurrency));
+            : Optional.of(this.nodes.withFilteredLabels(combinedBitmap, concurrency));
 
-        List<IdMapGraph> filteredGraphs = relationships.entrySet().stream()
-            .filter(relTypeAndCSR -> relationshipTypes.contains(relTypeAndCSR.getKey()))
-            .map(relTypeAndCSR -> {
-                Map<String, NodeProperties> filteredNodeProperties = filterNodeProperties(filteredLabels, nodes.maybeLabelInformation);
+        Set<RelationshipType> loadedTypes = relationships.keySet().stream()
+            .filter(relationshipTypes::contains)
+            .collect(Collectors.toSet());
+
+        List<IdMapGraph> filteredGraphs;
+        if (materializeSubgraph && filteredNodes.isPresent()) {
+            filteredGraphs = createSubgraphs(
+                filteredLabels,
+                filteredNodes.get(),
+                loadedTypes,
+                maybeRelationshipProperty,
+                concurrency,
+                materializeUnion
+            );
+        } else if (materializeUnion && loadedTypes.size() > 1) {
+            HugeGraph.Relationships union = materializedUnions.computeIfAbsent(
+                Tuples.pair(loadedTypes, maybeRelationshipProperty),
+                key -> materializeUnion(key.getOne(), key.getTwo(), concurrency)
+            );
+            HugeGraph initialGraph = HugeGraph.create(
+                this.nodes,
+                filterNodeProperties(filteredLabels, nodes.maybeLabelInformation),
+                union.topology(),
+                union.properties(),
+                tracker
+            );
+            filteredGraphs = singletonList(filteredNodes.isPresent()
+                ? new NodeFilteredGraph(initialGraph, filteredNodes.get())
+                : initialGraph);
+        } else {
+            filteredGraphs = relationships.keySet().stream()
+                .filter(loadedTypes::contains)
+                .map(relationshipType -> {
+                    Map<String, NodeProperties> filteredNodeProperties = filterNodeProperties(filteredLabels, nodes.maybeLabelInformation);
+                    IdMapGraph initialGraph = relationshipGraph(
+                        filteredNodeProperties,
+                        relationshipType,
+                        maybeRelationshipProperty
+                    );
+
+                    if (filteredNodes.isPresent()) {
+                        return new NodeFilteredGraph(initialGraph, filteredNodes.get());
+                    } else {
+                        return initialGraph;
+                    }
+                })
+                .collect(Collectors.toList());
+        }
+
+        filteredGraphs.forEach(graph -> graph.canRelease(false));
+        createdGraphs.addAll(filteredGraphs);
+        return UnionGraph.of(filteredGraphs);
+    }
 
-                HugeGraph initialGraph = HugeGraph.create(
-                    this.nodes,
-                    filteredNodeProperties,
-                    relTypeAndCSR.getValue(),
+    /**
+     * Creates a graph over the compressed adjacency of the relationship type, merged with its pending updates.
+     */
+    private IdMapGraph relationshipGraph(
+        Map<String, NodeProperties> nodeProperties,
+        RelationshipType relationshipType,
+        Optional<String> maybeRelationshipProperty
+    ) {
+        HugeGraph hugeGraph = HugeGraph.create(
+            this.nodes,
+            nodeProperties,
+            relationships.get(relationshipType),
+            maybeRelationshipProperty.map(propertyKey -> relationshipProperties
+                .get(relationshipType)
+                .get(propertyKey).values()),
+            tracker
+        );
+        RelationshipDelta delta = relationshipDeltas.get(relationshipType);
+        return delta == null
+            ? hugeGraph
+            : new DeltaGraph(hugeGraph, delta, maybeRelationshipProperty.map(delta::propertyIndex).orElse(-1));
+    }
+
+    private HugeGraph.Relationships materializeUnion(
+        Set<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        int concurrency
+    ) {
+        List<HugeGraph.TopologyCSR> topologies = new ArrayList<>(relationshipTypes.size());
+        List<Graph> graphs = new ArrayList<>(relationshipTypes.size());
+        double defaultPropertyValue = Double.NaN;
+        for (RelationshipType relationshipType : relationshipTypes) {
+            HugeGraph.TopologyCSR topology = relationships.get(relationshipType);
+            Optional<HugeGraph.PropertyCSR> properties = maybeRelationshipProperty.map(propertyKey -> relationshipProperties
+                .get(relationshipType)
+                .get(propertyKey).values());
+            if (properties.isPresent()) {
+                defaultPropertyValue = properties.get().defaultPropertyValue();
+            }
+            topologies.add(topology);
+            graphs.add(relationshipGraph(Collections.emptyMap(), relationshipType, maybeRelationshipProperty));
+        }
+        return MaterializedUnion.of(
+            nodes,
+            graphs,
+            maybeRelationshipProperty.isPresent(),
+            defaultPropertyValue,
+            topologies.stream().allMatch(topology -> topology.degrees().isPresent()),
+            concurrency,
+            tracker
+        );
+    }
+
+    private List<IdMapGraph> createSubgraphs(
+        Collection<NodeLabel> filteredLabels,
+        IdMap filteredNodes,
+        Set<RelationshipType> loadedTypes,
+        Optional<String> maybeRelationshipProperty,
+        int concurrency,
+        boolean materializeUnion
+    ) {
+        MaterializedSubgraph subgraph = materializedSubgraphs.computeIfAbsent(
+            new HashSet<>(filteredLabels),
+            labels -> MaterializedSubgraph.of(nodes, filteredNodes, concurrency, tracker)
+        );
+        Map<String, NodeProperties> subgraphNodeProperties = subgraph.nodeProperties(
+            filterNodeProperties(filteredLabels, nodes.maybeLabelInformation)
+        );
+
+        List<HugeGraph.Relationships> typeRelationships = loadedTypes.stream()
+            .map(relationshipType -> subgraph.relationships(
+                singleton(relationshipType),
+                maybeRelationshipProperty,
+                key -> subgraph.filter(
+                    relationshipGraph(Collections.emptyMap(), relationshipType, maybeRelationshipProperty),
+                    relationships.get(relationshipType),
                     maybeRelationshipProperty.map(propertyKey -> relationshipProperties
-                        .get(relTypeAndCSR.getKey())
+                        .get(relationshipType)
                         .get(propertyKey).values()),
+                    concurrency,
+                    tracker
+                )
+            ))
+            .collect(Collectors.toList());
+
+        List<HugeGraph.Relationships> subgraphRelationships = typeRelationships;
+        if (materializeUnion && typeRelationships.size() > 1) {
+            HugeGraph.Relationships union = subgraph.relationships(
+                loadedTypes,
+                maybeRelationshipProperty,
+                key -> MaterializedUnion.of(
+                    subgraph.nodes(),
+                    typeRelationships.stream()
+                        .map(relationships -> HugeGraphUtil.create(subgraph.nodes(), relationships, tracker))
+                        .collect(Collectors.toList()),
+                    maybeRelationshipProperty.isPresent(),
+                    typeRelationships.get(0).properties().map(HugeGraph.PropertyCSR::defaultPropertyValue).orElse(Double.NaN),
+                    typeRelationships.stream().allMatch(relationships -> relationships.topology().degrees().isPresent()),
+                    concurrency,
                     tracker
-                );
+                )
+            );
+            subgraphRelationships = singletonList(union);
+        }
 
-                if (filteredNodes.isPresent()) {
-                    return new NodeFilteredGraph(initialGraph, filteredNodes.get());
-                } else {
-                    return initialGraph;
-                }
-            })
+        return subgraphRelationships.stream()
+            .map(relationships -> (IdMapGraph) HugeGraph.create(
+                subgraph.nodes(),
+                subgraphNodeProperties,
+                relationships.topology(),
+                relationships.properties(),
+                tracker
+            ))
             .collect(Collectors.toList());
+    }
 
-        filteredGraphs.forEach(graph -> graph.canRelease(false));
-        createdGraphs.addAll(filteredGraphs);
-        return UnionGraph.of(filteredGraphs);
+    private long deltaRelationshipCount(RelationshipType relationshipType) {
+        RelationshipDelta delta = relationshipDeltas.get(relationshipType);
+        return delta == null ? 0L : delta.relationshipCount();
+    }
+
+    private RelationshipDelta emptyDelta(RelationshipType relationshipType) {
+        HugeGraph.TopologyCSR topology = relationships.get(relationshipType);
+        List<String> propertyKeys = new ArrayList<>(relationshipPropertyKeys(relationshipType));
+        double[] defaultPropertyValues = propertyKeys.stream()
+            .mapToDouble(propertyKey -> relationshipProperty(relationshipType, propertyKey).values().defaultPropertyValue())
+            .toArray();
+        return RelationshipDelta.empty(
+            nodes.nodeCount(),
+            topology.orientation(),
+            topology.inverseList().isPresent(),
+            propertyKeys,
+            defaultPropertyValues
+        );
+    }
+
+    private void validateRelationshipType(RelationshipType relationshipType) {
+        if (!relationships.containsKey(relationshipType)) {
+            throw new IllegalArgumentException(String.format(
+                "No relationships have been loaded for relationship type '%s'",
+                relationshipType
+            ));
+        }
+    }
+
+    private void invalidateMaterializedRelationships(RelationshipType relationshipType) {
+        materializedUnions.keySet().removeIf(key -> key.getOne().contains(relationshipType));
+        materializedSubgraphs.values().forEach(subgraph -> subgraph.invalidate(relationshipType));
+    }
+
+    /**
+     * Loads the lazy node properties of the given labels on the calling thread, which is the procedure thread.
+     * Algorithms read the properties from their own worker threads, where the store must not be scanned.
+     */
+    private void loadNodeProperties(Collection<NodeLabel> labels) {
+        nodeProperties.forEach((nodeLabel, nodePropertyStore) -> {
+            if (labels.contains(nodeLabel) || labels.contains(ALL_NODES) || nodeLabel == ALL_NODES) {
+                nodePropertyStore.nodePropertyValues().values().forEach(GraphStore::load);
+            }
+        });
+    }
+
+    /**
+     * @return true if node properties are loaded lazily and have not been accessed yet
+     */
+    boolean hasUnloadedNodeProperties() {
+        return nodeProperties
+            .values()
+            .stream()
+            .flatMap(nodePropertyStore -> nodePropertyStore.nodePropertyValues().values().stream())
+            .anyMatch(values -> values instanceof LazyNodeProperties && !((LazyNodeProperties) values).isLoaded());
+    }
+
+    private static NodeProperty load(NodeProperty nodeProperty) {
+        if (nodeProperty != null) {
+            load(nodeProperty.values());
+        }
+        return nodeProperty;
+    }
+
+    private static void load(NodeProperties values) {
+        if (values instanceof LazyNodeProperties) {
+            ((LazyNodeProperties) values).load();
+        }
     }
 
     private Map<String, NodeProperties> filterNodeProperties(
         Collection<NodeLabel> labels,
-        Optional<Map<NodeLabel, BitSet>> maybeElementIdentifierBitSetMap
+        Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeElementIdentifierBitSetMap
     ) {
         if (this.nodeProperties.isEmpty()) {
             return Collections.emptyMap();
@@ -509,7 +1016,7 @@ public final class GraphStore {
             ));
     }
 
-    private void validateNodeLabelFilter(Collection<NodeLabel> nodeLabels, Map<NodeLabel, BitSet> labelInformation) {
+    private void validateNodeLabelFilter(Collection<NodeLabel> nodeLabels, Map<NodeLabel, Roaring64NavigableMap> labelInformation) {
         List<ElementIdentifier> invalidLabels = nodeLabels
             .stream()
             .filter(label -> !new HashSet<>(labelInformation.keySet()).contains(label))
@@ -623,6 +1130,10 @@ public final class GraphStore {
 
         NodeProperties values();
 
+        default ValueType valueType() {
+            return values().valueType();
+        }
+
         static NodeProperty of(String key, NumberType type, PropertyState origin, NodeProperties values) {
             return ImmutableNodeProperty.of(key, type, origin, values);
         }
@@ -19,10 +19,24 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.eclipse.collections.api.tuple.Pair;
 import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.NodeProjections;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -31,45 +45,139 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Holds the named graphs of all users.
+ *
+ * The catalog can be given a memory budget. The footprint of a graph is the memory that its allocation tracker
+ * accounts for, on the heap as well as off-heap. Whenever a graph is added or accessed and the graphs held in memory
+ * exceed the budget, the least recently accessed graphs are written to a snapshot in the spill directory and
+ * their graph store is dropped from the catalog. A spilled graph is read back from its snapshot on its next access.
+ * Spilled graph stores are not released, as an algorithm that is still running on them keeps using their pages.
+ * Procedures that modify a graph {@link #pin pin} it, pinned graphs are never spilled so that no modification is lost.
+ * Snapshots are written without holding any lock of the catalog.
+ *
+ * Named graphs that are created with {@code shareNodes} offer their id map and node properties to later named graphs
+ * of the same user that project the same node labels. The catalog counts the graphs that use shared nodes
+ * and keeps the shared node properties of a dropped graph as long as other graphs still use them.
+ */
 public final class GraphStoreCatalog {
 
     private static final ConcurrentHashMap<String, UserCatalog> userCatalogs = new ConcurrentHashMap<>();
 
+    // 0 disables the memory budget
+    private static volatile long memoryBudget = 0L;
+    private static volatile @Nullable Path spillDirectory = null;
+
+    // guarded by itself
+    private static final Map<Pair<String, Map<NodeLabel, String>>, SharedNodes> sharedNodes = new HashMap<>();
+
+    // guards the selection of the graphs to spill, not the spilling itself
+    private static final Object budgetLock = new Object();
+
     private GraphStoreCatalog() { }
 
+    /**
+     * Limits the memory footprint of the graphs that are held in memory.
+     *
+     * @param budgetInBytes the budget in bytes, 0 disables the budget
+     * @param spillDirectory the directory that spilled graphs are written to, required if a budget is set
+     */
+    public static void configureMemoryBudget(long budgetInBytes, @Nullable Path spillDirectory) {
+        if (budgetInBytes < 0) {
+            throw new IllegalArgumentException(String.format(
+                "The catalog memory budget must be positive, but got `%d`.",
+                budgetInBytes
+            ));
+        }
+        if (budgetInBytes > 0) {
+            if (spillDirectory == null) {
+                throw new IllegalArgumentException("A spill directory is required to enable the catalog memory budget.");
+            }
+            try {
+                Files.createDirectories(spillDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        GraphStoreCatalog.spillDirectory = spillDirectory;
+        GraphStoreCatalog.memoryBudget = budgetInBytes;
+    }
+
     public static GraphStoreWithConfig get(String username, String graphName) {
-        return getUserCatalog(username).get(graphName);
+        CatalogEntry entry = getUserCatalog(username).get(graphName);
+        GraphStore graphStore = entry.access();
+        enforceMemoryBudget(entry);
+        return ImmutableGraphStoreWithConfig.of(graphStore, entry.config);
+    }
+
+    /**
+     * Returns the graph and keeps it in memory until the returned pin is closed.
+     * Procedures that modify the graph store have to pin it, a spilled graph would be read back without their changes.
+     */
+    public static Pin pin(String username, String graphName) {
+        CatalogEntry entry = getUserCatalog(username).get(graphName);
+        GraphStore graphStore = entry.pin();
+        try {
+            enforceMemoryBudget(entry);
+        } catch (RuntimeException e) {
+            entry.unpin();
+            throw e;
+        }
+        return new Pin(entry, ImmutableGraphStoreWithConfig.of(graphStore, entry.config));
     }
 
+    /**
+     * Adds the graph to the catalog. Nodes that the graph offers to later named graphs are shared from now on.
+     */
     public static void set(GraphCreateConfig config, GraphStore graphStore) {
         graphStore.canRelease(false);
+        CatalogEntry entry = new CatalogEntry(config, graphStore);
+        if (config.shareNodes()) {
+            entry.sharedNodes = acquireSharedNodes(config.username(), config.nodeProjections(), graphStore);
+        }
         userCatalogs.compute(config.username(), (user, userCatalog) -> {
             if (userCatalog == null) {
                 userCatalog = new UserCatalog();
             }
-            userCatalog.set(config, graphStore);
+            userCatalog.set(entry);
             return userCatalog;
         });
+        enforceMemoryBudget(entry);
     }
 
     public static Optional<Graph> getUnion(String username, String graphName) {
-        return getUserCatalog(username).getUnion(graphName);
+        if (!exists(username, graphName)) {
+            return Optional.empty();
+        }
+        return Optional.of(get(username, graphName).graphStore().getUnion());
     }
 
     public static boolean exists(String username, String graphName) {
         return getUserCatalog(username).exists(graphName);
     }
 
-    public static void remove(String username, String graphName, Consumer<GraphStoreWithConfig> removedGraphConsumer) {
-        GraphStoreWithConfig graphStoreWithConfig = Optional
+    /**
+     * Removes the graph from the catalog. Spilled graphs are passed to the consumer without being read back.
+     */
+    public static void remove(String username, String graphName, Consumer<GraphStoreCatalogEntry> removedGraphConsumer) {
+        CatalogEntry entry = Optional
             .ofNullable(getUserCatalog(username).remove(graphName))
             .orElseThrow(failOnNonExistentGraph(graphName));
 
-        removedGraphConsumer.accept(graphStoreWithConfig);
+        removedGraphConsumer.accept(entry.describe());
 
-        GraphStore graphStore = graphStoreWithConfig.graphStore();
-        graphStore.canRelease(true);
-        graphStore.release();
+        Optional<GraphStore> graphStore = entry.drop();
+        graphStore.ifPresent(store -> {
+            store.canRelease(true);
+            SharedNodes stillShared = entry.releaseSharedNodes();
+            if (stillShared == null) {
+                store.release();
+            } else {
+                // other graphs still use the shared node properties
+                store.releaseTopology();
+                store.releaseNodeProperties(values -> !stillShared.contains(values));
+            }
+        });
     }
 
     private static UserCatalog getUserCatalog(String username) {
@@ -77,11 +185,129 @@ public final class GraphStoreCatalog {
     }
 
     public static void removeAllLoadedGraphs() {
+        userCatalogs.values().forEach(userCatalog -> userCatalog.graphsByName.values().forEach(CatalogEntry::drop));
         userCatalogs.clear();
+        synchronized (sharedNodes) {
+            sharedNodes.clear();
+        }
+    }
+
+    /**
+     * Returns the shared nodes of a named graph of the same user that projects the same node labels,
+     * unless a transaction has been committed since they have been loaded.
+     * Outdated nodes are no longer shared, the graphs that use them keep their reference to them.
+     */
+    static Optional<SharedNodes> sharedNodes(
+        String username,
+        NodeProjections nodeProjections,
+        long lastCommittedTransactionId
+    ) {
+        Pair<String, Map<NodeLabel, String>> key = SharedNodes.key(username, nodeProjections);
+        synchronized (sharedNodes) {
+            SharedNodes nodes = sharedNodes.get(key);
+            if (nodes != null && !nodes.matches(lastCommittedTransactionId)) {
+                sharedNodes.remove(key);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(nodes);
+        }
+    }
+
+    /**
+     * Shares the nodes that the given graph offers, replacing the nodes that have been shared before,
+     * and counts the graph as a user of the nodes that it shares with other graphs.
+     */
+    private static @Nullable SharedNodes acquireSharedNodes(
+        String username,
+        NodeProjections nodeProjections,
+        GraphStore graphStore
+    ) {
+        Pair<String, Map<NodeLabel, String>> key = SharedNodes.key(username, nodeProjections);
+        synchronized (sharedNodes) {
+            // graphs that use the replaced nodes keep their reference to them
+            graphStore.takeSharedNodesOffer().ifPresent(offer -> sharedNodes.put(key, offer));
+            SharedNodes nodes = sharedNodes.get(key);
+            if (nodes == null || nodes.idMap() != graphStore.nodes()) {
+                return null;
+            }
+            nodes.acquire();
+            return nodes;
+        }
+    }
+
+    /**
+     * @return true if no other graph in the catalog uses the given nodes
+     */
+    private static boolean releaseSharedNodes(String username, NodeProjections nodeProjections, SharedNodes nodes) {
+        synchronized (sharedNodes) {
+            if (!nodes.release()) {
+                return false;
+            }
+            sharedNodes.remove(SharedNodes.key(username, nodeProjections), nodes);
+            return true;
+        }
     }
 
+    /**
+     * Returns the graph stores of the given user. Spilled graphs are read back into memory.
+     */
     public static Map<GraphCreateConfig, GraphStore> getGraphStores(String username) {
-        return getUserCatalog(username).getGraphStores();
+        return getUserCatalog(username).graphsByName.values().stream().collect(Collectors.toMap(
+            entry -> entry.config,
+            entry -> get(username, entry.config.graphName()).graphStore()
+        ));
+    }
+
+    /**
+     * Describes the graphs of the given user without reading spilled graphs back into memory.
+     */
+    public static List<GraphStoreCatalogEntry> getEntries(String username) {
+        return getUserCatalog(username).graphsByName.values().stream()
+            .map(CatalogEntry::describe)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Spills the least recently accessed graphs until the graphs held in memory fit into the budget.
+     * The graph that has just been accessed and pinned graphs are never spilled.
+     * The graphs to spill are selected under a lock, but their snapshots are written after it has been released.
+     */
+    private static void enforceMemoryBudget(CatalogEntry accessed) {
+        long budget = memoryBudget;
+        Path directory = spillDirectory;
+        if (budget == 0L || directory == null) {
+            return;
+        }
+
+        List<CatalogEntry> victims = new ArrayList<>();
+        synchronized (budgetLock) {
+            List<CatalogEntry> candidates = new ArrayList<>();
+            long residentSize = 0L;
+            for (UserCatalog userCatalog : userCatalogs.values()) {
+                for (CatalogEntry entry : userCatalog.graphsByName.values()) {
+                    long footprint = entry.residentFootprint();
+                    residentSize += footprint;
+                    if (footprint > 0 && entry != accessed) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+
+            candidates.sort(Comparator.comparingLong(entry -> entry.lastAccess));
+            for (CatalogEntry candidate : candidates) {
+                if (residentSize <= budget) {
+                    break;
+                }
+                if (candidate.beginSpill()) {
+                    residentSize -= candidate.sizeInBytes;
+                    victims.add(candidate);
+                }
+            }
+        }
+
+        for (CatalogEntry victim : victims) {
+            victim.spill(directory);
+        }
     }
 
     private static Supplier<RuntimeException> failOnNonExistentGraph(String graphName) {
@@ -91,41 +317,62 @@ public final class GraphStoreCatalog {
         ));
     }
 
+    /**
+     * A graph that is kept in memory until the pin is closed.
+     */
+    public static final class Pin implements AutoCloseable {
+
+        private final CatalogEntry entry;
+        private final GraphStoreWithConfig graphStoreWithConfig;
+        private boolean closed;
+
+        private Pin(CatalogEntry entry, GraphStoreWithConfig graphStoreWithConfig) {
+            this.entry = entry;
+            this.graphStoreWithConfig = graphStoreWithConfig;
+        }
+
+        public GraphStoreWithConfig graphStoreWithConfig() {
+            return graphStoreWithConfig;
+        }
+
+        public GraphStore graphStore() {
+            return graphStoreWithConfig.graphStore();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                entry.unpin();
+            }
+        }
+    }
+
     private static class UserCatalog {
 
         private static final UserCatalog EMPTY = new UserCatalog();
 
-        private final Map<String, GraphStoreWithConfig> graphsByName = new ConcurrentHashMap<>();
+        private final Map<String, CatalogEntry> graphsByName = new ConcurrentHashMap<>();
 
-        void set(GraphCreateConfig config, GraphStore graphStore) {
-            if (config.graphName() == null || graphStore == null) {
+        void set(CatalogEntry entry) {
+            String graphName = entry.config.graphName();
+            if (graphName == null) {
                 throw new IllegalArgumentException("Both name and graph store must be not null");
             }
-            GraphStoreWithConfig graphStoreWithConfig = ImmutableGraphStoreWithConfig.of(graphStore, config);
-            if (graphsByName.putIfAbsent(config.graphName(), graphStoreWithConfig) != null) {
+            if (graphsByName.putIfAbsent(graphName, entry) != null) {
                 throw new IllegalStateException(String.format(
                     "Graph name %s already loaded",
-                    config.graphName()
+                    graphName
                 ));
             }
-            graphStore.canRelease(false);
         }
 
-        GraphStoreWithConfig get(String graphName) {
-            if (graphsByName.containsKey(graphName)) {
-                return graphsByName.get(graphName);
-            } else {
+        CatalogEntry get(String graphName) {
+            CatalogEntry entry = graphsByName.get(graphName);
+            if (entry == null) {
                 throw new NoSuchElementException(String.format("Cannot find graph with name '%s'.", graphName));
             }
-        }
-
-        /**
-         * A named graph is potentially split up into multiple sub-graphs.
-         * Each sub-graph has the same node set and represents a unique relationship type / property combination.
-         * This method returns the union of all subgraphs refered to by the given name.
-         */
-        Optional<Graph> getUnion(String graphName) {
-            return !exists(graphName) ? Optional.empty() : Optional.of(graphsByName.get(graphName).graphStore().getUnion());
+            return entry;
         }
 
         boolean exists(String graphName) {
@@ -133,7 +380,7 @@ public final class GraphStoreCatalog {
         }
 
         @Nullable
-        GraphStoreWithConfig remove(String graphName) {
+        CatalogEntry remove(String graphName) {
             if (!exists(graphName)) {
                 // remove is allowed to return null if the graph does not exist
                 // as it's being used by algo.graph.info or algo.graph.remove,
@@ -142,12 +389,243 @@ public final class GraphStoreCatalog {
             }
             return graphsByName.remove(graphName);
         }
+    }
 
-        Map<GraphCreateConfig, GraphStore> getGraphStores() {
-            return graphsByName.values().stream().collect(Collectors.toMap(
-                GraphStoreWithConfig::config, GraphStoreWithConfig::graphStore
-            ));
+    /**
+     * A graph in the catalog, which is either held in memory or spilled to a snapshot.
+     */
+    private static final class CatalogEntry {
+
+        private final GraphCreateConfig config;
+
+        private @Nullable GraphStore graphStore;
+        // nodes that are shared with other graphs, released once the graph store is no longer held in memory
+        private @Nullable SharedNodes sharedNodes;
+        // snapshot of the graph store, kept while the graph is in memory as its pages may be mapped from it
+        private @Nullable Path spillFile;
+        // modification time of the graph store that has been written to the spill file
+        private @Nullable LocalDateTime spilledModificationTime;
+
+        // procedures that modify the graph store, it is not spilled while they use it
+        private int pins;
+        // true while a snapshot is written, the graph store stays in memory until it has been written
+        private boolean spilling;
+
+        private long nodeCount;
+        private long relationshipCount;
+        private LocalDateTime modificationTime;
+        private long sizeInBytes;
+        // modification time of the graph store that has been measured
+        private @Nullable LocalDateTime measuredModificationTime;
+
+        private volatile long lastAccess;
+        private volatile LocalDateTime lastAccessTime;
+
+        CatalogEntry(GraphCreateConfig config, GraphStore graphStore) {
+            if (graphStore == null) {
+                throw new IllegalArgumentException("Both name and graph store must be not null");
+            }
+            this.config = config;
+            this.graphStore = graphStore;
+            this.modificationTime = graphStore.modificationTime();
+            touch();
+        }
+
+        private void touch() {
+            this.lastAccess = System.nanoTime();
+            this.lastAccessTime = LocalDateTime.now();
+        }
+
+        /**
+         * Returns the graph store, reading it back from its snapshot if it has been spilled.
+         */
+        synchronized GraphStore access() {
+            if (graphStore == null) {
+                if (spillFile == null) {
+                    throw new IllegalStateException(String.format(
+                        "Graph with name `%s` has been removed.",
+                        config.graphName()
+                    ));
+                }
+                try {
+                    graphStore = GraphStoreSnapshot.read(
+                        spillFile,
+                        config.username(),
+                        Optional.of(config.graphName()),
+                        config.readConcurrency(),
+                        AllocationTracker.create()
+                    ).graphStore();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                graphStore.canRelease(false);
+                spilledModificationTime = graphStore.modificationTime();
+                measuredModificationTime = null;
+            }
+            touch();
+            return graphStore;
+        }
+
+        synchronized GraphStore pin() {
+            GraphStore pinned = access();
+            pins++;
+            return pinned;
+        }
+
+        synchronized void unpin() {
+            pins--;
+        }
+
+        /**
+         * @return the memory footprint of the graph store, or 0 if it is not held in memory or about to be spilled
+         */
+        synchronized long residentFootprint() {
+            if (graphStore == null || spilling) {
+                return 0L;
+            }
+            measure();
+            return sizeInBytes;
+        }
+
+        private void measure() {
+            if (graphStore != null && !graphStore.modificationTime().equals(measuredModificationTime)) {
+                measuredModificationTime = graphStore.modificationTime();
+                modificationTime = measuredModificationTime;
+                nodeCount = graphStore.nodeCount();
+                relationshipCount = graphStore.relationshipCount();
+                // includes pages that are held off-heap, graphs that are created without a tracker are never spilled
+                sizeInBytes = graphStore.trackedMemory();
+            }
+        }
+
+        /**
+         * Marks the graph store to be spilled, unless it is pinned, not held in memory
+         * or has lazy node properties that have not been loaded yet.
+         *
+         * @return true if the graph store has to be passed to {@link #spill(Path)}
+         */
+        synchronized boolean beginSpill() {
+            if (graphStore == null || spilling || pins > 0) {
+                return false;
+            }
+            // writing the snapshot would load the properties from the current database, not the projected one
+            if (graphStore.hasUnloadedNodeProperties()) {
+                return false;
+            }
+            measure();
+            spilling = true;
+            return true;
+        }
+
+        /**
+         * Writes the graph store to a snapshot, unless an up to date snapshot exists, and drops the reference to it.
+         * The snapshot is written without holding the lock of this entry. The graph store is kept in memory
+         * if it has been pinned, modified or removed in the meantime.
+         */
+        void spill(Path directory) {
+            GraphStore store;
+            LocalDateTime storeModificationTime;
+            boolean upToDate;
+            synchronized (this) {
+                store = graphStore;
+                if (store == null) {
+                    spilling = false;
+                    return;
+                }
+                storeModificationTime = store.modificationTime();
+                upToDate = spillFile != null && storeModificationTime.equals(spilledModificationTime);
+            }
+
+            Path file = null;
+            if (!upToDate) {
+                try {
+                    file = Files.createTempFile(directory, "graph-", ".gds");
+                    GraphStoreSnapshot.write(store, config, file, config.readConcurrency(), Pools.DEFAULT);
+                } catch (IOException | UncheckedIOException e) {
+                    // keep the graph in memory if it cannot be spilled
+                    deleteQuietly(file);
+                    file = null;
+                }
+            }
+            finishSpill(store, file, upToDate || file != null, storeModificationTime);
+        }
+
+        private synchronized void finishSpill(
+            GraphStore store,
+            @Nullable Path file,
+            boolean written,
+            LocalDateTime storeModificationTime
+        ) {
+            spilling = false;
+            if (graphStore != store) {
+                // the graph has been removed while it was written
+                deleteQuietly(file);
+                return;
+            }
+            if (file != null) {
+                deleteQuietly(spillFile);
+                spillFile = file;
+                spilledModificationTime = storeModificationTime;
+            }
+            if (!written || pins > 0 || !store.modificationTime().equals(storeModificationTime)) {
+                return;
+            }
+            graphStore = null;
+            // the graph is read back with its own nodes
+            releaseSharedNodes();
+        }
+
+        /**
+         * @return the shared nodes, if other graphs still use them
+         */
+        synchronized @Nullable SharedNodes releaseSharedNodes() {
+            if (sharedNodes == null) {
+                return null;
+            }
+            SharedNodes released = sharedNodes;
+            sharedNodes = null;
+            boolean lastReference = GraphStoreCatalog.releaseSharedNodes(
+                config.username(),
+                config.nodeProjections(),
+                released
+            );
+            return lastReference ? null : released;
+        }
+
+        /**
+         * Removes the snapshot of this graph.
+         *
+         * @return the graph store, if it is held in memory
+         */
+        synchronized Optional<GraphStore> drop() {
+            Optional<GraphStore> droppedGraphStore = Optional.ofNullable(graphStore);
+            deleteQuietly(spillFile);
+            spillFile = null;
+            graphStore = null;
+            return droppedGraphStore;
+        }
+
+        synchronized GraphStoreCatalogEntry describe() {
+            measure();
+            return ImmutableGraphStoreCatalogEntry.builder()
+                .config(config)
+                .graphStore(Optional.ofNullable(graphStore))
+                .nodeCount(nodeCount)
+                .relationshipCount(relationshipCount)
+                .modificationTime(modificationTime)
+                .lastAccessTime(lastAccessTime)
+                .sizeInBytes(sizeInBytes)
+                .build();
         }
-    }
 
+        private static void deleteQuietly(@Nullable Path file) {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // a left over snapshot does not affect the catalog
+                }
+            }
+        }
+    }
 }
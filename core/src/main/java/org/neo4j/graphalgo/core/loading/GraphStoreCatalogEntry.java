@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.config.GraphCreateConfig;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Describes a graph in the catalog without loading it back into memory if it has been spilled to disk.
+ */
+@ValueClass
+public interface GraphStoreCatalogEntry {
+
+    GraphCreateConfig config();
+
+    /**
+     * The graph store, if it is currently held in memory.
+     */
+    Optional<GraphStore> graphStore();
+
+    long nodeCount();
+
+    long relationshipCount();
+
+    LocalDateTime modificationTime();
+
+    LocalDateTime lastAccessTime();
+
+    /**
+     * The heap and off-heap memory that has been tracked for the graph store when it was last held in memory.
+     */
+    long sizeInBytes();
+
+    default boolean spilled() {
+        return graphStore().isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.configuration.Config;
+import org.neo4j.graphalgo.compat.SettingsProxy;
+import org.neo4j.kernel.extension.ExtensionFactory;
+import org.neo4j.kernel.extension.ExtensionType;
+import org.neo4j.kernel.extension.context.ExtensionContext;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import java.nio.file.Path;
+
+@ServiceProvider
+public final class GraphStoreCatalogExtension extends ExtensionFactory<GraphStoreCatalogExtension.Dependencies> {
+
+    private static final String DEFAULT_SPILL_DIRECTORY = "catalog-spill";
+
+    public GraphStoreCatalogExtension() {
+        super(ExtensionType.DATABASE, "gds.catalog-memory-budget");
+    }
+
+    @Override
+    public Lifecycle newInstance(
+        ExtensionContext context, Dependencies dependencies
+    ) {
+        return new LifecycleAdapter() {
+            @Override
+            public void init() {
+                Config config = dependencies.config();
+                long memoryBudget = config.get(SettingsProxy.catalogMemoryBudget());
+                Path spillDirectory = config.get(SettingsProxy.catalogSpillDirectory());
+                if (spillDirectory == null) {
+                    spillDirectory = config.get(SettingsProxy.neo4jHome()).resolve(DEFAULT_SPILL_DIRECTORY);
+                }
+                GraphStoreCatalog.configureMemoryBudget(memoryBudget, memoryBudget > 0 ? spillDirectory : null);
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+
+    interface Dependencies {
+        Config config();
+    }
+}
@@ -0,0 +1,843 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.jetbrains.annotations.Nullable;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.config.GraphCreateConfig;
+import org.neo4j.graphalgo.config.GraphCreateFromCypherConfig;
+import org.neo4j.graphalgo.config.GraphCreateFromStoreConfig;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.PropertyEncoding;
+import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyDegrees;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.ImmutablePropertyCSR;
+import org.neo4j.graphalgo.core.huge.ImmutableTopologyCSR;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
+import org.neo4j.graphalgo.core.utils.BiLongConsumer;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongUnaryOperator;
+
+import static org.neo4j.graphalgo.config.GraphCreateFromCypherConfig.NODE_QUERY_KEY;
+import static org.neo4j.graphalgo.config.GraphCreateFromCypherConfig.RELATIONSHIP_QUERY_KEY;
+import static org.neo4j.graphalgo.config.GraphCreateFromStoreConfig.NODE_PROJECTION_KEY;
+import static org.neo4j.graphalgo.config.GraphCreateFromStoreConfig.RELATIONSHIP_PROJECTION_KEY;
+
+/**
+ * Binary snapshot of a {@link GraphStore} together with the config it has been created with.
+ *
+ * A snapshot starts with a header that describes the graph and the position of every data section.
+ * The data sections follow the header: node ids, label bit sets, node property columns and adjacency offsets
+ * are stored as little-endian longs, compressed adjacency and relationship property pages are stored as they are
+ * kept in memory. The sections are written in parallel. Reading a snapshot maps the pages from the file
+ * instead of copying them into the heap, all other sections are read into heap arrays.
+ */
+public final class GraphStoreSnapshot {
+
+    // "GDSS"
+    private static final int MAGIC = 0x47445353;
+    private static final int VERSION = 5;
+    // magic, version and header length
+    private static final int PREFIX_SIZE = 3 * Integer.BYTES;
+
+    // number of longs that are written by a single task
+    private static final int LONGS_PER_SECTION = 1 << 20;
+    private static final int WRITE_BUFFER_LONGS = 1 << 13;
+    private static final int MAX_MAPPED_LONGS = 1 << 27;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte BOOLEAN_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte DOUBLE_VALUE = 4;
+    private static final byte LIST_VALUE = 5;
+    private static final byte MAP_VALUE = 6;
+
+    private GraphStoreSnapshot() {}
+
+    /**
+     * Writes the graph store and its config into the given file, replacing an existing file.
+     * Pending relationship updates are compacted into a copy first, as only the compressed adjacency is written.
+     * The graph store itself is not modified, graphs that are in use are not affected.
+     *
+     * @return the number of bytes written
+     */
+    public static long write(
+        GraphStore graphStore,
+        GraphCreateConfig config,
+        Path file,
+        int concurrency,
+        ExecutorService executor
+    ) throws IOException {
+        Map<RelationshipType, RelationshipCompaction.CompactionResult> compactedRelationships = new HashMap<>();
+        try {
+            for (RelationshipType relationshipType : graphStore.relationshipTypes()) {
+                graphStore
+                    .compactedRelationships(relationshipType, concurrency)
+                    .ifPresent(result -> compactedRelationships.put(relationshipType, result));
+            }
+            return write(graphStore, config, compactedRelationships, file, concurrency, executor);
+        } finally {
+            compactedRelationships.values().forEach(graphStore::releaseCompactedRelationships);
+        }
+    }
+
+    private static long write(
+        GraphStore graphStore,
+        GraphCreateConfig config,
+        Map<RelationshipType, RelationshipCompaction.CompactionResult> compactedRelationships,
+        Path file,
+        int concurrency,
+        ExecutorService executor
+    ) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.writeGraphStore(graphStore, config, compactedRelationships);
+        byte[] header = writer.headerBytes.toByteArray();
+        long dataStart = PREFIX_SIZE + header.length;
+
+        try (FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+        )) {
+            ByteBuffer prefix = ByteBuffer.allocate(PREFIX_SIZE + header.length);
+            prefix.putInt(MAGIC).putInt(VERSION).putInt(header.length).put(header).flip();
+            writeFully(channel, prefix, 0L);
+
+            List<Runnable> tasks = new ArrayList<>(writer.sections.size());
+            for (Section section : writer.sections) {
+                tasks.add(() -> {
+                    try {
+                        section.write(channel, dataStart);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            ParallelUtil.runWithConcurrency(concurrency, tasks, executor);
+            channel.force(false);
+        }
+        return dataStart + writer.dataSize;
+    }
+
+    /**
+     * Reads a graph store and its config from the given file.
+     * The config is recreated for the given user and, if present, the given graph name.
+     */
+    public static GraphStoreWithConfig read(
+        Path file,
+        String username,
+        Optional<String> graphName,
+        int concurrency,
+        AllocationTracker tracker
+    ) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < PREFIX_SIZE) {
+                throw notASnapshot(file);
+            }
+            ByteBuffer prefix = readFully(channel, 0L, PREFIX_SIZE);
+            if (prefix.getInt() != MAGIC) {
+                throw notASnapshot(file);
+            }
+            int version = prefix.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(String.format(
+                    "Graph snapshot version %d is not supported. Expected version %d.",
+                    version,
+                    VERSION
+                ));
+            }
+            int headerLength = prefix.getInt();
+            byte[] header = readFully(channel, PREFIX_SIZE, headerLength).array();
+
+            SnapshotReader reader = new SnapshotReader(
+                channel,
+                new DataInputStream(new ByteArrayInputStream(header)),
+                PREFIX_SIZE + headerLength,
+                tracker
+            );
+            return reader.readGraphStore(username, graphName, concurrency);
+        }
+    }
+
+    private static IllegalArgumentException notASnapshot(Path file) {
+        return new IllegalArgumentException(String.format("File `%s` is not a graph snapshot.", file.getFileName()));
+    }
+
+    private static final class SnapshotWriter {
+
+        private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        private final DataOutputStream header = new DataOutputStream(headerBytes);
+        private final List<Section> sections = new ArrayList<>();
+        private long dataSize = 0L;
+
+        void writeGraphStore(
+            GraphStore graphStore,
+            GraphCreateConfig config,
+            Map<RelationshipType, RelationshipCompaction.CompactionResult> compactedRelationships
+        ) throws IOException {
+            IdMap nodes = graphStore.nodes();
+            long nodeCount = nodes.nodeCount();
+
+            header.writeUTF(config.graphName());
+            writeValue(header, configToMap(config));
+
+            header.writeLong(nodeCount);
+            header.writeLong(nodes.nodeToGraphIds.getCapacity());
+            writeLongs(nodeCount, nodes::toOriginalNodeId);
+
+            Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation = nodes.maybeLabelInformation();
+            header.writeBoolean(maybeLabelInformation.isPresent());
+            if (maybeLabelInformation.isPresent()) {
+                Map<NodeLabel, Roaring64NavigableMap> labelInformation = maybeLabelInformation.get();
+                header.writeInt(labelInformation.size());
+                for (Map.Entry<NodeLabel, Roaring64NavigableMap> entry : labelInformation.entrySet()) {
+                    header.writeUTF(entry.getKey().name);
+                    entry.getValue().serialize(header);
+                }
+            }
+
+            header.writeInt(graphStore.nodeLabels().size());
+            for (NodeLabel nodeLabel : graphStore.nodeLabels()) {
+                header.writeUTF(nodeLabel.name);
+                header.writeInt(graphStore.nodePropertyKeys(nodeLabel).size());
+                for (String propertyKey : graphStore.nodePropertyKeys(nodeLabel)) {
+                    NodeProperties values = graphStore.nodeProperty(nodeLabel, propertyKey).values();
+                    header.writeUTF(propertyKey);
+                    writeNodeProperties(nodeCount, values);
+                }
+            }
+
+            header.writeInt(graphStore.relationshipTypes().size());
+            for (RelationshipType relationshipType : graphStore.relationshipTypes()) {
+                Optional<RelationshipCompaction.CompactionResult> compacted = Optional.ofNullable(
+                    compactedRelationships.get(relationshipType)
+                );
+                HugeGraph.TopologyCSR topology = compacted
+                    .map(RelationshipCompaction.CompactionResult::topology)
+                    .orElseGet(() -> graphStore.topology(relationshipType));
+                header.writeUTF(relationshipType.name);
+                header.writeUTF(topology.orientation().name());
+                header.writeUTF(topology.list().adjacencyEncoding().name());
+                header.writeLong(topology.elementCount());
+                header.writeBoolean(topology.lowerNeighbours().isPresent());
+                writeCsr(topology, nodeCount);
+
+                header.writeInt(graphStore.relationshipPropertyKeys(relationshipType).size());
+                for (String propertyKey : graphStore.relationshipPropertyKeys(relationshipType)) {
+                    HugeGraph.PropertyCSR properties = compacted.isPresent()
+                        ? compacted.get().properties().get(propertyKey)
+                        : graphStore.relationshipProperty(relationshipType, propertyKey).values();
+                    RelationshipPropertyCodec codec = properties.list().propertyCodec();
+                    header.writeUTF(propertyKey);
+                    header.writeUTF(codec.encoding().name());
+                    header.writeDouble(properties.defaultPropertyValue());
+                    long[] dictionary = codec.dictionary();
+                    header.writeInt(dictionary.length);
+                    for (long value : dictionary) {
+                        header.writeLong(value);
+                    }
+                    writeCsr(properties, nodeCount);
+                }
+            }
+            header.flush();
+        }
+
+        private void writeCsr(HugeGraph.TopologyCSR csr, long nodeCount) throws IOException {
+            writeAdjacency(csr.list(), csr.offsets(), nodeCount);
+            header.writeBoolean(csr.inverseList().isPresent());
+            if (csr.inverseList().isPresent()) {
+                writeAdjacency(csr.inverseList().get(), csr.inverseOffsets().get(), nodeCount);
+            }
+        }
+
+        private void writeAdjacency(AdjacencyList list, AdjacencyOffsets offsets, long nodeCount) throws IOException {
+            int pageCount = list.pageCount();
+            header.writeInt(pageCount);
+            header.writeLong(dataSize);
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                int pageLength = list.page(pageIndex).remaining();
+                header.writeInt(pageLength);
+                sections.add(new PageSection(list, pageIndex, dataSize));
+                dataSize += pageLength;
+            }
+            writeLongs(nodeCount, offsets::get);
+        }
+
+        private void writeNodeProperties(long nodeCount, NodeProperties values) throws IOException {
+            ValueType valueType = values.valueType();
+            header.writeUTF(valueType.name());
+            if (!valueType.isArray()) {
+                writeLongs(nodeCount, nodeId -> Double.doubleToRawLongBits(values.nodeProperty(nodeId)));
+                if (valueType == ValueType.LONG) {
+                    writeLongs(nodeCount, values::longNodeProperty);
+                }
+                return;
+            }
+
+            // arrays are written as their lengths, followed by all elements in node order
+            boolean floats = valueType == ValueType.FLOAT_ARRAY;
+            HugeLongArray offsets = HugeLongArray.newArray(nodeCount + 1, AllocationTracker.EMPTY);
+            long elementCount = 0L;
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                offsets.set(nodeId, elementCount);
+                elementCount += Math.max(0, arrayLength(values, nodeId, floats));
+            }
+            offsets.set(nodeCount, elementCount);
+            writeLongs(nodeCount, nodeId -> arrayLength(values, nodeId, floats));
+            header.writeLong(elementCount);
+            writeLongs(elementCount, index -> {
+                long nodeId = nodeOfElement(offsets, nodeCount, index);
+                int indexInArray = (int) (index - offsets.get(nodeId));
+                return floats
+                    ? Float.floatToRawIntBits(values.floatArrayNodeProperty(nodeId)[indexInArray])
+                    : Double.doubleToRawLongBits(values.doubleArrayNodeProperty(nodeId)[indexInArray]);
+            });
+        }
+
+        private long arrayLength(NodeProperties values, long nodeId, boolean floats) {
+            Object array = floats ? values.floatArrayNodeProperty(nodeId) : values.doubleArrayNodeProperty(nodeId);
+            return array == null ? -1L : Array.getLength(array);
+        }
+
+        private long nodeOfElement(HugeLongArray offsets, long nodeCount, long index) {
+            long low = 0L;
+            long high = nodeCount - 1;
+            while (low < high) {
+                long mid = (low + high + 1) >>> 1;
+                if (offsets.get(mid) <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        private void writeLongs(long count, LongUnaryOperator values) throws IOException {
+            header.writeLong(dataSize);
+            for (long start = 0L; start < count; start += LONGS_PER_SECTION) {
+                long end = Math.min(count, start + LONGS_PER_SECTION);
+                sections.add(new LongsSection(values, start, end, dataSize + start * Long.BYTES));
+            }
+            dataSize += count * Long.BYTES;
+        }
+    }
+
+    private static final class SnapshotReader {
+
+        private final FileChannel channel;
+        private final DataInputStream header;
+        private final long dataStart;
+        private final AllocationTracker tracker;
+
+        SnapshotReader(FileChannel channel, DataInputStream header, long dataStart, AllocationTracker tracker) {
+            this.channel = channel;
+            this.header = header;
+            this.dataStart = dataStart;
+            this.tracker = tracker;
+        }
+
+        GraphStoreWithConfig readGraphStore(
+            String username,
+            Optional<String> graphName,
+            int concurrency
+        ) throws IOException {
+            String storedGraphName = header.readUTF();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> configMap = (Map<String, Object>) readValue(header);
+            GraphCreateConfig config = configFromMap(username, graphName.orElse(storedGraphName), configMap);
+
+            long nodeCount = header.readLong();
+            long highestNeoId = header.readLong();
+            HugeLongArray graphIds = HugeLongArray.newArray(nodeCount, tracker);
+            readLongs(nodeCount, graphIds::set);
+
+            Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation = Optional.empty();
+            if (header.readBoolean()) {
+                int labelCount = header.readInt();
+                Map<NodeLabel, Roaring64NavigableMap> labelInformation = new HashMap<>(labelCount);
+                for (int i = 0; i < labelCount; i++) {
+                    NodeLabel nodeLabel = NodeLabel.of(header.readUTF());
+                    Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+                    bitmap.deserialize(header);
+                    labelInformation.put(nodeLabel, bitmap);
+                }
+                maybeLabelInformation = Optional.of(labelInformation);
+            }
+
+            ReverseNodeMapping nodeToGraphIds = IdMapBuilder.buildReverseNodeMapping(
+                graphIds,
+                highestNeoId,
+                concurrency,
+                tracker
+            );
+            IdMap nodes = new IdMap(graphIds, nodeToGraphIds, maybeLabelInformation, nodeCount);
+
+            int nodeLabelCount = header.readInt();
+            Map<NodeLabel, Map<String, NodeProperties>> nodeProperties = new HashMap<>(nodeLabelCount);
+            for (int i = 0; i < nodeLabelCount; i++) {
+                NodeLabel nodeLabel = NodeLabel.of(header.readUTF());
+                int propertyCount = header.readInt();
+                Map<String, NodeProperties> properties = new HashMap<>(propertyCount);
+                for (int j = 0; j < propertyCount; j++) {
+                    String propertyKey = header.readUTF();
+                    properties.put(propertyKey, readNodeProperties(nodeCount));
+                }
+                nodeProperties.put(nodeLabel, properties);
+            }
+
+            int offsetsPageSize = ImportSizing.of(concurrency, nodeCount).pageSize();
+            int relationshipTypeCount = header.readInt();
+            Map<RelationshipType, HugeGraph.TopologyCSR> topologies = new HashMap<>(relationshipTypeCount);
+            Map<RelationshipType, Map<String, HugeGraph.PropertyCSR>> relationshipProperties = new HashMap<>();
+            for (int i = 0; i < relationshipTypeCount; i++) {
+                RelationshipType relationshipType = RelationshipType.of(header.readUTF());
+                Orientation orientation = Orientation.valueOf(header.readUTF());
+                AdjacencyEncoding adjacencyEncoding = AdjacencyEncoding.valueOf(header.readUTF());
+                long elementCount = header.readLong();
+                boolean halfStorage = header.readBoolean();
+
+                AdjacencyList list = readList(RelationshipPropertyCodec.DOUBLE, adjacencyEncoding);
+                AdjacencyOffsets offsets = readOffsets(nodeCount, offsetsPageSize);
+                ImmutableTopologyCSR.Builder topology = ImmutableTopologyCSR.builder()
+                    .list(list)
+                    .offsets(offsets)
+                    .elementCount(elementCount)
+                    .orientation(orientation);
+                if (header.readBoolean()) {
+                    topology
+                        .inverseList(readList(RelationshipPropertyCodec.DOUBLE, adjacencyEncoding))
+                        .inverseOffsets(readOffsets(nodeCount, offsetsPageSize));
+                }
+                HugeGraph.TopologyCSR storedTopology = topology.build();
+                if (halfStorage) {
+                    storedTopology = HalfUndirectedStorage.of(nodes, storedTopology, concurrency, tracker);
+                } else if (config.denseDegrees()) {
+                    storedTopology = AdjacencyDegrees.withDegrees(
+                        storedTopology,
+                        nodeCount,
+                        concurrency,
+                        Pools.DEFAULT,
+                        tracker
+                    );
+                }
+                topologies.put(relationshipType, storedTopology);
+
+                int propertyCount = header.readInt();
+                Map<String, HugeGraph.PropertyCSR> properties = new HashMap<>(propertyCount);
+                for (int j = 0; j < propertyCount; j++) {
+                    String propertyKey = header.readUTF();
+                    PropertyEncoding encoding = PropertyEncoding.valueOf(header.readUTF());
+                    double defaultValue = header.readDouble();
+                    long[] dictionary = new long[header.readInt()];
+                    for (int k = 0; k < dictionary.length; k++) {
+                        dictionary[k] = header.readLong();
+                    }
+                    RelationshipPropertyCodec codec = RelationshipPropertyCodec.of(
+                        encoding,
+                        propertyKey,
+                        defaultValue,
+                        dictionary
+                    );
+
+                    ImmutablePropertyCSR.Builder propertyCSR = ImmutablePropertyCSR.builder()
+                        .list(readList(codec, AdjacencyEncoding.VAR_LONG))
+                        .offsets(readOffsets(nodeCount, offsetsPageSize))
+                        .elementCount(elementCount)
+                        .orientation(orientation)
+                        .defaultPropertyValue(defaultValue);
+                    if (header.readBoolean()) {
+                        propertyCSR
+                            .inverseList(readList(codec, AdjacencyEncoding.VAR_LONG))
+                            .inverseOffsets(readOffsets(nodeCount, offsetsPageSize));
+                    }
+                    properties.put(propertyKey, propertyCSR.build());
+                }
+                if (!properties.isEmpty()) {
+                    relationshipProperties.put(relationshipType, properties);
+                }
+            }
+
+            GraphStore graphStore = GraphStore.of(nodes, nodeProperties, topologies, relationshipProperties, tracker);
+            return ImmutableGraphStoreWithConfig.of(graphStore, config);
+        }
+
+        private AdjacencyList readList(
+            RelationshipPropertyCodec codec,
+            AdjacencyEncoding adjacencyEncoding
+        ) throws IOException {
+            int pageCount = header.readInt();
+            long position = header.readLong();
+            int[] pageLengths = new int[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                pageLengths[i] = header.readInt();
+            }
+            return AdjacencyList.mapped(channel, dataStart + position, pageLengths, codec, adjacencyEncoding, tracker);
+        }
+
+        private AdjacencyOffsets readOffsets(long nodeCount, int pageSize) throws IOException {
+            int pageShift = Integer.numberOfTrailingZeros(pageSize);
+            int numPages = Math.max(1, (int) ((nodeCount + pageSize - 1) >>> pageShift));
+            long[][] pages = new long[numPages][];
+            for (int pageIndex = 0; pageIndex < numPages; pageIndex++) {
+                long pageStart = (long) pageIndex << pageShift;
+                pages[pageIndex] = new long[(int) Math.min(pageSize, nodeCount - pageStart)];
+                tracker.add(MemoryUsage.sizeOfLongArray(pages[pageIndex].length));
+            }
+            readLongs(nodeCount, (index, offset) -> pages[(int) (index >>> pageShift)][(int) (index & (pageSize - 1))] = offset);
+            return AdjacencyOffsets.of(pages, pageSize);
+        }
+
+        private NodeProperties readNodeProperties(long nodeCount) throws IOException {
+            ValueType valueType = ValueType.valueOf(header.readUTF());
+            if (!valueType.isArray()) {
+                HugeDoubleArray values = HugeDoubleArray.newArray(nodeCount, tracker);
+                readLongs(nodeCount, (nodeId, bits) -> values.set(nodeId, Double.longBitsToDouble(bits)));
+                HugeLongArray longValues = null;
+                if (valueType == ValueType.LONG) {
+                    longValues = HugeLongArray.newArray(nodeCount, tracker);
+                    readLongs(nodeCount, longValues::set);
+                }
+                return new SnapshotNodeProperties(values, longValues, tracker);
+            }
+
+            boolean floats = valueType == ValueType.FLOAT_ARRAY;
+            HugeObjectArray<Object> arrays = HugeObjectArray.newArray(Object.class, nodeCount, tracker);
+            long[] arrayCount = {0L};
+            readLongs(nodeCount, (nodeId, length) -> {
+                if (length >= 0) {
+                    arrays.set(nodeId, floats ? new float[(int) length] : new double[(int) length]);
+                    tracker.add(floats ? MemoryUsage.sizeOfFloatArray(length) : MemoryUsage.sizeOfDoubleArray(length));
+                    arrayCount[0]++;
+                }
+            });
+            long elementCount = header.readLong();
+            // the elements are read in order, the cursor points to the next element to fill
+            long[] cursor = {-1L, 0L};
+            readLongs(elementCount, (index, bits) -> {
+                Object array = cursor[0] < 0 ? null : arrays.get(cursor[0]);
+                while (array == null || cursor[1] >= Array.getLength(array)) {
+                    cursor[0]++;
+                    cursor[1] = 0L;
+                    array = arrays.get(cursor[0]);
+                }
+                int indexInArray = (int) cursor[1]++;
+                if (floats) {
+                    ((float[]) array)[indexInArray] = Float.intBitsToFloat((int) bits);
+                } else {
+                    ((double[]) array)[indexInArray] = Double.longBitsToDouble(bits);
+                }
+            });
+            return new ArrayNodePropertyMap(arrays, valueType, arrayCount[0], tracker);
+        }
+
+        private void readLongs(long count, BiLongConsumer consumer) throws IOException {
+            long position = dataStart + header.readLong();
+            long index = 0L;
+            while (index < count) {
+                int chunkSize = (int) Math.min(MAX_MAPPED_LONGS, count - index);
+                LongBuffer chunk = channel
+                    .map(FileChannel.MapMode.READ_ONLY, position + index * Long.BYTES, (long) chunkSize * Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asLongBuffer();
+                for (int i = 0; i < chunkSize; i++) {
+                    consumer.apply(index + i, chunk.get(i));
+                }
+                index += chunkSize;
+            }
+        }
+    }
+
+    private interface Section {
+        void write(FileChannel channel, long dataStart) throws IOException;
+    }
+
+    private static final class PageSection implements Section {
+        private final AdjacencyList list;
+        private final int pageIndex;
+        private final long position;
+
+        PageSection(AdjacencyList list, int pageIndex, long position) {
+            this.list = list;
+            this.pageIndex = pageIndex;
+            this.position = position;
+        }
+
+        @Override
+        public void write(FileChannel channel, long dataStart) throws IOException {
+            writeFully(channel, list.page(pageIndex), dataStart + position);
+        }
+    }
+
+    private static final class LongsSection implements Section {
+        private final LongUnaryOperator values;
+        private final long start;
+        private final long end;
+        private final long position;
+
+        LongsSection(LongUnaryOperator values, long start, long end, long position) {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+            this.position = position;
+        }
+
+        @Override
+        public void write(FileChannel channel, long dataStart) throws IOException {
+            ByteBuffer buffer = ByteBuffer
+                .allocate((int) Math.min(WRITE_BUFFER_LONGS, end - start) * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            long filePosition = dataStart + position;
+            for (long index = start; index < end; index++) {
+                buffer.putLong(values.applyAsLong(index));
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    filePosition += writeFully(channel, buffer, filePosition);
+                    buffer.clear();
+                }
+            }
+            buffer.flip();
+            writeFully(channel, buffer, filePosition);
+        }
+    }
+
+    private static final class SnapshotNodeProperties implements NodeProperties {
+        private HugeDoubleArray values;
+        private @Nullable HugeLongArray longValues;
+        private final AllocationTracker tracker;
+
+        SnapshotNodeProperties(HugeDoubleArray values, @Nullable HugeLongArray longValues, AllocationTracker tracker) {
+            this.values = values;
+            this.longValues = longValues;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public double nodeProperty(long nodeId) {
+            return values.get(nodeId);
+        }
+
+        @Override
+        public long longNodeProperty(long nodeId) {
+            return longValues == null ? (long) values.get(nodeId) : longValues.get(nodeId);
+        }
+
+        @Override
+        public ValueType valueType() {
+            return longValues == null ? ValueType.DOUBLE : ValueType.LONG;
+        }
+
+        @Override
+        public long size() {
+            return values.size();
+        }
+
+        @Override
+        public long release() {
+            long freed = 0L;
+            if (values != null) {
+                freed += values.release();
+                values = null;
+            }
+            if (longValues != null) {
+                freed += longValues.release();
+                longValues = null;
+            }
+            tracker.remove(freed);
+            return freed;
+        }
+    }
+
+    private static Map<String, Object> configToMap(GraphCreateConfig config) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (config instanceof GraphCreateFromCypherConfig) {
+            GraphCreateFromCypherConfig cypherConfig = (GraphCreateFromCypherConfig) config;
+            map.put(NODE_QUERY_KEY, cypherConfig.nodeQuery());
+            map.put(RELATIONSHIP_QUERY_KEY, cypherConfig.relationshipQuery());
+            map.put("parameters", cypherConfig.parameters());
+        } else {
+            map.put(NODE_PROJECTION_KEY, config.nodeProjections().toObject());
+            map.put(RELATIONSHIP_PROJECTION_KEY, config.relationshipProjections().toObject());
+        }
+        map.put("readConcurrency", config.readConcurrency());
+        map.put(ProcedureConstants.NODECOUNT_KEY, config.nodeCount());
+        map.put(ProcedureConstants.RELCOUNT_KEY, config.relationshipCount());
+        map.put("validateRelationships", config.validateRelationships());
+        map.put("indexInverse", config.indexInverse());
+        map.put("denseDegrees", config.denseDegrees());
+        map.put("nodeOrdering", config.nodeOrdering().name());
+        return map;
+    }
+
+    private static GraphCreateConfig configFromMap(String username, String graphName, Map<String, Object> map) {
+        Map<String, Object> configMap = new LinkedHashMap<>(map);
+        // the pages of a loaded snapshot are mapped from the snapshot file
+        configMap.put("pageStorage", PageStorage.MAPPED.name());
+        if (configMap.containsKey(NODE_QUERY_KEY)) {
+            Object nodeQuery = configMap.remove(NODE_QUERY_KEY);
+            Object relationshipQuery = configMap.remove(RELATIONSHIP_QUERY_KEY);
+            return GraphCreateFromCypherConfig.of(
+                username,
+                graphName,
+                (String) nodeQuery,
+                (String) relationshipQuery,
+                CypherMapWrapper.create(configMap)
+            );
+        }
+        Object nodeProjections = configMap.remove(NODE_PROJECTION_KEY);
+        Object relationshipProjections = configMap.remove(RELATIONSHIP_PROJECTION_KEY);
+        return GraphCreateFromStoreConfig.of(
+            username,
+            graphName,
+            nodeProjections,
+            relationshipProjections,
+            CypherMapWrapper.create(configMap)
+        );
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF((String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST_VALUE);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP_VALUE);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.writeUTF(String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException(String.format(
+                "Configuration value `%s` of type %s can not be stored in a graph snapshot.",
+                value,
+                value.getClass().getSimpleName()
+            ));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return in.readUTF();
+            case BOOLEAN_VALUE:
+                return in.readBoolean();
+            case LONG_VALUE:
+                return in.readLong();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case LIST_VALUE:
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case MAP_VALUE:
+                int entries = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>(entries);
+                for (int i = 0; i < entries; i++) {
+                    map.put(in.readUTF(), readValue(in));
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException("Unknown value type in graph snapshot: " + type);
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of graph snapshot.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.ImmutableTopologyCSR;
+import org.neo4j.graphalgo.core.huge.LowerNeighbours;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeAtomicLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Presents undirected topologies that store every relationship only once, towards the node with the higher id,
+ * as symmetric graphs. The degree column counts both directions and is computed right away,
+ * the index of the lower neighbours is built when a graph of the topology is first traversed.
+ */
+public final class HalfUndirectedStorage {
+
+    private HalfUndirectedStorage() {}
+
+    /**
+     * @param storedHalf the stored relationships without a degree column,
+     *                   its element count already counts every relationship in both directions
+     */
+    public static HugeGraph.TopologyCSR of(
+        IdMap nodes,
+        HugeGraph.TopologyCSR storedHalf,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        HugeGraph storedGraph = HugeGraph.create(nodes, Collections.emptyMap(), storedHalf, Optional.empty(), tracker);
+        return ImmutableTopologyCSR.builder()
+            .from(storedHalf)
+            .degrees(degrees(storedGraph, nodes.nodeCount(), concurrency, tracker))
+            .lowerNeighbours(new LowerNeighbours(
+                () -> lowerNeighbours(storedHalf, storedGraph, nodes, concurrency, tracker),
+                tracker
+            ))
+            .build();
+    }
+
+    /**
+     * @return the topology with only its stored relationships, graphs of it traverse every relationship once
+     */
+    static HugeGraph.TopologyCSR storedHalf(HugeGraph.TopologyCSR topology) {
+        return ImmutableTopologyCSR.builder()
+            .from(topology)
+            .degrees(Optional.empty())
+            .lowerNeighbours(Optional.empty())
+            .build();
+    }
+
+    private static HugeIntArray degrees(HugeGraph storedGraph, long nodeCount, int concurrency, AllocationTracker tracker) {
+        HugeAtomicLongArray counts = HugeAtomicLongArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, Pools.DEFAULT, (start, end) -> {
+            HugeGraph localGraph = storedGraph.concurrentCopy();
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                int storedDegree = localGraph.degree(nodeId);
+                counts.update(nodeId, count -> count + storedDegree);
+                localGraph.forEachRelationship(nodeId, (source, target) -> {
+                    counts.update(target, count -> count + 1);
+                    return true;
+                });
+            }
+        });
+        HugeIntArray degrees = HugeIntArray.newArray(nodeCount, tracker);
+        degrees.setAll(nodeId -> Math.toIntExact(counts.get(nodeId)));
+        tracker.remove(counts.release());
+        return degrees;
+    }
+
+    /**
+     * Imports every stored relationship, except for self loops, in the opposite direction.
+     */
+    private static HugeGraph.TopologyCSR lowerNeighbours(
+        HugeGraph.TopologyCSR storedHalf,
+        HugeGraph storedGraph,
+        IdMap nodes,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = nodes.nodeCount();
+        Aggregation[] aggregations = {Aggregation.NONE};
+        RelationshipsBuilder relationshipsBuilder = new RelationshipsBuilder(
+            aggregations,
+            tracker,
+            new RelationshipPropertyCodec[0],
+            false,
+            storedHalf.list().pageStorage(),
+            storedHalf.list().adjacencyEncoding()
+        );
+        ImportSizing importSizing = ImportSizing.of(concurrency, nodeCount);
+        LongAdder relationshipCount = new LongAdder();
+        AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+            relationshipsBuilder,
+            importSizing.numberOfPages(),
+            importSizing.pageSize(),
+            tracker,
+            relationshipCount,
+            new int[0],
+            new double[0],
+            aggregations
+        );
+        RelationshipImporter relationshipImporter = new RelationshipImporter(tracker, adjacencyBuilder);
+        RelationshipImporter.Imports imports = relationshipImporter.imports(Orientation.NATURAL, false);
+
+        ParallelUtil.readParallel(concurrency, nodeCount, Pools.DEFAULT, (start, end) -> {
+            HugeGraph localGraph = storedGraph.concurrentCopy();
+            RelationshipsBatchBuffer buffer = new RelationshipsBatchBuffer(nodes, -1, ParallelUtil.DEFAULT_BATCH_SIZE);
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                localGraph.forEachRelationship(nodeId, (source, target) -> {
+                    if (target != source) {
+                        buffer.add(target, source, -1L, -1L);
+                        if (buffer.isFull()) {
+                            imports.importRelationships(buffer, null);
+                            buffer.reset();
+                        }
+                    }
+                    return true;
+                });
+            }
+            if (buffer.length > 0) {
+                imports.importRelationships(buffer, null);
+                buffer.reset();
+            }
+        });
+        ParallelUtil.run(relationshipImporter.flushTasks(), Pools.DEFAULT);
+
+        return ImmutableTopologyCSR.builder()
+            .list(relationshipsBuilder.adjacencyList())
+            .offsets(relationshipsBuilder.globalAdjacencyOffsets())
+            .elementCount(relationshipCount.sum())
+            .orientation(Orientation.NATURAL)
+            .build();
+    }
+}
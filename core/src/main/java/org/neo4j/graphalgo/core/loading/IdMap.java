@@ -19,7 +19,6 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
-import com.carrotsearch.hppc.BitSet;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.api.BatchNodeIterable;
 import org.neo4j.graphalgo.api.IdMapping;
@@ -33,6 +32,12 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.roaringbitmap.ArrayContainer;
+import org.roaringbitmap.BitmapContainer;
+import org.roaringbitmap.RoaringArray;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -55,35 +60,65 @@ public class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
         .perNode("Neo4j identifiers", HugeLongArray::memoryEstimation)
         .rangePerGraphDimension(
             "Mapping from Neo4j identifiers to internal identifiers",
-            (dimensions, concurrency) -> SparseNodeMapping.memoryEstimation(
+            (dimensions, concurrency) -> IdMapBuilder.reverseNodeMappingMemoryEstimation(
                 dimensions.highestNeoId(),
                 dimensions.nodeCount()
             )
         )
         .perGraphDimension(
-            "Node Label BitSets",
+            "Node Label Bitmaps",
             (dimensions, concurrency) ->
-                MemoryRange.of(dimensions.nodeLabels().size() * MemoryUsage.sizeOfBitset(dimensions.nodeCount()))
+                labelBitmapMemoryEstimation(dimensions.nodeCount()).times(dimensions.nodeLabels().size())
         )
         .build();
 
+    // a roaring bitmap stores the lower 16 bits of its values in one container per 2^16 values
+    private static final long VALUES_PER_CONTAINER = 1L << Character.SIZE;
+
     protected long nodeCount;
     protected HugeLongArray graphIds;
-    protected SparseNodeMapping nodeToGraphIds;
-    protected final Optional<Map<NodeLabel, BitSet>> maybeLabelInformation;
+    protected ReverseNodeMapping nodeToGraphIds;
+    protected final Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation;
 
     public static MemoryEstimation memoryEstimation() {
         return ESTIMATION;
     }
 
-    public IdMap(HugeLongArray graphIds, SparseNodeMapping nodeToGraphIds, long nodeCount) {
+    /**
+     * The memory of the bitmap of a single label. Labels without nodes or with long runs of nodes
+     * compress to almost nothing, the worst case is a label that contains every node.
+     * Each container is either a sorted array of its values or an uncompressed bitmap, whichever is smaller.
+     */
+    static MemoryRange labelBitmapMemoryEstimation(long nodeCount) {
+        long bitmapSize = MemoryUsage.sizeOfInstance(Roaring64NavigableMap.class)
+                          + MemoryUsage.sizeOfInstance(RoaringBitmap.class)
+                          + MemoryUsage.sizeOfInstance(RoaringArray.class);
+
+        long fullContainers = nodeCount / VALUES_PER_CONTAINER;
+        long remainingValues = nodeCount % VALUES_PER_CONTAINER;
+        long containersSize = fullContainers * containerMemoryEstimation(VALUES_PER_CONTAINER);
+        if (remainingValues > 0) {
+            containersSize += containerMemoryEstimation(remainingValues);
+        }
+        return MemoryRange.of(bitmapSize, bitmapSize + containersSize);
+    }
+
+    private static long containerMemoryEstimation(long values) {
+        long arrayContainerSize = MemoryUsage.sizeOfInstance(ArrayContainer.class) + MemoryUsage.sizeOfCharArray(values);
+        long bitmapContainerSize = MemoryUsage.sizeOfInstance(BitmapContainer.class)
+                                   + MemoryUsage.sizeOfLongArray(VALUES_PER_CONTAINER / Long.SIZE);
+        // key and container reference in the roaring array
+        return Character.BYTES + Long.BYTES + Math.min(arrayContainerSize, bitmapContainerSize);
+    }
+
+    public IdMap(HugeLongArray graphIds, ReverseNodeMapping nodeToGraphIds, long nodeCount) {
         this(graphIds, nodeToGraphIds, Optional.empty(), nodeCount);
     }
 
     /**
      * initialize the map with pre-built sub arrays
      */
-    public IdMap(HugeLongArray graphIds, SparseNodeMapping nodeToGraphIds, Optional<Map<NodeLabel, BitSet>> maybeLabelInformation, long nodeCount) {
+    public IdMap(HugeLongArray graphIds, ReverseNodeMapping nodeToGraphIds, Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation, long nodeCount) {
         this.graphIds = graphIds;
         this.nodeToGraphIds = nodeToGraphIds;
         this.maybeLabelInformation = maybeLabelInformation;
@@ -133,21 +168,21 @@ public class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
                 IdIterable::new);
     }
 
-    public IdMap withFilteredLabels(BitSet unionedBitSet, int concurrency) {
+    public IdMap withFilteredLabels(Roaring64NavigableMap unionedBitmap, int concurrency) {
         if (!maybeLabelInformation.isPresent()) {
             return this;
         }
 
-        long nodeId = -1L;
         long cursor = 0L;
-        long newNodeCount = unionedBitSet.cardinality();
+        long newNodeCount = unionedBitmap.getLongCardinality();
         HugeLongArray newGraphIds = HugeLongArray.newArray(newNodeCount, AllocationTracker.EMPTY);
-        while((nodeId = unionedBitSet.nextSetBit(nodeId+1)) != -1) {
-            newGraphIds.set(cursor, nodeId);
+        LongIterator nodeIds = unionedBitmap.getLongIterator();
+        while (nodeIds.hasNext()) {
+            newGraphIds.set(cursor, nodeIds.next());
             cursor++;
         }
 
-        SparseNodeMapping newNodeToGraphIds = IdMapBuilder.buildSparseNodeMapping(
+        ReverseNodeMapping newNodeToGraphIds = IdMapBuilder.buildReverseNodeMapping(
             newGraphIds,
             nodeToGraphIds.getCapacity(),
             concurrency,
@@ -170,12 +205,12 @@ public class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
                 elementIdentifierBitSetMap
                     .entrySet()
                     .stream()
-                    .filter(entry -> entry.getValue().get(nodeId))
+                    .filter(entry -> entry.getValue().contains(nodeId))
                     .map(Map.Entry::getKey))
             .orElseGet(() -> Stream.of(NodeLabel.ALL_NODES));
     }
 
-    public Optional<Map<NodeLabel, BitSet>> maybeLabelInformation() {
+    public Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation() {
         return maybeLabelInformation;
     }
 
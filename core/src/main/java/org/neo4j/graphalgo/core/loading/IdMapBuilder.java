@@ -24,16 +24,27 @@ import org.jetbrains.annotations.NotNull;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeCursor;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArrayBuilder;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public final class IdMapBuilder {
 
+    // below this capacity, the pages of a sparse mapping take at most 8 MiB
+    private static final long COMPACT_MAPPING_MIN_CAPACITY = 1L << 20;
+    // the ratio of the highest original id to the node count from which on the compact mapping is used
+    private static final long COMPACT_MAPPING_MIN_SPARSITY = 4L;
+
     public static IdMap build(
         HugeLongArrayBuilder idMapBuilder,
         Map<NodeLabel, BitSet> elementIdentifierLabelMapping,
@@ -41,17 +52,80 @@ public final class IdMapBuilder {
         int concurrency,
         AllocationTracker tracker
     ) {
-        Optional<Map<NodeLabel, BitSet>> maybeLabelInformation = elementIdentifierLabelMapping == null || elementIdentifierLabelMapping.isEmpty()
+        Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation = elementIdentifierLabelMapping == null || elementIdentifierLabelMapping.isEmpty()
             ? Optional.empty()
-            : Optional.of(elementIdentifierLabelMapping);
+            : Optional.of(compressLabelInformation(elementIdentifierLabelMapping, concurrency));
         HugeLongArray graphIds = idMapBuilder.build();
 
-        SparseNodeMapping nodeToGraphIds = buildSparseNodeMapping(graphIds, highestNodeId, concurrency, tracker);
+        ReverseNodeMapping nodeToGraphIds = buildReverseNodeMapping(graphIds, highestNodeId, concurrency, tracker);
         return new IdMap(graphIds, nodeToGraphIds, maybeLabelInformation, idMapBuilder.size());
     }
 
+    /**
+     * The importers set the label bits of concurrently imported batches in dense bit sets,
+     * which are only kept until they have been compressed.
+     */
+    private static Map<NodeLabel, Roaring64NavigableMap> compressLabelInformation(
+        Map<NodeLabel, BitSet> labelInformation,
+        int concurrency
+    ) {
+        Map<NodeLabel, Roaring64NavigableMap> compressedLabelInformation = new ConcurrentHashMap<>();
+        List<Runnable> tasks = labelInformation.entrySet().stream()
+            .map(entry -> (Runnable) () -> compressedLabelInformation.put(entry.getKey(), toBitmap(entry.getValue())))
+            .collect(Collectors.toList());
+        ParallelUtil.runWithConcurrency(concurrency, tasks, Pools.DEFAULT);
+        return new HashMap<>(compressedLabelInformation);
+    }
+
+    static Roaring64NavigableMap toBitmap(BitSet bitSet) {
+        Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+        long nodeId = -1L;
+        while ((nodeId = bitSet.nextSetBit(nodeId + 1)) != -1L) {
+            bitmap.addLong(nodeId);
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    /**
+     * Estimates the mapping that {@link #buildReverseNodeMapping(HugeLongArray, long, int, AllocationTracker)}
+     * chooses for the given density of the original ids.
+     */
+    static MemoryRange reverseNodeMappingMemoryEstimation(long highestNodeId, long nodeCount) {
+        if (!useCompactMapping(highestNodeId, nodeCount)) {
+            return SparseNodeMapping.memoryEstimation(highestNodeId, nodeCount);
+        }
+        return MemoryRange.of(
+            CompactNodeMapping.memoryEstimation(highestNodeId, nodeCount, false),
+            CompactNodeMapping.memoryEstimation(highestNodeId, nodeCount, true)
+        );
+    }
+
     @NotNull
-    static SparseNodeMapping buildSparseNodeMapping(
+    static ReverseNodeMapping buildReverseNodeMapping(
+        HugeLongArray graphIds,
+        long highestNodeId,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        if (useCompactMapping(highestNodeId, graphIds.size())) {
+            return CompactNodeMapping.build(graphIds, highestNodeId, concurrency, tracker);
+        }
+        return buildSparseNodeMapping(graphIds, highestNodeId, concurrency, tracker);
+    }
+
+    /**
+     * The pages of a {@link SparseNodeMapping} are allocated for every range of original ids that contains
+     * at least one node, so its memory grows with the highest original id once the ids are fragmented.
+     * A {@link CompactNodeMapping} only grows with the number of nodes, but has slower lookups,
+     * so it is only used for large and sparse id spaces.
+     */
+    private static boolean useCompactMapping(long highestNodeId, long nodeCount) {
+        return highestNodeId >= COMPACT_MAPPING_MIN_CAPACITY
+               && highestNodeId / Math.max(1L, nodeCount) >= COMPACT_MAPPING_MIN_SPARSITY;
+    }
+
+    private static SparseNodeMapping buildSparseNodeMapping(
         HugeLongArray graphIds,
         long highestNodeId,
         int concurrency,
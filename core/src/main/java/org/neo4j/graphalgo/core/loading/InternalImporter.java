@@ -31,6 +31,13 @@ final class InternalImporter {
     interface CreateScanner {
         RecordScanner create(int index);
 
+        /**
+         * Tasks that run after all records have been scanned and before the flush tasks.
+         */
+        default Collection<Runnable> aggregationTasks() {
+            return Collections.emptyList();
+        }
+
         Collection<Runnable> flushTasks();
     }
 
@@ -56,6 +63,7 @@ final class InternalImporter {
 
         long scannerStart = System.nanoTime();
         ParallelUtil.run(tasks, pool);
+        ParallelUtil.runWithConcurrency(numberOfThreads, createScanner.aggregationTasks(), pool);
         ParallelUtil.run(createScanner.flushTasks(), pool);
         long took = System.nanoTime() - scannerStart;
         long importedRecords = 0L;
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.compat.GraphDatabaseApiProxy;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Node property column that is imported from the Neo4j store when it is first used.
+ * All labels that project the same property share one {@link Loader}, which loads the property
+ * for all of them with a single node store scan. The loaded values are kept for subsequent reads.
+ *
+ * The graph store loads the columns with {@link #load()} on the procedure thread, before it hands out a graph.
+ * Columns that are read without being loaded first are loaded on the reading thread with a single-threaded scan,
+ * so that an algorithm worker never waits for tasks on its own pool.
+ *
+ * A column can only be loaded as long as no transaction has been committed since the graph has been projected,
+ * otherwise its values could differ from the projected nodes. Loading fails once the database has changed.
+ */
+public final class LazyNodeProperties implements NodeProperties {
+
+    private final Object loaderKey;
+    private final NodeLabel nodeLabel;
+    private volatile NodeProperties values;
+
+    /**
+     * Creates a lazy column for every projected node property.
+     *
+     * @param lastCommittedTransactionId the last committed transaction when the nodes have been projected
+     */
+    static Map<NodeLabel, Map<PropertyMapping, NodeProperties>> of(
+        GraphDatabaseAPI api,
+        GraphDimensions dimensions,
+        IdMap idMap,
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+        long lastCommittedTransactionId,
+        AllocationTracker tracker,
+        ExecutorService threadPool,
+        int concurrency,
+        Log log
+    ) {
+        Map<String, Object> loaderKeys = new HashMap<>();
+        Map<NodeLabel, Map<PropertyMapping, NodeProperties>> properties = new HashMap<>();
+        propertyMappingsByNodeLabel.forEach((nodeLabel, propertyMappings) -> {
+            Map<PropertyMapping, NodeProperties> labelProperties = new HashMap<>();
+            for (PropertyMapping propertyMapping : propertyMappings) {
+                Object loaderKey = loaderKeys.computeIfAbsent(propertyMapping.propertyKey(), propertyKey -> Loader.register(
+                    new Loader(
+                        api,
+                        dimensions,
+                        idMap,
+                        propertyKey,
+                        filterMappings(propertyMappingsByNodeLabel, propertyKey),
+                        lastCommittedTransactionId,
+                        tracker,
+                        threadPool,
+                        concurrency,
+                        log
+                    )
+                ));
+                labelProperties.put(propertyMapping, new LazyNodeProperties(loaderKey, nodeLabel));
+            }
+            properties.put(nodeLabel, labelProperties);
+        });
+        return properties;
+    }
+
+    private LazyNodeProperties(Object loaderKey, NodeLabel nodeLabel) {
+        this.loaderKey = loaderKey;
+        this.nodeLabel = nodeLabel;
+    }
+
+    public boolean isLoaded() {
+        return values != null;
+    }
+
+    /**
+     * Loads the column with the concurrency of the graph projection, unless it has already been loaded.
+     */
+    public void load() {
+        values(true);
+    }
+
+    @Override
+    public double nodeProperty(long nodeId) {
+        return values().nodeProperty(nodeId);
+    }
+
+    @Override
+    public double nodeProperty(long nodeId, double defaultValue) {
+        return values().nodeProperty(nodeId, defaultValue);
+    }
+
+    @Override
+    public long longNodeProperty(long nodeId) {
+        return values().longNodeProperty(nodeId);
+    }
+
+    @Override
+    public float floatNodeProperty(long nodeId) {
+        return values().floatNodeProperty(nodeId);
+    }
+
+    @Override
+    public double[] doubleArrayNodeProperty(long nodeId) {
+        return values().doubleArrayNodeProperty(nodeId);
+    }
+
+    @Override
+    public float[] floatArrayNodeProperty(long nodeId) {
+        return values().floatArrayNodeProperty(nodeId);
+    }
+
+    @Override
+    public ValueType valueType() {
+        return values().valueType();
+    }
+
+    @Override
+    public boolean isSparse() {
+        return values().isSparse();
+    }
+
+    @Override
+    public OptionalLong getMaxPropertyValue() {
+        return values().getMaxPropertyValue();
+    }
+
+    @Override
+    public long size() {
+        return values().size();
+    }
+
+    @Override
+    public long release() {
+        values = null;
+        return Loader.release(loaderKey, nodeLabel);
+    }
+
+    private NodeProperties values() {
+        return values(false);
+    }
+
+    private NodeProperties values(boolean parallel) {
+        NodeProperties loadedValues = values;
+        if (loadedValues == null) {
+            synchronized (this) {
+                loadedValues = values;
+                if (loadedValues == null) {
+                    loadedValues = Loader.get(loaderKey).load(nodeLabel, parallel);
+                    values = loadedValues;
+                }
+            }
+        }
+        return loadedValues;
+    }
+
+    private static Map<NodeLabel, PropertyMappings> filterMappings(
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+        String propertyKey
+    ) {
+        Map<NodeLabel, PropertyMappings> filtered = new HashMap<>();
+        propertyMappingsByNodeLabel.forEach((nodeLabel, propertyMappings) -> filtered.put(
+            nodeLabel,
+            PropertyMappings.of(propertyMappings
+                .stream()
+                .filter(propertyMapping -> propertyMapping.propertyKey().equals(propertyKey))
+                .collect(Collectors.toList()))
+        ));
+        return filtered;
+    }
+
+    /**
+     * Loads one node property for all labels that project it.
+     *
+     * The loaders are registered outside of the graph store. Memory reporting walks the object graph
+     * of a graph store, and it must not reach the database through the loader.
+     * The registry only holds the loaders weakly by their key, so that they are gone once
+     * the graph store is no longer referenced.
+     *
+     * A loader is shared by all labels that project its property. Each label releases its own values,
+     * and the loader is removed from the registry once the last of them has been released.
+     */
+    static final class Loader {
+
+        private static final Map<Object, Loader> LOADERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+        private final GraphDatabaseAPI api;
+        private final GraphDimensions dimensions;
+        private final IdMap idMap;
+        private final String propertyKey;
+        private final Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel;
+        private final long lastCommittedTransactionId;
+        private final AllocationTracker tracker;
+        private final ExecutorService threadPool;
+        private final int concurrency;
+        private final Log log;
+
+        private final Set<NodeLabel> unreleasedLabels;
+        private Map<NodeLabel, NodeProperties> loaded;
+
+        static Object register(Loader loader) {
+            Object key = new Object();
+            LOADERS.put(key, loader);
+            return key;
+        }
+
+        static Loader get(Object key) {
+            Loader loader = LOADERS.get(key);
+            if (loader == null) {
+                throw new IllegalStateException("The node property has been released and can no longer be loaded.");
+            }
+            return loader;
+        }
+
+        static long release(Object key, NodeLabel nodeLabel) {
+            synchronized (LOADERS) {
+                Loader loader = LOADERS.get(key);
+                if (loader == null) {
+                    return 0L;
+                }
+                long releasedBytes = loader.release(nodeLabel);
+                if (loader.isReleased()) {
+                    LOADERS.remove(key);
+                }
+                return releasedBytes;
+            }
+        }
+
+        Loader(
+            GraphDatabaseAPI api,
+            GraphDimensions dimensions,
+            IdMap idMap,
+            String propertyKey,
+            Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+            long lastCommittedTransactionId,
+            AllocationTracker tracker,
+            ExecutorService threadPool,
+            int concurrency,
+            Log log
+        ) {
+            this.api = api;
+            this.dimensions = dimensions;
+            this.idMap = idMap;
+            this.propertyKey = propertyKey;
+            this.propertyMappingsByNodeLabel = propertyMappingsByNodeLabel;
+            this.lastCommittedTransactionId = lastCommittedTransactionId;
+            this.tracker = tracker;
+            this.threadPool = threadPool;
+            this.concurrency = concurrency;
+            this.log = log;
+            this.unreleasedLabels = new HashSet<>();
+            propertyMappingsByNodeLabel.forEach((nodeLabel, propertyMappings) -> {
+                if (propertyMappings.hasMappings()) {
+                    unreleasedLabels.add(nodeLabel);
+                }
+            });
+        }
+
+        /**
+         * @param parallel if false, the node store is scanned by the calling thread only
+         */
+        synchronized NodeProperties load(NodeLabel nodeLabel, boolean parallel) {
+            if (!unreleasedLabels.contains(nodeLabel)) {
+                throw new IllegalStateException("The node property has been released and can no longer be loaded.");
+            }
+            if (loaded == null) {
+                validateUnchangedDatabase();
+                Map<NodeLabel, Map<PropertyMapping, NodeProperties>> scanned = new ScanningNodePropertiesImporter(
+                    api,
+                    dimensions,
+                    idMap,
+                    propertyMappingsByNodeLabel,
+                    tracker,
+                    parallel ? threadPool : null,
+                    parallel ? concurrency : 1
+                ).call(log);
+                try {
+                    // the scan might have seen a transaction that has been committed while it was running
+                    validateUnchangedDatabase();
+                } catch (IllegalStateException e) {
+                    scanned.values().forEach(properties -> properties.values().forEach(NodeProperties::release));
+                    throw e;
+                }
+                loaded = new HashMap<>();
+                scanned.forEach((label, properties) -> properties.values().forEach(values -> {
+                    if (unreleasedLabels.contains(label)) {
+                        loaded.put(label, values);
+                    } else {
+                        values.release();
+                    }
+                }));
+            }
+            return loaded.get(nodeLabel);
+        }
+
+        private void validateUnchangedDatabase() {
+            long currentTransactionId = GraphDatabaseApiProxy
+                .resolveDependency(api, TransactionIdStore.class)
+                .getLastCommittedTransactionId();
+            if (currentTransactionId != lastCommittedTransactionId) {
+                throw new IllegalStateException(String.format(
+                    "Node property `%s` can no longer be loaded, " +
+                    "because the database has changed since the graph has been created.",
+                    propertyKey
+                ));
+            }
+        }
+
+        synchronized long release(NodeLabel nodeLabel) {
+            unreleasedLabels.remove(nodeLabel);
+            NodeProperties loadedValues = loaded == null ? null : loaded.remove(nodeLabel);
+            return loadedValues == null ? 0L : loadedValues.release();
+        }
+
+        synchronized boolean isReleased() {
+            return unreleasedLabels.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyDegrees;
+import org.neo4j.graphalgo.core.huge.FilteredNodeProperties;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.ImmutableRelationships;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The nodes of a label filter with their own, compact id space.
+ * Relationships of the subgraph are copied into re-indexed adjacency lists on first use,
+ * so that traversals do not have to translate and filter every target like a
+ * {@link org.neo4j.graphalgo.core.huge.NodeFilteredGraph}.
+ */
+final class MaterializedSubgraph {
+
+    // maps subgraph ids to Neo4j ids
+    private final IdMap nodes;
+    // maps subgraph ids to the internal ids of the graph store
+    private final IdMap filteredNodes;
+    private final Map<Pair<Set<RelationshipType>, Optional<String>>, HugeGraph.Relationships> relationships;
+
+    static MaterializedSubgraph of(IdMap nodes, IdMap filteredNodes, int concurrency, AllocationTracker tracker) {
+        long nodeCount = filteredNodes.nodeCount();
+        HugeLongArray graphIds = HugeLongArray.newArray(nodeCount, tracker);
+        graphIds.setAll(nodeId -> nodes.toOriginalNodeId(filteredNodes.toOriginalNodeId(nodeId)));
+
+        ReverseNodeMapping nodeToGraphIds = IdMapBuilder.buildReverseNodeMapping(
+            graphIds,
+            nodes.nodeToGraphIds.getCapacity(),
+            concurrency,
+            tracker
+        );
+
+        Optional<Map<NodeLabel, Roaring64NavigableMap>> labelInformation = nodes.maybeLabelInformation.map(bitmaps -> {
+            Map<NodeLabel, Roaring64NavigableMap> subgraphBitmaps = new HashMap<>();
+            bitmaps.forEach((label, bitmap) -> {
+                Roaring64NavigableMap subgraphBitmap = new Roaring64NavigableMap();
+                for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                    if (bitmap.contains(filteredNodes.toOriginalNodeId(nodeId))) {
+                        subgraphBitmap.addLong(nodeId);
+                    }
+                }
+                if (!subgraphBitmap.isEmpty()) {
+                    subgraphBitmap.runOptimize();
+                    subgraphBitmaps.put(label, subgraphBitmap);
+                }
+            });
+            return subgraphBitmaps;
+        });
+
+        return new MaterializedSubgraph(
+            new IdMap(graphIds, nodeToGraphIds, labelInformation, nodeCount),
+            filteredNodes
+        );
+    }
+
+    private MaterializedSubgraph(IdMap nodes, IdMap filteredNodes) {
+        this.nodes = nodes;
+        this.filteredNodes = filteredNodes;
+        this.relationships = new ConcurrentHashMap<>();
+    }
+
+    IdMap nodes() {
+        return nodes;
+    }
+
+    Map<String, NodeProperties> nodeProperties(Map<String, NodeProperties> properties) {
+        Map<String, NodeProperties> subgraphProperties = new HashMap<>();
+        properties.forEach((key, values) -> subgraphProperties.put(key, new FilteredNodeProperties(values, filteredNodes)));
+        return subgraphProperties;
+    }
+
+    HugeGraph.Relationships relationships(
+        Set<RelationshipType> relationshipTypes,
+        Optional<String> maybeRelationshipProperty,
+        Function<Pair<Set<RelationshipType>, Optional<String>>, HugeGraph.Relationships> materializer
+    ) {
+        return relationships.computeIfAbsent(
+            Tuples.pair(relationshipTypes, maybeRelationshipProperty),
+            materializer
+        );
+    }
+
+    void invalidate(RelationshipType relationshipType) {
+        relationships.keySet().removeIf(key -> key.getOne().contains(relationshipType));
+    }
+
+    /**
+     * Copies all relationships between nodes of the subgraph into a new adjacency,
+     * using one import buffer per thread.
+     * The result keeps the orientation, the inverse index and the degree column of the given relationships.
+     *
+     * @param graph the relationships of the graph store, including pending updates, which are read
+     * @param topology the compressed relationships of the graph store, which the result is modeled after
+     */
+    HugeGraph.Relationships filter(
+        Graph graph,
+        HugeGraph.TopologyCSR topology,
+        Optional<HugeGraph.PropertyCSR> maybeProperties,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        boolean loadProperties = maybeProperties.isPresent();
+        boolean indexInverse = topology.orientation() != Orientation.UNDIRECTED && topology.inverseList().isPresent();
+        long nodeCount = nodes.nodeCount();
+
+        ImportSizing importSizing = ImportSizing.of(concurrency, nodeCount);
+        int[] propertyKeyIds = loadProperties ? new int[]{HugeGraphUtil.RelationshipsBuilder.DUMMY_PROPERTY_ID} : new int[0];
+        double[] defaultValues = loadProperties ? new double[]{Double.NaN} : new double[0];
+        Aggregation[] aggregations = loadProperties ? new Aggregation[]{Aggregation.NONE} : new Aggregation[0];
+
+        RelationshipsBuilder relationshipsBuilder = new RelationshipsBuilder(
+            new Aggregation[]{Aggregation.NONE},
+            tracker,
+            loadProperties ? 1 : 0,
+            indexInverse
+        );
+        AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+            relationshipsBuilder,
+            importSizing.numberOfPages(),
+            importSizing.pageSize(),
+            tracker,
+            new LongAdder(),
+            propertyKeyIds,
+            defaultValues,
+            aggregations
+        );
+        AdjacencyBuilder inverseAdjacencyBuilder = relationshipsBuilder.inverse()
+            .map(inverseBuilder -> AdjacencyBuilder.compressing(
+                inverseBuilder,
+                importSizing.numberOfPages(),
+                importSizing.pageSize(),
+                tracker,
+                new LongAdder(),
+                propertyKeyIds,
+                defaultValues,
+                aggregations
+            ))
+            .orElse(null);
+
+        RelationshipImporter relationshipImporter = new RelationshipImporter(tracker, adjacencyBuilder, inverseAdjacencyBuilder);
+        // the stored adjacency is copied as is, the orientation is only restored on the result
+        RelationshipImporter.Imports imports = relationshipImporter.imports(Orientation.NATURAL, loadProperties);
+        RelationshipImporter.PropertyReader propertyReader = loadProperties
+            ? RelationshipImporter.preLoadedPropertyReader()
+            : null;
+
+        LongAdder relationshipCount = new LongAdder();
+        ParallelUtil.readParallel(concurrency, nodeCount, Pools.DEFAULT, (start, end) -> {
+            Graph localGraph = graph.concurrentCopy();
+            RelationshipsBatchBuffer buffer = new RelationshipsBatchBuffer(nodes, -1, ParallelUtil.DEFAULT_BATCH_SIZE);
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long source = nodeId;
+                localGraph.forEachRelationship(filteredNodes.toOriginalNodeId(source), Double.NaN, (s, t, property) -> {
+                    long target = filteredNodes.toMappedNodeId(t);
+                    if (target != -1L) {
+                        buffer.add(source, target, -1L, Double.doubleToLongBits(property));
+                        if (buffer.isFull()) {
+                            relationshipCount.add(RawValues.getHead(imports.importRelationships(buffer, propertyReader)));
+                            buffer.reset();
+                        }
+                    }
+                    return true;
+                });
+            }
+            relationshipCount.add(RawValues.getHead(imports.importRelationships(buffer, propertyReader)));
+            buffer.reset();
+        });
+        ParallelUtil.run(relationshipImporter.flushTasks(), Pools.DEFAULT);
+
+        Optional<RelationshipsBuilder> inverse = relationshipsBuilder.inverse();
+        HugeGraph.Relationships subgraphRelationships = HugeGraph.Relationships.of(
+            relationshipCount.sum(),
+            topology.orientation(),
+            relationshipsBuilder.adjacencyList(),
+            relationshipsBuilder.globalAdjacencyOffsets(),
+            loadProperties ? relationshipsBuilder.properties() : null,
+            loadProperties ? relationshipsBuilder.globalPropertyOffsets() : null,
+            inverse.map(RelationshipsBuilder::adjacencyList).orElse(null),
+            inverse.map(RelationshipsBuilder::globalAdjacencyOffsets).orElse(null),
+            loadProperties ? inverse.map(RelationshipsBuilder::properties).orElse(null) : null,
+            loadProperties ? inverse.map(RelationshipsBuilder::globalPropertyOffsets).orElse(null) : null,
+            maybeProperties.map(HugeGraph.PropertyCSR::defaultPropertyValue).orElse(Double.NaN)
+        );
+        if (!topology.degrees().isPresent()) {
+            return subgraphRelationships;
+        }
+        return ImmutableRelationships.of(
+            AdjacencyDegrees.withDegrees(subgraphRelationships.topology(), nodeCount, concurrency, Pools.DEFAULT, tracker),
+            subgraphRelationships.properties()
+        );
+    }
+}
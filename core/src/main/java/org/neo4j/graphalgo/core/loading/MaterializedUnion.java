@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyDegrees;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.ImmutableRelationships;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the relationships of several graphs that share the same nodes into a single compressed adjacency.
+ * The targets of every node are sorted across all graphs and parallel relationships are retained,
+ * so that the merged graph has the same relationships as a {@link org.neo4j.graphalgo.core.huge.UnionGraph}
+ * over the given graphs, but can be traversed like a graph with a single relationship type.
+ * The nodes are partitioned between {@code concurrency} threads, like in {@link RelationshipCompaction}.
+ */
+final class MaterializedUnion {
+
+    static HugeGraph.Relationships of(
+        IdMap nodes,
+        List<? extends Graph> graphs,
+        boolean hasRelationshipProperty,
+        double defaultPropertyValue,
+        boolean denseDegrees,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        Orientation orientation = graphs.stream().allMatch(Graph::isUndirected)
+            ? Orientation.UNDIRECTED
+            : Orientation.NATURAL;
+        boolean indexInverse = orientation != Orientation.UNDIRECTED
+                               && graphs.stream().allMatch(Graph::hasInverseIndex);
+
+        HugeGraph.Relationships outgoing = merge(nodes, graphs, hasRelationshipProperty, false, concurrency, tracker);
+        Optional<HugeGraph.Relationships> incoming = indexInverse
+            ? Optional.of(merge(nodes, graphs, hasRelationshipProperty, true, concurrency, tracker))
+            : Optional.empty();
+
+        HugeGraph.Relationships union = HugeGraph.Relationships.of(
+            outgoing.topology().elementCount(),
+            orientation,
+            outgoing.topology().list(),
+            outgoing.topology().offsets(),
+            outgoing.properties().map(HugeGraph.TopologyCSR::list).orElse(null),
+            outgoing.properties().map(HugeGraph.TopologyCSR::offsets).orElse(null),
+            incoming.map(relationships -> relationships.topology().list()).orElse(null),
+            incoming.map(relationships -> relationships.topology().offsets()).orElse(null),
+            incoming.flatMap(HugeGraph.Relationships::properties).map(HugeGraph.TopologyCSR::list).orElse(null),
+            incoming.flatMap(HugeGraph.Relationships::properties).map(HugeGraph.TopologyCSR::offsets).orElse(null),
+            defaultPropertyValue
+        );
+        if (!denseDegrees) {
+            return union;
+        }
+        return ImmutableRelationships.of(
+            AdjacencyDegrees.withDegrees(union.topology(), nodes.nodeCount(), concurrency, Pools.DEFAULT, tracker),
+            union.properties()
+        );
+    }
+
+    /**
+     * Imports the relationships of all graphs, the nodes are partitioned between the threads
+     * and every thread fills its own import buffer.
+     */
+    private static HugeGraph.Relationships merge(
+        IdMap nodes,
+        List<? extends Graph> graphs,
+        boolean hasRelationshipProperty,
+        boolean inverse,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = nodes.nodeCount();
+        ImportSizing importSizing = ImportSizing.of(concurrency, nodeCount);
+        int[] propertyKeyIds = hasRelationshipProperty ? new int[]{HugeGraphUtil.RelationshipsBuilder.DUMMY_PROPERTY_ID} : new int[0];
+        double[] defaultValues = hasRelationshipProperty ? new double[]{Double.NaN} : new double[0];
+        Aggregation[] aggregations = hasRelationshipProperty ? new Aggregation[]{Aggregation.NONE} : new Aggregation[0];
+
+        RelationshipsBuilder relationshipsBuilder = new RelationshipsBuilder(
+            new Aggregation[]{Aggregation.NONE},
+            tracker,
+            hasRelationshipProperty ? 1 : 0
+        );
+        AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+            relationshipsBuilder,
+            importSizing.numberOfPages(),
+            importSizing.pageSize(),
+            tracker,
+            new LongAdder(),
+            propertyKeyIds,
+            defaultValues,
+            aggregations
+        );
+        RelationshipImporter relationshipImporter = new RelationshipImporter(tracker, adjacencyBuilder);
+        RelationshipImporter.Imports imports = relationshipImporter.imports(Orientation.NATURAL, hasRelationshipProperty);
+        RelationshipImporter.PropertyReader propertyReader = hasRelationshipProperty
+            ? RelationshipImporter.preLoadedPropertyReader()
+            : null;
+
+        LongAdder relationshipCount = new LongAdder();
+        ParallelUtil.readParallel(concurrency, nodeCount, Pools.DEFAULT, (start, end) -> {
+            List<Graph> localGraphs = graphs.stream().map(Graph::concurrentCopy).collect(Collectors.toList());
+            RelationshipsBatchBuffer buffer = new RelationshipsBatchBuffer(nodes, -1, ParallelUtil.DEFAULT_BATCH_SIZE);
+            RelationshipWithPropertyConsumer consumer = (source, target, property) -> {
+                buffer.add(source, target, -1L, Double.doubleToLongBits(property));
+                if (buffer.isFull()) {
+                    relationshipCount.add(RawValues.getHead(imports.importRelationships(buffer, propertyReader)));
+                    buffer.reset();
+                }
+                return true;
+            };
+
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                for (Graph graph : localGraphs) {
+                    if (!hasRelationshipProperty) {
+                        if (inverse) {
+                            graph.forEachInverseRelationship(nodeId, (source, target) -> consumer.accept(source, target, Double.NaN));
+                        } else {
+                            graph.forEachRelationship(nodeId, (source, target) -> consumer.accept(source, target, Double.NaN));
+                        }
+                    } else if (inverse) {
+                        graph.forEachInverseRelationship(nodeId, Double.NaN, consumer);
+                    } else {
+                        graph.forEachRelationship(nodeId, Double.NaN, consumer);
+                    }
+                }
+            }
+            if (buffer.length > 0) {
+                relationshipCount.add(RawValues.getHead(imports.importRelationships(buffer, propertyReader)));
+                buffer.reset();
+            }
+        });
+        ParallelUtil.run(relationshipImporter.flushTasks(), Pools.DEFAULT);
+
+        return HugeGraph.Relationships.of(
+            relationshipCount.sum(),
+            Orientation.NATURAL,
+            relationshipsBuilder.adjacencyList(),
+            relationshipsBuilder.globalAdjacencyOffsets(),
+            hasRelationshipProperty ? relationshipsBuilder.properties() : null,
+            hasRelationshipProperty ? relationshipsBuilder.globalPropertyOffsets() : null,
+            Double.NaN
+        );
+    }
+
+    private MaterializedUnion() {}
+}
@@ -20,16 +20,22 @@
 package org.neo4j.graphalgo.core.loading;
 
 import com.carrotsearch.hppc.ObjectLongMap;
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.PropertyMappings;
 import org.neo4j.graphalgo.RelationshipProjectionMapping;
 import org.neo4j.graphalgo.RelationshipType;
 import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.GraphStoreFactory;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.compat.GraphDatabaseApiProxy;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.core.Aggregation;
 import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.RelationshipImportStrategy;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
 import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
 import org.neo4j.graphalgo.core.huge.HugeGraph;
@@ -37,11 +43,17 @@ import org.neo4j.graphalgo.core.utils.BatchingProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.TransactionIdStore;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -49,6 +61,15 @@ import static org.neo4j.graphalgo.core.GraphDimensionsValidation.validate;
 
 public final class NativeFactory extends GraphStoreFactory {
 
+    // keys of the reported store scans, every scan of a load has its own key
+    private static final String NODE_SCAN = "Node";
+    private static final String NODE_PROPERTY_SCAN = "NodeProperty";
+    private static final String RELATIONSHIP_COUNT_SCAN = "RelationshipCount";
+    private static final String RELATIONSHIP_SCAN = "Relationship";
+
+    private final Map<String, StoreScanStatistics> storeScans = new LinkedHashMap<>();
+    private @Nullable SharedNodes offeredNodes;
+
     public NativeFactory(GraphDatabaseAPI api, GraphCreateConfig graphCreateConfig, GraphSetup setup) {
         super(api, setup, graphCreateConfig);
     }
@@ -60,10 +81,36 @@ public final class NativeFactory extends GraphStoreFactory {
 
     @Override
     public MemoryEstimation memoryEstimation(GraphDimensions dimensions) {
-        return getMemoryEstimation(dimensions);
+        return getMemoryEstimation(
+            dimensions,
+            graphCreateConfig.indexInverse(),
+            graphCreateConfig.denseDegrees(),
+            graphCreateConfig.halfUndirectedStorage()
+        );
     }
 
     public static MemoryEstimation getMemoryEstimation(GraphDimensions dimensions) {
+        return getMemoryEstimation(dimensions, false);
+    }
+
+    public static MemoryEstimation getMemoryEstimation(GraphDimensions dimensions, boolean indexInverse) {
+        return getMemoryEstimation(dimensions, indexInverse, false);
+    }
+
+    public static MemoryEstimation getMemoryEstimation(
+        GraphDimensions dimensions,
+        boolean indexInverse,
+        boolean denseDegrees
+    ) {
+        return getMemoryEstimation(dimensions, indexInverse, denseDegrees, false);
+    }
+
+    public static MemoryEstimation getMemoryEstimation(
+        GraphDimensions dimensions,
+        boolean indexInverse,
+        boolean denseDegrees,
+        boolean halfUndirectedStorage
+    ) {
         MemoryEstimations.Builder builder = MemoryEstimations
             .builder(HugeGraph.class)
             .add("nodeIdMap", IdMap.memoryEstimation());
@@ -76,34 +123,98 @@ public final class NativeFactory extends GraphStoreFactory {
         dimensions
             .nodePropertyTokens()
             .keySet()
-            .forEach(property -> builder.add(property, NodePropertyMap.memoryEstimation()));
+            .forEach(property -> builder.add(property, NodePropertiesBuilder.memoryEstimation()));
 
         // relationships
         dimensions.relationshipProjectionMappings().stream().forEach(relationshipProjectionMapping -> {
             RelationshipType relationshipType = relationshipProjectionMapping.relationshipType();
 
             boolean undirected = relationshipProjectionMapping.orientation() == Orientation.UNDIRECTED;
+            // half storage keeps every relationship and its properties once
+            boolean halfStorage = undirected && halfUndirectedStorage;
+            boolean storedTwice = undirected && !halfStorage;
 
             // adjacency list
             builder.add(
                 String.format("adjacency list for '%s'", relationshipType),
-                AdjacencyList.compressedMemoryEstimation(relationshipType, undirected)
+                halfStorage
+                    ? AdjacencyList.compressedMemoryEstimation(relationshipType, false)
+                    : AdjacencyList.compressedMemoryEstimation(relationshipType, relationshipProjectionMapping.orientation())
             );
             builder.add(
                 String.format("adjacency offsets for '%s'", relationshipType),
                 AdjacencyOffsets.memoryEstimation()
             );
+            if (denseDegrees || halfStorage) {
+                builder.perNode(
+                    String.format("degrees for '%s'", relationshipType),
+                    HugeIntArray::memoryEstimation
+                );
+            }
             // all properties per projection
             dimensions.relationshipProperties().mappings().forEach(resolvedPropertyMapping -> {
                 builder.add(
                     String.format("property '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
-                    AdjacencyList.uncompressedMemoryEstimation(relationshipType, undirected)
+                    AdjacencyList.uncompressedMemoryEstimation(
+                        relationshipType,
+                        storedTwice,
+                        resolvedPropertyMapping.encoding()
+                    )
                 );
                 builder.add(
                     String.format("property offset '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
                     AdjacencyOffsets.memoryEstimation()
                 );
             });
+
+            // the lower neighbours of half storage are only indexed once a graph is traversed
+            if (halfStorage) {
+                builder.add(
+                    String.format("lower neighbours index for '%s'", relationshipType),
+                    MemoryEstimations.andThen(
+                        MemoryEstimations.builder()
+                            .add(AdjacencyList.compressedMemoryEstimation(relationshipType, false))
+                            .add(AdjacencyOffsets.memoryEstimation())
+                            .build(),
+                        (range, dims, concurrency) -> MemoryRange.of(0L, range.max)
+                    )
+                );
+            }
+
+            // the inverse index mirrors adjacency and properties of a directed projection
+            if (indexInverse && !undirected) {
+                Orientation inverseOrientation = relationshipProjectionMapping.orientation() == Orientation.NATURAL
+                    ? Orientation.REVERSE
+                    : Orientation.NATURAL;
+                builder.add(
+                    String.format("inverse adjacency list for '%s'", relationshipType),
+                    AdjacencyList.compressedMemoryEstimation(relationshipType, inverseOrientation)
+                );
+                builder.add(
+                    String.format("inverse adjacency offsets for '%s'", relationshipType),
+                    AdjacencyOffsets.memoryEstimation()
+                );
+                if (denseDegrees) {
+                    builder.perNode(
+                        String.format("inverse degrees for '%s'", relationshipType),
+                        HugeIntArray::memoryEstimation
+                    );
+                }
+                dimensions.relationshipProperties().mappings().forEach(resolvedPropertyMapping -> {
+                    builder.add(
+                        String.format("inverse property '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
+                        AdjacencyList.uncompressedMemoryEstimation(
+                            relationshipType,
+                            false,
+                            resolvedPropertyMapping.encoding()
+                        )
+                    );
+                    builder.add(
+                        String.format("inverse property offset '%s.%s", relationshipType, resolvedPropertyMapping.propertyKey()),
+                        AdjacencyOffsets.memoryEstimation()
+                    );
+                });
+            }
         });
 
         return builder.build();
@@ -138,9 +249,12 @@ public final class NativeFactory extends GraphStoreFactory {
         IdsAndProperties nodes = loadNodes(tracker, concurrency);
         RelationshipImportResult relationships = loadRelationships(tracker, nodes, concurrency);
         GraphStore graphStore = createGraphStore(nodes, relationships, tracker, dimensions);
+        if (offeredNodes != null) {
+            graphStore.offerSharedNodes(offeredNodes);
+        }
         progressLogger.logMessage(tracker);
 
-        return ImportResult.of(dimensions, graphStore);
+        return ImportResult.of(dimensions, graphStore, storeScans, nodeOrderingStatistics());
     }
 
     private IdsAndProperties loadNodes(AllocationTracker tracker, int concurrency) {
@@ -154,7 +268,67 @@ public final class NativeFactory extends GraphStoreFactory {
                 entry -> entry.getValue().properties()
             ));
 
-        return new ScanningNodesImporter(
+        // reordering replaces the id map, which could then no longer be shared
+        boolean shareNodes = graphCreateConfig.shareNodes() && setup.nodeOrdering() == NodeOrdering.NONE;
+        // read before the scan, so that nodes that change while they are scanned are neither shared nor lazily loaded
+        long lastCommittedTransactionId = shareNodes || graphCreateConfig.lazyNodeProperties()
+            ? lastCommittedTransactionId()
+            : -1L;
+        if (shareNodes) {
+            Optional<SharedNodes> sharedNodes = GraphStoreCatalog.sharedNodes(
+                graphCreateConfig.username(),
+                graphCreateConfig.nodeProjections(),
+                lastCommittedTransactionId
+            );
+            if (sharedNodes.isPresent()) {
+                return loadSharedNodes(
+                    sharedNodes.get(),
+                    propertyMappingsByNodeLabel,
+                    lastCommittedTransactionId,
+                    tracker,
+                    concurrency
+                );
+            }
+        }
+
+        IdsAndProperties nodes = scanNodes(propertyMappingsByNodeLabel, lastCommittedTransactionId, tracker, concurrency);
+        if (shareNodes && !graphCreateConfig.graphName().equals(GraphCreateConfig.IMPLICIT_GRAPH_NAME)) {
+            // only shared once the graph has been added to the catalog
+            offeredNodes = new SharedNodes(
+                nodes.idMap(),
+                byPropertyMapping(nodes, propertyMappingsByNodeLabel),
+                lastCommittedTransactionId
+            );
+        }
+        return nodes;
+    }
+
+    private long lastCommittedTransactionId() {
+        return GraphDatabaseApiProxy
+            .resolveDependency(api, TransactionIdStore.class)
+            .getLastCommittedTransactionId();
+    }
+
+    private IdsAndProperties scanNodes(
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+        long lastCommittedTransactionId,
+        AllocationTracker tracker,
+        int concurrency
+    ) {
+        if (!graphCreateConfig.lazyNodeProperties()) {
+            return scan(NODE_SCAN, new ScanningNodesImporter(
+                api,
+                dimensions,
+                progressLogger,
+                tracker,
+                setup.terminationFlag(),
+                threadPool,
+                concurrency,
+                propertyMappingsByNodeLabel
+            ));
+        }
+
+        IdsAndProperties nodes = scan(NODE_SCAN, new ScanningNodesImporter(
             api,
             dimensions,
             progressLogger,
@@ -162,8 +336,104 @@ public final class NativeFactory extends GraphStoreFactory {
             setup.terminationFlag(),
             threadPool,
             concurrency,
-            propertyMappingsByNodeLabel
-        ).call(setup.log());
+            emptyMappings(propertyMappingsByNodeLabel)
+        ));
+        return IdsAndProperties.of(
+            nodes.idMap(),
+            lazyNodeProperties(nodes.idMap(), propertyMappingsByNodeLabel, lastCommittedTransactionId, tracker, concurrency)
+        );
+    }
+
+    /**
+     * Reuses the id map of another named graph and only imports the node properties that it does not share.
+     */
+    private IdsAndProperties loadSharedNodes(
+        SharedNodes sharedNodes,
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+        long lastCommittedTransactionId,
+        AllocationTracker tracker,
+        int concurrency
+    ) {
+        IdMap idMap = sharedNodes.idMap();
+        progressLogger.logProgress(idMap.nodeCount());
+        progressLogger.logMessage(String.format("Reusing %d shared nodes", idMap.nodeCount()));
+
+        Optional<Map<NodeLabel, Map<PropertyMapping, NodeProperties>>> sharedProperties =
+            sharedNodes.properties(propertyMappingsByNodeLabel);
+        if (sharedProperties.isPresent()) {
+            return IdsAndProperties.of(idMap, sharedProperties.get());
+        }
+        if (graphCreateConfig.lazyNodeProperties()) {
+            return IdsAndProperties.of(
+                idMap,
+                lazyNodeProperties(idMap, propertyMappingsByNodeLabel, lastCommittedTransactionId, tracker, concurrency)
+            );
+        }
+        return IdsAndProperties.of(idMap, scan(NODE_PROPERTY_SCAN, new ScanningNodePropertiesImporter(
+            api,
+            dimensions,
+            idMap,
+            propertyMappingsByNodeLabel,
+            tracker,
+            threadPool,
+            concurrency
+        )));
+    }
+
+    private Map<NodeLabel, Map<PropertyMapping, NodeProperties>> lazyNodeProperties(
+        IdMap idMap,
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+        long lastCommittedTransactionId,
+        AllocationTracker tracker,
+        int concurrency
+    ) {
+        return LazyNodeProperties.of(
+            api,
+            dimensions,
+            idMap,
+            propertyMappingsByNodeLabel,
+            lastCommittedTransactionId,
+            tracker,
+            threadPool,
+            concurrency,
+            setup.log()
+        );
+    }
+
+    private static Map<NodeLabel, Map<PropertyMapping, NodeProperties>> byPropertyMapping(
+        IdsAndProperties nodes,
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel
+    ) {
+        Map<NodeLabel, Map<PropertyMapping, NodeProperties>> properties = new HashMap<>();
+        propertyMappingsByNodeLabel.forEach((nodeLabel, propertyMappings) -> {
+            Map<String, NodeProperties> labelProperties = nodes.properties().getOrDefault(nodeLabel, Map.of());
+            Map<PropertyMapping, NodeProperties> mappedProperties = new HashMap<>();
+            for (PropertyMapping propertyMapping : propertyMappings) {
+                NodeProperties values = labelProperties.get(propertyMapping.propertyKey());
+                if (values != null) {
+                    mappedProperties.put(propertyMapping, values);
+                }
+            }
+            properties.put(nodeLabel, mappedProperties);
+        });
+        return properties;
+    }
+
+    private static Map<NodeLabel, PropertyMappings> emptyMappings(Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel) {
+        return propertyMappingsByNodeLabel
+            .keySet()
+            .stream()
+            .collect(Collectors.toMap(Function.identity(), nodeLabel -> PropertyMappings.of()));
+    }
+
+    private <T> T scan(String scanKey, ScanningRecordsImporter<?, T> importer) {
+        T result = importer.call(
+            setup.log(),
+            graphCreateConfig.adaptiveScanning(),
+            graphCreateConfig.warmUpPageCache()
+        );
+        storeScans.put(scanKey, importer.statistics());
+        return result;
     }
 
     private RelationshipImportResult loadRelationships(
@@ -172,16 +442,37 @@ public final class NativeFactory extends GraphStoreFactory {
         int concurrency
     ) {
         Aggregation[] aggregations = dimensions.aggregations(setup.aggregation());
-        int propertyCount = setup.relationshipPropertyMappings().numberOfMappings();
         Map<RelationshipProjectionMapping, RelationshipsBuilder> allBuilders = dimensions
             .relationshipProjectionMappings()
             .stream()
             .collect(Collectors.toMap(
                 Function.identity(),
-                mapping -> new RelationshipsBuilder(aggregations, tracker, propertyCount)
+                mapping -> new RelationshipsBuilder(
+                    aggregations,
+                    tracker,
+                    dimensions.relationshipPropertyCodecs(),
+                    setup.indexInverse() && mapping.orientation() != Orientation.UNDIRECTED,
+                    setup.pageStorage(),
+                    mapping.adjacencyEncoding()
+                )
+            ));
+
+        if (setup.relationshipImportStrategy() == RelationshipImportStrategy.COUNTING) {
+            scan(RELATIONSHIP_COUNT_SCAN, new ScanningRelationshipsImporter(
+                setup,
+                api,
+                dimensions,
+                ProgressLogger.NULL_LOGGER,
+                tracker,
+                idsAndProperties.idMap,
+                allBuilders,
+                threadPool,
+                concurrency,
+                true
             ));
+        }
 
-        ObjectLongMap<RelationshipProjectionMapping> relationshipCounts = new ScanningRelationshipsImporter(
+        ObjectLongMap<RelationshipProjectionMapping> relationshipCounts = scan(RELATIONSHIP_SCAN, new ScanningRelationshipsImporter(
             setup,
             api,
             dimensions,
@@ -191,7 +482,7 @@ public final class NativeFactory extends GraphStoreFactory {
             allBuilders,
             threadPool,
             concurrency
-        ).call(setup.log());
+        ));
 
         return RelationshipImportResult.of(allBuilders, relationshipCounts, dimensions);
     }
@@ -33,7 +33,6 @@ import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.Read;
-import org.neo4j.values.storable.NumberValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -136,17 +135,11 @@ public final class NativeNodePropertyImporter {
         if (builders != null) {
             Value value = propertyCursor.propertyValue();
 
-            if (value instanceof NumberValue) {
+            if (!Values.NO_VALUE.equals(value)) {
                 for (NodePropertiesBuilder builder : builders) {
-                    builder.set(nodeId, ((NumberValue) value).doubleValue());
+                    builder.set(nodeId, value);
                     propertiesImported++;
                 }
-            } else if (!Values.NO_VALUE.equals(value)) {
-                throw new IllegalArgumentException(String.format(
-                    "Unsupported type [%s] of value %s. Please use a numeric property.",
-                    value.valueGroup(),
-                    value
-                ));
             }
         }
 
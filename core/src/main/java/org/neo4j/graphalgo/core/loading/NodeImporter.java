@@ -27,6 +27,7 @@ import org.neo4j.graphalgo.core.utils.RawValues;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArrayBuilder;
 import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.values.storable.Value;
 
 import java.util.Collections;
 import java.util.List;
@@ -69,7 +70,7 @@ public class NodeImporter {
         });
     }
 
-    long importCypherNodes(NodesBatchBuffer buffer, List<Map<String, Number>> cypherNodeProperties, CypherNodePropertyImporter propertyImporter) {
+    long importCypherNodes(NodesBatchBuffer buffer, List<Map<String, Value>> cypherNodeProperties, CypherNodePropertyImporter propertyImporter) {
         return importNodes(buffer, (nodeReference, labelIds, propertiesReference, internalId) -> {
             if (propertyImporter != null) {
                 return propertyImporter.importProperties(internalId, labelIds, cypherNodeProperties.get((int) propertiesReference));
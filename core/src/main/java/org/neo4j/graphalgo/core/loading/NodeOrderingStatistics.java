@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.core.NodeOrdering;
+
+/**
+ * Effect of renumbering the loaded nodes on the compressed adjacency lists, which is reported with the created graph.
+ */
+@ValueClass
+public interface NodeOrderingStatistics {
+
+    NodeOrdering nodeOrdering();
+
+    /**
+     * Number of bytes required for the compressed adjacency lists using the original ids.
+     */
+    long compressedSizeBefore();
+
+    /**
+     * Number of bytes required for the compressed adjacency lists using the new ids.
+     */
+    long compressedSizeAfter();
+
+    default double compressionRatio() {
+        return compressedSizeAfter() == 0 ? 1.0 : (double) compressedSizeBefore() / compressedSizeAfter();
+    }
+
+    static NodeOrderingStatistics of(NodeOrdering nodeOrdering, long compressedSizeBefore, long compressedSizeAfter) {
+        return ImmutableNodeOrderingStatistics.of(nodeOrdering, compressedSizeBefore, compressedSizeAfter);
+    }
+}
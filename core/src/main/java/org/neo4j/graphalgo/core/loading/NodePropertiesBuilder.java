@@ -20,18 +20,57 @@
 package org.neo4j.graphalgo.core.loading;
 
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeObjectArray;
 import org.neo4j.graphalgo.core.utils.paged.PagedLongDoubleMap;
+import org.neo4j.graphalgo.core.utils.paged.PagedLongLongMap;
+import org.neo4j.values.storable.DoubleArray;
+import org.neo4j.values.storable.FloatArray;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.NumberArray;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.neo4j.graphalgo.compat.StatementConstantsProxy.NO_SUCH_PROPERTY_KEY;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfDoubleArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfFloatArray;
 
+/**
+ * Scalar values are put into paged maps whose pages become dense arrays once at least half of their nodes
+ * have a value, so densely populated columns never hold all values in hash maps at once.
+ */
 public final class NodePropertiesBuilder {
 
+    // the kinds of values seen so far, a column must not contain both SCALARS and ARRAYS
+    private static final int SCALARS = 1;
+    private static final int DOUBLES = 1 << 1;
+    private static final int LONGS = 1 << 2;
+    private static final int ARRAYS = 1 << 3;
+    private static final int DOUBLE_ARRAYS = 1 << 4;
+
+    private final long numberOfNodes;
+    private final AllocationTracker tracker;
+    private final int concurrency;
     private final double defaultValue;
     private final int propertyId;
     private final PagedLongDoubleMap properties;
     private final String propertyKey;
 
+    // integral values and arrays are only allocated once the first such value is imported
+    private volatile PagedLongLongMap longProperties;
+    private volatile HugeObjectArray<Object> arrayProperties;
+    private final LongAdder arrayCount;
+
+    private final AtomicInteger valueKinds;
+
     public static NodePropertiesBuilder of(
         long numberOfNodes,
         AllocationTracker tracker,
@@ -42,18 +81,48 @@ public final class NodePropertiesBuilder {
     ) {
         assert propertyId != NO_SUCH_PROPERTY_KEY;
         PagedLongDoubleMap properties = PagedLongDoubleMap.of(numberOfNodes, tracker, concurrency);
-        return new NodePropertiesBuilder(defaultValue, propertyId, properties, propertyKey);
+        return new NodePropertiesBuilder(
+            numberOfNodes,
+            tracker,
+            concurrency,
+            defaultValue,
+            propertyId,
+            properties,
+            propertyKey
+        );
+    }
+
+    /**
+     * Whether a column holds numbers or arrays is only known once its values are loaded,
+     * the estimation covers both.
+     */
+    static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.andThen(
+            NodePropertyMap.memoryEstimation(),
+            (range, dimensions, concurrency) -> range.union(ArrayNodePropertyMap
+                .memoryEstimation()
+                .estimate(dimensions, concurrency)
+                .memoryUsage())
+        );
     }
 
     private NodePropertiesBuilder(
+            final long numberOfNodes,
+            final AllocationTracker tracker,
+            final int concurrency,
             final double defaultValue,
             final int propertyId,
             final PagedLongDoubleMap properties,
             final String propertyKey) {
+        this.numberOfNodes = numberOfNodes;
+        this.tracker = tracker;
+        this.concurrency = concurrency;
         this.defaultValue = defaultValue;
         this.propertyId = propertyId;
         this.properties = properties;
         this.propertyKey = propertyKey;
+        this.arrayCount = new LongAdder();
+        this.valueKinds = new AtomicInteger();
     }
 
     double defaultValue() {
@@ -69,10 +138,133 @@ public final class NodePropertiesBuilder {
     }
 
     public void set(long index, double value) {
+        // NaN marks a missing value and does not turn an integral column into a floating point one
+        addValueKinds(Double.isNaN(value) ? SCALARS : SCALARS | DOUBLES);
         properties.put(index, value);
     }
 
+    public void setLong(long index, long value) {
+        addValueKinds(SCALARS | LONGS);
+        longProperties().put(index, value);
+    }
+
+    public void setDoubleArray(long index, double[] value) {
+        addValueKinds(ARRAYS | DOUBLE_ARRAYS);
+        setArray(index, value, sizeOfDoubleArray(value.length));
+    }
+
+    public void setFloatArray(long index, float[] value) {
+        addValueKinds(ARRAYS);
+        setArray(index, value, sizeOfFloatArray(value.length));
+    }
+
+    /**
+     * Stores the given value with the most specific type that can hold it without a loss of precision.
+     * Missing values are ignored.
+     */
+    public void set(long index, Value value) {
+        if (value instanceof IntegralValue) {
+            setLong(index, ((IntegralValue) value).longValue());
+        } else if (value instanceof NumberValue) {
+            set(index, ((NumberValue) value).doubleValue());
+        } else if (value instanceof FloatArray) {
+            setFloatArray(index, ((FloatArray) value).asObjectCopy());
+        } else if (value instanceof DoubleArray) {
+            setDoubleArray(index, ((DoubleArray) value).asObjectCopy());
+        } else if (value instanceof NumberArray) {
+            Object array = value.asObjectCopy();
+            double[] values = new double[Array.getLength(array)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ((Number) Array.get(array, i)).doubleValue();
+            }
+            setDoubleArray(index, values);
+        } else if (!Values.NO_VALUE.equals(value)) {
+            throw new IllegalArgumentException(String.format(
+                "Unsupported type [%s] of value %s. Please use a numeric or numeric array property.",
+                value.valueGroup(),
+                value
+            ));
+        }
+    }
+
     public NodeProperties build() {
+        int kinds = valueKinds.get();
+        if ((kinds & ARRAYS) != 0) {
+            return new ArrayNodePropertyMap(
+                arrayProperties,
+                (kinds & DOUBLE_ARRAYS) != 0 ? ValueType.DOUBLE_ARRAY : ValueType.FLOAT_ARRAY,
+                arrayCount.sum(),
+                tracker
+            );
+        }
+        if ((kinds & LONGS) != 0) {
+            return new NodePropertyMap(
+                properties,
+                longProperties,
+                defaultValue,
+                (kinds & DOUBLES) != 0 ? ValueType.DOUBLE : ValueType.LONG
+            );
+        }
         return new NodePropertyMap(properties, defaultValue);
     }
+
+    private void setArray(long index, Object value, long sizeInBytes) {
+        HugeObjectArray<Object> arrays = arrayProperties();
+        if (arrays.get(index) == null) {
+            arrayCount.increment();
+        }
+        arrays.set(index, value);
+        tracker.add(sizeInBytes);
+    }
+
+    /**
+     * Records the kinds of a value before it is stored. The check and the update are a single CAS,
+     * so that of two importer threads racing with a number and an array, one always sees the other.
+     */
+    private void addValueKinds(int kinds) {
+        while (true) {
+            int current = valueKinds.get();
+            if ((current & kinds) == kinds) {
+                return;
+            }
+            int updated = current | kinds;
+            if ((updated & SCALARS) != 0 && (updated & ARRAYS) != 0) {
+                throw new IllegalArgumentException(String.format(
+                    "Node property `%s` must either contain only numbers or only arrays of numbers.",
+                    propertyKey
+                ));
+            }
+            if (valueKinds.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private PagedLongLongMap longProperties() {
+        PagedLongLongMap longs = longProperties;
+        if (longs == null) {
+            synchronized (this) {
+                longs = longProperties;
+                if (longs == null) {
+                    longs = PagedLongLongMap.of(numberOfNodes, tracker, concurrency);
+                    longProperties = longs;
+                }
+            }
+        }
+        return longs;
+    }
+
+    private HugeObjectArray<Object> arrayProperties() {
+        HugeObjectArray<Object> arrays = arrayProperties;
+        if (arrays == null) {
+            synchronized (this) {
+                arrays = arrayProperties;
+                if (arrays == null) {
+                    arrays = HugeObjectArray.newArray(Object.class, numberOfNodes, tracker);
+                    arrayProperties = arrays;
+                }
+            }
+        }
+        return arrays;
+    }
 }
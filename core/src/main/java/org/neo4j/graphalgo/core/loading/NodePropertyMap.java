@@ -19,59 +19,170 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.PagedLongDoubleMap;
+import org.neo4j.graphalgo.core.utils.paged.PagedLongLongMap;
 
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
 
+/**
+ * Numeric node property column. Integral values are kept in a separate map, so that they
+ * can be read without the loss of precision of a double. Every node has at most one value
+ * in either of the maps.
+ */
 public final class NodePropertyMap implements NodeProperties {
 
     private static final MemoryEstimation MEMORY_ESTIMATION = MemoryEstimations
             .builder(NodePropertyMap.class)
             .add("properties", PagedLongDoubleMap.memoryEstimation())
+            .add("long properties", PagedLongLongMap.memoryEstimation())
             .build();
 
     private PagedLongDoubleMap properties;
+    private @Nullable PagedLongLongMap longProperties;
     private final double defaultValue;
+    private final ValueType valueType;
 
     static MemoryEstimation memoryEstimation() {
         return MEMORY_ESTIMATION;
     }
 
     public NodePropertyMap(PagedLongDoubleMap properties, double defaultValue) {
+        this(properties, null, defaultValue, ValueType.DOUBLE);
+    }
+
+    NodePropertyMap(
+        PagedLongDoubleMap properties,
+        @Nullable PagedLongLongMap longProperties,
+        double defaultValue,
+        ValueType valueType
+    ) {
         this.properties = properties;
+        this.longProperties = longProperties;
         this.defaultValue = defaultValue;
+        this.valueType = valueType;
     }
 
     @Override
     public double nodeProperty(long nodeId) {
-        return properties.getOrDefault(nodeId, defaultValue);
+        return nodeProperty(nodeId, defaultValue);
     }
 
     @Override
     public double nodeProperty(long nodeId, double defaultValue) {
+        if (longProperties != null) {
+            int slot = longProperties.indexOf(nodeId);
+            if (slot >= 0) {
+                return longProperties.indexGet(nodeId, slot);
+            }
+        }
         return properties.getOrDefault(nodeId, defaultValue);
     }
 
+    @Override
+    public long longNodeProperty(long nodeId) {
+        if (longProperties != null) {
+            int slot = longProperties.indexOf(nodeId);
+            if (slot >= 0) {
+                return longProperties.indexGet(nodeId, slot);
+            }
+        }
+        return (long) properties.getOrDefault(nodeId, defaultValue);
+    }
+
+    @Override
+    public ValueType valueType() {
+        return valueType;
+    }
+
+    /**
+     * A column is dense if all its values are stored in dense pages.
+     */
+    @Override
+    public boolean isSparse() {
+        if (longProperties == null) {
+            return !properties.isDense();
+        }
+        boolean doublesDense = properties.isDense() || properties.size() == 0;
+        boolean longsDense = longProperties.isDense() || longProperties.size() == 0;
+        return !(doublesDense && longsDense && (properties.isDense() || longProperties.isDense()));
+    }
+
     @Override
     public OptionalLong getMaxPropertyValue() {
-        return properties.getMaxValue();
+        OptionalLong maxValue = properties.getMaxValue();
+        if (longProperties == null) {
+            return maxValue;
+        }
+        OptionalLong maxLongValue = longProperties.getMaxValue();
+        if (!maxValue.isPresent()) {
+            return maxLongValue;
+        }
+        if (!maxLongValue.isPresent()) {
+            return maxValue;
+        }
+        return OptionalLong.of(Math.max(maxValue.getAsLong(), maxLongValue.getAsLong()));
+    }
+
+    /**
+     * Copies the values into a new column that stores the value of every node at its new id.
+     * Values are copied in parallel for ranges of new ids.
+     *
+     * @param newToOld the old id of every node, indexed by its new id
+     */
+    NodePropertyMap reorder(
+        HugeLongArray newToOld,
+        int concurrency,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        long nodeCount = newToOld.size();
+        PagedLongDoubleMap newProperties = PagedLongDoubleMap.of(nodeCount, tracker, concurrency);
+        PagedLongLongMap newLongProperties = longProperties == null
+            ? null
+            : PagedLongLongMap.of(nodeCount, tracker, concurrency);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long oldNodeId = newToOld.get(nodeId);
+                int slot = longProperties == null ? -1 : longProperties.indexOf(oldNodeId);
+                if (slot >= 0) {
+                    newLongProperties.put(nodeId, longProperties.indexGet(oldNodeId, slot));
+                    continue;
+                }
+                // missing values are read as NaN, as in dense pages
+                double value = properties.getOrDefault(oldNodeId, Double.NaN);
+                if (!Double.isNaN(value)) {
+                    newProperties.put(nodeId, value);
+                }
+            }
+        });
+        return new NodePropertyMap(newProperties, newLongProperties, defaultValue, valueType);
     }
 
     @Override
     public long release() {
+        long freed = 0L;
         if (properties != null) {
-            long freed = properties.release();
+            freed += properties.release();
             properties = null;
-            return freed;
         }
-        return 0L;
+        if (longProperties != null) {
+            freed += longProperties.release();
+            longProperties = null;
+        }
+        return freed;
     }
 
     @Override
     public long size() {
-        return properties.size();
+        return longProperties == null ? properties.size() : properties.size() + longProperties.size();
     }
 }
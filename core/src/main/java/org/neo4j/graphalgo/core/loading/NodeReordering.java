@@ -0,0 +1,717 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.cursors.LongIntCursor;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.ImmutablePropertyCSR;
+import org.neo4j.graphalgo.core.huge.ImmutableTopologyCSR;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeIntArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.neo4j.graphalgo.core.loading.HugeGraphUtil.RelationshipsBuilder.DUMMY_PROPERTY_ID;
+import static org.neo4j.graphalgo.core.loading.RelationshipsBatchBuffer.BATCH_ENTRY_SIZE;
+import static org.neo4j.graphalgo.core.loading.RelationshipsBatchBuffer.RELATIONSHIP_REFERENCE_OFFSET;
+
+/**
+ * Assigns new internal ids to the nodes of a loaded graph according to a {@link NodeOrdering}.
+ * The id map, node properties and all adjacency lists, including their inverse indices and
+ * relationship properties, are rebuilt for the new ids.
+ *
+ * The ordering is computed on all relationship types, treating every relationship as undirected
+ * if the adjacency in the opposite direction is available.
+ *
+ * Apart from the degrees, computing the order is sequential. Applying it is done in parallel
+ * for ranges of new ids. Node property columns are copied into the new order and the original
+ * columns and adjacency lists are released afterwards.
+ */
+public final class NodeReordering {
+
+    static final int MAX_LABEL_PROPAGATION_ITERATIONS = 10;
+
+    private final IdMap idMap;
+    private final Map<RelationshipType, HugeGraph.TopologyCSR> topologies;
+    private final List<HugeGraph> graphs;
+    private final int concurrency;
+    private final ExecutorService executorService;
+    private final AllocationTracker tracker;
+    private final long nodeCount;
+
+    private final LongAdder compressedSizeBefore;
+    private final LongAdder compressedSizeAfter;
+
+    public static ReorderingResult reorder(
+        NodeOrdering ordering,
+        IdMap idMap,
+        Map<NodeLabel, Map<String, NodeProperties>> nodeProperties,
+        Map<RelationshipType, HugeGraph.TopologyCSR> topologies,
+        Map<RelationshipType, Map<String, HugeGraph.PropertyCSR>> relationshipProperties,
+        int concurrency,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        NodeReordering reordering = new NodeReordering(idMap, topologies, concurrency, executorService, tracker);
+        HugeLongArray newToOld = reordering.computeOrder(ordering);
+        return reordering.apply(newToOld, nodeProperties, relationshipProperties);
+    }
+
+    private NodeReordering(
+        IdMap idMap,
+        Map<RelationshipType, HugeGraph.TopologyCSR> topologies,
+        int concurrency,
+        ExecutorService executorService,
+        AllocationTracker tracker
+    ) {
+        this.idMap = idMap;
+        this.topologies = topologies;
+        this.concurrency = concurrency;
+        this.executorService = executorService;
+        this.tracker = tracker;
+        this.nodeCount = idMap.nodeCount();
+        this.compressedSizeBefore = new LongAdder();
+        this.compressedSizeAfter = new LongAdder();
+        this.graphs = new ArrayList<>(topologies.size());
+        topologies.values().forEach(topology -> graphs.add(HugeGraph.create(
+            idMap,
+            Collections.emptyMap(),
+            topology,
+            Optional.empty(),
+            tracker
+        )));
+    }
+
+    /**
+     * @return the old id of every node, indexed by its new id
+     */
+    HugeLongArray computeOrder(NodeOrdering ordering) {
+        switch (ordering) {
+            case NONE:
+                HugeLongArray identity = HugeLongArray.newArray(nodeCount, tracker);
+                identity.setAll(nodeId -> nodeId);
+                return identity;
+            case DEGREE:
+                return degreeOrder(degrees(), true);
+            case BFS:
+                return reverseCuthillMcKeeOrder();
+            case COMMUNITY:
+                return communityOrder();
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported node ordering `%s`.", ordering));
+        }
+    }
+
+    private HugeIntArray degrees() {
+        HugeIntArray degrees = HugeIntArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                degrees.set(nodeId, degree(nodeId));
+            }
+        });
+        return degrees;
+    }
+
+    private int degree(long nodeId) {
+        int degree = 0;
+        for (HugeGraph graph : graphs) {
+            degree += graph.degree(nodeId);
+            if (!graph.isUndirected() && graph.hasInverseIndex()) {
+                degree += graph.inverseDegree(nodeId);
+            }
+        }
+        return degree;
+    }
+
+    private void forEachNeighbour(long nodeId, RelationshipConsumer consumer) {
+        for (HugeGraph graph : graphs) {
+            graph.forEachRelationship(nodeId, consumer);
+            if (!graph.isUndirected() && graph.hasInverseIndex()) {
+                graph.forEachInverseRelationship(nodeId, consumer);
+            }
+        }
+    }
+
+    /**
+     * Stable counting sort of all nodes by their degree.
+     */
+    private HugeLongArray degreeOrder(HugeIntArray degrees, boolean descending) {
+        int maxDegree = 0;
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            maxDegree = Math.max(maxDegree, degrees.get(nodeId));
+        }
+
+        // long-indexed, so that a max degree of Integer.MAX_VALUE does not overflow the bucket count
+        long bucketCount = maxDegree + 1L;
+        HugeLongArray offsets = HugeLongArray.newArray(bucketCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long bucket = bucket(degrees.get(nodeId), maxDegree, descending);
+            offsets.set(bucket, offsets.get(bucket) + 1);
+        }
+        long sum = 0L;
+        for (long bucket = 0; bucket < bucketCount; bucket++) {
+            long count = offsets.get(bucket);
+            offsets.set(bucket, sum);
+            sum += count;
+        }
+
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long bucket = bucket(degrees.get(nodeId), maxDegree, descending);
+            long offset = offsets.get(bucket);
+            offsets.set(bucket, offset + 1);
+            order.set(offset, nodeId);
+        }
+        tracker.remove(offsets.release());
+        return order;
+    }
+
+    private static long bucket(int degree, int maxDegree, boolean descending) {
+        return descending ? (long) maxDegree - degree : degree;
+    }
+
+    private HugeLongArray reverseCuthillMcKeeOrder() {
+        HugeIntArray degrees = degrees();
+        HugeLongArray startNodes = degreeOrder(degrees, false);
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        BitSet visited = new BitSet(nodeCount);
+        LongArrayList neighbours = new LongArrayList();
+        long[] sortKeys = new long[0];
+
+        long head = 0L;
+        long tail = 0L;
+        for (long i = 0; i < nodeCount; i++) {
+            long startNode = startNodes.get(i);
+            if (visited.get(startNode)) {
+                continue;
+            }
+            visited.set(startNode);
+            order.set(tail++, startNode);
+
+            while (head < tail) {
+                long nodeId = order.get(head++);
+                neighbours.clear();
+                forEachNeighbour(nodeId, (source, target) -> {
+                    if (!visited.get(target)) {
+                        visited.set(target);
+                        neighbours.add(target);
+                    }
+                    return true;
+                });
+
+                // visit neighbours by ascending degree, ties are broken by the order of discovery
+                int neighbourCount = neighbours.size();
+                if (sortKeys.length < neighbourCount) {
+                    sortKeys = new long[neighbourCount];
+                }
+                for (int j = 0; j < neighbourCount; j++) {
+                    sortKeys[j] = ((long) degrees.get(neighbours.get(j)) << Integer.SIZE) | j;
+                }
+                Arrays.sort(sortKeys, 0, neighbourCount);
+                for (int j = 0; j < neighbourCount; j++) {
+                    order.set(tail++, neighbours.get((int) sortKeys[j]));
+                }
+            }
+        }
+
+        for (long i = 0, j = nodeCount - 1; i < j; i++, j--) {
+            long tmp = order.get(i);
+            order.set(i, order.get(j));
+            order.set(j, tmp);
+        }
+        return order;
+    }
+
+    /**
+     * Groups nodes by communities found with label propagation.
+     * This is a single-level approximation of hierarchical orderings such as Rabbit Order.
+     * Communities are ordered by their label, nodes within a community keep their relative order.
+     */
+    private HugeLongArray communityOrder() {
+        HugeLongArray labels = HugeLongArray.newArray(nodeCount, tracker);
+        labels.setAll(nodeId -> nodeId);
+        LongIntHashMap labelCounts = new LongIntHashMap();
+
+        for (int iteration = 0; iteration < MAX_LABEL_PROPAGATION_ITERATIONS; iteration++) {
+            boolean changed = false;
+            for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+                labelCounts.clear();
+                forEachNeighbour(nodeId, (source, target) -> {
+                    labelCounts.addTo(labels.get(target), 1);
+                    return true;
+                });
+                if (labelCounts.isEmpty()) {
+                    continue;
+                }
+
+                long currentLabel = labels.get(nodeId);
+                long bestLabel = currentLabel;
+                int bestCount = labelCounts.getOrDefault(currentLabel, 0);
+                for (LongIntCursor cursor : labelCounts) {
+                    if (cursor.value > bestCount || (cursor.value == bestCount && cursor.key < bestLabel)) {
+                        bestLabel = cursor.key;
+                        bestCount = cursor.value;
+                    }
+                }
+                if (bestLabel != currentLabel) {
+                    labels.set(nodeId, bestLabel);
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+
+        HugeLongArray offsets = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            offsets.addTo(labels.get(nodeId), 1L);
+        }
+        long sum = 0L;
+        for (long label = 0; label < nodeCount; label++) {
+            long count = offsets.get(label);
+            offsets.set(label, sum);
+            sum += count;
+        }
+
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            long label = labels.get(nodeId);
+            long position = offsets.get(label);
+            offsets.set(label, position + 1);
+            order.set(position, nodeId);
+        }
+        return order;
+    }
+
+    private ReorderingResult apply(
+        HugeLongArray newToOld,
+        Map<NodeLabel, Map<String, NodeProperties>> nodeProperties,
+        Map<RelationshipType, Map<String, HugeGraph.PropertyCSR>> relationshipProperties
+    ) {
+        HugeLongArray oldToNew = HugeLongArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                oldToNew.set(newToOld.get(nodeId), nodeId);
+            }
+        });
+
+        IdMap newIdMap = reorderIdMap(newToOld, oldToNew);
+
+        // columns can be shared between labels, they are reordered once
+        Map<NodeProperties, NodeProperties> reorderedColumns = new IdentityHashMap<>();
+        Map<NodeLabel, Map<String, NodeProperties>> newNodeProperties = new HashMap<>(nodeProperties.size());
+        nodeProperties.forEach((nodeLabel, properties) -> {
+            Map<String, NodeProperties> newProperties = new HashMap<>(properties.size());
+            properties.forEach((propertyKey, values) -> newProperties.put(
+                propertyKey,
+                reorderedColumns.computeIfAbsent(values, column -> reorder(column, newToOld))
+            ));
+            newNodeProperties.put(nodeLabel, newProperties);
+        });
+        boolean newToOldInUse = reorderedColumns
+            .values()
+            .stream()
+            .anyMatch(values -> values instanceof ReorderedNodeProperties);
+
+        Map<RelationshipType, HugeGraph.TopologyCSR> newTopologies = new HashMap<>(topologies.size());
+        Map<RelationshipType, Map<String, HugeGraph.PropertyCSR>> newRelationshipProperties = new HashMap<>(
+            relationshipProperties.size());
+        topologies.forEach((relationshipType, topology) -> {
+            Map<String, HugeGraph.PropertyCSR> properties = relationshipProperties.getOrDefault(
+                relationshipType,
+                Collections.emptyMap()
+            );
+            List<String> propertyKeys = new ArrayList<>(properties.keySet());
+            List<HugeGraph.PropertyCSR> propertyCSRs = new ArrayList<>(propertyKeys.size());
+            propertyKeys.forEach(propertyKey -> propertyCSRs.add(properties.get(propertyKey)));
+
+            RelationshipsBuilder builder = reencode(topology, propertyKeys, propertyCSRs, newToOld, oldToNew, false);
+            Optional<RelationshipsBuilder> maybeInverse = topology.inverseList().isPresent()
+                ? Optional.of(reencode(topology, propertyKeys, propertyCSRs, newToOld, oldToNew, true))
+                : Optional.empty();
+
+            HugeGraph.TopologyCSR newTopology = ImmutableTopologyCSR.builder()
+                .list(builder.adjacencyList())
+                .offsets(builder.globalAdjacencyOffsets())
+                .elementCount(topology.elementCount())
+                .orientation(topology.orientation())
+                .inverseList(maybeInverse.map(RelationshipsBuilder::adjacencyList))
+                .inverseOffsets(maybeInverse.map(RelationshipsBuilder::globalAdjacencyOffsets))
+                .build();
+            newTopologies.put(
+                relationshipType,
+                topology.lowerNeighbours().isPresent()
+                    ? HalfUndirectedStorage.of(newIdMap, newTopology, concurrency, tracker)
+                    : newTopology
+            );
+
+            if (relationshipProperties.containsKey(relationshipType)) {
+                Map<String, HugeGraph.PropertyCSR> newProperties = new HashMap<>(propertyKeys.size());
+                for (int i = 0; i < propertyKeys.size(); i++) {
+                    int propertyIndex = i;
+                    HugeGraph.PropertyCSR propertyCSR = propertyCSRs.get(propertyIndex);
+                    newProperties.put(
+                        propertyKeys.get(propertyIndex),
+                        ImmutablePropertyCSR.builder()
+                            .list(builder.properties(propertyIndex))
+                            .offsets(builder.globalPropertyOffsets(propertyIndex))
+                            .elementCount(propertyCSR.elementCount())
+                            .orientation(propertyCSR.orientation())
+                            .defaultPropertyValue(propertyCSR.defaultPropertyValue())
+                            .inverseList(maybeInverse.map(inverse -> inverse.properties(propertyIndex)))
+                            .inverseOffsets(maybeInverse.map(inverse -> inverse.globalPropertyOffsets(propertyIndex)))
+                            .build()
+                    );
+                }
+                newRelationshipProperties.put(relationshipType, newProperties);
+            }
+        });
+
+        // all relationships and node properties have been copied, release the originals
+        graphs.forEach(HugeGraph::releaseTopology);
+        relationshipProperties.values().forEach(properties -> properties.values().forEach(this::releaseProperties));
+        reorderedColumns.forEach((values, reordered) -> {
+            if (values != reordered && !(reordered instanceof ReorderedNodeProperties)) {
+                values.release();
+            }
+        });
+        tracker.remove(oldToNew.release());
+        if (!newToOldInUse) {
+            tracker.remove(newToOld.release());
+        }
+
+        return ImmutableReorderingResult.builder()
+            .idMap(newIdMap)
+            .nodeProperties(newNodeProperties)
+            .topologies(newTopologies)
+            .relationshipProperties(newRelationshipProperties)
+            .compressedSizeBefore(compressedSizeBefore.sum())
+            .compressedSizeAfter(compressedSizeAfter.sum())
+            .build();
+    }
+
+    /**
+     * Copies the column into the new order.
+     * Lazy columns load their values with the original ids, they are read through the new ids instead.
+     */
+    private NodeProperties reorder(NodeProperties values, HugeLongArray newToOld) {
+        if (values instanceof NullPropertyMap) {
+            return values;
+        }
+        if (values instanceof NodePropertyMap) {
+            return ((NodePropertyMap) values).reorder(newToOld, concurrency, executorService, tracker);
+        }
+        if (values instanceof ArrayNodePropertyMap) {
+            return ((ArrayNodePropertyMap) values).reorder(newToOld, concurrency, executorService, tracker);
+        }
+        return new ReorderedNodeProperties(values, newToOld);
+    }
+
+    /**
+     * The property lists have the layout of a topology, which releases its lists and offsets.
+     */
+    private void releaseProperties(HugeGraph.PropertyCSR properties) {
+        HugeGraph.create(idMap, Collections.emptyMap(), properties, Optional.empty(), tracker).releaseTopology();
+    }
+
+    private IdMap reorderIdMap(HugeLongArray newToOld, HugeLongArray oldToNew) {
+        HugeLongArray graphIds = HugeLongArray.newArray(nodeCount, tracker);
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                graphIds.set(nodeId, idMap.toOriginalNodeId(newToOld.get(nodeId)));
+            }
+        });
+        ReverseNodeMapping nodeToGraphIds = IdMapBuilder.buildReverseNodeMapping(
+            graphIds,
+            idMap.nodeToGraphIds.getCapacity(),
+            concurrency,
+            tracker
+        );
+
+        Optional<Map<NodeLabel, Roaring64NavigableMap>> maybeLabelInformation = idMap.maybeLabelInformation.map(labelInformation -> {
+            Map<NodeLabel, Roaring64NavigableMap> newLabelInformation = new HashMap<>(labelInformation.size());
+            labelInformation.forEach((nodeLabel, bitmap) -> {
+                Roaring64NavigableMap newBitmap = new Roaring64NavigableMap();
+                LongIterator nodeIds = bitmap.getLongIterator();
+                while (nodeIds.hasNext()) {
+                    newBitmap.addLong(oldToNew.get(nodeIds.next()));
+                }
+                newBitmap.runOptimize();
+                newLabelInformation.put(nodeLabel, newBitmap);
+            });
+            return newLabelInformation;
+        });
+
+        return new IdMap(graphIds, nodeToGraphIds, maybeLabelInformation, nodeCount);
+    }
+
+    /**
+     * Imports the stored adjacency of every node again, using the new ids for source and target.
+     * The stored lists are imported as they are, so that the orientation of the topology is retained.
+     * Undirected half storage is imported towards the higher new ids, its compressed size after
+     * reordering is measured before the relationships are turned around.
+     */
+    private RelationshipsBuilder reencode(
+        HugeGraph.TopologyCSR topology,
+        List<String> propertyKeys,
+        List<HugeGraph.PropertyCSR> propertyCSRs,
+        HugeLongArray newToOld,
+        HugeLongArray oldToNew,
+        boolean inverse
+    ) {
+        int propertyCount = propertyCSRs.size();
+        int[] propertyKeyIds = new int[propertyCount];
+        double[] defaultValues = new double[propertyCount];
+        RelationshipPropertyCodec[] propertyCodecs = new RelationshipPropertyCodec[propertyCount];
+        Aggregation[] aggregations = new Aggregation[Math.max(1, propertyCount)];
+        Arrays.fill(propertyKeyIds, DUMMY_PROPERTY_ID);
+        Arrays.fill(aggregations, Aggregation.NONE);
+
+        boolean halfStorage = topology.lowerNeighbours().isPresent();
+        HugeGraph.TopologyCSR storedTopology = halfStorage ? HalfUndirectedStorage.storedHalf(topology) : topology;
+
+        HugeGraph[] propertyGraphs = new HugeGraph[Math.max(1, propertyCount)];
+        if (propertyCount == 0) {
+            propertyGraphs[0] = HugeGraph.create(idMap, Collections.emptyMap(), storedTopology, Optional.empty(), tracker);
+        }
+        for (int i = 0; i < propertyCount; i++) {
+            HugeGraph.PropertyCSR propertyCSR = propertyCSRs.get(i);
+            AdjacencyList properties = inverse ? propertyCSR.inverseList().get() : propertyCSR.list();
+            defaultValues[i] = propertyCSR.defaultPropertyValue();
+            propertyCodecs[i] = RelationshipPropertyCodec.of(
+                properties.propertyEncoding(),
+                propertyKeys.get(i),
+                propertyCSR.defaultPropertyValue()
+            );
+            propertyGraphs[i] = HugeGraph.create(
+                idMap,
+                Collections.emptyMap(),
+                storedTopology,
+                Optional.of(propertyCSR),
+                tracker
+            );
+        }
+
+        AdjacencyList adjacencyList = inverse ? topology.inverseList().get() : topology.list();
+        RelationshipsBuilder relationshipsBuilder = new RelationshipsBuilder(
+            aggregations,
+            tracker,
+            propertyCodecs,
+            false,
+            adjacencyList.pageStorage(),
+            adjacencyList.adjacencyEncoding()
+        );
+        ImportSizing importSizing = ImportSizing.of(concurrency, nodeCount);
+        AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+            relationshipsBuilder,
+            importSizing.numberOfPages(),
+            importSizing.pageSize(),
+            tracker,
+            new LongAdder(),
+            propertyKeyIds,
+            defaultValues,
+            aggregations
+        );
+        RelationshipImporter relationshipImporter = new RelationshipImporter(tracker, adjacencyBuilder);
+        RelationshipImporter.Imports imports = halfStorage
+            ? relationshipImporter.halfUndirectedImports(propertyCount > 0)
+            : relationshipImporter.imports(Orientation.NATURAL, propertyCount > 0);
+
+        ParallelUtil.readParallel(concurrency, nodeCount, executorService, (start, end) -> {
+            HugeGraph[] localGraphs = new HugeGraph[propertyGraphs.length];
+            for (int i = 0; i < propertyGraphs.length; i++) {
+                localGraphs[i] = propertyGraphs[i].concurrentCopy();
+            }
+            AdjacencyReader reader = new AdjacencyReader(localGraphs, propertyCount > 0, inverse);
+
+            int batchSize = ParallelUtil.DEFAULT_BATCH_SIZE;
+            RelationshipsBatchBuffer buffer = new RelationshipsBatchBuffer(idMap, -1, batchSize);
+            long[][] bufferedProperties = new long[propertyCount][batchSize];
+            RelationshipImporter.PropertyReader propertyReader = (batch, batchLength, keyIds, defaults, aggs, atLeastOne) -> {
+                long[][] properties = new long[propertyCount][batchLength / BATCH_ENTRY_SIZE];
+                for (int i = 0; i < batchLength; i += BATCH_ENTRY_SIZE) {
+                    int relationshipReference = (int) batch[RELATIONSHIP_REFERENCE_OFFSET + i];
+                    for (int j = 0; j < propertyCount; j++) {
+                        properties[j][i / BATCH_ENTRY_SIZE] = bufferedProperties[j][relationshipReference];
+                    }
+                }
+                return properties;
+            };
+
+            long sizeBefore = 0L;
+            long sizeAfter = 0L;
+            for (long newSource = start; newSource < end; newSource++) {
+                int degree = reader.read(newToOld.get(newSource));
+                long[] targets = reader.targets;
+
+                sizeBefore += AdjacencyCompression.compressedSize(targets, degree);
+                for (int i = 0; i < degree; i++) {
+                    targets[i] = oldToNew.get(targets[i]);
+                }
+
+                for (int i = 0; i < degree; i++) {
+                    int position = buffer.length / BATCH_ENTRY_SIZE;
+                    buffer.add(newSource, targets[i], position, -1L);
+                    for (int j = 0; j < propertyCount; j++) {
+                        bufferedProperties[j][position] = Double.doubleToLongBits(reader.properties[j][i]);
+                    }
+                    if (buffer.isFull()) {
+                        imports.importRelationships(buffer, propertyReader);
+                        buffer.reset();
+                    }
+                }
+
+                Arrays.sort(targets, 0, degree);
+                sizeAfter += AdjacencyCompression.compressedSize(targets, degree);
+            }
+            if (buffer.length > 0) {
+                imports.importRelationships(buffer, propertyReader);
+                buffer.reset();
+            }
+            compressedSizeBefore.add(sizeBefore);
+            compressedSizeAfter.add(sizeAfter);
+        });
+
+        ParallelUtil.run(relationshipImporter.flushTasks(), executorService);
+        return relationshipsBuilder;
+    }
+
+    /**
+     * Exposes the node properties of the original node for each new node id.
+     */
+    private static final class ReorderedNodeProperties implements NodeProperties {
+        private final NodeProperties properties;
+        private final HugeLongArray newToOld;
+
+        ReorderedNodeProperties(NodeProperties properties, HugeLongArray newToOld) {
+            this.properties = properties;
+            this.newToOld = newToOld;
+        }
+
+        @Override
+        public double nodeProperty(long nodeId) {
+            return properties.nodeProperty(newToOld.get(nodeId));
+        }
+
+        @Override
+        public double nodeProperty(long nodeId, double defaultValue) {
+            return properties.nodeProperty(newToOld.get(nodeId), defaultValue);
+        }
+
+        @Override
+        public long longNodeProperty(long nodeId) {
+            return properties.longNodeProperty(newToOld.get(nodeId));
+        }
+
+        @Override
+        public float floatNodeProperty(long nodeId) {
+            return properties.floatNodeProperty(newToOld.get(nodeId));
+        }
+
+        @Override
+        public double[] doubleArrayNodeProperty(long nodeId) {
+            return properties.doubleArrayNodeProperty(newToOld.get(nodeId));
+        }
+
+        @Override
+        public float[] floatArrayNodeProperty(long nodeId) {
+            return properties.floatArrayNodeProperty(newToOld.get(nodeId));
+        }
+
+        @Override
+        public ValueType valueType() {
+            return properties.valueType();
+        }
+
+        @Override
+        public boolean isSparse() {
+            return properties.isSparse();
+        }
+
+        @Override
+        public OptionalLong getMaxPropertyValue() {
+            return properties.getMaxPropertyValue();
+        }
+
+        @Override
+        public long release() {
+            return properties.release();
+        }
+
+        @Override
+        public long size() {
+            return properties.size();
+        }
+    }
+
+    @ValueClass
+    public interface ReorderingResult {
+        IdMap idMap();
+
+        Map<NodeLabel, Map<String, NodeProperties>> nodeProperties();
+
+        Map<RelationshipType, HugeGraph.TopologyCSR> topologies();
+
+        Map<RelationshipType, Map<String, HugeGraph.PropertyCSR>> relationshipProperties();
+
+        /**
+         * Number of bytes required for the compressed adjacency lists using the original ids.
+         */
+        long compressedSizeBefore();
+
+        /**
+         * Number of bytes required for the compressed adjacency lists using the new ids.
+         */
+        long compressedSizeAfter();
+
+        default double compressionRatio() {
+            return compressedSizeAfter() == 0 ? 1.0 : (double) compressedSizeBefore() / compressedSizeAfter();
+        }
+    }
+}
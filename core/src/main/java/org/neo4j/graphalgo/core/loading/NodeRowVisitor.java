@@ -23,6 +23,7 @@ import org.apache.commons.compress.utils.Sets;
 import org.neo4j.graphalgo.ElementIdentifier;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphdb.Result;
+import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
 import java.util.ArrayList;
@@ -44,7 +45,7 @@ class NodeRowVisitor implements Result.ResultVisitor<RuntimeException> {
     private long rows;
     private long maxNeoId = 0;
     private final NodesBatchBuffer buffer;
-    private final List<Map<String, Number>> cypherNodeProperties;
+    private final List<Map<String, Value>> cypherNodeProperties;
     private final NodeImporter importer;
     private final boolean hasLabelInformation;
     private final CypherNodePropertyImporter propertyImporter;
@@ -142,20 +143,10 @@ class NodeRowVisitor implements Result.ResultVisitor<RuntimeException> {
     private int processProperties(Result.ResultRow row, List<String> labels) {
         propertyImporter.registerPropertiesForLabels(labels);
 
-        Map<String, Number> propertyValues = new HashMap<>();
+        Map<String, Value> propertyValues = new HashMap<>();
         for (String propertyKey : propertyImporter.propertyColumns()) {
             Object value = CypherLoadingUtils.getProperty(row, propertyKey);
-            if (value instanceof Number) {
-                propertyValues.put(propertyKey, (Number) value);
-            } else if (null == value) {
-                propertyValues.put(propertyKey, Double.NaN);
-            } else {
-                throw new IllegalArgumentException(String.format(
-                    "Unsupported type [%s] of value %s. Please use a numeric property.",
-                    Values.of(value).valueGroup(),
-                    value
-                ));
-            }
+            propertyValues.put(propertyKey, propertyValue(value));
         }
 
         int propRef = cypherNodeProperties.size();
@@ -164,6 +155,32 @@ class NodeRowVisitor implements Result.ResultVisitor<RuntimeException> {
         return propRef;
     }
 
+    private static Value propertyValue(Object value) {
+        if (null == value) {
+            return Values.NO_VALUE;
+        }
+        if (value instanceof Number || isNumericArray(value)) {
+            return Values.of(value);
+        }
+        if (value instanceof List && ((List<?>) value).stream().allMatch(Number.class::isInstance)) {
+            List<?> list = (List<?>) value;
+            double[] values = new double[list.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ((Number) list.get(i)).doubleValue();
+            }
+            return Values.doubleArray(values);
+        }
+        throw new IllegalArgumentException(String.format(
+            "Unsupported type [%s] of value %s. Please use a numeric or numeric array property.",
+            Values.of(value).valueGroup(),
+            value
+        ));
+    }
+
+    private static boolean isNumericArray(Object value) {
+        return value instanceof double[] || value instanceof float[] || value instanceof long[] || value instanceof int[];
+    }
+
     private void reset() {
         buffer.reset();
         cypherNodeProperties.clear();
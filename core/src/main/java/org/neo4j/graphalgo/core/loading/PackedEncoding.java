@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+
+import java.util.Arrays;
+
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodeVLongs;
+import static org.neo4j.graphalgo.core.loading.VarLongEncoding.encodedVLongSize;
+import static org.neo4j.graphalgo.core.utils.BitUtil.ceilDiv;
+
+/**
+ * Frame-of-reference encoding for blocks of {@link AdjacencyList#BLOCK_SIZE} deltas.
+ *
+ * A block starts with one byte holding the bit width, followed by the first delta as a var-long
+ * and the remaining deltas, bit-packed in little-endian order. Widths above {@link #MAX_PACKED_BITS}
+ * are widened to 64 bits, so that every packed value can be read with a single 8-byte load.
+ * The encoded adjacency is followed by {@link #PADDING} bytes to keep those loads within bounds.
+ */
+public final class PackedEncoding {
+
+    public static final int PADDING = Long.BYTES;
+    public static final int MAX_PACKED_BITS = Long.SIZE - Byte.SIZE;
+
+    static int encodedSize(long[] deltas, int length) {
+        int size = PADDING;
+        for (int from = 0; from < length; from += AdjacencyList.BLOCK_SIZE) {
+            size += blockSize(deltas, from, Math.min(length, from + AdjacencyList.BLOCK_SIZE));
+        }
+        return size;
+    }
+
+    static int blockSize(long[] deltas, int from, int to) {
+        int bits = bitWidth(deltas, from + 1, to);
+        return 1 + encodedVLongSize(deltas[from]) + packedSize(to - from - 1, bits);
+    }
+
+    static int encode(long[] deltas, int length, byte[] out, int into) {
+        for (int from = 0; from < length; from += AdjacencyList.BLOCK_SIZE) {
+            into = encodeBlock(deltas, from, Math.min(length, from + AdjacencyList.BLOCK_SIZE), out, into);
+        }
+        Arrays.fill(out, into, into + PADDING, (byte) 0);
+        return into + PADDING;
+    }
+
+    private static int encodeBlock(long[] deltas, int from, int to, byte[] out, int into) {
+        int bits = bitWidth(deltas, from + 1, to);
+        out[into++] = (byte) bits;
+        into = encodeVLongs(deltas, from, from + 1, out, into);
+
+        int packedBytes = packedSize(to - from - 1, bits);
+        Arrays.fill(out, into, into + packedBytes, (byte) 0);
+        if (bits == Long.SIZE) {
+            for (int i = from + 1; i < to; i++) {
+                into = AdjacencyCompression.writeLong(out, into, deltas[i]);
+            }
+            return into;
+        }
+        for (int i = from + 1, bit = 0; i < to; i++, bit += bits) {
+            int offset = into + (bit >>> 3);
+            long value = deltas[i] << (bit & 7);
+            int bytes = ((bit & 7) + bits + 7) >>> 3;
+            for (int b = 0; b < bytes; b++) {
+                out[offset + b] |= (byte) (value >>> (b << 3));
+            }
+        }
+        return into + packedBytes;
+    }
+
+    private static int bitWidth(long[] deltas, int from, int to) {
+        long bitsSet = 0L;
+        for (int i = from; i < to; i++) {
+            bitsSet |= deltas[i];
+        }
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(bitsSet);
+        return bits > MAX_PACKED_BITS ? Long.SIZE : bits;
+    }
+
+    private static int packedSize(int count, int bits) {
+        return (int) ceilDiv((long) count * bits, Byte.SIZE);
+    }
+
+    private PackedEncoding() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
@@ -38,12 +38,17 @@ public final class RadixSort {
         radixSort(data, copy, histogram, length, 0);
     }
 
+    /**
+     * Sorts the entries by source with one pass per byte. The passes alternate between {@code data} and {@code copy},
+     * the result is only copied back into {@code data} once at the end.
+     */
     private static void radixSort(long[] data, long[] copy, int[] histogram, int length, int shift) {
         int hlen = Math.min(HIST_SIZE, histogram.length - 1);
         int dlen = Math.min(length, Math.min(data.length, copy.length));
 
         long hiBits, loMask = 0xFFL << shift, hiMask = -(0x100L << shift);
         int maxHistIndex, histIndex, out;
+        long[] in = data, to = copy, swap;
 
         while (shift < Long.SIZE) {
             Arrays.fill(histogram, 0, 1 + hlen, 0);
@@ -51,14 +56,14 @@ public final class RadixSort {
             hiBits = 0L;
 
             for (int i = 0; i < dlen; i += 4) {
-                hiBits |= data[i] & hiMask;
-                histIndex = (int) ((data[i] & loMask) >>> shift);
+                hiBits |= in[i] & hiMask;
+                histIndex = (int) ((in[i] & loMask) >>> shift);
                 maxHistIndex |= histIndex;
                 histogram[1 + histIndex] += 4;
             }
 
             if (hiBits == 0L && maxHistIndex == 0) {
-                return;
+                break;
             }
 
             if (maxHistIndex != 0) {
@@ -67,20 +72,26 @@ public final class RadixSort {
                 }
 
                 for (int i = 0; i < dlen; i += 4) {
-                    out = histogram[(int) ((data[i] & loMask) >>> shift)] += 4;
-                    copy[out - 4] = data[i];
-                    copy[out - 3] = data[1 + i];
-                    copy[out - 2] = data[2 + i];
-                    copy[out - 1] = data[3 + i];
+                    out = histogram[(int) ((in[i] & loMask) >>> shift)] += 4;
+                    to[out - 4] = in[i];
+                    to[out - 3] = in[1 + i];
+                    to[out - 2] = in[2 + i];
+                    to[out - 1] = in[3 + i];
                 }
 
-                System.arraycopy(copy, 0, data, 0, dlen);
+                swap = in;
+                in = to;
+                to = swap;
             }
 
             shift += RADIX;
             loMask <<= RADIX;
             hiMask <<= RADIX;
         }
+
+        if (in != data) {
+            System.arraycopy(in, 0, data, 0, dlen);
+        }
     }
 
     public static void radixSort2(long[] data, long[] copy, int[] histogram, int length) {
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.annotation.ValueClass;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.huge.AdjacencyDegrees;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.DeltaGraph;
+import org.neo4j.graphalgo.core.huge.HugeGraph;
+import org.neo4j.graphalgo.core.huge.ImmutablePropertyCSR;
+import org.neo4j.graphalgo.core.huge.ImmutableTopologyCSR;
+import org.neo4j.graphalgo.core.huge.RelationshipDelta;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.neo4j.graphalgo.core.loading.HugeGraphUtil.RelationshipsBuilder.DUMMY_PROPERTY_ID;
+import static org.neo4j.graphalgo.core.loading.RelationshipsBatchBuffer.BATCH_ENTRY_SIZE;
+import static org.neo4j.graphalgo.core.loading.RelationshipsBatchBuffer.RELATIONSHIP_REFERENCE_OFFSET;
+
+/**
+ * Folds the pending updates of a {@link RelationshipDelta} into a new compressed adjacency.
+ * The nodes are partitioned between the threads, each thread imports the merged relationships of its nodes.
+ * The storage, encoding and property codecs of the existing adjacency lists are retained.
+ */
+final class RelationshipCompaction {
+
+    private final IdMap nodes;
+    private final HugeGraph.TopologyCSR topology;
+    private final List<String> propertyKeys;
+    private final List<HugeGraph.PropertyCSR> propertyCSRs;
+    private final RelationshipDelta delta;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+
+    RelationshipCompaction(
+        IdMap nodes,
+        HugeGraph.TopologyCSR topology,
+        List<String> propertyKeys,
+        List<HugeGraph.PropertyCSR> propertyCSRs,
+        RelationshipDelta delta,
+        int concurrency,
+        AllocationTracker tracker
+    ) {
+        this.nodes = nodes;
+        this.topology = topology;
+        this.propertyKeys = propertyKeys;
+        this.propertyCSRs = propertyCSRs;
+        this.delta = delta;
+        this.concurrency = concurrency;
+        this.tracker = tracker;
+    }
+
+    CompactionResult compact() {
+        LongAdder relationshipCount = new LongAdder();
+        RelationshipsBuilder builder = compact(false, relationshipCount);
+        Optional<RelationshipsBuilder> maybeInverse = topology.inverseList().isPresent()
+            ? Optional.of(compact(true, new LongAdder()))
+            : Optional.empty();
+
+        // undirected half storage counts every stored relationship in both directions
+        long elementCount = halfStorage() ? relationshipCount.sum() * 2 : relationshipCount.sum();
+        HugeGraph.TopologyCSR newTopology = ImmutableTopologyCSR.builder()
+            .list(builder.adjacencyList())
+            .offsets(builder.globalAdjacencyOffsets())
+            .elementCount(elementCount)
+            .orientation(topology.orientation())
+            .inverseList(maybeInverse.map(RelationshipsBuilder::adjacencyList))
+            .inverseOffsets(maybeInverse.map(RelationshipsBuilder::globalAdjacencyOffsets))
+            .build();
+        if (halfStorage()) {
+            newTopology = HalfUndirectedStorage.of(nodes, newTopology, concurrency, tracker);
+        } else if (topology.degrees().isPresent()) {
+            newTopology = AdjacencyDegrees.withDegrees(newTopology, nodes.nodeCount(), concurrency, Pools.DEFAULT, tracker);
+        }
+
+        Map<String, HugeGraph.PropertyCSR> newProperties = new HashMap<>(propertyKeys.size());
+        for (int i = 0; i < propertyKeys.size(); i++) {
+            int propertyIndex = i;
+            HugeGraph.PropertyCSR propertyCSR = propertyCSRs.get(propertyIndex);
+            newProperties.put(
+                propertyKeys.get(propertyIndex),
+                ImmutablePropertyCSR.builder()
+                    .list(builder.properties(propertyIndex))
+                    .offsets(builder.globalPropertyOffsets(propertyIndex))
+                    .elementCount(elementCount)
+                    .orientation(propertyCSR.orientation())
+                    .defaultPropertyValue(propertyCSR.defaultPropertyValue())
+                    .inverseList(maybeInverse.map(inverse -> inverse.properties(propertyIndex)))
+                    .inverseOffsets(maybeInverse.map(inverse -> inverse.globalPropertyOffsets(propertyIndex)))
+                    .build()
+            );
+        }
+
+        return ImmutableCompactionResult.of(newTopology, newProperties);
+    }
+
+    private boolean halfStorage() {
+        return topology.lowerNeighbours().isPresent();
+    }
+
+    /**
+     * Imports the merged adjacency of every node, the stored lists are imported as they are,
+     * so that the orientation of the topology is retained.
+     * Undirected half storage is read symmetrically, only the relationships towards higher ids are imported.
+     * Self loops are seen twice in a row, every second one is skipped.
+     */
+    private RelationshipsBuilder compact(boolean inverse, LongAdder relationshipCount) {
+        int propertyCount = propertyCSRs.size();
+        int[] propertyKeyIds = new int[propertyCount];
+        double[] defaultValues = new double[propertyCount];
+        RelationshipPropertyCodec[] propertyCodecs = new RelationshipPropertyCodec[propertyCount];
+        Aggregation[] aggregations = new Aggregation[Math.max(1, propertyCount)];
+        Arrays.fill(propertyKeyIds, DUMMY_PROPERTY_ID);
+        Arrays.fill(aggregations, Aggregation.NONE);
+
+        Graph[] graphs = new Graph[Math.max(1, propertyCount)];
+        if (propertyCount == 0) {
+            graphs[0] = new DeltaGraph(
+                HugeGraph.create(nodes, Collections.emptyMap(), topology, Optional.empty(), tracker),
+                delta,
+                -1
+            );
+        }
+        for (int i = 0; i < propertyCount; i++) {
+            HugeGraph.PropertyCSR propertyCSR = propertyCSRs.get(i);
+            AdjacencyList properties = inverse ? propertyCSR.inverseList().get() : propertyCSR.list();
+            defaultValues[i] = propertyCSR.defaultPropertyValue();
+            propertyCodecs[i] = RelationshipPropertyCodec.of(
+                properties.propertyEncoding(),
+                propertyKeys.get(i),
+                propertyCSR.defaultPropertyValue()
+            );
+            graphs[i] = new DeltaGraph(
+                HugeGraph.create(nodes, Collections.emptyMap(), topology, Optional.of(propertyCSR), tracker),
+                delta,
+                delta.propertyIndex(propertyKeys.get(i))
+            );
+        }
+
+        AdjacencyList adjacencyList = inverse ? topology.inverseList().get() : topology.list();
+        RelationshipsBuilder relationshipsBuilder = new RelationshipsBuilder(
+            aggregations,
+            tracker,
+            propertyCodecs,
+            false,
+            adjacencyList.pageStorage(),
+            adjacencyList.adjacencyEncoding()
+        );
+        long nodeCount = nodes.nodeCount();
+        ImportSizing importSizing = ImportSizing.of(concurrency, nodeCount);
+        AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+            relationshipsBuilder,
+            importSizing.numberOfPages(),
+            importSizing.pageSize(),
+            tracker,
+            new LongAdder(),
+            propertyKeyIds,
+            defaultValues,
+            aggregations
+        );
+        RelationshipImporter relationshipImporter = new RelationshipImporter(tracker, adjacencyBuilder);
+        RelationshipImporter.Imports imports = relationshipImporter.imports(Orientation.NATURAL, propertyCount > 0);
+
+        ParallelUtil.readParallel(concurrency, nodeCount, Pools.DEFAULT, (start, end) -> {
+            Graph[] localGraphs = new Graph[graphs.length];
+            for (int i = 0; i < graphs.length; i++) {
+                localGraphs[i] = graphs[i].concurrentCopy();
+            }
+            AdjacencyReader reader = new AdjacencyReader(localGraphs, propertyCount > 0, inverse);
+
+            int batchSize = ParallelUtil.DEFAULT_BATCH_SIZE;
+            RelationshipsBatchBuffer buffer = new RelationshipsBatchBuffer(nodes, -1, batchSize);
+            long[][] bufferedProperties = new long[propertyCount][batchSize];
+            RelationshipImporter.PropertyReader propertyReader = (batch, batchLength, keyIds, defaults, aggs, atLeastOne) -> {
+                long[][] properties = new long[propertyCount][batchLength / BATCH_ENTRY_SIZE];
+                for (int i = 0; i < batchLength; i += BATCH_ENTRY_SIZE) {
+                    int relationshipReference = (int) batch[RELATIONSHIP_REFERENCE_OFFSET + i];
+                    for (int j = 0; j < propertyCount; j++) {
+                        properties[j][i / BATCH_ENTRY_SIZE] = bufferedProperties[j][relationshipReference];
+                    }
+                }
+                return properties;
+            };
+
+            boolean halfStorage = halfStorage();
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                int degree = reader.read(nodeId);
+                long[] targets = reader.targets;
+                boolean skipSelfLoop = false;
+                for (int i = 0; i < degree; i++) {
+                    if (halfStorage) {
+                        if (targets[i] < nodeId) {
+                            continue;
+                        }
+                        if (targets[i] == nodeId) {
+                            skipSelfLoop = !skipSelfLoop;
+                            if (!skipSelfLoop) {
+                                continue;
+                            }
+                        }
+                    }
+                    int position = buffer.length / BATCH_ENTRY_SIZE;
+                    buffer.add(nodeId, targets[i], position, -1L);
+                    for (int j = 0; j < propertyCount; j++) {
+                        bufferedProperties[j][position] = Double.doubleToLongBits(reader.properties[j][i]);
+                    }
+                    if (buffer.isFull()) {
+                        relationshipCount.add(RawValues.getHead(imports.importRelationships(buffer, propertyReader)));
+                        buffer.reset();
+                    }
+                }
+            }
+            if (buffer.length > 0) {
+                relationshipCount.add(RawValues.getHead(imports.importRelationships(buffer, propertyReader)));
+                buffer.reset();
+            }
+        });
+
+        ParallelUtil.run(relationshipImporter.flushTasks(), Pools.DEFAULT);
+        return relationshipsBuilder;
+    }
+
+    @ValueClass
+    interface CompactionResult {
+        HugeGraph.TopologyCSR topology();
+
+        Map<String, HugeGraph.PropertyCSR> properties();
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.jetbrains.annotations.Nullable;
 import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.compat.StatementConstantsProxy;
 import org.neo4j.graphalgo.core.Aggregation;
@@ -28,6 +29,7 @@ import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.Read;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import static org.neo4j.graphalgo.core.loading.RelationshipsBatchBuffer.BATCH_ENTRY_SIZE;
@@ -38,10 +40,24 @@ class RelationshipImporter {
 
     private final AllocationTracker tracker;
     private final AdjacencyBuilder adjacencyBuilder;
+    private final @Nullable AdjacencyBuilder inverseAdjacencyBuilder;
 
     RelationshipImporter(AllocationTracker tracker, AdjacencyBuilder adjacencyBuilder) {
+        this(tracker, adjacencyBuilder, null);
+    }
+
+    /**
+     * @param inverseAdjacencyBuilder if not null, every imported relationship is additionally
+     *                                added in the opposite direction to this builder.
+     */
+    RelationshipImporter(
+        AllocationTracker tracker,
+        AdjacencyBuilder adjacencyBuilder,
+        @Nullable AdjacencyBuilder inverseAdjacencyBuilder
+    ) {
         this.tracker = tracker;
         this.adjacencyBuilder = adjacencyBuilder;
+        this.inverseAdjacencyBuilder = inverseAdjacencyBuilder;
     }
 
     public interface Imports {
@@ -49,6 +65,9 @@ class RelationshipImporter {
     }
 
     Imports imports(Orientation orientation, boolean loadProperties) {
+        if (inverseAdjacencyBuilder != null && orientation != Orientation.UNDIRECTED) {
+            return inverseIndexedImports(orientation, loadProperties);
+        }
         if (orientation == Orientation.UNDIRECTED) {
             return loadProperties
                 ? this::importUndirectedWithProperties
@@ -66,6 +85,52 @@ class RelationshipImporter {
         }
     }
 
+    /**
+     * Sorting by target swaps source and target in the batch, so the source-sorted import
+     * always has to happen first. The inverse index does not add to the relationship count.
+     */
+    private Imports inverseIndexedImports(Orientation orientation, boolean loadProperties) {
+        AdjacencyBuilder outgoing = orientation == Orientation.NATURAL ? adjacencyBuilder : inverseAdjacencyBuilder;
+        AdjacencyBuilder incoming = orientation == Orientation.NATURAL ? inverseAdjacencyBuilder : adjacencyBuilder;
+        return (buffer, propertyReader) -> {
+            int batchLength = buffer.length;
+            long[] batch = buffer.sortBySource();
+            long[][] outProperties = loadProperties ? readProperties(propertyReader, batch, batchLength) : null;
+            int imported = importRelationships(buffer, batch, outProperties, outgoing, tracker);
+            batch = buffer.sortByTarget();
+            long[][] inProperties = loadProperties ? readProperties(propertyReader, batch, batchLength) : null;
+            importRelationships(buffer, batch, inProperties, incoming, tracker);
+            return RawValues.combineIntInt(imported, loadProperties ? imported : 0);
+        };
+    }
+
+    /**
+     * Imports every relationship of an undirected projection once, towards the node with the higher id,
+     * including its properties. The stored half counts as two relationships per stored relationship,
+     * the same as a fully stored undirected graph.
+     */
+    Imports halfUndirectedImports(boolean loadProperties) {
+        return (buffer, propertyReader) -> {
+            int batchLength = buffer.length;
+            buffer.orientTowardsHigherIds();
+            long[] batch = buffer.sortBySource();
+            long[][] properties = loadProperties ? readProperties(propertyReader, batch, batchLength) : null;
+            int imported = importRelationships(buffer, batch, properties, adjacencyBuilder, tracker);
+            return RawValues.combineIntInt(imported << 1, loadProperties ? imported << 1 : 0);
+        };
+    }
+
+    private long[][] readProperties(PropertyReader propertyReader, long[] batch, int batchLength) {
+        return propertyReader.readProperty(
+            batch,
+            batchLength,
+            adjacencyBuilder.getPropertyKeyIds(),
+            adjacencyBuilder.getDefaultValues(),
+            adjacencyBuilder.getAggregations(),
+            adjacencyBuilder.atLeastOnePropertyToLoad()
+        );
+    }
+
     private long importUndirected(RelationshipsBatchBuffer buffer, PropertyReader propertyReader) {
         long[] batch = buffer.sortBySource();
         int importedOut = importRelationships(buffer, batch, null, adjacencyBuilder, tracker);
@@ -163,8 +228,22 @@ class RelationshipImporter {
         );
     }
 
+    Collection<Runnable> aggregationTasks() {
+        if (inverseAdjacencyBuilder == null) {
+            return adjacencyBuilder.aggregationTasks();
+        }
+        Collection<Runnable> aggregationTasks = new ArrayList<>(adjacencyBuilder.aggregationTasks());
+        aggregationTasks.addAll(inverseAdjacencyBuilder.aggregationTasks());
+        return aggregationTasks;
+    }
+
     Collection<Runnable> flushTasks() {
-        return adjacencyBuilder.flushTasks();
+        if (inverseAdjacencyBuilder == null) {
+            return adjacencyBuilder.flushTasks();
+        }
+        Collection<Runnable> flushTasks = new ArrayList<>(adjacencyBuilder.flushTasks());
+        flushTasks.addAll(inverseAdjacencyBuilder.flushTasks());
+        return flushTasks;
     }
 
     PropertyReader storeBackedPropertiesReader(CursorFactory cursors, Read read) {
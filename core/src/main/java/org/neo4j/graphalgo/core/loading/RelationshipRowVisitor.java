@@ -24,15 +24,27 @@ import org.eclipse.collections.impl.map.mutable.primitive.ObjectDoubleHashMap;
 import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
 import org.neo4j.graphalgo.RelationshipProjectionMapping;
 import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.utils.ExceptionUtil;
 import org.neo4j.graphdb.Result;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.neo4j.graphalgo.utils.ExceptionUtil.validateSourceNodeIsLoaded;
 import static org.neo4j.graphalgo.utils.ExceptionUtil.validateTargetNodeIsLoaded;
 
+/**
+ * Reads the rows of a relationship query into batch buffers.
+ * If an executor is given, full buffers are imported by the threads of that executor while the
+ * visiting thread keeps on reading into one of the idle buffers of the same relationship type.
+ * The number of buffers per relationship type bounds the number of batches that are in flight.
+ */
 class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
 
     private static final long NO_RELATIONSHIP_REFERENCE = -1L;
@@ -53,17 +65,22 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
     private final boolean multipleProperties;
     private final String singlePropertyKey;
 
-    private final Map<String, SingleTypeRelationshipImporter> localImporters;
-    private final Map<String, RelationshipPropertiesBatchBuffer> localPropertiesBuffers;
-    private final ObjectIntHashMap<String> localRelationshipIds;
+    private final Map<String, TypeImport> localImports;
     private final boolean isAnyRelTypeQuery;
+    private final ExecutorService importExecutor;
+    private final int buffersPerType;
+    private final LongAdder relationshipCount;
+    private final AtomicReference<Throwable> importError;
 
     private long lastNeoSourceId = -1, lastNeoTargetId = -1;
     private long sourceId = -1, targetId = -1;
     private long rows = 0;
-    private long relationshipCount;
     private boolean throwOnUnMappedNodeIds;
 
+    /**
+     * @param importExecutor executor that imports full buffers, null means the visiting thread imports them
+     * @param buffersPerType the number of buffers per relationship type, at most one less are imported concurrently
+     */
     RelationshipRowVisitor(
         IdMap idMap,
         CypherRelationshipLoader.Context loaderContext,
@@ -71,7 +88,9 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
         ObjectDoubleHashMap<String> propertyDefaultValueByName,
         int bufferSize,
         boolean isAnyRelTypeQuery,
-        boolean throwOnUnMappedNodeIds
+        boolean throwOnUnMappedNodeIds,
+        ExecutorService importExecutor,
+        int buffersPerType
     ) {
         this.idMap = idMap;
         this.propertyKeyIdsByName = propertyKeyIdsByName;
@@ -83,11 +102,14 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
         this.singlePropertyKey = propertyKeyIdsByName.keySet().stream().findFirst().orElse("");
         this.loaderContext = loaderContext;
         this.bufferSize = bufferSize;
-        this.localImporters = new HashMap<>();
-        this.localPropertiesBuffers = new HashMap<>();
-        this.localRelationshipIds = new ObjectIntHashMap<>();
+        this.localImports = new HashMap<>();
         this.isAnyRelTypeQuery = isAnyRelTypeQuery;
         this.throwOnUnMappedNodeIds = throwOnUnMappedNodeIds;
+        boolean pipelined = importExecutor != null && buffersPerType > 1;
+        this.importExecutor = pipelined ? importExecutor : null;
+        this.buffersPerType = pipelined ? buffersPerType : 1;
+        this.relationshipCount = new LongAdder();
+        this.importError = new AtomicReference<>();
     }
 
     public long rows() {
@@ -95,7 +117,7 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
     }
 
     public long relationshipCount() {
-        return relationshipCount;
+        return relationshipCount.sum();
     }
 
     @Override
@@ -108,36 +130,19 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
 
         String relationshipTypeName = relationshipType.typeName();
 
-        if (!localImporters.containsKey(relationshipTypeName)) {
+        TypeImport typeImport = localImports.get(relationshipTypeName);
+        if (typeImport == null) {
             // Lazily init relationship importer builder
             SingleTypeRelationshipImporter.Builder.WithImporter importerBuilder = loaderContext
                 .getOrCreateImporterBuilder(relationshipType);
-
-            RelationshipImporter.PropertyReader propertyReader;
-
-            if (multipleProperties) {
-                // Create thread-local buffer for relationship properties
-                RelationshipPropertiesBatchBuffer propertiesBuffer = new RelationshipPropertiesBatchBuffer(
-                    bufferSize,
-                    propertyCount
-                );
-                propertyReader = propertiesBuffer;
-                localPropertiesBuffers.put(relationshipTypeName, propertiesBuffer);
-            } else {
-                // Single properties can be in-lined in the relationship batch
-                propertyReader = RelationshipImporter.preLoadedPropertyReader();
-            }
-            // Create thread-local relationship importer
-            SingleTypeRelationshipImporter importer = importerBuilder.withBuffer(idMap, bufferSize, propertyReader);
-
-            localImporters.put(relationshipTypeName, importer);
-            localRelationshipIds.put(relationshipTypeName, 0);
+            typeImport = new TypeImport(importerBuilder);
+            localImports.put(relationshipTypeName, typeImport);
         }
 
-        return visit(row, relationshipTypeName);
+        return visit(row, typeImport);
     }
 
-    private boolean visit(Result.ResultRow row, String relationshipType) {
+    private boolean visit(Result.ResultRow row, TypeImport typeImport) {
 
         readSourceId(row);
         readTargetId(row);
@@ -146,16 +151,17 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
             return true;
         }
 
-        SingleTypeRelationshipImporter importer = localImporters.get(relationshipType);
+        ImportBuffer buffer = typeImport.current;
+        RelationshipsBatchBuffer relationships = buffer.importer.buffer();
 
         if (noProperties) {
-            importer.buffer().add(
+            relationships.add(
                 sourceId,
                 targetId,
                 NO_RELATIONSHIP_REFERENCE
             );
         } else if (singleProperty) {
-            importer.buffer().add(
+            relationships.add(
                 sourceId,
                 targetId,
                 NO_RELATIONSHIP_REFERENCE,
@@ -165,20 +171,18 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
             // Instead of inlining the property
             // value, we write a reference into
             // the properties batch buffer.
-            int nextRelationshipId = localRelationshipIds.get(relationshipType);
-            importer.buffer().add(
+            int nextRelationshipId = buffer.nextRelationshipId++;
+            relationships.add(
                 sourceId,
                 targetId,
                 NO_RELATIONSHIP_REFERENCE,
                 nextRelationshipId
             );
-            readPropertyValues(row, nextRelationshipId, localPropertiesBuffers.get(relationshipType));
-            localRelationshipIds.put(relationshipType, nextRelationshipId + 1);
+            readPropertyValues(row, nextRelationshipId, buffer.propertiesBuffer);
         }
 
-        if (importer.buffer().isFull()) {
-            flush(importer);
-            reset(relationshipType, importer);
+        if (relationships.isFull()) {
+            typeImport.flushCurrent();
         }
 
         return true;
@@ -219,21 +223,99 @@ class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
             : propertyDefaultValueByName.get(propertyKey);
     }
 
-    private void flush(SingleTypeRelationshipImporter importer) {
-        long imported = importer.importRelationships();
-        relationshipCount += RawValues.getHead(imported);
+    private void flush(ImportBuffer buffer) {
+        long imported = buffer.importer.importRelationships();
+        relationshipCount.add(RawValues.getHead(imported));
+        buffer.reset();
     }
 
-    private void reset(String relationshipType, SingleTypeRelationshipImporter importer) {
-        importer.buffer().reset();
-        localRelationshipIds.put(relationshipType, 0);
+    void flushAll() {
+        localImports.values().forEach(TypeImport::flushAll);
+        rethrowImportError();
     }
 
-    void flushAll() {
-        relationshipCount += localImporters.values().stream()
-            .mapToLong(SingleTypeRelationshipImporter::importRelationships)
-            .mapToInt(RawValues::getHead)
-            .sum();
+    private void rethrowImportError() {
+        Throwable error = importError.get();
+        if (error != null) {
+            ExceptionUtil.throwIfUnchecked(error);
+            throw new RuntimeException(error);
+        }
+    }
+
+    private final class TypeImport {
+
+        private final BlockingQueue<ImportBuffer> idleBuffers;
+        private ImportBuffer current;
+
+        TypeImport(SingleTypeRelationshipImporter.Builder.WithImporter importerBuilder) {
+            this.idleBuffers = new ArrayBlockingQueue<>(buffersPerType);
+            this.current = new ImportBuffer(importerBuilder);
+            for (int i = 1; i < buffersPerType; i++) {
+                idleBuffers.add(new ImportBuffer(importerBuilder));
+            }
+        }
+
+        void flushCurrent() {
+            if (importExecutor == null) {
+                flush(current);
+                return;
+            }
+            rethrowImportError();
+            ImportBuffer fullBuffer = current;
+            importExecutor.execute(() -> {
+                try {
+                    flush(fullBuffer);
+                } catch (Throwable e) {
+                    importError.accumulateAndGet(e, ExceptionUtil::chain);
+                    fullBuffer.reset();
+                } finally {
+                    idleBuffers.add(fullBuffer);
+                }
+            });
+            current = takeIdleBuffer();
+        }
+
+        void flushAll() {
+            flush(current);
+            // all buffers are idle again once every batch that is in flight has been imported
+            for (int i = 1; i < buffersPerType; i++) {
+                idleBuffers.add(takeIdleBuffer());
+            }
+        }
+
+        private ImportBuffer takeIdleBuffer() {
+            try {
+                return idleBuffers.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
     }
 
+    private final class ImportBuffer {
+
+        private final SingleTypeRelationshipImporter importer;
+        private final RelationshipPropertiesBatchBuffer propertiesBuffer;
+        private int nextRelationshipId;
+
+        ImportBuffer(SingleTypeRelationshipImporter.Builder.WithImporter importerBuilder) {
+            RelationshipImporter.PropertyReader propertyReader;
+            if (multipleProperties) {
+                // Create thread-local buffer for relationship properties
+                this.propertiesBuffer = new RelationshipPropertiesBatchBuffer(bufferSize, propertyCount);
+                propertyReader = propertiesBuffer;
+            } else {
+                // Single properties can be in-lined in the relationship batch
+                this.propertiesBuffer = null;
+                propertyReader = RelationshipImporter.preLoadedPropertyReader();
+            }
+            this.importer = importerBuilder.withBuffer(idMap, bufferSize, propertyReader);
+        }
+
+        void reset() {
+            importer.buffer().reset();
+            nextRelationshipId = 0;
+        }
+    }
 }
@@ -102,6 +102,22 @@ public final class RelationshipsBatchBuffer extends RecordsBatchBuffer<Relations
         this.length = 4 + position;
     }
 
+    /**
+     * Swaps source and target of every relationship that points towards a node with a lower id,
+     * so that each undirected relationship is imported only once.
+     */
+    void orientTowardsHigherIds() {
+        long[] buffer = this.buffer;
+        for (int i = 0; i < length; i += BATCH_ENTRY_SIZE) {
+            long source = buffer[i];
+            long target = buffer[1 + i];
+            if (source > target) {
+                buffer[i] = target;
+                buffer[1 + i] = source;
+            }
+        }
+    }
+
     long[] sortBySource() {
         RadixSort.radixSort(buffer, sortCopy, histogram, length);
         return buffer;
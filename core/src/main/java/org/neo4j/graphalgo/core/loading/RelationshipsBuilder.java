@@ -20,28 +20,91 @@
 package org.neo4j.graphalgo.core.loading;
 
 
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PageStorage;
 import org.neo4j.graphalgo.core.huge.AdjacencyList;
 import org.neo4j.graphalgo.core.huge.AdjacencyOffsets;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 public class RelationshipsBuilder {
 
     private static final AdjacencyListBuilder[] EMPTY_WEIGHTS = new AdjacencyListBuilder[0];
 
     private final Aggregation[] aggregations;
+    private final RelationshipPropertyCodec[] propertyCodecs;
+    private final AdjacencyEncoding adjacencyEncoding;
     final AdjacencyListBuilder adjacencyListBuilder;
     final AdjacencyListBuilder[] propertyBuilders;
 
+    private final RelationshipsBuilder inverse;
+
     AdjacencyOffsets globalAdjacencyOffsets;
     AdjacencyOffsets[] globalPropertyOffsets;
 
+    private int[][] countedCompressedSizes;
+    private int[][] countedDegrees;
+
     public RelationshipsBuilder(
         Aggregation[] aggregations,
         AllocationTracker tracker,
         int numberOfRelationshipProperties
+    ) {
+        this(aggregations, tracker, numberOfRelationshipProperties, false);
+    }
+
+    /**
+     * @param indexInverse if true, an additional builder for the inverse adjacency is created,
+     *                     which receives every relationship with source and target swapped.
+     */
+    public RelationshipsBuilder(
+        Aggregation[] aggregations,
+        AllocationTracker tracker,
+        int numberOfRelationshipProperties,
+        boolean indexInverse
+    ) {
+        this(aggregations, tracker, doubleCodecs(numberOfRelationshipProperties), indexInverse);
+    }
+
+    /**
+     * @param propertyCodecs storage encoding for each relationship property
+     */
+    public RelationshipsBuilder(
+        Aggregation[] aggregations,
+        AllocationTracker tracker,
+        RelationshipPropertyCodec[] propertyCodecs,
+        boolean indexInverse
+    ) {
+        this(aggregations, tracker, propertyCodecs, indexInverse, PageStorage.HEAP);
+    }
+
+    /**
+     * @param pageStorage storage of the adjacency and property pages once they are built
+     */
+    public RelationshipsBuilder(
+        Aggregation[] aggregations,
+        AllocationTracker tracker,
+        RelationshipPropertyCodec[] propertyCodecs,
+        boolean indexInverse,
+        PageStorage pageStorage
+    ) {
+        this(aggregations, tracker, propertyCodecs, indexInverse, pageStorage, AdjacencyEncoding.VAR_LONG);
+    }
+
+    /**
+     * @param adjacencyEncoding encoding of the compressed targets in the adjacency list
+     */
+    public RelationshipsBuilder(
+        Aggregation[] aggregations,
+        AllocationTracker tracker,
+        RelationshipPropertyCodec[] propertyCodecs,
+        boolean indexInverse,
+        PageStorage pageStorage,
+        AdjacencyEncoding adjacencyEncoding
     ) {
         if (Arrays.stream(aggregations).anyMatch(d -> d == Aggregation.DEFAULT)) {
             throw new IllegalArgumentException(String.format(
@@ -50,13 +113,32 @@ public class RelationshipsBuilder {
             ));
         }
         this.aggregations = aggregations;
-        adjacencyListBuilder = AdjacencyListBuilder.newBuilder(tracker);
-        if (numberOfRelationshipProperties > 0) {
-            propertyBuilders = new AdjacencyListBuilder[numberOfRelationshipProperties];
-            Arrays.setAll(propertyBuilders, i -> AdjacencyListBuilder.newBuilder(tracker));
+        this.propertyCodecs = propertyCodecs;
+        this.adjacencyEncoding = adjacencyEncoding;
+        adjacencyListBuilder = AdjacencyListBuilder.newBuilder(
+            tracker,
+            RelationshipPropertyCodec.DOUBLE,
+            pageStorage,
+            adjacencyEncoding
+        );
+        if (propertyCodecs.length > 0) {
+            propertyBuilders = new AdjacencyListBuilder[propertyCodecs.length];
+            Arrays.setAll(
+                propertyBuilders,
+                i -> AdjacencyListBuilder.newBuilder(tracker, propertyCodecs[i], pageStorage)
+            );
         } else {
             propertyBuilders = EMPTY_WEIGHTS;
         }
+        this.inverse = indexInverse
+            ? new RelationshipsBuilder(aggregations, tracker, propertyCodecs, false, pageStorage, adjacencyEncoding)
+            : null;
+    }
+
+    private static RelationshipPropertyCodec[] doubleCodecs(int numberOfRelationshipProperties) {
+        RelationshipPropertyCodec[] codecs = new RelationshipPropertyCodec[numberOfRelationshipProperties];
+        Arrays.fill(codecs, RelationshipPropertyCodec.DOUBLE);
+        return codecs;
     }
 
     final ThreadLocalRelationshipsBuilder threadLocalRelationshipsBuilder(
@@ -69,6 +151,8 @@ public class RelationshipsBuilder {
             Arrays.stream(propertyBuilders)
                 .map(AdjacencyListBuilder::newAllocator)
                 .toArray(AdjacencyListBuilder.Allocator[]::new),
+            propertyCodecs,
+            adjacencyEncoding,
             adjacencyOffsets,
             weightOffsets
         );
@@ -82,6 +166,30 @@ public class RelationshipsBuilder {
         this.globalPropertyOffsets = globalPropertyOffsets;
     }
 
+    final void setCountedSizes(int[][] countedCompressedSizes, int[][] countedDegrees) {
+        this.countedCompressedSizes = countedCompressedSizes;
+        this.countedDegrees = countedDegrees;
+    }
+
+    /**
+     * @return the compressed sizes of the adjacency lists per import page, if they have been counted in advance,
+     *     otherwise null
+     */
+    final int[][] countedCompressedSizes() {
+        return countedCompressedSizes;
+    }
+
+    /**
+     * @return the degrees per import page, if they have been counted in advance for the properties, otherwise null
+     */
+    final int[][] countedDegrees() {
+        return countedDegrees;
+    }
+
+    public Optional<RelationshipsBuilder> inverse() {
+        return Optional.ofNullable(inverse);
+    }
+
     public AdjacencyList adjacencyList() {
         return adjacencyListBuilder.build();
     }
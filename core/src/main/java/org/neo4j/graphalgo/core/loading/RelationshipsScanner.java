@@ -100,6 +100,13 @@ final class RelationshipsScanner extends StatementAction implements RecordScanne
             );
         }
 
+        @Override
+        public Collection<Runnable> aggregationTasks() {
+            return importerBuilders.stream()
+                    .flatMap(SingleTypeRelationshipImporter.Builder.WithImporter::aggregationTasks)
+                    .collect(Collectors.toList());
+        }
+
         @Override
         public Collection<Runnable> flushTasks() {
             return importerBuilders.stream()
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import com.carrotsearch.hppc.LongSet;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.utils.StatementAction;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Scans the node store and imports node properties for the nodes of an already loaded id map.
+ * Used to load node properties on demand, after the graph itself has been created.
+ */
+final class ScanningNodePropertiesImporter extends ScanningRecordsImporter<NodeRecord, Map<NodeLabel, Map<PropertyMapping, NodeProperties>>> {
+
+    private final IdMap idMap;
+    private final Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel;
+    private final AllocationTracker tracker;
+
+    private NativeNodePropertyImporter nodePropertyImporter;
+
+    ScanningNodePropertiesImporter(
+        GraphDatabaseAPI api,
+        GraphDimensions dimensions,
+        IdMap idMap,
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel,
+        AllocationTracker tracker,
+        ExecutorService threadPool,
+        int concurrency
+    ) {
+        super(NodeStoreScanner.NODE_ACCESS, "Node property", api, dimensions, threadPool, concurrency);
+        this.idMap = idMap;
+        this.propertyMappingsByNodeLabel = propertyMappingsByNodeLabel;
+        this.tracker = tracker;
+    }
+
+    @Override
+    InternalImporter.CreateScanner creator(
+        long nodeCount,
+        ImportSizing sizing,
+        AbstractStorePageCacheScanner<NodeRecord> scanner
+    ) {
+        nodePropertyImporter = NativeNodePropertyImporter
+            .builder()
+            .nodeCount(idMap.nodeCount())
+            .concurrency(concurrency)
+            .dimensions(dimensions)
+            .propertyMappings(propertyMappingsByNodeLabel)
+            .tracker(tracker)
+            .build();
+
+        return new InternalImporter.CreateScanner() {
+            @Override
+            public RecordScanner create(int index) {
+                return new PropertiesScanner(api, scanner, dimensions.nodeLabelIds(), index);
+            }
+
+            @Override
+            public Collection<Runnable> flushTasks() {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    @Override
+    Map<NodeLabel, Map<PropertyMapping, NodeProperties>> build() {
+        return nodePropertyImporter.result();
+    }
+
+    private final class PropertiesScanner extends StatementAction implements RecordScanner {
+        private final AbstractStorePageCacheScanner<NodeRecord> scanner;
+        private final NodeStore nodeStore;
+        private final LongSet labels;
+        private final int scannerIndex;
+        private long nodesScanned;
+        private long propertiesImported;
+
+        PropertiesScanner(
+            GraphDatabaseAPI api,
+            AbstractStorePageCacheScanner<NodeRecord> scanner,
+            LongSet labels,
+            int scannerIndex
+        ) {
+            super(api);
+            this.scanner = scanner;
+            this.nodeStore = (NodeStore) scanner.store();
+            this.labels = labels;
+            this.scannerIndex = scannerIndex;
+        }
+
+        @Override
+        public String threadName() {
+            return "node-property-scan-" + scannerIndex;
+        }
+
+        @Override
+        public void accept(KernelTransaction transaction) {
+            Read read = transaction.dataRead();
+            CursorFactory cursors = transaction.cursors();
+            try (AbstractStorePageCacheScanner<NodeRecord>.Cursor cursor = scanner.getCursor()) {
+                NodesBatchBuffer batches = new NodesBatchBufferBuilder()
+                    .store(nodeStore)
+                    .nodeLabelIds(labels)
+                    .capacity(cursor.bulkSize())
+                    .hasLabelInformation(!labels.isEmpty())
+                    .readProperty(true)
+                    .build();
+                while (batches.scan(cursor)) {
+                    long[] neoIds = batches.batch();
+                    long[] propertyReferences = batches.properties();
+                    long[][] labelIds = batches.labelIds();
+                    for (int i = 0; i < batches.length(); i++) {
+                        // nodes that have been created after the graph was loaded are skipped
+                        long nodeId = idMap.toMappedNodeId(neoIds[i]);
+                        if (nodeId != ReverseNodeMapping.NOT_FOUND) {
+                            propertiesImported += nodePropertyImporter.importProperties(
+                                nodeId,
+                                neoIds[i],
+                                labelIds[i],
+                                propertyReferences[i],
+                                cursors,
+                                read
+                            );
+                        }
+                    }
+                    nodesScanned += batches.length();
+                }
+            }
+        }
+
+        @Override
+        public long recordsImported() {
+            return nodesScanned;
+        }
+
+        @Override
+        public long propertiesImported() {
+            return propertiesImported;
+        }
+    }
+}
@@ -37,6 +37,9 @@ abstract class ScanningRecordsImporter<Record extends AbstractBaseRecord, T> {
 
     private static final BigInteger A_BILLION = BigInteger.valueOf(1_000_000_000L);
 
+    // adaptive scans can at most double the default prefetch size, which bounds the size of the batch buffers
+    private static final int MAX_ADAPTIVE_PREFETCH_SIZE = DEFAULT_PREFETCH_SIZE << 1;
+
     private final AbstractStorePageCacheScanner.Access<Record> access;
     private final String label;
     final GraphDatabaseAPI api;
@@ -44,6 +47,8 @@ abstract class ScanningRecordsImporter<Record extends AbstractBaseRecord, T> {
     private final ExecutorService threadPool;
     final int concurrency;
 
+    private StoreScanStatistics statistics;
+
     ScanningRecordsImporter(
         AbstractStorePageCacheScanner.Access<Record> access,
         String label,
@@ -61,12 +66,36 @@ abstract class ScanningRecordsImporter<Record extends AbstractBaseRecord, T> {
     }
 
     final T call(Log log) {
+        return call(log, false, false);
+    }
+
+    /**
+     * @param adaptiveScanning if true, the prefetch size and the number of scanning threads
+     *                         are adjusted to the measured throughput while the store is scanned
+     * @param warmUpPageCache  if true, the store is read into the page cache before it is scanned
+     */
+    final T call(Log log, boolean adaptiveScanning, boolean warmUpPageCache) {
         long nodeCount = dimensions.nodeCount();
         final ImportSizing sizing = ImportSizing.of(concurrency, nodeCount);
         int numberOfThreads = sizing.numberOfThreads();
 
+        StoreScanTuner tuner = adaptiveScanning
+            ? new StoreScanTuner(DEFAULT_PREFETCH_SIZE, MAX_ADAPTIVE_PREFETCH_SIZE, numberOfThreads)
+            : null;
         AbstractStorePageCacheScanner<Record> scanner =
-                new AbstractStorePageCacheScanner<>(DEFAULT_PREFETCH_SIZE, api, access);
+                new AbstractStorePageCacheScanner<>(DEFAULT_PREFETCH_SIZE, api, access, tuner);
+
+        long warmedUpPages = 0L;
+        if (warmUpPageCache) {
+            long warmUpStart = System.nanoTime();
+            warmedUpPages = scanner.warmUp();
+            log.info(
+                "%s Store Scan: Read %,d pages into the page cache; took %.3f s",
+                label,
+                warmedUpPages,
+                (System.nanoTime() - warmUpStart) / 1e9
+            );
+        }
 
         InternalImporter.CreateScanner creator = creator(nodeCount, sizing, scanner);
         InternalImporter importer = new InternalImporter(numberOfThreads, creator);
@@ -97,9 +126,29 @@ abstract class ScanningRecordsImporter<Record extends AbstractBaseRecord, T> {
                 bytesPerSecond / numberOfThreads
         );
 
+        if (tuner == null) {
+            statistics = StoreScanStatistics.of(DEFAULT_PREFETCH_SIZE, numberOfThreads, warmedUpPages, false);
+        } else {
+            statistics = StoreScanStatistics.of(tuner.prefetchSize(), tuner.activeThreads(), warmedUpPages, true);
+            log.info(
+                "%s Store Scan: Adaptive scan ended with a prefetch size of %d pages and %d of %d scanner threads",
+                label,
+                tuner.prefetchSize(),
+                tuner.activeThreads(),
+                numberOfThreads
+            );
+        }
+
         return build();
     }
 
+    /**
+     * The settings of the last scan, or null if the store has not been scanned yet.
+     */
+    final StoreScanStatistics statistics() {
+        return statistics;
+    }
+
     abstract InternalImporter.CreateScanner creator(
             long nodeCount,
             ImportSizing sizing,
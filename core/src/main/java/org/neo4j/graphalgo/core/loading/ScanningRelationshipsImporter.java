@@ -47,6 +47,7 @@ final class ScanningRelationshipsImporter extends ScanningRecordsImporter<Relati
     private final IdMapping idMap;
     private final Map<RelationshipProjectionMapping, RelationshipsBuilder> allBuilders;
     private final Map<RelationshipProjectionMapping, LongAdder> allRelationshipCounters;
+    private final boolean countSizes;
 
     ScanningRelationshipsImporter(
         GraphSetup setup,
@@ -58,10 +59,29 @@ final class ScanningRelationshipsImporter extends ScanningRecordsImporter<Relati
         Map<RelationshipProjectionMapping, RelationshipsBuilder> allBuilders,
         ExecutorService threadPool,
         int concurrency
+    ) {
+        this(setup, api, dimensions, progressLogger, tracker, idMap, allBuilders, threadPool, concurrency, false);
+    }
+
+    /**
+     * @param countSizes if true, the scan only counts the compressed adjacency list sizes of the nodes into the builders.
+     *                   A following scan then imports the relationships into buffers of the counted size.
+     */
+    ScanningRelationshipsImporter(
+        GraphSetup setup,
+        GraphDatabaseAPI api,
+        GraphDimensions dimensions,
+        ProgressLogger progressLogger,
+        AllocationTracker tracker,
+        IdMapping idMap,
+        Map<RelationshipProjectionMapping, RelationshipsBuilder> allBuilders,
+        ExecutorService threadPool,
+        int concurrency,
+        boolean countSizes
     ) {
         super(
                 RelationshipStoreScanner.RELATIONSHIP_ACCESS,
-                "Relationship",
+                countSizes ? "Relationship Degree" : "Relationship",
                 api,
                 dimensions,
                 threadPool,
@@ -72,6 +92,7 @@ final class ScanningRelationshipsImporter extends ScanningRecordsImporter<Relati
         this.idMap = idMap;
         this.allBuilders = allBuilders;
         this.allRelationshipCounters = new HashMap<>();
+        this.countSizes = countSizes;
     }
 
     @Override
@@ -83,7 +104,7 @@ final class ScanningRelationshipsImporter extends ScanningRecordsImporter<Relati
         int pageSize = sizing.pageSize();
         int numberOfPages = sizing.numberOfPages();
 
-        boolean importWeights = dimensions.relationshipProperties().hasMappings();
+        boolean importWeights = !countSizes && dimensions.relationshipProperties().hasMappings();
 
         List<SingleTypeRelationshipImporter.Builder> importerBuilders = allBuilders
                 .entrySet()
@@ -117,19 +138,80 @@ final class ScanningRelationshipsImporter extends ScanningRecordsImporter<Relati
         Aggregation[] aggregations = dimensions.relationshipProperties().allAggregations();
 
         LongAdder relationshipCounter = new LongAdder();
-        AdjacencyBuilder adjacencyBuilder = AdjacencyBuilder.compressing(
+        AdjacencyBuilder adjacencyBuilder = adjacencyBuilder(
             relationshipsBuilder,
             numberOfPages,
             pageSize,
-            tracker,
             relationshipCounter,
             propertyKeyIds,
             defaultValues,
             aggregations
         );
 
-        RelationshipImporter importer = new RelationshipImporter(setup.tracker(), adjacencyBuilder);
-        return new SingleTypeRelationshipImporter.Builder(mapping, importer, relationshipCounter, setup.validateRelationships());
+        AdjacencyBuilder inverseAdjacencyBuilder = relationshipsBuilder.inverse()
+            .map(inverseBuilder -> adjacencyBuilder(
+                inverseBuilder,
+                numberOfPages,
+                pageSize,
+                new LongAdder(),
+                propertyKeyIds,
+                defaultValues,
+                aggregations
+            ))
+            .orElse(null);
+
+        RelationshipImporter importer = new RelationshipImporter(setup.tracker(), adjacencyBuilder, inverseAdjacencyBuilder);
+        return new SingleTypeRelationshipImporter.Builder(
+            mapping,
+            importer,
+            relationshipCounter,
+            setup.validateRelationships(),
+            setup.halfUndirectedStorage()
+        );
+    }
+
+    private AdjacencyBuilder adjacencyBuilder(
+        RelationshipsBuilder relationshipsBuilder,
+        int numberOfPages,
+        int pageSize,
+        LongAdder relationshipCounter,
+        int[] propertyKeyIds,
+        double[] defaultValues,
+        Aggregation[] aggregations
+    ) {
+        if (countSizes) {
+            return AdjacencyBuilder.counting(
+                relationshipsBuilder,
+                numberOfPages,
+                pageSize,
+                tracker,
+                dimensions.relationshipProperties().hasMappings()
+            );
+        }
+        if (relationshipsBuilder.countedCompressedSizes() != null) {
+            return AdjacencyBuilder.presized(
+                relationshipsBuilder,
+                numberOfPages,
+                pageSize,
+                tracker,
+                relationshipCounter,
+                propertyKeyIds,
+                defaultValues,
+                aggregations,
+                setup.parallelAggregation()
+            );
+        }
+        return AdjacencyBuilder.compressing(
+            relationshipsBuilder,
+            numberOfPages,
+            pageSize,
+            tracker,
+            relationshipCounter,
+            propertyKeyIds,
+            defaultValues,
+            aggregations,
+            setup.parallelAggregation()
+        );
     }
 
     @Override
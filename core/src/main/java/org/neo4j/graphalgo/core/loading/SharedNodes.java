@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.NodeProjections;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.PropertyMappings;
+import org.neo4j.graphalgo.api.NodeProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Id map and node properties of a named graph that can be reused by other named graphs of the same user
+ * which project the same node labels.
+ * Counts the graphs in the catalog that use it, the node properties are only released together with the last one.
+ */
+final class SharedNodes {
+
+    private final IdMap idMap;
+    private final Map<NodeLabel, Map<PropertyMapping, NodeProperties>> properties;
+    // nodes or their properties might have changed since they have been loaded if other transactions have committed
+    private final long lastCommittedTransactionId;
+
+    private int references;
+
+    SharedNodes(
+        IdMap idMap,
+        Map<NodeLabel, Map<PropertyMapping, NodeProperties>> properties,
+        long lastCommittedTransactionId
+    ) {
+        this.idMap = idMap;
+        this.properties = properties;
+        this.lastCommittedTransactionId = lastCommittedTransactionId;
+        this.references = 0;
+    }
+
+    /**
+     * Identifies the node set of a projection of the given user, which does not depend on the projected node properties.
+     */
+    static Pair<String, Map<NodeLabel, String>> key(String username, NodeProjections nodeProjections) {
+        return Tuples.pair(username, nodeProjections.projections().entrySet().stream().collect(Collectors.toMap(
+            Map.Entry::getKey,
+            entry -> entry.getValue().label()
+        )));
+    }
+
+    IdMap idMap() {
+        return idMap;
+    }
+
+    boolean matches(long lastCommittedTransactionId) {
+        return this.lastCommittedTransactionId == lastCommittedTransactionId;
+    }
+
+    boolean contains(NodeProperties values) {
+        return properties
+            .values()
+            .stream()
+            .anyMatch(labelProperties -> labelProperties.values().stream().anyMatch(shared -> shared == values));
+    }
+
+    /**
+     * @return the shared node properties, if every requested property is shared
+     */
+    Optional<Map<NodeLabel, Map<PropertyMapping, NodeProperties>>> properties(
+        Map<NodeLabel, PropertyMappings> propertyMappingsByNodeLabel
+    ) {
+        Map<NodeLabel, Map<PropertyMapping, NodeProperties>> requested = new HashMap<>();
+        for (Map.Entry<NodeLabel, PropertyMappings> entry : propertyMappingsByNodeLabel.entrySet()) {
+            Map<PropertyMapping, NodeProperties> labelProperties = properties.getOrDefault(entry.getKey(), Map.of());
+            Map<PropertyMapping, NodeProperties> requestedLabelProperties = new HashMap<>();
+            for (PropertyMapping propertyMapping : entry.getValue()) {
+                NodeProperties values = labelProperties.get(propertyMapping);
+                if (values == null) {
+                    return Optional.empty();
+                }
+                requestedLabelProperties.put(propertyMapping, values);
+            }
+            requested.put(entry.getKey(), requestedLabelProperties);
+        }
+        return Optional.of(requested);
+    }
+
+    void acquire() {
+        references++;
+    }
+
+    /**
+     * @return true if no graph in the catalog uses the shared nodes anymore
+     */
+    boolean release() {
+        return --references == 0;
+    }
+}
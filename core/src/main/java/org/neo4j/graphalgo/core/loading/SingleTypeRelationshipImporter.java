@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import org.neo4j.graphalgo.Orientation;
 import org.neo4j.graphalgo.RelationshipProjectionMapping;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.internal.kernel.api.CursorFactory;
@@ -56,17 +57,20 @@ final class SingleTypeRelationshipImporter {
         private final RelationshipImporter importer;
         private final LongAdder relationshipCounter;
         private boolean validateRelationships;
+        private final boolean halfUndirectedStorage;
 
         Builder(
             RelationshipProjectionMapping mapping,
             RelationshipImporter importer,
             LongAdder relationshipCounter,
-            boolean validateRelationships
+            boolean validateRelationships,
+            boolean halfUndirectedStorage
         ) {
             this.mapping = mapping;
             this.importer = importer;
             this.relationshipCounter = relationshipCounter;
             this.validateRelationships = validateRelationships;
+            this.halfUndirectedStorage = halfUndirectedStorage;
         }
 
         RelationshipProjectionMapping mapping() {
@@ -78,7 +82,9 @@ final class SingleTypeRelationshipImporter {
         }
 
         WithImporter loadImporter(boolean loadProperties) {
-            RelationshipImporter.Imports imports = importer.imports(mapping.orientation(), loadProperties);
+            RelationshipImporter.Imports imports = halfUndirectedStorage && mapping.orientation() == Orientation.UNDIRECTED
+                ? importer.halfUndirectedImports(loadProperties)
+                : importer.imports(mapping.orientation(), loadProperties);
             return new WithImporter(imports);
         }
 
@@ -89,6 +95,10 @@ final class SingleTypeRelationshipImporter {
                 this.imports = imports;
             }
 
+            Stream<Runnable> aggregationTasks() {
+                return importer.aggregationTasks().stream();
+            }
+
             Stream<Runnable> flushTasks() {
                 return importer.flushTasks().stream();
             }
@@ -28,9 +28,7 @@ import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 
-public final class SparseNodeMapping {
-
-    private static final long NOT_FOUND = -1L;
+public final class SparseNodeMapping implements ReverseNodeMapping {
 
     private static final int PAGE_SHIFT = 12;
     private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
@@ -66,10 +64,12 @@ public final class SparseNodeMapping {
         return MemoryRange.of(classSize + pagesSize).add(MemoryRange.of(minRequirements, maxRequirements));
     }
 
+    @Override
     public long getCapacity() {
         return capacity;
     }
 
+    @Override
     public long get(long index) {
         final int pageIndex = pageIndex(index);
         if (pageIndex < pages.length) {
@@ -81,6 +81,7 @@ public final class SparseNodeMapping {
         return NOT_FOUND;
     }
 
+    @Override
     public boolean contains(long index) {
         final int pageIndex = pageIndex(index);
         if (pageIndex < pages.length) {
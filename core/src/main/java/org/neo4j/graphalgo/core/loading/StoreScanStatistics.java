@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.neo4j.graphalgo.annotation.ValueClass;
+
+/**
+ * Settings that a store scan has ended up with, which are reported with the created graph.
+ */
+@ValueClass
+public interface StoreScanStatistics {
+
+    /**
+     * Number of pages that are fetched at once, for adaptive scans the one at the end of the scan.
+     */
+    int prefetchSize();
+
+    /**
+     * Number of threads that were allowed to scan at the same time, for adaptive scans at the end of the scan.
+     */
+    int scannerThreads();
+
+    /**
+     * Number of pages that have been read into the page cache before the scan.
+     */
+    long warmedUpPages();
+
+    boolean adaptive();
+
+    static StoreScanStatistics of(int prefetchSize, int scannerThreads, long warmedUpPages, boolean adaptive) {
+        return ImmutableStoreScanStatistics.of(prefetchSize, scannerThreads, warmedUpPages, adaptive);
+    }
+}
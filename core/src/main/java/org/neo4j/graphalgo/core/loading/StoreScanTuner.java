@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tunes the prefetch size and the number of concurrently scanning threads of a store scan while it is running.
+ *
+ * After every window of batches, the throughput of the window in pages per second is compared with the throughput
+ * of the previous window. If it got worse, the direction of the last adjustment is reversed.
+ * Windows alternate between adjusting the prefetch size, by halving or doubling it,
+ * and adjusting the number of threads that are allowed to scan at the same time, by one.
+ */
+final class StoreScanTuner {
+
+    static final int MIN_PREFETCH_SIZE = 10;
+
+    // batches per scanner thread until the throughput is measured
+    private static final int BATCHES_PER_WINDOW = 4;
+
+    private final int minPrefetchSize;
+    private final int maxPrefetchSize;
+    private final int maxThreads;
+    private final AdjustableSemaphore permits;
+    private final ReentrantLock tuneLock;
+    private final LongAdder windowPages;
+    private final AtomicInteger windowBatches;
+    private final int batchesPerWindow;
+
+    private volatile int prefetchSize;
+    private volatile int activeThreads;
+
+    // only accessed while holding the tune lock
+    private long windowStart;
+    private double lastThroughput;
+    private boolean tuneThreads;
+    private int prefetchDirection;
+    private int threadDirection;
+
+    StoreScanTuner(int prefetchSize, int maxPrefetchSize, int maxThreads) {
+        this.minPrefetchSize = Math.min(MIN_PREFETCH_SIZE, prefetchSize);
+        this.maxPrefetchSize = Math.max(prefetchSize, maxPrefetchSize);
+        this.maxThreads = Math.max(1, maxThreads);
+        this.permits = new AdjustableSemaphore(this.maxThreads);
+        this.tuneLock = new ReentrantLock();
+        this.windowPages = new LongAdder();
+        this.windowBatches = new AtomicInteger();
+        this.batchesPerWindow = BATCHES_PER_WINDOW * this.maxThreads;
+        this.prefetchSize = prefetchSize;
+        this.activeThreads = this.maxThreads;
+        this.windowStart = System.nanoTime();
+        this.prefetchDirection = 1;
+        this.threadDirection = -1;
+    }
+
+    int prefetchSize() {
+        return prefetchSize;
+    }
+
+    int maxPrefetchSize() {
+        return maxPrefetchSize;
+    }
+
+    int activeThreads() {
+        return activeThreads;
+    }
+
+    /**
+     * Blocks until the calling thread is allowed to scan the next batch.
+     */
+    void beforeBatch() {
+        permits.acquireUninterruptibly();
+    }
+
+    void afterBatch(long scannedPages) {
+        permits.release();
+        windowPages.add(scannedPages);
+        if (windowBatches.incrementAndGet() >= batchesPerWindow && tuneLock.tryLock()) {
+            try {
+                if (windowBatches.get() >= batchesPerWindow) {
+                    tune();
+                }
+            } finally {
+                tuneLock.unlock();
+            }
+        }
+    }
+
+    private void tune() {
+        long now = System.nanoTime();
+        long pages = windowPages.sumThenReset();
+        windowBatches.set(0);
+        double throughput = (double) pages / Math.max(1L, now - windowStart);
+        windowStart = now;
+
+        boolean worse = throughput < lastThroughput;
+        lastThroughput = throughput;
+        if (tuneThreads) {
+            if (worse) {
+                threadDirection = -threadDirection;
+            }
+            adjustThreads(threadDirection);
+        } else {
+            if (worse) {
+                prefetchDirection = -prefetchDirection;
+            }
+            int newPrefetchSize = prefetchDirection > 0 ? prefetchSize << 1 : prefetchSize >> 1;
+            prefetchSize = Math.max(minPrefetchSize, Math.min(maxPrefetchSize, newPrefetchSize));
+        }
+        tuneThreads = !tuneThreads;
+    }
+
+    private void adjustThreads(int delta) {
+        int newActiveThreads = Math.max(1, Math.min(maxThreads, activeThreads + delta));
+        if (newActiveThreads > activeThreads) {
+            permits.release(newActiveThreads - activeThreads);
+        } else if (newActiveThreads < activeThreads) {
+            permits.reducePermits(activeThreads - newActiveThreads);
+        }
+        activeThreads = newActiveThreads;
+    }
+
+    private static final class AdjustableSemaphore extends Semaphore {
+
+        AdjustableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -20,13 +20,15 @@
 package org.neo4j.graphalgo.core.loading;
 
 import org.apache.lucene.util.LongsRef;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.huge.AdjacencyList;
+import org.neo4j.graphalgo.core.huge.RelationshipPropertyCodec;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static org.neo4j.graphalgo.core.loading.AdjacencyCompression.writeBlockIndex;
 import static org.neo4j.graphalgo.core.loading.AdjacencyCompression.writeDegree;
 
 class ThreadLocalRelationshipsBuilder {
@@ -35,6 +37,8 @@ class ThreadLocalRelationshipsBuilder {
     private final Aggregation[] aggregations;
     private final AdjacencyListBuilder.Allocator adjacencyAllocator;
     private final AdjacencyListBuilder.Allocator[] propertiesAllocators;
+    private final RelationshipPropertyCodec[] propertyCodecs;
+    private final AdjacencyEncoding adjacencyEncoding;
     private final long[] adjacencyOffsets;
     private final long[][] weightOffsets;
     private final boolean noAggregation;
@@ -43,6 +47,8 @@ class ThreadLocalRelationshipsBuilder {
             Aggregation[] aggregations,
             AdjacencyListBuilder.Allocator adjacencyAllocator,
             final AdjacencyListBuilder.Allocator[] propertiesAllocators,
+            RelationshipPropertyCodec[] propertyCodecs,
+            AdjacencyEncoding adjacencyEncoding,
             long[] adjacencyOffsets,
             final long[][] weightOffsets) {
         if (aggregations.length == 0) {
@@ -52,6 +58,8 @@ class ThreadLocalRelationshipsBuilder {
         this.noAggregation = Arrays.stream(aggregations).allMatch(d -> d == Aggregation.NONE);
         this.adjacencyAllocator = adjacencyAllocator;
         this.propertiesAllocators = propertiesAllocators;
+        this.propertyCodecs = propertyCodecs;
+        this.adjacencyEncoding = adjacencyEncoding;
         this.adjacencyOffsets = adjacencyOffsets;
         this.weightOffsets = weightOffsets;
         this.lock = new ReentrantLock();
@@ -93,9 +101,12 @@ class ThreadLocalRelationshipsBuilder {
             int localId) {
         byte[] storage = array.storage();
         AdjacencyCompression.copyFrom(buffer, array);
-        int degree = AdjacencyCompression.applyDeltaEncoding(buffer, aggregations[0]);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
-        long address = copyIds(storage, requiredBytes, degree);
+        int degree = array.isSorted()
+            ? AdjacencyCompression.applySortedDeltaEncoding(buffer)
+            : AdjacencyCompression.applyDeltaEncoding(buffer, aggregations[0]);
+        storage = AdjacencyCompression.ensureCapacity(buffer, storage, adjacencyEncoding);
+        int requiredBytes = AdjacencyCompression.compress(buffer, storage, adjacencyEncoding);
+        long address = copyIds(buffer.longs, storage, requiredBytes, degree);
         adjacencyOffsets[localId] = address;
         array.release();
         return degree;
@@ -108,21 +119,26 @@ class ThreadLocalRelationshipsBuilder {
         byte[] storage = array.storage();
         long[][] weights = array.weights();
         AdjacencyCompression.copyFrom(buffer, array);
-        int degree = AdjacencyCompression.applyDeltaEncoding(buffer, weights, aggregations, noAggregation);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
+        int degree = array.isSorted()
+            ? AdjacencyCompression.applySortedDeltaEncoding(buffer)
+            : AdjacencyCompression.applyDeltaEncoding(buffer, weights, aggregations, noAggregation);
+        storage = AdjacencyCompression.ensureCapacity(buffer, storage, adjacencyEncoding);
+        int requiredBytes = AdjacencyCompression.compress(buffer, storage, adjacencyEncoding);
 
-        adjacencyOffsets[localId] = copyIds(storage, requiredBytes, degree);
+        adjacencyOffsets[localId] = copyIds(buffer.longs, storage, requiredBytes, degree);
         copyProperties(weights, degree, localId, weightOffsets);
 
         array.release();
         return degree;
     }
 
-    private long copyIds(byte[] targets, int requiredBytes, int degree) {
-        // sizeOf(degree) + compression bytes
-        long address = adjacencyAllocator.allocate(Integer.BYTES + requiredBytes);
+    private long copyIds(long[] deltas, byte[] targets, int requiredBytes, int degree) {
+        // sizeOf(degree) + sizeOf(block index) + compression bytes
+        int blockIndexBytes = AdjacencyList.blockIndexSize(degree);
+        long address = adjacencyAllocator.allocate(Integer.BYTES + blockIndexBytes + requiredBytes);
         int offset = adjacencyAllocator.offset;
         offset = writeDegree(adjacencyAllocator.page, offset, degree);
+        offset = writeBlockIndex(adjacencyAllocator.page, offset, deltas, degree, adjacencyEncoding);
         System.arraycopy(targets, 0, adjacencyAllocator.page, offset, requiredBytes);
         adjacencyAllocator.offset = (offset + requiredBytes);
         return address;
@@ -132,22 +148,21 @@ class ThreadLocalRelationshipsBuilder {
         for (int i = 0; i < properties.length; i++) {
             long[] property = properties[i];
             AdjacencyListBuilder.Allocator propertiesAllocator = propertiesAllocators[i];
-            long address = copyProperties(property, degree, propertiesAllocator);
+            long address = copyProperties(property, degree, propertiesAllocator, propertyCodecs[i]);
             offsets[i][localId] = address;
         }
     }
 
-    private long copyProperties(long[] properties, int degree, AdjacencyListBuilder.Allocator propertiesAllocator) {
-        int requiredBytes = degree * Long.BYTES;
+    private long copyProperties(
+            long[] properties,
+            int degree,
+            AdjacencyListBuilder.Allocator propertiesAllocator,
+            RelationshipPropertyCodec codec) {
+        int requiredBytes = degree * codec.bytesPerValue();
         long address = propertiesAllocator.allocate(Integer.BYTES /* degree */ + requiredBytes);
         int offset = propertiesAllocator.offset;
         offset = writeDegree(propertiesAllocator.page, offset, degree);
-        ByteBuffer
-                .wrap(propertiesAllocator.page, offset, requiredBytes)
-                .order(ByteOrder.LITTLE_ENDIAN)
-                .asLongBuffer()
-                .put(properties, 0, degree);
-        propertiesAllocator.offset = (offset + requiredBytes);
+        propertiesAllocator.offset = codec.encode(properties, degree, propertiesAllocator.page, offset);
         return address;
     }
 }
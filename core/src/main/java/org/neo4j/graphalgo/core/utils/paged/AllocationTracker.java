@@ -39,6 +39,19 @@ public class AllocationTracker implements Supplier<String> {
             return 0L;
         }
 
+        @Override
+        public void addOffHeap(long delta) {
+        }
+
+        @Override
+        public void removeOffHeap(long delta) {
+        }
+
+        @Override
+        public long trackedOffHeap() {
+            return 0L;
+        }
+
         @Override
         public String get() {
             return "";
@@ -56,6 +69,7 @@ public class AllocationTracker implements Supplier<String> {
     };
 
     private final AtomicLong count = new AtomicLong();
+    private final AtomicLong offHeapCount = new AtomicLong();
 
     public void add(long delta) {
         count.addAndGet(delta);
@@ -65,16 +79,38 @@ public class AllocationTracker implements Supplier<String> {
         count.addAndGet(-delta);
     }
 
+    /**
+     * @return the number of bytes tracked on the Java heap
+     */
     public long tracked() {
         return count.get();
     }
 
+    public void addOffHeap(long delta) {
+        offHeapCount.addAndGet(delta);
+    }
+
+    public void removeOffHeap(long delta) {
+        offHeapCount.addAndGet(-delta);
+    }
+
+    /**
+     * @return the number of bytes tracked outside of the Java heap, i.e. direct or memory-mapped memory
+     */
+    public long trackedOffHeap() {
+        return offHeapCount.get();
+    }
+
     public String getUsageString() {
-        return humanReadable(tracked());
+        long offHeap = trackedOffHeap();
+        if (offHeap == 0L) {
+            return humanReadable(tracked());
+        }
+        return humanReadable(tracked()) + " (off-heap: " + humanReadable(offHeap) + ")";
     }
 
     public String getUsageString(String label) {
-        return label + humanReadable(tracked());
+        return label + getUsageString();
     }
 
     @Override
@@ -20,6 +20,7 @@
 package org.neo4j.graphalgo.core.utils.paged;
 
 import com.carrotsearch.hppc.IntDoubleMap;
+import com.carrotsearch.hppc.cursors.IntDoubleCursor;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
@@ -27,16 +28,31 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 import static org.neo4j.graphalgo.core.concurrency.ParallelUtil.parallelStream;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfDoubleArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfIntArray;
 import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
 
+/**
+ * Pages that receive values for at least {@link #DENSE_PAGE_THRESHOLD} of their nodes are turned into
+ * dense arrays while the values are put. Missing values are stored as {@code NaN} in a dense page.
+ */
 public final class PagedLongDoubleMap {
 
     private static final int PAGE_SHIFT = 14;
     static final int PAGE_SIZE = 1 << PAGE_SHIFT;
     private static final long PAGE_MASK = PAGE_SIZE - 1;
 
+    /**
+     * The hash map of a page takes between 16 and 32 bytes per value,
+     * a dense page takes 8 bytes per node.
+     */
+    static final double DENSE_PAGE_THRESHOLD = 0.5;
+
     private static final MemoryEstimation MEMORY_REQUIREMENTS = MemoryEstimations
             .builder(PagedLongDoubleMap.class)
             .add(MemoryEstimations.setup("pages[]", dimensions -> {
@@ -56,7 +72,7 @@ public final class PagedLongDoubleMap {
         int numPages = PageUtil.numPagesFor(size, PAGE_SHIFT, PAGE_MASK);
         tracker.add(sizeOfObjectArray(numPages));
         TrackingIntDoubleHashMap[] pages = new TrackingIntDoubleHashMap[numPages];
-        return new PagedLongDoubleMap(pages, tracker, concurrency);
+        return new PagedLongDoubleMap(pages, size, tracker, concurrency);
     }
 
     public static MemoryEstimation memoryEstimation() {
@@ -65,27 +81,53 @@ public final class PagedLongDoubleMap {
 
     private final AllocationTracker tracker;
     private TrackingIntDoubleHashMap[] pages;
+    private final long capacity;
     private final int concurrency;
 
+    // allocated when the first page becomes dense, the maps of dense pages are kept as their locks
+    private volatile double[][] densePages;
+    private int[] densePageSizes;
+
     private PagedLongDoubleMap(
         TrackingIntDoubleHashMap[] pages,
+        long capacity,
         AllocationTracker tracker,
         int concurrency
     ) {
         this.pages = pages;
+        this.capacity = capacity;
         this.tracker = tracker;
         this.concurrency = concurrency;
     }
 
     public long size() {
-        return parallelStream(Arrays.stream(pages), concurrency, stream -> stream
+        long size = parallelStream(Arrays.stream(pages), concurrency, stream -> stream
                 .filter(Objects::nonNull)
                 .mapToLong(TrackingIntDoubleHashMap::size)
                 .sum());
+        if (densePageSizes != null) {
+            size += Arrays.stream(densePageSizes).asLongStream().sum();
+        }
+        return size;
+    }
+
+    /**
+     * @return true if at least one page is dense and no value is stored in a hash map
+     */
+    public boolean isDense() {
+        return densePages != null && Arrays.stream(pages)
+            .filter(Objects::nonNull)
+            .allMatch(TrackingIntDoubleHashMap::isEmpty);
     }
 
     public double getOrDefault(long index, double defaultValue) {
         int pageIndex = pageIndex(index);
+        double[] densePage = densePage(pageIndex);
+        if (densePage != null) {
+            int indexInPage = indexInPage(index);
+            double value = indexInPage < densePage.length ? densePage[indexInPage] : Double.NaN;
+            return Double.isNaN(value) ? defaultValue : value;
+        }
         if (pageIndex < pages.length) {
             IntDoubleMap page = pages[pageIndex];
             if (page != null) {
@@ -100,7 +142,92 @@ public final class PagedLongDoubleMap {
         int pageIndex = pageIndex(index);
         TrackingIntDoubleHashMap subMap = subMap(pageIndex);
         int indexInPage = indexInPage(index);
-        subMap.putSync(indexInPage, value);
+        synchronized (subMap) {
+            double[] densePage = densePage(pageIndex);
+            if (densePage != null) {
+                putDense(pageIndex, densePage, indexInPage, value);
+                return;
+            }
+            subMap.put(indexInPage, value);
+            int pageCapacity = pageCapacity(pageIndex);
+            if (pageCapacity > 0 && subMap.size() >= DENSE_PAGE_THRESHOLD * pageCapacity) {
+                densify(pageIndex, subMap, pageCapacity);
+            }
+        }
+    }
+
+    private void putDense(int pageIndex, double[] densePage, int indexInPage, double value) {
+        if (indexInPage >= densePage.length) {
+            densePage = growDensePage(pageIndex, densePage);
+        }
+        boolean hadValue = !Double.isNaN(densePage[indexInPage]);
+        boolean hasValue = !Double.isNaN(value);
+        densePage[indexInPage] = value;
+        if (hadValue != hasValue) {
+            densePageSizes[pageIndex] += hasValue ? 1 : -1;
+        }
+    }
+
+    /**
+     * Moves the values of the page into a dense array and drops the buffers of its map.
+     * Called while holding the lock of the map.
+     */
+    private void densify(int pageIndex, TrackingIntDoubleHashMap subMap, int pageCapacity) {
+        double[] densePage = new double[densePageLength(subMap.keys, pageCapacity)];
+        Arrays.fill(densePage, Double.NaN);
+        int size = 0;
+        for (IntDoubleCursor cursor : subMap) {
+            densePage[cursor.key] = cursor.value;
+            if (!Double.isNaN(cursor.value)) {
+                size++;
+            }
+        }
+        tracker.add(sizeOfDoubleArray(densePage.length));
+        subMap.dropBuffers();
+        publishDensePage(pageIndex, densePage, size);
+    }
+
+    /**
+     * The last page only covers the initial capacity, it is grown to a full page if larger keys are put.
+     */
+    private double[] growDensePage(int pageIndex, double[] densePage) {
+        double[] grown = Arrays.copyOf(densePage, PAGE_SIZE);
+        Arrays.fill(grown, densePage.length, PAGE_SIZE, Double.NaN);
+        tracker.add(sizeOfDoubleArray(PAGE_SIZE) - sizeOfDoubleArray(densePage.length));
+        densePages[pageIndex] = grown;
+        return grown;
+    }
+
+    private synchronized void publishDensePage(int pageIndex, double[] densePage, int size) {
+        if (densePages == null) {
+            int numPages = PageUtil.numPagesFor(capacity, PAGE_SHIFT, PAGE_MASK);
+            tracker.add(sizeOfObjectArray(numPages) + sizeOfIntArray(numPages));
+            densePageSizes = new int[numPages];
+            densePages = new double[numPages][];
+        }
+        densePageSizes[pageIndex] = size;
+        densePages[pageIndex] = densePage;
+    }
+
+    private double[] densePage(int pageIndex) {
+        double[][] densePages = this.densePages;
+        return densePages != null && pageIndex < densePages.length ? densePages[pageIndex] : null;
+    }
+
+    /**
+     * Keys beyond the initial capacity are only expected if the map has been used with a too small size.
+     */
+    static int densePageLength(int[] keys, int pageCapacity) {
+        for (int key : keys) {
+            if (key >= pageCapacity) {
+                return PAGE_SIZE;
+            }
+        }
+        return pageCapacity;
+    }
+
+    private int pageCapacity(int pageIndex) {
+        return (int) Math.min(PAGE_SIZE, capacity - ((long) pageIndex << PAGE_SHIFT));
     }
 
     private TrackingIntDoubleHashMap subMap(int pageIndex) {
@@ -133,9 +260,19 @@ public final class PagedLongDoubleMap {
     }
 
     public OptionalLong getMaxValue() {
-        return parallelStream(Arrays.stream(pages), concurrency, stream -> stream
-                .filter(Objects::nonNull)
-                .flatMapToDouble(TrackingIntDoubleHashMap::getValuesAsStream)
+        double[][] densePages = this.densePages;
+        return parallelStream(IntStream.range(0, pages.length), concurrency, stream -> stream
+                .mapToObj(pageIndex -> {
+                    double[] densePage = densePages != null && pageIndex < densePages.length
+                        ? densePages[pageIndex]
+                        : null;
+                    if (densePage != null) {
+                        return Arrays.stream(densePage).filter(value -> !Double.isNaN(value));
+                    }
+                    TrackingIntDoubleHashMap page = pages[pageIndex];
+                    return page != null ? page.getValuesAsStream() : DoubleStream.empty();
+                })
+                .flatMapToDouble(Function.identity())
                 .mapToLong(d -> (long) d)
                 .max());
     }
@@ -150,6 +287,17 @@ public final class PagedLongDoubleMap {
                     released += page.instanceSize();
                 }
             }
+            double[][] densePages = this.densePages;
+            if (densePages != null) {
+                this.densePages = null;
+                this.densePageSizes = null;
+                released += sizeOfObjectArray(densePages.length) + sizeOfIntArray(densePages.length);
+                for (double[] densePage : densePages) {
+                    if (densePage != null) {
+                        released += sizeOfDoubleArray(densePage.length);
+                    }
+                }
+            }
             tracker.remove(released);
             return released;
         }
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import com.carrotsearch.hppc.IntLongMap;
+import com.carrotsearch.hppc.cursors.IntLongCursor;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.neo4j.graphalgo.core.concurrency.ParallelUtil.parallelStream;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfIntArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfLongArray;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfObjectArray;
+
+/**
+ * Pages that receive values for at least {@link #DENSE_PAGE_THRESHOLD} of their nodes are turned into
+ * dense arrays while the values are put. A dense page marks the nodes that have a value in a bit set.
+ */
+public final class PagedLongLongMap {
+
+    private static final int PAGE_SHIFT = 14;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final long PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * The hash map of a page takes between 16 and 32 bytes per value,
+     * a dense page takes a little more than 8 bytes per node.
+     */
+    static final double DENSE_PAGE_THRESHOLD = 0.5;
+
+    private static final MemoryEstimation MEMORY_REQUIREMENTS = MemoryEstimations
+            .builder(PagedLongLongMap.class)
+            .add(MemoryEstimations.setup("pages[]", dimensions -> {
+                int numPages = PageUtil.numPagesFor(dimensions.nodeCount(), PAGE_SHIFT, PAGE_MASK);
+                long pagesArraySize = sizeOfObjectArray(numPages);
+                MemoryEstimation pagesSize = MemoryEstimations.andThen(
+                        TrackingIntLongHashMap.memoryEstimation(),
+                        range -> range.times(numPages).union(MemoryRange.empty()));
+                return MemoryEstimations.builder()
+                        .add(pagesSize)
+                        .fixed("pages wrapper", pagesArraySize)
+                        .build();
+            })).build();
+
+
+    public static PagedLongLongMap of(long size, AllocationTracker tracker, int concurrency) {
+        int numPages = PageUtil.numPagesFor(size, PAGE_SHIFT, PAGE_MASK);
+        tracker.add(sizeOfObjectArray(numPages));
+        TrackingIntLongHashMap[] pages = new TrackingIntLongHashMap[numPages];
+        return new PagedLongLongMap(pages, size, tracker, concurrency);
+    }
+
+    public static MemoryEstimation memoryEstimation() {
+        return MEMORY_REQUIREMENTS;
+    }
+
+    private final AllocationTracker tracker;
+    private TrackingIntLongHashMap[] pages;
+    private final long capacity;
+    private final int concurrency;
+
+    // allocated when the first page becomes dense, the maps of dense pages are kept as their locks
+    private volatile long[][] densePages;
+    private long[][] densePageBits;
+    private int[] densePageSizes;
+
+    private PagedLongLongMap(
+        TrackingIntLongHashMap[] pages,
+        long capacity,
+        AllocationTracker tracker,
+        int concurrency
+    ) {
+        this.pages = pages;
+        this.capacity = capacity;
+        this.tracker = tracker;
+        this.concurrency = concurrency;
+    }
+
+    public long size() {
+        long size = parallelStream(Arrays.stream(pages), concurrency, stream -> stream
+                .filter(Objects::nonNull)
+                .mapToLong(TrackingIntLongHashMap::size)
+                .sum());
+        if (densePageSizes != null) {
+            size += Arrays.stream(densePageSizes).asLongStream().sum();
+        }
+        return size;
+    }
+
+    /**
+     * @return true if at least one page is dense and no value is stored in a hash map
+     */
+    public boolean isDense() {
+        return densePages != null && Arrays.stream(pages)
+            .filter(Objects::nonNull)
+            .allMatch(TrackingIntLongHashMap::isEmpty);
+    }
+
+    public long getOrDefault(long index, long defaultValue) {
+        int pageIndex = pageIndex(index);
+        long[] densePage = densePage(pageIndex);
+        if (densePage != null) {
+            int indexInPage = indexInPage(index);
+            return hasBit(densePageBits[pageIndex], indexInPage) ? densePage[indexInPage] : defaultValue;
+        }
+        if (pageIndex < pages.length) {
+            IntLongMap page = pages[pageIndex];
+            if (page != null) {
+                int indexInPage = indexInPage(index);
+                return page.getOrDefault(indexInPage, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long index) {
+        int pageIndex = pageIndex(index);
+        if (densePage(pageIndex) != null) {
+            return hasBit(densePageBits[pageIndex], indexInPage(index));
+        }
+        if (pageIndex < pages.length) {
+            IntLongMap page = pages[pageIndex];
+            return page != null && page.containsKey(indexInPage(index));
+        }
+        return false;
+    }
+
+    /**
+     * Finds the slot that holds the value of the given index, like {@link IntLongMap#indexOf(int)}.
+     * Callers that need to know whether a value exists read it with {@link #indexGet(long, int)},
+     * instead of probing the page a second time after {@link #containsKey(long)}.
+     *
+     * @return a non-negative slot if the index has a value, otherwise a negative number
+     */
+    public int indexOf(long index) {
+        int pageIndex = pageIndex(index);
+        int indexInPage = indexInPage(index);
+        if (densePage(pageIndex) != null) {
+            return hasBit(densePageBits[pageIndex], indexInPage) ? indexInPage : -1;
+        }
+        if (pageIndex < pages.length) {
+            IntLongMap page = pages[pageIndex];
+            if (page != null) {
+                int slot = page.indexOf(indexInPage);
+                return slot >= 0 ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param slot a non-negative slot returned by {@link #indexOf(long)} for the same index
+     */
+    public long indexGet(long index, int slot) {
+        int pageIndex = pageIndex(index);
+        long[] densePage = densePage(pageIndex);
+        if (densePage != null) {
+            return densePage[slot];
+        }
+        return pages[pageIndex].indexGet(slot);
+    }
+
+    public void put(long index, long value) {
+        int pageIndex = pageIndex(index);
+        TrackingIntLongHashMap subMap = subMap(pageIndex);
+        int indexInPage = indexInPage(index);
+        synchronized (subMap) {
+            long[] densePage = densePage(pageIndex);
+            if (densePage != null) {
+                if (indexInPage >= densePage.length) {
+                    densePage = growDensePage(pageIndex, densePage);
+                }
+                long[] bits = densePageBits[pageIndex];
+                if (!hasBit(bits, indexInPage)) {
+                    setBit(bits, indexInPage);
+                    densePageSizes[pageIndex]++;
+                }
+                densePage[indexInPage] = value;
+                return;
+            }
+            subMap.put(indexInPage, value);
+            int pageCapacity = pageCapacity(pageIndex);
+            if (pageCapacity > 0 && subMap.size() >= DENSE_PAGE_THRESHOLD * pageCapacity) {
+                densify(pageIndex, subMap, pageCapacity);
+            }
+        }
+    }
+
+    /**
+     * Moves the values of the page into a dense array and drops the buffers of its map.
+     * Called while holding the lock of the map.
+     */
+    private void densify(int pageIndex, TrackingIntLongHashMap subMap, int pageCapacity) {
+        long[] densePage = new long[PagedLongDoubleMap.densePageLength(subMap.keys, pageCapacity)];
+        long[] bits = new long[bitsLength(densePage.length)];
+        for (IntLongCursor cursor : subMap) {
+            densePage[cursor.key] = cursor.value;
+            setBit(bits, cursor.key);
+        }
+        tracker.add(sizeOfLongArray(densePage.length) + sizeOfLongArray(bits.length));
+        int size = subMap.size();
+        subMap.dropBuffers();
+        publishDensePage(pageIndex, densePage, bits, size);
+    }
+
+    /**
+     * The last page only covers the initial capacity, it is grown to a full page if larger keys are put.
+     */
+    private long[] growDensePage(int pageIndex, long[] densePage) {
+        long[] bits = densePageBits[pageIndex];
+        long[] grown = Arrays.copyOf(densePage, PAGE_SIZE);
+        long[] grownBits = Arrays.copyOf(bits, bitsLength(PAGE_SIZE));
+        tracker.add(sizeOfLongArray(grown.length) - sizeOfLongArray(densePage.length));
+        tracker.add(sizeOfLongArray(grownBits.length) - sizeOfLongArray(bits.length));
+        densePageBits[pageIndex] = grownBits;
+        densePages[pageIndex] = grown;
+        return grown;
+    }
+
+    private synchronized void publishDensePage(int pageIndex, long[] densePage, long[] bits, int size) {
+        if (densePages == null) {
+            int numPages = PageUtil.numPagesFor(capacity, PAGE_SHIFT, PAGE_MASK);
+            tracker.add(2 * sizeOfObjectArray(numPages) + sizeOfIntArray(numPages));
+            densePageSizes = new int[numPages];
+            densePageBits = new long[numPages][];
+            densePages = new long[numPages][];
+        }
+        densePageSizes[pageIndex] = size;
+        densePageBits[pageIndex] = bits;
+        densePages[pageIndex] = densePage;
+    }
+
+    private long[] densePage(int pageIndex) {
+        long[][] densePages = this.densePages;
+        return densePages != null && pageIndex < densePages.length ? densePages[pageIndex] : null;
+    }
+
+    private int pageCapacity(int pageIndex) {
+        return (int) Math.min(PAGE_SIZE, capacity - ((long) pageIndex << PAGE_SHIFT));
+    }
+
+    private static int bitsLength(int pageCapacity) {
+        return (pageCapacity + Long.SIZE - 1) >>> 6;
+    }
+
+    private static boolean hasBit(long[] bits, int index) {
+        int bitsIndex = index >>> 6;
+        return bitsIndex < bits.length && (bits[bitsIndex] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private TrackingIntLongHashMap subMap(int pageIndex) {
+        if (pageIndex >= pages.length) {
+            return growNewSubMap(pageIndex);
+        }
+        TrackingIntLongHashMap subMap = pages[pageIndex];
+        if (subMap != null) {
+            return subMap;
+        }
+        return forceNewSubMap(pageIndex);
+    }
+
+    private synchronized TrackingIntLongHashMap growNewSubMap(int pageIndex) {
+        if (pageIndex >= pages.length) {
+            long allocated = sizeOfObjectArray(1 + pageIndex) - sizeOfObjectArray(pages.length);
+            tracker.add(allocated);
+            pages = Arrays.copyOf(pages, 1 + pageIndex);
+        }
+        return forceNewSubMap(pageIndex);
+    }
+
+    private synchronized TrackingIntLongHashMap forceNewSubMap(int pageIndex) {
+        TrackingIntLongHashMap subMap = pages[pageIndex];
+        if (subMap == null) {
+            subMap = new TrackingIntLongHashMap(tracker);
+            pages[pageIndex] = subMap;
+        }
+        return subMap;
+    }
+
+    public OptionalLong getMaxValue() {
+        long[][] densePages = this.densePages;
+        return parallelStream(IntStream.range(0, pages.length), concurrency, stream -> stream
+                .mapToObj(pageIndex -> {
+                    long[] densePage = densePages != null && pageIndex < densePages.length
+                        ? densePages[pageIndex]
+                        : null;
+                    if (densePage != null) {
+                        long[] bits = densePageBits[pageIndex];
+                        return IntStream.range(0, densePage.length)
+                            .filter(indexInPage -> hasBit(bits, indexInPage))
+                            .mapToLong(indexInPage -> densePage[indexInPage]);
+                    }
+                    TrackingIntLongHashMap page = pages[pageIndex];
+                    return page != null ? page.getValuesAsStream() : LongStream.empty();
+                })
+                .flatMapToLong(Function.identity())
+                .max());
+    }
+
+    public long release() {
+        if (pages != null) {
+            TrackingIntLongHashMap[] pages = this.pages;
+            this.pages = null;
+            long released = sizeOfObjectArray(pages.length);
+            for (TrackingIntLongHashMap page : pages) {
+                if (page != null) {
+                    released += page.instanceSize();
+                }
+            }
+            long[][] densePages = this.densePages;
+            if (densePages != null) {
+                long[][] densePageBits = this.densePageBits;
+                this.densePages = null;
+                this.densePageBits = null;
+                this.densePageSizes = null;
+                released += 2 * sizeOfObjectArray(densePages.length) + sizeOfIntArray(densePages.length);
+                for (int pageIndex = 0; pageIndex < densePages.length; pageIndex++) {
+                    if (densePages[pageIndex] != null) {
+                        released += sizeOfLongArray(densePages[pageIndex].length);
+                        released += sizeOfLongArray(densePageBits[pageIndex].length);
+                    }
+                }
+            }
+            tracker.remove(released);
+            return released;
+        }
+        return 0L;
+    }
+
+    private static int pageIndex(long index) {
+        return (int) (index >>> PAGE_SHIFT);
+    }
+
+    private static int indexInPage(long index) {
+        return (int) (index & PAGE_MASK);
+    }
+}
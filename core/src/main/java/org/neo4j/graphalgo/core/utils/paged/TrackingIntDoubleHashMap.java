@@ -96,6 +96,22 @@ final class TrackingIntDoubleHashMap extends IntDoubleHashMap {
         return instanceSize.sum();
     }
 
+    /**
+     * Drops the buffers once the values of this map have been moved to a dense page.
+     * The map is only used as a lock afterwards and must not be read.
+     *
+     * @return the number of released bytes
+     */
+    long dropBuffers() {
+        long released = instanceSize.sumThenReset();
+        tracker.remove(released);
+        keys = null;
+        values = null;
+        assigned = 0;
+        hasEmptyKey = false;
+        return released;
+    }
+
     public synchronized void putSync(int key, double value) {
         put(key, value);
     }
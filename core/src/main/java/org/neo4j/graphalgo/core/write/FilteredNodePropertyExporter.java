@@ -19,16 +19,16 @@
  */
 package org.neo4j.graphalgo.core.write;
 
-import com.carrotsearch.hppc.BitSet;
 import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.loading.GraphStore;
 import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
-import org.neo4j.graphalgo.core.utils.SetBitsIterable;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.internal.kernel.api.Write;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.util.Collection;
 import java.util.List;
@@ -84,13 +84,15 @@ final class FilteredNodePropertyExporter extends NodePropertyExporter {
         }
     }
 
-    private void writeSequentialFiltered(BitSet nodeLabelBits, WriteConsumer writer) {
+    private void writeSequentialFiltered(Roaring64NavigableMap nodeLabelBits, WriteConsumer writer) {
         acceptInTransaction(stmt -> {
             terminationFlag.assertRunning();
             long progress = 0L;
             Write ops = stmt.dataWrite();
 
-            for (long nodeId : new SetBitsIterable(nodeLabelBits)) {
+            LongIterator nodeIds = nodeLabelBits.getLongIterator();
+            while (nodeIds.hasNext()) {
+                long nodeId = nodeIds.next();
                 writer.accept(ops, nodeId);
                 ++progress;
                 if (progress % TerminationFlag.RUN_CHECK_NODE_COUNT == 0) {
@@ -105,7 +107,7 @@ final class FilteredNodePropertyExporter extends NodePropertyExporter {
         });
     }
 
-    private void writeParallelFiltered(BitSet nodeLabelBits, WriteConsumer writer) {
+    private void writeParallelFiltered(Roaring64NavigableMap nodeLabelBits, WriteConsumer writer) {
         final long batchSize = ParallelUtil.adjustedBatchSize(
             nodeCount,
             concurrency,
@@ -122,7 +124,7 @@ final class FilteredNodePropertyExporter extends NodePropertyExporter {
                     long end = start + len;
                     Write ops = stmt.dataWrite();
                     for (long currentNode = start;
-                         currentNode < end && nodeLabelBits.get(currentNode);
+                         currentNode < end && nodeLabelBits.contains(currentNode);
                          currentNode++) {
                         writer.accept(ops, currentNode);
 
@@ -22,6 +22,9 @@ package org.neo4j.graphalgo;
 import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.compat.MapUtil;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.PropertyEncoding;
+
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -67,6 +70,28 @@ class PropertyMappingTest {
         assertEquals(propertyMapping.defaultValue(), 42.0);
     }
 
+    @Test
+    void testFromObjectWithEncoding() {
+        PropertyMapping propertyMapping = PropertyMapping.fromObject(
+            "transaction_count",
+            MapUtil.map(
+                "property", "usd",
+                "encoding", "dictionary"
+        ));
+        assertEquals(propertyMapping.encoding(), PropertyEncoding.DICTIONARY);
+        assertEquals(PropertyEncoding.DICTIONARY.name(), ((Map<?, ?>) propertyMapping.toObject(false).getValue()).get("encoding"));
+        assertEquals(PropertyEncoding.DICTIONARY, propertyMapping.resolveWith(0).encoding());
+    }
+
+    @Test
+    void failsOnUnknownEncoding() {
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class, () -> PropertyMapping.fromObject("transaction_count", MapUtil.map(
+                        "encoding", "zip"
+                )));
+        assertThat(ex.getMessage(), containsString("Property encoding `zip` is not supported."));
+    }
+
     @Test
     void failsOnWrongKeyType() {
         IllegalArgumentException ex = assertThrows(
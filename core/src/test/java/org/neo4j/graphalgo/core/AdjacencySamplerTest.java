@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdjacencySamplerTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (a)-[:TYPE]->(b)" +
+        ", (a)-[:TYPE]->(c)" +
+        ", (b)-[:TYPE]->(c)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @Test
+    void shouldMeasureAllAdjacencyListsWithFullSample() {
+        GraphDimensions dimensions = dimensions(1.0);
+        Map<Orientation, AdjacencySample> samples = dimensions.adjacencySamples().get(RelationshipType.of("TYPE"));
+        long nodeCount = dimensions.nodeCount();
+
+        // every non-empty list stores its degree in 4 bytes, every target delta fits into a single byte
+        assertEquals(3L, samples.get(Orientation.NATURAL).sampledNodes());
+        assertEquals(11L, samples.get(Orientation.NATURAL).expectedBytes(nodeCount));
+        assertEquals(11L, samples.get(Orientation.REVERSE).expectedBytes(nodeCount));
+        assertEquals(18L, samples.get(Orientation.UNDIRECTED).expectedBytes(nodeCount));
+
+        // sampling every node leaves no uncertainty
+        assertEquals(0L, samples.get(Orientation.NATURAL).marginOfError(nodeCount));
+    }
+
+    @Test
+    void shouldNotSampleByDefault() {
+        assertTrue(dimensions(0.0).adjacencySamples().isEmpty());
+    }
+
+    @Test
+    void shouldWidenConfidenceIntervalForPartialSamples() {
+        AdjacencySample sample = AdjacencySample.fromSums(10, 100, 1200);
+
+        assertEquals(10.0, sample.meanBytes());
+        assertEquals(200.0 / 9, sample.varianceBytes(), 1e-9);
+        assertEquals(1000L, sample.expectedBytes(100));
+        // 1.96 * 100 * sqrt(200 / 9 / 10 * (1 - 10 / 100))
+        assertEquals(278L, sample.marginOfError(100));
+        assertEquals(0L, sample.marginOfError(10));
+    }
+
+    private GraphDimensions dimensions(double samplingRatio) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .addNodeLabel("Node")
+            .addRelationshipType("TYPE")
+            .estimationSamplingRatio(samplingRatio)
+            .build()
+            .build(NativeFactory.class)
+            .dimensions();
+    }
+}
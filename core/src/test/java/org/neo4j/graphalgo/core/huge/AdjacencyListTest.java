@@ -20,6 +20,9 @@
 package org.neo4j.graphalgo.core.huge;
 
 import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.core.AdjacencySample;
 import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.utils.BitUtil;
@@ -27,7 +30,10 @@ import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphalgo.core.huge.AdjacencyList.PAGE_MASK;
 import static org.neo4j.graphalgo.core.huge.AdjacencyList.PAGE_SHIFT;
 import static org.neo4j.graphalgo.core.huge.AdjacencyList.computeAdjacencyByteSize;
@@ -59,6 +65,55 @@ class AdjacencyListTest {
         assertEquals(expected, memRec.memoryUsage());
     }
 
+    @Test
+    void shouldComputeSampledMemoryEstimation() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder()
+            .nodeCount(100_000_000L)
+            .maxRelCount(100_000_000_000L)
+            .putAdjacencySample(
+                RelationshipType.ALL_RELATIONSHIPS,
+                Map.of(Orientation.NATURAL, AdjacencySample.fromSums(1_000_000L, 2_000_000_000.0, 4_100_000_000_000.0))
+            )
+            .build();
+
+        MemoryTree memRec = AdjacencyList
+            .compressedMemoryEstimation(RelationshipType.ALL_RELATIONSHIPS, Orientation.NATURAL)
+            .estimate(dimensions, 1);
+
+        AdjacencySample sample = dimensions.adjacencySamples().get(RelationshipType.ALL_RELATIONSHIPS).get(Orientation.NATURAL);
+        long expectedAdjacencySize = 200_000_000_000L;
+        long marginOfError = sample.marginOfError(100_000_000L);
+        assertEquals(expectedAdjacencySize, sample.expectedBytes(100_000_000L));
+
+        long classSize = 24;
+        int minPages = PageUtil.numPagesFor(expectedAdjacencySize - marginOfError, PAGE_SHIFT, PAGE_MASK);
+        int maxPages = PageUtil.numPagesFor(expectedAdjacencySize + marginOfError, PAGE_SHIFT, PAGE_MASK);
+        long bytesPerPage = BitUtil.align(16 + 262144L, 8);
+        long minMemoryReqs = minPages * bytesPerPage + BitUtil.align(16 + minPages * 4, 8);
+        long maxMemoryReqs = maxPages * bytesPerPage + BitUtil.align(16 + maxPages * 4, 8);
+
+        assertEquals(MemoryRange.of(minMemoryReqs + classSize, maxMemoryReqs + classSize), memRec.memoryUsage());
+        // the sampled range is much narrower than the range between best and worst case
+        MemoryRange unsampled = AdjacencyList.compressedMemoryEstimation(false).estimate(dimensions, 1).memoryUsage();
+        assertTrue(memRec.memoryUsage().max - memRec.memoryUsage().min < (unsampled.max - unsampled.min) / 10);
+    }
+
+    @Test
+    void shouldFallBackToDegreeEstimationWithoutSample() {
+        GraphDimensions dimensions = ImmutableGraphDimensions.builder()
+            .nodeCount(100)
+            .maxRelCount(100)
+            .build();
+
+        assertEquals(
+            AdjacencyList.compressedMemoryEstimation(false).estimate(dimensions, 1).memoryUsage(),
+            AdjacencyList
+                .compressedMemoryEstimation(RelationshipType.ALL_RELATIONSHIPS, Orientation.NATURAL)
+                .estimate(dimensions, 1)
+                .memoryUsage()
+        );
+    }
+
     @Test
     void shouldComputeUncompressedMemoryEstimationForSinglePage() {
         GraphDimensions dimensions = ImmutableGraphDimensions.builder()
@@ -90,8 +145,9 @@ class AdjacencyListTest {
         MemoryTree memRec = AdjacencyList.compressedMemoryEstimation(false).estimate(dimensions, 1);
 
         long classSize = 24;
-        long bestCaseAdjacencySize = 100_500_000_000L;
-        long worstCaseAdjacencySize = 300_300_000_000L;
+        // includes 15 block index entries of 12 bytes for each node
+        long bestCaseAdjacencySize = 118_500_000_000L;
+        long worstCaseAdjacencySize = 318_300_000_000L;
 
         int minPages = PageUtil.numPagesFor(bestCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
         int maxPages = PageUtil.numPagesFor(worstCaseAdjacencySize, PAGE_SHIFT, PAGE_MASK);
@@ -136,8 +192,10 @@ class AdjacencyListTest {
         long relationshipByteSize = ceilDiv(64 - Long.numberOfLeadingZeros(delta - 1), 7);
         // int degreeByteSize = Integer.BYTES;
         int degreeByteSize = 4;
+        // one entry of (long, int) for every block of 64 targets but the first
+        long blockIndexByteSize = (ceilDiv(avgDegree, 64) - 1) * 12;
         long compressedAdjacencyByteSize = relationshipByteSize * (avgDegree - 1);
-        long expected = (degreeByteSize + firstAdjacencyIdAvgByteSize + compressedAdjacencyByteSize) * nodeCount;
+        long expected = (degreeByteSize + blockIndexByteSize + firstAdjacencyIdAvgByteSize + compressedAdjacencyByteSize) * nodeCount;
 
         assertEquals(expected, computeAdjacencyByteSize(avgDegree, nodeCount, delta));
     }
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipIntersect;
+import org.neo4j.graphalgo.core.loading.GraphStore;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class DeltaGraphTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node {id: 0})" +
+        ", (b:Node {id: 1})" +
+        ", (c:Node {id: 2})" +
+        ", (d:Node {id: 3})" +
+        ", (a)-[:TYPE {w: 1}]->(b)" +
+        ", (a)-[:TYPE {w: 2}]->(c)" +
+        ", (b)-[:TYPE {w: 3}]->(c)" +
+        ", (c)-[:TYPE {w: 4}]->(d)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Orientation.class, names = {"NATURAL", "UNDIRECTED"})
+    void shouldMergeUpdatesWithAdjacency(Orientation orientation) {
+        GraphStore graphStore = loadGraphStore(orientation);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+
+        graphStore.updateRelationships(relationshipType, updates -> {
+            updates.addRelationship(nodeId(1), nodeId(0), singletonMap("w", 5D));
+            updates.addRelationship(nodeId(3), nodeId(1));
+            updates.removeRelationship(nodeId(0), nodeId(2));
+        });
+        runQuery("MATCH (a:Node {id: 0})-[r:TYPE]->(c:Node {id: 2}) DELETE r");
+        runQuery("MATCH (b:Node {id: 1}), (a:Node {id: 0}) CREATE (b)-[:TYPE {w: 5}]->(a)");
+        runQuery("MATCH (d:Node {id: 3}), (b:Node {id: 1}) CREATE (d)-[:TYPE]->(b)");
+
+        Graph expected = loadGraphStore(orientation).getGraph(relationshipType, Optional.of("w"));
+        Graph updated = graphStore.getGraph(relationshipType, Optional.of("w"));
+
+        assertTrue(graphStore.hasPendingRelationshipUpdates(relationshipType));
+        assertEquals(expected.relationshipCount(), graphStore.relationshipCount(relationshipType));
+        assertSameAdjacency(expected, updated);
+
+        graphStore.compactRelationships(relationshipType, 4);
+
+        assertFalse(graphStore.hasPendingRelationshipUpdates(relationshipType));
+        assertEquals(expected.relationshipCount(), graphStore.topology(relationshipType).elementCount());
+        assertSameAdjacency(expected, graphStore.getGraph(relationshipType, Optional.of("w")));
+    }
+
+    @Test
+    void shouldRemoveAddedRelationships() {
+        GraphStore graphStore = loadGraphStore(Orientation.NATURAL);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+
+        graphStore.updateRelationships(relationshipType, updates -> updates.addRelationship(nodeId(3), nodeId(0)));
+        graphStore.updateRelationships(relationshipType, updates -> updates.removeRelationship(nodeId(3), nodeId(0)));
+
+        assertFalse(graphStore.hasPendingRelationshipUpdates(relationshipType));
+        assertEquals(4, graphStore.relationshipCount(relationshipType));
+    }
+
+    @Test
+    void shouldNotAffectPreviouslyCreatedGraphs() {
+        GraphStore graphStore = loadGraphStore(Orientation.NATURAL);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+        Graph graph = graphStore.getGraph(relationshipType);
+
+        graphStore.updateRelationships(relationshipType, updates -> {
+            updates.removeRelationship(nodeId(0), nodeId(1));
+            updates.addRelationship(nodeId(3), nodeId(0));
+        });
+
+        assertEquals(4, graph.relationshipCount());
+        assertTrue(graph.exists(graph.toMappedNodeId(nodeId(0)), graph.toMappedNodeId(nodeId(1))));
+
+        Graph updated = graphStore.getGraph(relationshipType);
+        assertEquals(4, updated.relationshipCount());
+        assertFalse(updated.exists(updated.toMappedNodeId(nodeId(0)), updated.toMappedNodeId(nodeId(1))));
+        assertTrue(updated.exists(updated.toMappedNodeId(nodeId(3)), updated.toMappedNodeId(nodeId(0))));
+        assertEquals(1, updated.degree(updated.toMappedNodeId(nodeId(0))));
+    }
+
+    @Test
+    void shouldMergeUpdatesIntoMaterializedSubgraphWithoutCompacting() {
+        runQuery("CREATE (:Other {id: 4})");
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .addNodeLabel("Node")
+            .addNodeLabel("Other")
+            .loadAnyRelationshipType()
+            .addRelationshipProperty(PropertyMapping.of("w", 0))
+            .build()
+            .graphStore(NativeFactory.class);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+
+        graphStore.updateRelationships(relationshipType, updates -> {
+            updates.addRelationship(nodeId(3), nodeId(0), singletonMap("w", 5D));
+            updates.removeRelationship(nodeId(0), nodeId(1));
+        });
+        Graph subgraph = graphStore.getGraph(
+            singletonList(NodeLabel.of("Node")),
+            singletonList(relationshipType),
+            Optional.of("w"),
+            1,
+            false,
+            true
+        );
+
+        assertTrue(graphStore.hasPendingRelationshipUpdates(relationshipType));
+        assertEquals(4, subgraph.nodeCount());
+        assertEquals(4, subgraph.relationshipCount());
+        long a = subgraph.toMappedNodeId(nodeId(0));
+        long b = subgraph.toMappedNodeId(nodeId(1));
+        long d = subgraph.toMappedNodeId(nodeId(3));
+        assertTrue(subgraph.exists(d, a));
+        assertEquals(5D, subgraph.relationshipProperty(d, a));
+        assertFalse(subgraph.exists(a, b));
+    }
+
+    @Test
+    void shouldVisitMergedTargetsInAscendingOrder() {
+        GraphStore graphStore = loadGraphStore(Orientation.NATURAL);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+
+        graphStore.updateRelationships(relationshipType, updates -> {
+            updates.addRelationship(nodeId(1), nodeId(3));
+            updates.addRelationship(nodeId(1), nodeId(0));
+            updates.addRelationship(nodeId(1), nodeId(2), singletonMap("w", 6D));
+        });
+        Graph graph = graphStore.getGraph(relationshipType, Optional.of("w"));
+
+        List<String> targets = new ArrayList<>();
+        graph.forEachRelationship(graph.toMappedNodeId(nodeId(1)), Double.NaN, (s, t, w) -> {
+            targets.add(graph.toOriginalNodeId(t) + ":" + w);
+            return true;
+        });
+        assertEquals(
+            List.of(nodeId(0) + ":0.0", nodeId(2) + ":3.0", nodeId(2) + ":6.0", nodeId(3) + ":0.0"),
+            targets
+        );
+    }
+
+    @Test
+    void shouldIntersectMergedAdjacency() {
+        GraphStore graphStore = loadGraphStore(Orientation.UNDIRECTED);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+
+        graphStore.updateRelationships(relationshipType, updates -> {
+            updates.addRelationship(nodeId(3), nodeId(0));
+            updates.removeRelationship(nodeId(0), nodeId(1));
+        });
+        Graph graph = graphStore.getGraph(relationshipType);
+
+        List<List<Long>> triangles = new ArrayList<>();
+        RelationshipIntersect intersect = graph.intersection();
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            intersect.intersectAll(nodeId, (a, b, c) -> triangles.add(LongStream
+                .of(a, b, c)
+                .map(graph::toOriginalNodeId)
+                .sorted()
+                .boxed()
+                .collect(Collectors.toList())));
+        }
+        assertEquals(List.of(List.of(nodeId(0), nodeId(2), nodeId(3))), triangles);
+    }
+
+    @Test
+    void shouldFailOnUnknownNodes() {
+        GraphStore graphStore = loadGraphStore(Orientation.NATURAL);
+        RelationshipType relationshipType = graphStore.relationshipTypes().iterator().next();
+
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> graphStore.updateRelationships(relationshipType, updates -> updates.addRelationship(nodeId(0), 1337L))
+        );
+        assertEquals("Failed to update relationship with unknown target-node id 1337.", ex.getMessage());
+        assertFalse(graphStore.hasPendingRelationshipUpdates(relationshipType));
+    }
+
+    private void assertSameAdjacency(Graph expected, Graph actual) {
+        assertGraphEquals(expected, actual);
+        for (long nodeId = 0; nodeId < expected.nodeCount(); nodeId++) {
+            long originalId = expected.toOriginalNodeId(nodeId);
+            long actualId = actual.toMappedNodeId(originalId);
+            assertEquals(expected.degree(nodeId), actual.degree(actualId));
+            assertEquals(neighbours(expected, nodeId, false), neighbours(actual, actualId, false));
+            if (expected.hasInverseIndex()) {
+                assertEquals(expected.inverseDegree(nodeId), actual.inverseDegree(actualId));
+                assertEquals(neighbours(expected, nodeId, true), neighbours(actual, actualId, true));
+            }
+        }
+    }
+
+    private Map<Long, Double> neighbours(Graph graph, long nodeId, boolean inverse) {
+        Map<Long, Double> neighbours = new HashMap<>();
+        if (inverse) {
+            graph.forEachInverseRelationship(nodeId, Double.NaN, (s, t, w) -> {
+                neighbours.put(graph.toOriginalNodeId(t), w);
+                return true;
+            });
+        } else {
+            graph.forEachRelationship(nodeId, Double.NaN, (s, t, w) -> {
+                neighbours.put(graph.toOriginalNodeId(t), w);
+                return true;
+            });
+        }
+        return neighbours;
+    }
+
+    private long nodeId(int id) {
+        return runQuery(
+            "MATCH (n:Node {id: $id}) RETURN id(n) AS nodeId",
+            singletonMap("id", id),
+            result -> (Long) result.next().get("nodeId")
+        );
+    }
+
+    private GraphStore loadGraphStore(Orientation orientation) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(orientation)
+            .addRelationshipProperty(PropertyMapping.of("w", 0))
+            .indexInverse(true)
+            .build()
+            .graphStore(NativeFactory.class);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.AdjacencyCursor;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.api.RelationshipWithPropertyConsumer;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class HugeAdjacencyCursorTest extends BaseTest {
+
+    // spans multiple blocks, with the last one being only partially filled
+    private static final int DEGREE = 10 * AdjacencyList.BLOCK_SIZE + 7;
+
+    @BeforeEach
+    void setup() {
+        runQuery(
+            "CREATE (hub:Hub) " +
+            "WITH hub " +
+            "UNWIND range(1, $degree) AS i " +
+            "CREATE (hub)-[:REL {weight: i}]->(:Leaf {id: i})",
+            Collections.singletonMap("degree", DEGREE)
+        );
+    }
+
+    @Test
+    void shouldReturnTargetsAndPropertiesInBatches() {
+        Graph graph = loadGraph(true);
+        long hub = graph.toMappedNodeId(0);
+        List<Long> expectedTargets = new ArrayList<>();
+        List<Double> expectedWeights = new ArrayList<>();
+        graph.forEachRelationship(hub, Double.NaN, (s, t, w) -> {
+            expectedTargets.add(t);
+            expectedWeights.add(w);
+            return true;
+        });
+
+        // the batch size is deliberately not aligned with the block size
+        long[] targets = new long[50];
+        double[] weights = new double[50];
+        AdjacencyCursor cursor = graph.adjacencyCursor(Double.NaN);
+        assertEquals(DEGREE, cursor.init(hub));
+
+        List<Long> actualTargets = new ArrayList<>();
+        List<Double> actualWeights = new ArrayList<>();
+        int count;
+        while ((count = cursor.nextBatch(targets, weights)) > 0) {
+            for (int i = 0; i < count; i++) {
+                actualTargets.add(targets[i]);
+                actualWeights.add(weights[i]);
+            }
+        }
+
+        assertEquals(expectedTargets, actualTargets);
+        assertEquals(expectedWeights, actualWeights);
+        assertFalse(cursor.hasNext());
+        assertEquals(AdjacencyCursor.NOT_FOUND, cursor.next());
+    }
+
+    @Test
+    void shouldPeekAndSkipAcrossBlocks() {
+        Graph graph = loadGraph(true);
+        long hub = graph.toMappedNodeId(0);
+        List<Long> expected = targets(graph, hub);
+
+        AdjacencyCursor cursor = graph.adjacencyCursor(Double.NaN);
+        cursor.init(hub);
+
+        assertEquals((long) expected.get(0), cursor.peek());
+        assertEquals((long) expected.get(0), cursor.next());
+        assertEquals(AdjacencyList.BLOCK_SIZE - 1, cursor.skip(AdjacencyList.BLOCK_SIZE - 1));
+        assertEquals((long) expected.get(AdjacencyList.BLOCK_SIZE), cursor.peek());
+        assertEquals(3 * AdjacencyList.BLOCK_SIZE + 5, cursor.skip(3 * AdjacencyList.BLOCK_SIZE + 5));
+
+        int position = 4 * AdjacencyList.BLOCK_SIZE + 5;
+        long[] targets = new long[3];
+        double[] weights = new double[3];
+        assertEquals(3, cursor.nextBatch(targets, weights));
+        for (int i = 0; i < 3; i++) {
+            assertEquals((long) expected.get(position + i), targets[i]);
+            assertEquals((double) graph.toOriginalNodeId(targets[i]), weights[i]);
+        }
+
+        assertEquals(DEGREE - position - 3, cursor.remaining());
+        assertEquals(DEGREE - position - 3, cursor.skip(DEGREE));
+        assertEquals(AdjacencyCursor.NOT_FOUND, cursor.peek());
+        assertEquals(0, cursor.nextBatch(targets));
+    }
+
+    @Test
+    void shouldUseFallbackValueWithoutProperties() {
+        Graph graph = loadGraph(false);
+        long hub = graph.toMappedNodeId(0);
+
+        long[] targets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        double[] weights = new double[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        AdjacencyCursor cursor = graph.adjacencyCursor(42.0);
+        cursor.init(hub);
+        int count = cursor.nextBatch(targets, weights);
+
+        assertEquals(AdjacencyCursor.DEFAULT_BATCH_SIZE, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(42.0, weights[i]);
+        }
+    }
+
+    @Test
+    void shouldBeEmptyForNodesWithoutRelationships() {
+        Graph graph = loadGraph(true);
+        long hub = graph.toMappedNodeId(0);
+        long leaf = targets(graph, hub).get(0);
+
+        AdjacencyCursor cursor = graph.adjacencyCursor(Double.NaN);
+        cursor.init(hub);
+        assertTrue(cursor.hasNext());
+
+        assertEquals(0, cursor.init(leaf));
+        assertFalse(cursor.hasNext());
+        assertEquals(0, cursor.skip(1));
+        assertEquals(AdjacencyCursor.NOT_FOUND, cursor.next());
+    }
+
+    @Test
+    void shouldMatchDefaultCursor() {
+        Graph graph = loadGraph(true);
+        long hub = graph.toMappedNodeId(0);
+        // an iterator without a native cursor falls back to buffering the relationships
+        RelationshipIterator delegate = new RelationshipIterator() {
+            @Override
+            public void forEachRelationship(long nodeId, RelationshipConsumer consumer) {
+                graph.forEachRelationship(nodeId, consumer);
+            }
+
+            @Override
+            public void forEachRelationship(
+                long nodeId,
+                double fallbackValue,
+                RelationshipWithPropertyConsumer consumer
+            ) {
+                graph.forEachRelationship(nodeId, fallbackValue, consumer);
+            }
+
+            @Override
+            public boolean exists(long sourceNodeId, long targetNodeId) {
+                return graph.exists(sourceNodeId, targetNodeId);
+            }
+        };
+
+        AdjacencyCursor nativeCursor = graph.adjacencyCursor(Double.NaN);
+        AdjacencyCursor defaultCursor = delegate.adjacencyCursor(Double.NaN);
+        assertEquals(nativeCursor.init(hub), defaultCursor.init(hub));
+        assertEquals(nativeCursor.skip(100), defaultCursor.skip(100));
+        assertEquals(nativeCursor.peek(), defaultCursor.peek());
+
+        long[] nativeTargets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        double[] nativeWeights = new double[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        long[] defaultTargets = new long[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        double[] defaultWeights = new double[AdjacencyCursor.DEFAULT_BATCH_SIZE];
+        int count;
+        while ((count = nativeCursor.nextBatch(nativeTargets, nativeWeights)) > 0) {
+            assertEquals(count, defaultCursor.nextBatch(defaultTargets, defaultWeights));
+            for (int i = 0; i < count; i++) {
+                assertEquals(nativeTargets[i], defaultTargets[i]);
+                assertEquals(nativeWeights[i], defaultWeights[i]);
+            }
+        }
+        assertFalse(defaultCursor.hasNext());
+    }
+
+    private List<Long> targets(Graph graph, long nodeId) {
+        List<Long> targets = new ArrayList<>();
+        graph.forEachRelationship(nodeId, (s, t) -> targets.add(t));
+        return targets;
+    }
+
+    private Graph loadGraph(boolean withProperty) {
+        StoreLoaderBuilder builder = new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType();
+        if (withProperty) {
+            builder.addRelationshipProperty(PropertyMapping.of("weight", 0));
+        }
+        return builder.build().load(NativeFactory.class);
+    }
+}
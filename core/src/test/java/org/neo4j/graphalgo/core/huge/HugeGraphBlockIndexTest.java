@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class HugeGraphBlockIndexTest extends BaseTest {
+
+    // spans multiple blocks, with the last one being only partially filled
+    private static final int DEGREE = 10 * AdjacencyList.BLOCK_SIZE + 7;
+
+    @BeforeEach
+    void setup() {
+        runQuery(
+            "CREATE (hub:Hub) " +
+            "WITH hub " +
+            "UNWIND range(1, $degree) AS i " +
+            "CREATE (hub)-[:REL {weight: i}]->(:Leaf {id: i})",
+            Collections.singletonMap("degree", DEGREE)
+        );
+    }
+
+    @Test
+    void shouldFindAllTargetsOfHighDegreeNode() {
+        Graph graph = loadGraph();
+        long hub = graph.toMappedNodeId(0);
+        List<Long> targets = targets(graph, hub);
+
+        assertEquals(DEGREE, graph.degree(hub));
+        for (int i = 0; i < targets.size(); i++) {
+            long target = targets.get(i);
+            assertTrue(graph.exists(hub, target));
+            assertEquals(target, graph.getTarget(hub, i));
+            assertEquals(
+                (double) graph.toOriginalNodeId(target),
+                graph.relationshipProperty(hub, target, Double.NaN)
+            );
+        }
+        assertEquals(HugeGraph.GetTargetConsumer.TARGET_NOT_FOUND, graph.getTarget(hub, DEGREE));
+    }
+
+    @Test
+    void shouldNotFindMissingTargets() {
+        Graph graph = loadGraph();
+        long hub = graph.toMappedNodeId(0);
+
+        assertFalse(graph.exists(hub, hub));
+        assertFalse(graph.exists(targets(graph, hub).get(0), hub));
+        assertEquals(42.0, graph.relationshipProperty(hub, hub, 42.0));
+    }
+
+    @Test
+    void shouldSkipAcrossBlocks() {
+        Graph graph = loadGraph();
+        long hub = graph.toMappedNodeId(0);
+        List<Long> targets = targets(graph, hub);
+        HugeGraph hugeGraph = (HugeGraph) graph;
+
+        AdjacencyList.DecompressingCursor cursor = hugeGraph.relationships().topology().list().decompressingCursor(
+            hugeGraph.relationships().topology().offsets().get(hub)
+        );
+        int index = 5 * AdjacencyList.BLOCK_SIZE + 3;
+        assertEquals((long) targets.get(index), cursor.advance(targets.get(index)));
+        assertEquals((long) targets.get(index + 1), cursor.skipUntil(targets.get(index)));
+        assertEquals((long) targets.get(index + 2), cursor.nextVLong());
+        assertEquals((long) targets.get(DEGREE - 1), cursor.advance(targets.get(DEGREE - 1)));
+        assertFalse(cursor.hasNextVLong());
+    }
+
+    private List<Long> targets(Graph graph, long nodeId) {
+        List<Long> targets = new ArrayList<>();
+        graph.forEachRelationship(nodeId, (s, t) -> targets.add(t));
+        return targets;
+    }
+
+    private Graph loadGraph() {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .addRelationshipProperty(PropertyMapping.of("weight", 0))
+            .build()
+            .load(NativeFactory.class);
+    }
+}
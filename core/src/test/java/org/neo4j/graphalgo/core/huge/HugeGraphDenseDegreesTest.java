@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.loading.GraphStore;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class HugeGraphDenseDegreesTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:A)" +
+        ", (b:A)" +
+        ", (c:B)" +
+        ", (d:B)" +
+        ", (e:B)" +
+        ", (a)-[:T1]->(b)" +
+        ", (a)-[:T1]->(c)" +
+        ", (a)-[:T2]->(d)" +
+        ", (b)-[:T1]->(c)" +
+        ", (c)-[:T2]->(a)" +
+        ", (d)-[:T2]->(a)";
+
+    private static final List<RelationshipType> TYPES = Arrays.asList(RelationshipType.of("T1"), RelationshipType.of("T2"));
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @Test
+    void shouldStoreDegreeColumns() {
+        GraphStore graphStore = loadGraphStore(Orientation.NATURAL, true);
+
+        for (RelationshipType type : TYPES) {
+            HugeGraph.TopologyCSR topology = graphStore.topology(type);
+            assertTrue(topology.degrees().isPresent());
+            assertTrue(topology.inverseDegrees().isPresent());
+        }
+        assertFalse(loadGraphStore(Orientation.NATURAL, false).topology(TYPES.get(0)).degrees().isPresent());
+    }
+
+    @Test
+    void shouldReturnSameDegrees() {
+        for (Orientation orientation : Orientation.values()) {
+            GraphStore expected = loadGraphStore(orientation, false);
+            GraphStore actual = loadGraphStore(orientation, true);
+
+            assertSameDegrees(expected.getGraph(TYPES.get(0)), actual.getGraph(TYPES.get(0)));
+            assertSameDegrees(expected.getUnion(), actual.getUnion());
+
+            List<NodeLabel> labels = Collections.singletonList(NodeLabel.of("B"));
+            assertSameDegrees(
+                expected.getGraph(labels, TYPES, Optional.empty(), 1),
+                actual.getGraph(labels, TYPES, Optional.empty(), 1)
+            );
+        }
+    }
+
+    @Test
+    void shouldKeepDegreeColumnsInGraphStoreOfGraph() {
+        HugeGraph graph = (HugeGraph) loadGraphStore(Orientation.NATURAL, true).getGraph(TYPES.get(0));
+        GraphStore graphStore = GraphStore.of(graph, "T1", Optional.empty(), AllocationTracker.EMPTY);
+
+        HugeGraph.TopologyCSR topology = graphStore.topology(TYPES.get(0));
+        assertTrue(topology.degrees().isPresent());
+        assertTrue(topology.inverseDegrees().isPresent());
+        assertSameDegrees(graph, graphStore.getGraph(TYPES.get(0)));
+    }
+
+    @Test
+    void shouldShareDegreesWithConcurrentCopies() {
+        Graph graph = loadGraphStore(Orientation.NATURAL, true).getGraph(TYPES.get(0));
+
+        assertSameDegrees(graph, graph.concurrentCopy());
+    }
+
+    private void assertSameDegrees(Graph expected, Graph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (long nodeId = 0; nodeId < expected.nodeCount(); nodeId++) {
+            assertEquals(expected.degree(nodeId), actual.degree(nodeId));
+            if (expected.hasInverseIndex()) {
+                assertEquals(expected.inverseDegree(nodeId), actual.inverseDegree(nodeId));
+            }
+        }
+    }
+
+    private GraphStore loadGraphStore(Orientation orientation, boolean denseDegrees) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .addNodeLabel("A")
+            .addNodeLabel("B")
+            .addRelationshipType("T1")
+            .addRelationshipType("T2")
+            .globalOrientation(orientation)
+            .indexInverse(true)
+            .denseDegrees(denseDegrees)
+            .build()
+            .graphStore(NativeFactory.class);
+    }
+}
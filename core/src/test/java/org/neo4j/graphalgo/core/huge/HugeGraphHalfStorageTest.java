@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.AdjacencyCursor;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipIntersect;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.loading.GraphStore;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+final class HugeGraphHalfStorageTest extends BaseTest {
+
+    // contains relationships in both directions, parallel relationships and a self-loop
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (a)-[:TYPE {prop: 1}]->(b)" +
+        ", (c)-[:TYPE {prop: 2}]->(a)" +
+        ", (d)-[:TYPE {prop: 3}]->(b)" +
+        ", (d)-[:TYPE {prop: 4}]->(b)" +
+        ", (b)-[:TYPE {prop: 5}]->(c)" +
+        ", (c)-[:TYPE {prop: 6}]->(c)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldPresentSymmetricView(boolean loadProperties) {
+        Graph expected = loadGraph(false, loadProperties);
+        Graph actual = loadGraph(true, loadProperties);
+
+        assertGraphEquals(expected, actual);
+        assertEquals(expected.relationshipCount(), actual.relationshipCount());
+        for (long nodeId = 0; nodeId < expected.nodeCount(); nodeId++) {
+            assertEquals(expected.degree(nodeId), actual.degree(nodeId));
+            assertEquals(neighbours(expected, nodeId), neighbours(actual, nodeId));
+            assertEquals(cursorNeighbours(expected, nodeId), cursorNeighbours(actual, nodeId));
+            for (int index = 0; index < expected.degree(nodeId); index++) {
+                assertEquals(expected.getTarget(nodeId, index), actual.getTarget(nodeId, index));
+            }
+        }
+    }
+
+    @Test
+    void shouldLookupRelationshipsInBothDirections() {
+        Graph graph = loadGraph(true, true);
+
+        long a = graph.toMappedNodeId(0);
+        long c = graph.toMappedNodeId(2);
+        long d = graph.toMappedNodeId(3);
+
+        assertTrue(graph.exists(a, c));
+        assertTrue(graph.exists(c, a));
+        assertTrue(graph.exists(c, c));
+        assertFalse(graph.exists(a, d));
+        assertEquals(2.0, graph.relationshipProperty(a, c));
+        assertEquals(2.0, graph.relationshipProperty(c, a));
+        assertEquals(6.0, graph.relationshipProperty(c, c));
+    }
+
+    @Test
+    void shouldIntersectTheStoredHalfWithoutIndexingLowerNeighbours() {
+        GraphStore graphStore = loader(true, false).build().graphStore(NativeFactory.class);
+        Graph graph = graphStore.getUnion();
+        LowerNeighbours lowerNeighbours = graphStore
+            .topology(graphStore.relationshipTypes().iterator().next())
+            .lowerNeighbours()
+            .orElseThrow();
+
+        assertEquals(List.of("0:1:2"), triangles(graph));
+        assertEquals(4, graph.degree(graph.toMappedNodeId(1)));
+        assertFalse(lowerNeighbours.isIndexed());
+
+        graph.forEachRelationship(graph.toMappedNodeId(1), (s, t) -> true);
+        assertTrue(lowerNeighbours.isIndexed());
+    }
+
+    @ParameterizedTest
+    @EnumSource(NodeOrdering.class)
+    void shouldRetainHalfStorageWhenReordering(NodeOrdering ordering) {
+        Graph expected = loadGraph(false, true);
+        Graph actual = loader(true, true).nodeOrdering(ordering).build().load(NativeFactory.class);
+
+        assertGraphEquals(expected, actual);
+        assertEquals(List.of("0:1:2"), triangles(actual));
+        for (long originalId = 0; originalId < expected.nodeCount(); originalId++) {
+            long expectedId = expected.toMappedNodeId(originalId);
+            long actualId = actual.toMappedNodeId(originalId);
+            assertEquals(expected.degree(expectedId), actual.degree(actualId));
+            assertEquals(neighbours(expected, expectedId), neighbours(actual, actualId));
+        }
+    }
+
+    private List<String> triangles(Graph graph) {
+        List<String> triangles = new ArrayList<>();
+        RelationshipIntersect intersect = graph.intersection();
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            intersect.intersectAll(nodeId, (a, b, c) -> {
+                long[] originalIds = {graph.toOriginalNodeId(a), graph.toOriginalNodeId(b), graph.toOriginalNodeId(c)};
+                Arrays.sort(originalIds);
+                triangles.add(originalIds[0] + ":" + originalIds[1] + ":" + originalIds[2]);
+            });
+        }
+        return triangles;
+    }
+
+    // parallel relationships may be visited in any order
+    private List<String> neighbours(Graph graph, long nodeId) {
+        List<String> neighbours = new ArrayList<>();
+        graph.forEachRelationship(nodeId, Double.NaN, (s, t, w) -> {
+            neighbours.add(graph.toOriginalNodeId(t) + ":" + w);
+            return true;
+        });
+        neighbours.sort(null);
+        return neighbours;
+    }
+
+    private List<String> cursorNeighbours(Graph graph, long nodeId) {
+        List<String> neighbours = new ArrayList<>();
+        AdjacencyCursor cursor = graph.adjacencyCursor(Double.NaN);
+        cursor.init(nodeId);
+        long[] targets = new long[2];
+        double[] properties = new double[2];
+        int count;
+        while ((count = cursor.nextBatch(targets, properties)) > 0) {
+            for (int i = 0; i < count; i++) {
+                neighbours.add(graph.toOriginalNodeId(targets[i]) + ":" + properties[i]);
+            }
+        }
+        neighbours.sort(null);
+        return neighbours;
+    }
+
+    private Graph loadGraph(boolean halfUndirectedStorage, boolean loadProperties) {
+        return loader(halfUndirectedStorage, loadProperties).build().load(NativeFactory.class);
+    }
+
+    private StoreLoaderBuilder loader(boolean halfUndirectedStorage, boolean loadProperties) {
+        StoreLoaderBuilder loader = new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(Orientation.UNDIRECTED)
+            .halfUndirectedStorage(halfUndirectedStorage);
+        if (loadProperties) {
+            loader.addRelationshipProperty(PropertyMapping.of("prop", 0));
+        }
+        return loader;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class HugeGraphInverseIndexTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (a)-[:TYPE {prop: 1}]->(b)" +
+        ", (a)-[:TYPE {prop: 2}]->(c)" +
+        ", (d)-[:TYPE {prop: 3}]->(c)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @Test
+    void shouldTraverseIncomingRelationshipsOfNaturalGraph() {
+        Graph graph = loadGraph(Orientation.NATURAL, true);
+
+        assertTrue(graph.hasInverseIndex());
+
+        long c = graph.toMappedNodeId(2);
+        assertEquals(2, graph.degree(graph.toMappedNodeId(0)));
+        assertEquals(0, graph.degree(c));
+        assertEquals(2, graph.inverseDegree(c));
+        assertEquals(Map.of(0L, 2.0, 3L, 3.0), inverseNeighbours(graph, c));
+        assertEquals(Map.of(), inverseNeighbours(graph, graph.toMappedNodeId(0)));
+    }
+
+    @Test
+    void shouldTraverseOutgoingRelationshipsOfReverseGraph() {
+        Graph graph = loadGraph(Orientation.REVERSE, true);
+
+        assertTrue(graph.hasInverseIndex());
+
+        long a = graph.toMappedNodeId(0);
+        assertEquals(0, graph.degree(a));
+        assertEquals(2, graph.inverseDegree(a));
+        assertEquals(Map.of(1L, 1.0, 2L, 2.0), inverseNeighbours(graph, a));
+    }
+
+    @Test
+    void shouldUseForwardAdjacencyForUndirectedGraph() {
+        Graph graph = loadGraph(Orientation.UNDIRECTED, true);
+
+        assertTrue(graph.hasInverseIndex());
+
+        long c = graph.toMappedNodeId(2);
+        assertEquals(graph.degree(c), graph.inverseDegree(c));
+        assertEquals(Map.of(0L, 2.0, 3L, 3.0), inverseNeighbours(graph, c));
+    }
+
+    @Test
+    void shouldFailWithoutInverseIndex() {
+        Graph graph = loadGraph(Orientation.NATURAL, false);
+
+        assertFalse(graph.hasInverseIndex());
+        assertThrows(UnsupportedOperationException.class, () -> graph.inverseDegree(0));
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> graph.forEachInverseRelationship(0, (s, t) -> true)
+        );
+    }
+
+    private Map<Long, Double> inverseNeighbours(Graph graph, long nodeId) {
+        Map<Long, Double> neighbours = new HashMap<>();
+        graph.forEachInverseRelationship(nodeId, Double.NaN, (s, t, w) -> {
+            assertEquals(nodeId, s);
+            neighbours.put(graph.toOriginalNodeId(t), w);
+            return true;
+        });
+        return neighbours;
+    }
+
+    private Graph loadGraph(Orientation orientation, boolean indexInverse) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(orientation)
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .indexInverse(indexInverse)
+            .build()
+            .load(NativeFactory.class);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+final class OffHeapAdjacencyListTest extends BaseTest {
+
+    private static final int DEGREE = 3 * AdjacencyList.BLOCK_SIZE + 5;
+
+    @BeforeEach
+    void setup() {
+        runQuery(
+            "CREATE (hub:Hub) " +
+            "WITH hub " +
+            "UNWIND range(1, $degree) AS i " +
+            "CREATE (hub)-[:REL {weight: i}]->(leaf:Leaf {id: i}) " +
+            "CREATE (leaf)-[:REL {weight: -i}]->(hub)",
+            Collections.singletonMap("degree", DEGREE)
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PageStorage.class, names = {"DIRECT", "MAPPED"})
+    void shouldReadSameGraphAsFromHeap(PageStorage pageStorage) {
+        Graph expected = loadGraph(PageStorage.HEAP, AllocationTracker.EMPTY);
+        Graph actual = loadGraph(pageStorage, AllocationTracker.EMPTY);
+
+        assertGraphEquals(expected, actual);
+
+        long hub = actual.toMappedNodeId(0);
+        assertEquals(DEGREE, actual.degree(hub));
+        for (int i = 0; i < DEGREE; i++) {
+            long target = actual.getTarget(hub, i);
+            assertTrue(actual.exists(hub, target));
+            assertTrue(actual.exists(target, hub));
+            assertEquals((double) actual.toOriginalNodeId(target), actual.relationshipProperty(hub, target, Double.NaN));
+            assertEquals((double) -actual.toOriginalNodeId(target), actual.relationshipProperty(target, hub, Double.NaN));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(PageStorage.class)
+    void shouldTrackOffHeapMemory(PageStorage pageStorage) {
+        AllocationTracker tracker = AllocationTracker.create();
+        loadGraph(pageStorage, tracker);
+
+        if (pageStorage == PageStorage.HEAP) {
+            assertEquals(0L, tracker.trackedOffHeap());
+        } else {
+            assertTrue(tracker.trackedOffHeap() > 0L);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PageStorage.class, names = {"DIRECT", "MAPPED"})
+    void shouldNotKeepFilledPagesOnTheHeap(PageStorage pageStorage) {
+        AllocationTracker heapTracker = AllocationTracker.create();
+        loadGraph(PageStorage.HEAP, heapTracker);
+        AllocationTracker offHeapTracker = AllocationTracker.create();
+        loadGraph(pageStorage, offHeapTracker);
+
+        // the adjacency and the weights occupy at least one page each
+        assertTrue(heapTracker.tracked() - offHeapTracker.tracked() >= 2L * AdjacencyList.PAGE_SIZE);
+    }
+
+    private Graph loadGraph(PageStorage pageStorage, AllocationTracker tracker) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .tracker(tracker)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .addRelationshipProperty(PropertyMapping.of("weight", 0))
+            .pageStorage(pageStorage)
+            .build()
+            .load(NativeFactory.class);
+    }
+}
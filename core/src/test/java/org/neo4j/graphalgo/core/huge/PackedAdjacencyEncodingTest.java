@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.RelationshipProjection;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.AdjacencyEncoding;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+final class PackedAdjacencyEncodingTest extends BaseTest {
+
+    private static final int LEAF_COUNT = 2000;
+
+    @BeforeEach
+    void setup() {
+        // the hub is connected to runs of consecutive leaves with a few large gaps in between,
+        // so that the blocks are packed with different bit widths
+        runQuery(
+            "CREATE (hub:Hub) " +
+            "WITH hub " +
+            "UNWIND range(1, $leafCount) AS i " +
+            "CREATE (leaf:Leaf {id: i}) " +
+            "WITH hub, leaf, i " +
+            "WHERE i % 3 = 0 OR i < 100 OR i > 1900 OR i IN [1234, 1500] " +
+            "CREATE (hub)-[:REL]->(leaf), (leaf)-[:REL]->(hub)",
+            Collections.singletonMap("leafCount", LEAF_COUNT)
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(PageStorage.class)
+    void shouldDecodeTheSameGraph(PageStorage pageStorage) {
+        Graph expected = loadGraph(AdjacencyEncoding.VAR_LONG, pageStorage);
+        Graph actual = loadGraph(AdjacencyEncoding.PACKED, pageStorage);
+
+        assertGraphEquals(expected, actual);
+        for (long nodeId = 0; nodeId < expected.nodeCount(); nodeId++) {
+            assertEquals(targets(expected, nodeId), targets(actual, nodeId));
+            assertEquals(expected.degree(nodeId), actual.degree(nodeId));
+        }
+    }
+
+    @Test
+    void shouldSkipWithinPackedBlocks() {
+        Graph graph = loadGraph(AdjacencyEncoding.PACKED, PageStorage.HEAP);
+        long hub = graph.toMappedNodeId(0);
+        List<Long> targets = targets(graph, hub);
+
+        assertTrue(targets.size() > 10 * AdjacencyList.BLOCK_SIZE);
+        for (int index = 0; index < targets.size(); index += 37) {
+            assertEquals((long) targets.get(index), graph.getTarget(hub, index));
+            assertTrue(graph.exists(hub, targets.get(index)));
+        }
+        // leaf 1001 is not connected to the hub
+        assertFalse(graph.exists(hub, graph.toMappedNodeId(1001)));
+    }
+
+    @Test
+    void shouldFailOnUnknownEncoding() {
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> RelationshipProjection.fromMap(Map.of("adjacencyEncoding", "zip"), RelationshipType.of("REL"))
+        );
+        assertEquals(
+            "Adjacency encoding `zip` is not supported. Must be one of: VAR_LONG, PACKED.",
+            ex.getMessage()
+        );
+    }
+
+    private List<Long> targets(Graph graph, long nodeId) {
+        List<Long> targets = new ArrayList<>();
+        graph.forEachRelationship(nodeId, (s, t) -> {
+            targets.add(t);
+            return true;
+        });
+        return targets;
+    }
+
+    private Graph loadGraph(AdjacencyEncoding encoding, PageStorage pageStorage) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .addRelationshipProjection(RelationshipProjection.builder()
+                .type("REL")
+                .orientation(Orientation.NATURAL)
+                .adjacencyEncoding(encoding)
+                .build())
+            .pageStorage(pageStorage)
+            .build()
+            .load(NativeFactory.class);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.ImmutablePropertyMapping;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.PropertyEncoding;
+import org.neo4j.graphalgo.core.loading.NativeFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class RelationshipPropertyEncodingTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (a)-[:TYPE {weight: 0.5, constant: 1.0}]->(b)" +
+        ", (a)-[:TYPE {weight: 1.25, constant: 1.0}]->(c)" +
+        ", (b)-[:TYPE {weight: 0.5}]->(c)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PropertyEncoding.class, names = {"DOUBLE", "FLOAT", "QUANTIZED", "DICTIONARY"})
+    void shouldDecodeRelationshipProperties(PropertyEncoding encoding) {
+        Graph graph = loadGraph(mapping("weight", 0.0, encoding));
+
+        Map<String, Double> expected = new HashMap<>();
+        expected.put("0->1", 0.5);
+        expected.put("0->2", 1.25);
+        expected.put("1->2", 0.5);
+        assertEquals(expected, properties(graph));
+
+        long a = graph.toMappedNodeId(0);
+        long c = graph.toMappedNodeId(2);
+        assertEquals(1.25, graph.relationshipProperty(a, c, Double.NaN));
+    }
+
+    @Test
+    void shouldElideConstantProperties() {
+        Graph graph = loadGraph(mapping("constant", 1.0, PropertyEncoding.CONSTANT));
+
+        properties(graph).values().forEach(value -> assertEquals(1.0, value));
+    }
+
+    @Test
+    void shouldFailForNonConstantValues() {
+        assertThrows(
+            RuntimeException.class,
+            () -> loadGraph(mapping("weight", 0.5, PropertyEncoding.CONSTANT))
+        );
+    }
+
+    @Test
+    void shouldAssignSameDictionaryCodesAcrossThreads() throws Exception {
+        RelationshipPropertyCodec codec = RelationshipPropertyCodec.of(PropertyEncoding.DICTIONARY, "weight", 0.0);
+        long[] values = new long[PropertyEncoding.MAX_DICTIONARY_SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Double.doubleToLongBits(i / 4.0);
+        }
+
+        int threads = 4;
+        byte[][] encoded = new byte[threads][values.length];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                byte[] out = encoded[thread];
+                futures.add(executor.submit(() -> codec.encode(values, values.length, out, 0)));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(values.length, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(values.length, codec.dictionary().length);
+        for (byte[] out : encoded) {
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], codec.decode(out, i));
+            }
+        }
+    }
+
+    private PropertyMapping mapping(String property, double defaultValue, PropertyEncoding encoding) {
+        return ImmutablePropertyMapping.builder()
+            .propertyKey(property)
+            .defaultValue(defaultValue)
+            .encoding(encoding)
+            .build();
+    }
+
+    private Map<String, Double> properties(Graph graph) {
+        Map<String, Double> properties = new HashMap<>();
+        graph.forEachNode(nodeId -> {
+            graph.forEachRelationship(nodeId, Double.NaN, (s, t, w) -> {
+                properties.put(graph.toOriginalNodeId(s) + "->" + graph.toOriginalNodeId(t), w);
+                return true;
+            });
+            return true;
+        });
+        return properties;
+    }
+
+    private Graph loadGraph(PropertyMapping propertyMapping) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .addRelationshipProperty(propertyMapping)
+            .build()
+            .load(NativeFactory.class);
+    }
+}
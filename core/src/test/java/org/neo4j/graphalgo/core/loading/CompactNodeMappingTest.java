@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class CompactNodeMappingTest {
+
+    private static final long HIGHEST_ID = 100_000_000_000L;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldMapOriginalToInternalIds(boolean sortedIds) {
+        Random random = new Random(42L);
+        long[] originalIds = random.longs(0, HIGHEST_ID).distinct().limit(10_000).toArray();
+        if (sortedIds) {
+            originalIds = LongStream.of(originalIds).sorted().toArray();
+        }
+        HugeLongArray graphIds = HugeLongArray.of(originalIds);
+
+        CompactNodeMapping mapping = CompactNodeMapping.build(graphIds, HIGHEST_ID, 4, AllocationTracker.EMPTY);
+
+        Map<Long, Long> expected = new HashMap<>();
+        for (int internalId = 0; internalId < originalIds.length; internalId++) {
+            expected.put(originalIds[internalId], (long) internalId);
+            assertEquals(internalId, mapping.get(originalIds[internalId]));
+            assertTrue(mapping.contains(originalIds[internalId]));
+        }
+        random.longs(10_000, 0, HIGHEST_ID)
+            .filter(originalId -> !expected.containsKey(originalId))
+            .forEach(originalId -> {
+                assertEquals(ReverseNodeMapping.NOT_FOUND, mapping.get(originalId));
+                assertFalse(mapping.contains(originalId));
+            });
+        assertEquals(ReverseNodeMapping.NOT_FOUND, mapping.get(HIGHEST_ID * 2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 255L, (1L << 31) - 1, (1L << 32) - 1, 1L << 32, (1L << 36) + 17})
+    void shouldMapIdsWithLargeLowerBits(long originalId) {
+        HugeLongArray graphIds = HugeLongArray.of(originalId + 1, originalId);
+
+        CompactNodeMapping mapping = CompactNodeMapping.build(graphIds, originalId + 2, 1, AllocationTracker.EMPTY);
+
+        assertEquals(0L, mapping.get(originalId + 1));
+        assertEquals(1L, mapping.get(originalId));
+        assertEquals(ReverseNodeMapping.NOT_FOUND, mapping.get(originalId + 2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1_000L, 1_000_000L, 10_000_000L})
+    void shouldUseLessMemoryThanSparseMappingForSparseIds(long nodeCount) {
+        long sparseMapping = SparseNodeMapping.memoryEstimation(HIGHEST_ID, nodeCount).min;
+        long compactMapping = CompactNodeMapping.memoryEstimation(HIGHEST_ID, nodeCount, true);
+        assertTrue(
+            compactMapping < sparseMapping,
+            "Expected compact mapping (" + compactMapping + ") to be smaller than sparse mapping (" + sparseMapping + ")"
+        );
+    }
+}
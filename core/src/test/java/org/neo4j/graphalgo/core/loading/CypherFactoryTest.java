@@ -22,6 +22,8 @@ package org.neo4j.graphalgo.core.loading;
 import org.eclipse.collections.api.block.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.graphalgo.BaseTest;
 import org.neo4j.graphalgo.CypherLoaderBuilder;
 import org.neo4j.graphalgo.NodeLabel;
@@ -163,6 +165,99 @@ class CypherFactoryTest extends BaseTest {
         loadAndTestGraph(nodeStatement, relStatement, Aggregation.SINGLE);
     }
 
+    @Test
+    void loadPartitionedRelationshipQuery() {
+        String nodeStatement = "MATCH (n) RETURN id(n) AS id";
+        String relStatement =
+            "MATCH (n)-[r:REL]->(m) WHERE $lowerId <= id(n) AND id(n) < $upperId " +
+            "RETURN id(n) AS source, id(m) AS target, r.prop AS weight";
+
+        loadAndTestGraph(nodeStatement, relStatement, Aggregation.NONE, 4);
+    }
+
+    @Test
+    void loadPartitionedRelationshipsOfTheHighestIdWithCompactMapping() {
+        // the ids are sparse enough for a compact reverse mapping, its capacity is the highest id
+        long highestId = 1L << 21;
+        String nodeStatement = "UNWIND [0, 1, 2, " + highestId + "] AS id RETURN id";
+        String relStatement =
+            "UNWIND [[0, 1], [1, 2], [2, " + highestId + "], [" + highestId + ", 0]] AS pair " +
+            "WITH pair WHERE $lowerId <= pair[0] AND pair[0] < $upperId " +
+            "RETURN pair[0] AS source, pair[1] AS target";
+
+        Graph graph = applyInTransaction(db, tx -> new CypherLoaderBuilder()
+            .api(db)
+            .nodeQuery(nodeStatement)
+            .relationshipQuery(relStatement)
+            .relationshipQueryPartitions(4)
+            .build()
+            .load(CypherFactory.class));
+
+        assertEquals(4, graph.relationshipCount());
+        long highestNode = graph.toMappedNodeId(highestId);
+        assertEquals(1, graph.degree(highestNode));
+        assertTrue(graph.exists(highestNode, graph.toMappedNodeId(0)));
+    }
+
+    @Test
+    void pipelinedImportShouldMatchSequentialImport() {
+        clearDb();
+        runQuery("UNWIND range(1, 10) AS id CREATE (:Node {id: id})");
+
+        // the buffers are sized by the node count, so the 5000 rows fill them many times
+        String nodeStatement = "MATCH (n) RETURN id(n) AS id";
+        String relStatement =
+            "MATCH (n), (m) UNWIND range(1, 50) AS i " +
+            "RETURN id(n) AS source, id(m) AS target, 0.5 AS weight";
+
+        Function<Integer, GraphLoader> loader = concurrency -> new CypherLoaderBuilder()
+            .api(db)
+            .nodeQuery(nodeStatement)
+            .relationshipQuery(relStatement)
+            .globalAggregation(Aggregation.SUM)
+            .addRelationshipProperty(PropertyMapping.of("weight", 0D))
+            .concurrency(concurrency)
+            .build();
+
+        Graph pipelined = applyInTransaction(db, tx -> loader.valueOf(4).load(CypherFactory.class));
+        Graph sequential = applyInTransaction(db, tx -> loader.valueOf(1).load(CypherFactory.class));
+
+        assertEquals(100, pipelined.relationshipCount());
+        pipelined.forEachNode(nodeId -> {
+            pipelined.forEachRelationship(nodeId, Double.NaN, (source, target, weight) -> {
+                assertEquals(25D, weight);
+                return true;
+            });
+            return true;
+        });
+        assertGraphEquals(sequential, pipelined);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "MATCH (n)-[r:REL]->(m) RETURN id(n) AS source, id(m) AS target",
+        "MATCH (n)-[r:REL]->(m) WHERE $lowerIdx <= id(n) AND id(n) < $upperIdx RETURN id(n) AS source, id(m) AS target"
+    })
+    void failOnPartitionedRelationshipQueryWithoutBounds(String relStatement) {
+
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> applyInTransaction(db, tx -> new CypherLoaderBuilder()
+                .api(db)
+                .nodeQuery("MATCH (n) RETURN id(n) AS id")
+                .relationshipQuery(relStatement)
+                .relationshipQueryPartitions(4)
+                .build()
+                .load(CypherFactory.class))
+        );
+
+        assertEquals(
+            "A partitioned relationship query must restrict the source nodes using the parameters `$lowerId` and `$upperId`. " +
+            "Query: [" + relStatement + "]",
+            ex.getMessage()
+        );
+    }
+
     @Test
     void testInitNodePropertiesFromQuery() {
         clearDb();
@@ -327,12 +422,22 @@ class CypherFactoryTest extends BaseTest {
         String nodeStatement,
         String relStatement,
         Aggregation aggregation
+    ) {
+        loadAndTestGraph(nodeStatement, relStatement, aggregation, 1);
+    }
+
+    private void loadAndTestGraph(
+        String nodeStatement,
+        String relStatement,
+        Aggregation aggregation,
+        int relationshipQueryPartitions
     ) {
         CypherLoaderBuilder builder = new CypherLoaderBuilder()
             .api(db)
             .nodeQuery(nodeStatement)
             .relationshipQuery(relStatement)
             .globalAggregation(aggregation)
+            .relationshipQueryPartitions(relationshipQueryPartitions)
             .addRelationshipProperty(PropertyMapping.of("weight", 0D));
 
         Graph graph = applyInTransaction(db, tx -> builder.build().load(CypherFactory.class));
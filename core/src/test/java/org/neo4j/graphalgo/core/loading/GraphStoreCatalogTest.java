@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.NodeProjections;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.compat.GraphDatabaseApiProxy;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class GraphStoreCatalogTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:A {score: 1})" +
+        ", (b:A {score: 2})" +
+        ", (c:A {score: 3})" +
+        ", (a)-[:TYPE {weight: 1}]->(b)" +
+        ", (b)-[:TYPE {weight: 2}]->(c)" +
+        ", (c)-[:TYPE {weight: 3}]->(a)";
+
+    @TempDir
+    Path spillDirectory;
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        GraphStoreCatalog.configureMemoryBudget(0L, null);
+        GraphStoreCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void shouldSpillLeastRecentlyAccessedGraphs() throws IOException {
+        GraphStoreCatalog.configureMemoryBudget(1L, spillDirectory);
+
+        GraphLoader first = loader("first");
+        GraphStore expected = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), expected);
+        GraphLoader second = loader("second");
+        GraphStoreCatalog.set(second.createConfig(), second.graphStore(NativeFactory.class));
+
+        Map<String, GraphStoreCatalogEntry> entries = entries();
+        assertTrue(entries.get("first").spilled());
+        assertFalse(entries.get("second").spilled());
+        assertEquals(expected.nodeCount(), entries.get("first").nodeCount());
+        assertEquals(expected.relationshipCount(), entries.get("first").relationshipCount());
+        assertTrue(entries.get("first").sizeInBytes() > 0);
+        assertEquals(1L, countSpillFiles());
+
+        GraphStore reloaded = GraphStoreCatalog.get("", "first").graphStore();
+        assertGraphEquals(expected.getUnion(), reloaded.getUnion());
+
+        entries = entries();
+        assertFalse(entries.get("first").spilled());
+        // the graph is read back with its allocations tracked
+        assertTrue(entries.get("first").sizeInBytes() > 0);
+        assertTrue(entries.get("second").spilled());
+        assertFalse(entries.get("first").lastAccessTime().isBefore(entries.get("second").lastAccessTime()));
+    }
+
+    @Test
+    void shouldMeasureTrackedMemory() {
+        GraphLoader first = loader("first");
+        GraphStore graphStore = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), graphStore);
+
+        long sizeInBytes = entries().get("first").sizeInBytes();
+        assertTrue(sizeInBytes > 0);
+        assertEquals(graphStore.trackedMemory(), sizeInBytes);
+    }
+
+    @Test
+    void shouldNotSpillWithoutBudget() throws IOException {
+        GraphLoader first = loader("first");
+        GraphStoreCatalog.set(first.createConfig(), first.graphStore(NativeFactory.class));
+        GraphLoader second = loader("second");
+        GraphStoreCatalog.set(second.createConfig(), second.graphStore(NativeFactory.class));
+
+        assertTrue(entries().values().stream().noneMatch(GraphStoreCatalogEntry::spilled));
+        assertEquals(0L, countSpillFiles());
+    }
+
+    @Test
+    void shouldDeleteSpillFileOnRemove() throws IOException {
+        GraphStoreCatalog.configureMemoryBudget(1L, spillDirectory);
+
+        GraphLoader first = loader("first");
+        GraphStoreCatalog.set(first.createConfig(), first.graphStore(NativeFactory.class));
+        GraphLoader second = loader("second");
+        GraphStoreCatalog.set(second.createConfig(), second.graphStore(NativeFactory.class));
+        assertEquals(1L, countSpillFiles());
+
+        GraphStoreCatalog.remove("", "first", entry -> assertTrue(entry.spilled()));
+
+        assertFalse(GraphStoreCatalog.exists("", "first"));
+        assertEquals(0L, countSpillFiles());
+    }
+
+    @Test
+    void shouldNotSpillPinnedGraphs() throws IOException {
+        GraphStoreCatalog.configureMemoryBudget(1L, spillDirectory);
+
+        GraphLoader first = loader("first");
+        GraphStoreCatalog.set(first.createConfig(), first.graphStore(NativeFactory.class));
+
+        try (GraphStoreCatalog.Pin pin = GraphStoreCatalog.pin("", "first")) {
+            GraphLoader second = loader("second");
+            GraphStoreCatalog.set(second.createConfig(), second.graphStore(NativeFactory.class));
+
+            assertFalse(entries().get("first").spilled());
+            assertSame(pin.graphStore(), GraphStoreCatalog.get("", "first").graphStore());
+        }
+
+        GraphStoreCatalog.get("", "second");
+        assertTrue(entries().get("first").spilled());
+    }
+
+    @Test
+    void shouldShareNodesBetweenGraphs() {
+        GraphLoader first = loader("first", true);
+        GraphStore firstGraphStore = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), firstGraphStore);
+        GraphLoader second = loader("second", true);
+        GraphStore secondGraphStore = second.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(second.createConfig(), secondGraphStore);
+
+        assertSame(firstGraphStore.nodes(), secondGraphStore.nodes());
+        assertSame(
+            firstGraphStore.nodeProperty(NodeLabel.of("A"), "score").values(),
+            secondGraphStore.nodeProperty(NodeLabel.of("A"), "score").values()
+        );
+
+        NodeProperties score = secondGraphStore.nodeProperty(NodeLabel.of("A"), "score").values();
+        double[] expectedScores = new double[Math.toIntExact(secondGraphStore.nodeCount())];
+        Arrays.setAll(expectedScores, score::nodeProperty);
+
+        // releasing a graph store releases the graphs that have been created from it
+        firstGraphStore.getUnion();
+        GraphStoreCatalog.remove("", "first", entry -> {});
+
+        for (int nodeId = 0; nodeId < expectedScores.length; nodeId++) {
+            assertEquals(expectedScores[nodeId], score.nodeProperty(nodeId));
+        }
+    }
+
+    @Test
+    void shouldNotShareNodesOfGraphsThatHaveNotBeenAdded() {
+        GraphStore firstGraphStore = loader("first", true).graphStore(NativeFactory.class);
+        GraphStore secondGraphStore = loader("second", true).graphStore(NativeFactory.class);
+
+        assertNotSame(firstGraphStore.nodes(), secondGraphStore.nodes());
+    }
+
+    @Test
+    void shouldEvictOutdatedSharedNodes() {
+        GraphLoader first = loader("first", true);
+        GraphStoreCatalog.set(first.createConfig(), first.graphStore(NativeFactory.class));
+        NodeProjections nodeProjections = first.createConfig().nodeProjections();
+        long lastCommittedTransactionId = GraphDatabaseApiProxy
+            .resolveDependency(db, TransactionIdStore.class)
+            .getLastCommittedTransactionId();
+        assertTrue(GraphStoreCatalog.sharedNodes("", nodeProjections, lastCommittedTransactionId).isPresent());
+
+        assertFalse(GraphStoreCatalog.sharedNodes("", nodeProjections, lastCommittedTransactionId + 1).isPresent());
+        assertFalse(GraphStoreCatalog.sharedNodes("", nodeProjections, lastCommittedTransactionId).isPresent());
+    }
+
+    @Test
+    void shouldNotShareNodesAfterNodeStoreChanged() {
+        GraphLoader first = loader("first", true);
+        GraphStore firstGraphStore = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), firstGraphStore);
+
+        runQuery("CREATE (:A {score: 4})");
+
+        GraphLoader second = loader("second", true);
+        GraphStore secondGraphStore = second.graphStore(NativeFactory.class);
+
+        assertNotSame(firstGraphStore.nodes(), secondGraphStore.nodes());
+        assertEquals(firstGraphStore.nodeCount() + 1, secondGraphStore.nodeCount());
+    }
+
+    @Test
+    void shouldNotShareNodesAfterNodePropertiesChanged() {
+        GraphLoader first = loader("first", true);
+        GraphStore firstGraphStore = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), firstGraphStore);
+
+        runQuery("MATCH (n:A {score: 1}) SET n.score = 42");
+
+        GraphStore secondGraphStore = loader("second", true).graphStore(NativeFactory.class);
+
+        assertNotSame(firstGraphStore.nodes(), secondGraphStore.nodes());
+    }
+
+    @Test
+    void shouldNotShareNodesBetweenUsers() {
+        GraphLoader first = loader("first", true);
+        GraphStore firstGraphStore = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), firstGraphStore);
+
+        GraphStore otherUsersGraphStore = new StoreLoaderBuilder()
+            .api(db)
+            .userName("other")
+            .graphName("second")
+            .addNodeLabel("A")
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addRelationshipType("TYPE")
+            .shareNodes(true)
+            .build()
+            .graphStore(NativeFactory.class);
+
+        assertNotSame(firstGraphStore.nodes(), otherUsersGraphStore.nodes());
+    }
+
+    @Test
+    void shouldNotShareNodesByDefault() {
+        GraphLoader first = loader("first");
+        GraphStore firstGraphStore = first.graphStore(NativeFactory.class);
+        GraphStoreCatalog.set(first.createConfig(), firstGraphStore);
+        GraphStore secondGraphStore = loader("second").graphStore(NativeFactory.class);
+
+        assertNotSame(firstGraphStore.nodes(), secondGraphStore.nodes());
+    }
+
+    @Test
+    void shouldRequireSpillDirectory() {
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> GraphStoreCatalog.configureMemoryBudget(1L, null)
+        );
+        assertEquals("A spill directory is required to enable the catalog memory budget.", ex.getMessage());
+    }
+
+    private Map<String, GraphStoreCatalogEntry> entries() {
+        return GraphStoreCatalog.getEntries("").stream().collect(Collectors.toMap(
+            entry -> entry.config().graphName(),
+            Function.identity()
+        ));
+    }
+
+    private long countSpillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        }
+    }
+
+    private GraphLoader loader(String graphName) {
+        return loader(graphName, false);
+    }
+
+    private GraphLoader loader(String graphName, boolean shareNodes) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .graphName(graphName)
+            .tracker(AllocationTracker.create())
+            .addNodeLabel("A")
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addRelationshipType("TYPE")
+            .addRelationshipProperty(PropertyMapping.of("weight", 0))
+            .shareNodes(shareNodes)
+            .build();
+    }
+}
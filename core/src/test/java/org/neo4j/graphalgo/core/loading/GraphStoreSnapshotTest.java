@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.RelationshipType;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class GraphStoreSnapshotTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:A {score: 1})" +
+        ", (b:A {score: 2})" +
+        ", (c:B {score: 3})" +
+        ", (d:B)" +
+        ", (a)-[:TYPE {weight: 1}]->(b)" +
+        ", (a)-[:TYPE {weight: 2}]->(c)" +
+        ", (b)-[:TYPE {weight: 1}]->(c)" +
+        ", (c)-[:TYPE {weight: 2}]->(d)" +
+        ", (d)-[:TYPE {weight: 1}]->(a)";
+
+    private static final RelationshipType TYPE = RelationshipType.of("TYPE");
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @Test
+    void shouldRoundTripGraphStore() throws IOException {
+        GraphLoader loader = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("graph")
+            .addNodeLabel("A")
+            .addNodeLabel("B")
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addRelationshipType("TYPE")
+            .addRelationshipProperty(PropertyMapping.fromObject(
+                "weight",
+                Map.of("property", "weight", "encoding", "dictionary")
+            ))
+            .indexInverse(true)
+            .build();
+        GraphStore expected = loader.graphStore(NativeFactory.class);
+
+        Path file = tempDir.resolve("graph.gds");
+        long sizeInBytes = GraphStoreSnapshot.write(expected, loader.createConfig(), file, 4, Pools.DEFAULT);
+        assertEquals(Files.size(file), sizeInBytes);
+
+        GraphStoreWithConfig loaded = GraphStoreSnapshot.read(
+            file,
+            "alice",
+            Optional.of("restored"),
+            4,
+            AllocationTracker.EMPTY
+        );
+        GraphStore actual = loaded.graphStore();
+
+        assertEquals("restored", loaded.config().graphName());
+        assertEquals("alice", loaded.config().username());
+        assertEquals(loader.createConfig().nodeProjections(), loaded.config().nodeProjections());
+        assertEquals(loader.createConfig().relationshipProjections(), loaded.config().relationshipProjections());
+        assertEquals(PageStorage.MAPPED, loaded.config().pageStorage());
+
+        assertEquals(expected.nodeLabels(), actual.nodeLabels());
+        assertEquals(expected.nodePropertyKeys(), actual.nodePropertyKeys());
+        assertEquals(expected.relationshipCount(), actual.relationshipCount());
+        assertGraphEquals(
+            expected.getGraph(TYPE, Optional.of("weight")),
+            actual.getGraph(TYPE, Optional.of("weight"))
+        );
+        assertGraphEquals(
+            expected.getGraph(Collections.singletonList(NodeLabel.of("B")), Collections.singletonList(TYPE), Optional.empty(), 1),
+            actual.getGraph(Collections.singletonList(NodeLabel.of("B")), Collections.singletonList(TYPE), Optional.empty(), 1)
+        );
+
+        Graph expectedGraph = expected.getGraph(TYPE, Optional.of("weight"));
+        Graph actualGraph = actual.getGraph(TYPE, Optional.of("weight"));
+        for (long nodeId = 0; nodeId < expectedGraph.nodeCount(); nodeId++) {
+            assertEquals(expectedGraph.toOriginalNodeId(nodeId), actualGraph.toOriginalNodeId(nodeId));
+            assertEquals(inverseNeighbours(expectedGraph, nodeId), inverseNeighbours(actualGraph, nodeId));
+        }
+    }
+
+    @Test
+    void shouldWritePendingUpdatesWithoutCompactingTheGraphStore() throws IOException {
+        GraphLoader loader = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("graph")
+            .addRelationshipType("TYPE")
+            .addRelationshipProperty(PropertyMapping.of("weight", 0))
+            .build();
+        GraphStore expected = loader.graphStore(NativeFactory.class);
+        Graph graphBeforeWrite = expected.getGraph(TYPE, Optional.of("weight"));
+
+        // (d)-[:TYPE {weight: 3}]->(b)
+        expected.updateRelationships(TYPE, updates -> updates.addRelationship(3, 1, Collections.singletonMap("weight", 3D)));
+
+        Path file = tempDir.resolve("graph.gds");
+        GraphStoreSnapshot.write(expected, loader.createConfig(), file, 4, Pools.DEFAULT);
+
+        assertTrue(expected.hasPendingRelationshipUpdates(TYPE));
+        assertEquals(5, graphBeforeWrite.relationshipCount());
+        assertEquals(1, graphBeforeWrite.degree(graphBeforeWrite.toMappedNodeId(3)));
+
+        GraphStore actual = GraphStoreSnapshot
+            .read(file, "", Optional.empty(), 4, AllocationTracker.EMPTY)
+            .graphStore();
+        assertEquals(6, actual.relationshipCount());
+        assertGraphEquals(
+            expected.getGraph(TYPE, Optional.of("weight")),
+            actual.getGraph(TYPE, Optional.of("weight"))
+        );
+    }
+
+    @Test
+    void shouldFailOnInvalidFile() throws IOException {
+        Path file = Files.write(tempDir.resolve("invalid.gds"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> GraphStoreSnapshot.read(file, "", Optional.empty(), 1, AllocationTracker.EMPTY)
+        );
+        assertEquals("File `invalid.gds` is not a graph snapshot.", ex.getMessage());
+    }
+
+    private Map<Long, Double> inverseNeighbours(Graph graph, long nodeId) {
+        Map<Long, Double> neighbours = new HashMap<>();
+        graph.forEachInverseRelationship(nodeId, Double.NaN, (s, t, w) -> {
+            neighbours.put(t, w);
+            return true;
+        });
+        return neighbours;
+    }
+}
@@ -54,6 +54,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphalgo.NodeLabel.ALL_NODES;
 import static org.neo4j.graphalgo.TestGraph.Builder.fromGdl;
@@ -103,6 +105,57 @@ class GraphStoreTest extends BaseTest {
         assertGraphEquals(fromGdl(expectedGraph), filteredGraph);
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("validRelationshipFilterParameters")
+    void testMaterializingUnionOfRelationshipTypes(
+        String desc,
+        List<RelationshipType> relTypes,
+        Optional<String> relProperty,
+        String expectedGraph
+    ) {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .addNodeProjection(NodeProjection.of("A"))
+            .addNodeProjection(NodeProjection.of("B"))
+            .relationshipProjections(relationshipProjections())
+            .build()
+            .graphStore(NativeFactory.class);
+
+        Graph materializedGraph = graphStore.getGraph(graphStore.nodeLabels(), relTypes, relProperty, 1, true);
+
+        assertGraphEquals(fromGdl(expectedGraph), materializedGraph);
+    }
+
+    @Test
+    void testMaterializedUnionIsCachedUntilRelationshipTypeIsModified() {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .addNodeProjection(NodeProjection.of("A"))
+            .addNodeProjection(NodeProjection.of("B"))
+            .relationshipProjections(relationshipProjections())
+            .build()
+            .graphStore(NativeFactory.class);
+        List<RelationshipType> relTypes = Arrays.asList(RelationshipType.of("T1"), RelationshipType.of("T2"));
+
+        AdjacencyList union = materializedAdjacency(graphStore, relTypes);
+        assertSame(union, materializedAdjacency(graphStore, relTypes));
+
+        graphStore.deleteRelationships(RelationshipType.of("T3"));
+        assertSame(union, materializedAdjacency(graphStore, relTypes));
+
+        HugeGraph.Relationships t1 = ((HugeGraph) graphStore.getGraph(RelationshipType.of("T1"))).relationships();
+        graphStore.deleteRelationships(RelationshipType.of("T2"));
+        graphStore.addRelationshipType(RelationshipType.of("T2"), Optional.empty(), Optional.empty(), t1);
+        assertNotSame(union, materializedAdjacency(graphStore, relTypes));
+    }
+
+    private static AdjacencyList materializedAdjacency(GraphStore graphStore, List<RelationshipType> relTypes) {
+        Graph graph = graphStore.getGraph(graphStore.nodeLabels(), relTypes, Optional.empty(), 1, true);
+        return ((HugeGraph) graph).relationships().topology().list();
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("validNodeFilterParameters")
     void testFilteringGraphsByNodeLabels(String desc, List<NodeLabel> labels, String expectedGraph) {
@@ -120,6 +173,29 @@ class GraphStoreTest extends BaseTest {
         assertGraphEquals(fromGdl(expectedGraph), filteredGraph);
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("validNodeFilterParameters")
+    void testMaterializingNodeLabelSubgraphs(String desc, List<NodeLabel> labels, String expectedGraph) {
+        GraphStore graphStore = new StoreLoaderBuilder()
+            .api(db)
+            .graphName("myGraph")
+            .nodeProjections(nodeProjections())
+            .addRelationshipProjection(RelationshipProjection.of("T1", Orientation.NATURAL))
+            .build()
+            .graphStore(NativeFactory.class);
+
+        Graph subgraph = graphStore.getGraph(labels, graphStore.relationshipTypes(), Optional.empty(), 1, false, true);
+        assertGraphEquals(fromGdl(expectedGraph), subgraph);
+
+        Graph cachedSubgraph = graphStore.getGraph(labels, graphStore.relationshipTypes(), Optional.empty(), 1, false, true);
+        if (subgraph instanceof HugeGraph) {
+            assertSame(
+                ((HugeGraph) subgraph).relationships().topology().list(),
+                ((HugeGraph) cachedSubgraph).relationships().topology().list()
+            );
+        }
+    }
+
     @Test
     void testFilterNodesWithAllProjectionIncluded() {
         GraphLoader graphLoader = new StoreLoaderBuilder()
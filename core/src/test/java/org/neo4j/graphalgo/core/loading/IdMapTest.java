@@ -19,6 +19,7 @@
  */
 package org.neo4j.graphalgo.core.loading;
 
+import com.carrotsearch.hppc.BitSet;
 import com.carrotsearch.hppc.LongObjectHashMap;
 import org.junit.jupiter.api.Test;
 import org.neo4j.graphalgo.NodeLabel;
@@ -26,12 +27,15 @@ import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.ImmutableGraphDimensions;
 import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.util.Arrays;
 import java.util.List;
 
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IdMapTest {
 
@@ -47,15 +51,15 @@ class IdMapTest {
 
         dimensions = ImmutableGraphDimensions.builder().nodeCount(1L).highestNeoId(100_000_000_000L).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(32L + 48L + 97_689_080L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(32L + 48L + 344L, 32L + 48L + 392L), memRec.memoryUsage());
 
         dimensions = ImmutableGraphDimensions.builder().nodeCount(10_000_000L).highestNeoId(100_000_000_000L).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(32L + 80_000_040L + 177_714_824L, 32L + 80_000_040L + 327_937_656_296L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(32L + 80_000_040L + 46_103_664L, 32L + 80_000_040L + 126_103_704L), memRec.memoryUsage());
 
         dimensions = ImmutableGraphDimensions.builder().nodeCount(100_000_000L).highestNeoId(100_000_000_000L).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(32L + 800_000_040L + 898_077_656L, 32L + 800_000_040L + 800_488_297_688L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(32L + 800_000_040L + 497_656_400L, 32L + 800_000_040L + 1_297_656_440L), memRec.memoryUsage());
 
 
         LongObjectHashMap<List<NodeLabel>> labelTokenNodeLabelMappings = new LongObjectHashMap<List<NodeLabel>>();
@@ -64,12 +68,31 @@ class IdMapTest {
         dimensions = ImmutableGraphDimensions.builder().nodeCount(100L).highestNeoId(100L)
             .labelTokenNodeLabelMapping(labelTokenNodeLabelMappings).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(32L + 840L + 32832L + 56L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(32L + 840L + 32832L).add(IdMap.labelBitmapMemoryEstimation(100L)), memRec.memoryUsage());
 
         labelTokenNodeLabelMappings.put(2, Arrays.asList(NodeLabel.of("A"), NodeLabel.of("B")));
         dimensions = ImmutableGraphDimensions.builder().nodeCount(100L).highestNeoId(100L)
             .labelTokenNodeLabelMapping(labelTokenNodeLabelMappings).build();
         memRec = IdMap.memoryEstimation().estimate(dimensions, 1);
-        assertEquals(MemoryRange.of(32L + 840L + 32832L + 112L), memRec.memoryUsage());
+        assertEquals(MemoryRange.of(32L + 840L + 32832L).add(IdMap.labelBitmapMemoryEstimation(100L).times(2)), memRec.memoryUsage());
+    }
+
+    @Test
+    void shouldCompressLabelBitSets() {
+        long nodeCount = 1_000_000L;
+        BitSet bitSet = new BitSet(nodeCount);
+        for (long nodeId = 0; nodeId < nodeCount / 2; nodeId++) {
+            bitSet.set(nodeId);
+        }
+        bitSet.set(nodeCount - 1);
+
+        Roaring64NavigableMap bitmap = IdMapBuilder.toBitmap(bitSet);
+
+        assertEquals(bitSet.cardinality(), bitmap.getLongCardinality());
+        for (long nodeId = 0; nodeId < nodeCount; nodeId++) {
+            assertEquals(bitSet.get(nodeId), bitmap.contains(nodeId));
+        }
+        assertTrue(bitmap.getLongSizeInBytes() < MemoryUsage.sizeOfBitset(nodeCount));
+        assertTrue(IdMap.labelBitmapMemoryEstimation(nodeCount).max >= bitmap.getLongSizeInBytes());
     }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.NodeLabel;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.NodeProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.NodeLabel.ALL_NODES;
+import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
+
+class LazyNodePropertiesTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node {score: 1, rank: 0.5})" +
+        ", (b:Node {score: 2})" +
+        ", (c:Node {rank: 1.5})" +
+        ", (d:Other {score: 4, rank: 2.5})" +
+        ", (a)-[:TYPE]->(b)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @Test
+    void shouldLoadPropertiesOnFirstAccess() {
+        GraphStore eager = loadGraphStore(false);
+        GraphStore lazy = loadGraphStore(true);
+
+        LazyNodeProperties score = (LazyNodeProperties) lazy.nodeProperty(ALL_NODES, "score").values();
+        LazyNodeProperties rank = (LazyNodeProperties) lazy.nodeProperty(ALL_NODES, "rank").values();
+        assertFalse(score.isLoaded());
+        assertFalse(rank.isLoaded());
+
+        lazy.nodeProperty("score");
+        assertTrue(score.isLoaded());
+        assertFalse(rank.isLoaded());
+        assertProperties(eager.nodeProperty("score").values(), score);
+
+        assertProperties(eager.nodeProperty("rank").values(), rank);
+        assertTrue(rank.isLoaded());
+    }
+
+    @Test
+    void shouldLoadPropertiesWhenCreatingAGraph() {
+        GraphStore lazy = loadGraphStore(true);
+        LazyNodeProperties score = (LazyNodeProperties) lazy.nodeProperty(ALL_NODES, "score").values();
+        LazyNodeProperties rank = (LazyNodeProperties) lazy.nodeProperty(ALL_NODES, "rank").values();
+
+        lazy.getGraph(ALL_RELATIONSHIPS);
+
+        assertTrue(score.isLoaded());
+        assertTrue(rank.isLoaded());
+    }
+
+    @Test
+    void shouldKeepPropertiesOfOtherLabelsLoadableWhenReleasingOneLabel() {
+        GraphStore eager = loadLabeledGraphStore(false);
+        GraphStore lazy = loadLabeledGraphStore(true);
+        NodeLabel node = NodeLabel.of("Node");
+        NodeLabel other = NodeLabel.of("Other");
+
+        lazy.nodeProperty(node, "score").values().release();
+
+        assertProperties(eager.nodeProperty(other, "score").values(), lazy.nodeProperty(other, "score").values());
+        NodeProperties released = lazy.nodeProperty(node, "score").values();
+        assertThrows(IllegalStateException.class, () -> released.nodeProperty(0));
+    }
+
+    @Test
+    void shouldFailToLoadReleasedProperties() {
+        GraphStore lazy = loadGraphStore(true);
+        NodeProperties score = lazy.nodeProperty("score").values();
+
+        score.release();
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> score.nodeProperty(0));
+        assertEquals("The node property has been released and can no longer be loaded.", ex.getMessage());
+    }
+
+    @Test
+    void shouldFailToLoadPropertiesAfterTheDatabaseChanged() {
+        GraphStore lazy = loadGraphStore(true);
+        NodeProperties score = lazy.nodeProperty("score").values();
+
+        runQuery("MATCH (n:Node {score: 1}) SET n.score = 42");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> score.nodeProperty(0));
+        assertEquals(
+            "Node property `score` can no longer be loaded, " +
+            "because the database has changed since the graph has been created.",
+            ex.getMessage()
+        );
+    }
+
+    @Test
+    void shouldKeepLoadedPropertiesAfterTheDatabaseChanged() {
+        GraphStore eager = loadGraphStore(false);
+        GraphStore lazy = loadGraphStore(true);
+        NodeProperties score = lazy.nodeProperty("score").values();
+        score.nodeProperty(0);
+
+        runQuery("MATCH (n:Node {score: 1}) SET n.score = 42");
+
+        assertProperties(eager.nodeProperty("score").values(), score);
+    }
+
+    private void assertProperties(NodeProperties expected, NodeProperties actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.valueType(), actual.valueType());
+        for (long nodeId = 0; nodeId < expected.size(); nodeId++) {
+            assertEquals(expected.nodeProperty(nodeId, Double.NaN), actual.nodeProperty(nodeId, Double.NaN));
+        }
+    }
+
+    private GraphStore loadLabeledGraphStore(boolean lazyNodeProperties) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .addNodeLabel("Node")
+            .addNodeLabel("Other")
+            .loadAnyRelationshipType()
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .lazyNodeProperties(lazyNodeProperties)
+            .build()
+            .graphStore(NativeFactory.class);
+    }
+
+    private GraphStore loadGraphStore(boolean lazyNodeProperties) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addNodeProperty(PropertyMapping.of("rank", 0))
+            .lazyNodeProperties(lazyNodeProperties)
+            .build()
+            .graphStore(NativeFactory.class);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.ValueType;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.values.storable.Values;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.core.utils.mem.MemoryUsage.sizeOfFloatArray;
+
+class NodePropertiesBuilderTest extends BaseTest {
+
+    private static final long LARGE_ID = (1L << 53) + 1;
+
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node {id: " + LARGE_ID + ", score: 0.5, vector: [1.0, 2.0], embedding: [1, 2, 3]})" +
+        ", (b:Node {id: 42, score: 1, vector: [3.0, 4.0], embedding: [4.0]})" +
+        ", (c:Node)";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @Test
+    void shouldLoadTypedColumns() {
+        Graph graph = loader().graph(NativeFactory.class);
+
+        NodeProperties ids = graph.nodeProperties("id");
+        assertEquals(ValueType.LONG, ids.valueType());
+        assertEquals(LARGE_ID, ids.longNodeProperty(0));
+        assertEquals(42L, ids.longNodeProperty(1));
+        assertEquals(42D, ids.nodeProperty(1));
+
+        NodeProperties scores = graph.nodeProperties("score");
+        assertEquals(ValueType.DOUBLE, scores.valueType());
+        assertEquals(0.5D, scores.nodeProperty(0));
+        assertEquals(1D, scores.nodeProperty(1));
+
+        NodeProperties vectors = graph.nodeProperties("vector");
+        assertEquals(ValueType.DOUBLE_ARRAY, vectors.valueType());
+        assertArrayEquals(new double[]{1.0, 2.0}, vectors.doubleArrayNodeProperty(0));
+        assertArrayEquals(new float[]{3.0F, 4.0F}, vectors.floatArrayNodeProperty(1));
+        assertNull(vectors.doubleArrayNodeProperty(2));
+        assertEquals(2, vectors.size());
+
+        // integral arrays are widened to doubles
+        NodeProperties embeddings = graph.nodeProperties("embedding");
+        assertEquals(ValueType.DOUBLE_ARRAY, embeddings.valueType());
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0}, embeddings.doubleArrayNodeProperty(0));
+        assertArrayEquals(new double[]{4.0}, embeddings.doubleArrayNodeProperty(1));
+    }
+
+    @Test
+    void shouldRoundTripTypedColumnsThroughSnapshot() throws IOException {
+        GraphLoader loader = loader();
+        GraphStore expected = loader.graphStore(NativeFactory.class);
+
+        Path file = tempDir.resolve("graph.gds");
+        GraphStoreSnapshot.write(expected, loader.createConfig(), file, 4, Pools.DEFAULT);
+        GraphStore actual = GraphStoreSnapshot
+            .read(file, "", Optional.empty(), 4, AllocationTracker.EMPTY)
+            .graphStore();
+
+        NodeProperties ids = actual.nodeProperty("id").values();
+        assertEquals(ValueType.LONG, ids.valueType());
+        assertEquals(LARGE_ID, ids.longNodeProperty(0));
+
+        NodeProperties vectors = actual.nodeProperty("vector").values();
+        assertEquals(ValueType.DOUBLE_ARRAY, vectors.valueType());
+        assertArrayEquals(new double[]{1.0, 2.0}, vectors.doubleArrayNodeProperty(0));
+        assertArrayEquals(new double[]{3.0, 4.0}, vectors.doubleArrayNodeProperty(1));
+        assertNull(vectors.doubleArrayNodeProperty(2));
+    }
+
+    @Test
+    void shouldStoreFloatArraysWithoutConversion() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(2, AllocationTracker.EMPTY, 0, 0, "vector", 1);
+        float[] vector = {1.5F, 2.5F};
+        builder.set(0, Values.floatArray(vector));
+
+        NodeProperties properties = builder.build();
+        assertEquals(ValueType.FLOAT_ARRAY, properties.valueType());
+        assertArrayEquals(vector, properties.floatArrayNodeProperty(0));
+        assertArrayEquals(new double[]{1.5, 2.5}, properties.doubleArrayNodeProperty(0));
+        assertThrows(UnsupportedOperationException.class, () -> properties.nodeProperty(0));
+    }
+
+    @Test
+    void shouldUntrackArraysOnRelease() {
+        AllocationTracker tracker = AllocationTracker.create();
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(2, tracker, 0, 0, "vector", 1);
+        long trackedBeforeArrays = tracker.tracked();
+        builder.set(0, Values.floatArray(new float[]{1.5F, 2.5F}));
+        builder.set(1, Values.floatArray(new float[]{3.5F}));
+
+        NodeProperties properties = builder.build();
+        assertTrue(tracker.tracked() > trackedBeforeArrays);
+        assertTrue(properties.release() >= sizeOfFloatArray(2) + sizeOfFloatArray(1));
+        assertEquals(trackedBeforeArrays, tracker.tracked());
+    }
+
+    @Test
+    void shouldFailOnMixedScalarsAndArrays() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(2, AllocationTracker.EMPTY, 0, 0, "prop", 1);
+        builder.set(0, Values.longValue(42));
+
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> builder.set(1, Values.doubleArray(new double[]{1.0}))
+        );
+        assertEquals("Node property `prop` must either contain only numbers or only arrays of numbers.", ex.getMessage());
+    }
+
+    @Test
+    void shouldFailOnArraysAfterMissingScalars() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(2, AllocationTracker.EMPTY, 0, 0, "prop", 1);
+        builder.set(0, Double.NaN);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.set(1, Values.floatArray(new float[]{1.0F})));
+    }
+
+    @Test
+    void shouldFailOnMixedScalarsAndArraysFromConcurrentImporters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int run = 0; run < 100; run++) {
+                NodePropertiesBuilder builder = NodePropertiesBuilder.of(2, AllocationTracker.EMPTY, 0, 0, "prop", 2);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<?> scalars = executor.submit(() -> {
+                    barrier.await();
+                    builder.set(0, Values.longValue(42));
+                    return null;
+                });
+                Future<?> arrays = executor.submit(() -> {
+                    barrier.await();
+                    builder.set(1, Values.doubleArray(new double[]{1.0}));
+                    return null;
+                });
+
+                int failures = 0;
+                for (Future<?> importer : List.of(scalars, arrays)) {
+                    try {
+                        importer.get();
+                    } catch (ExecutionException e) {
+                        assertTrue(e.getCause() instanceof IllegalArgumentException);
+                        failures++;
+                    }
+                }
+                assertEquals(1, failures);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldChooseStorageByDensity() {
+        NodePropertiesBuilder denseBuilder = NodePropertiesBuilder.of(4, AllocationTracker.EMPTY, -1, 0, "dense", 1);
+        NodePropertiesBuilder sparseBuilder = NodePropertiesBuilder.of(4, AllocationTracker.EMPTY, -1, 0, "sparse", 1);
+        for (long nodeId = 0; nodeId < 3; nodeId++) {
+            denseBuilder.set(nodeId, Values.longValue(LARGE_ID + nodeId));
+        }
+        sparseBuilder.set(0, 0.5);
+
+        NodeProperties dense = denseBuilder.build();
+        assertFalse(dense.isSparse());
+        assertEquals(ValueType.LONG, dense.valueType());
+        assertEquals(LARGE_ID + 2, dense.longNodeProperty(2));
+        assertEquals(-1D, dense.nodeProperty(3));
+        assertEquals(3, dense.size());
+
+        NodeProperties sparse = sparseBuilder.build();
+        assertTrue(sparse.isSparse());
+        assertEquals(0.5D, sparse.nodeProperty(0));
+        assertEquals(-1D, sparse.nodeProperty(1));
+    }
+
+    @Test
+    void shouldReturnFallbackForMissingValuesOfDenseColumns() {
+        NodePropertiesBuilder builder = NodePropertiesBuilder.of(4, AllocationTracker.EMPTY, 42, 0, "prop", 1);
+        builder.set(0, 0.5);
+        builder.set(1, 1.5);
+        builder.set(2, 2.5);
+
+        NodeProperties properties = builder.build();
+        assertFalse(properties.isSparse());
+        assertEquals(1.5D, properties.nodeProperty(1, Double.NaN));
+        assertTrue(Double.isNaN(properties.nodeProperty(3, Double.NaN)));
+        assertEquals(42D, properties.nodeProperty(3));
+        assertEquals(OptionalLong.of(2L), properties.getMaxPropertyValue());
+        assertEquals(3, properties.size());
+    }
+
+    private GraphLoader loader() {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .addNodeProperty(PropertyMapping.of("id", 0))
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addNodeProperty(PropertyMapping.of("vector", 0))
+            .addNodeProperty(PropertyMapping.of("embedding", 0))
+            .build();
+    }
+}
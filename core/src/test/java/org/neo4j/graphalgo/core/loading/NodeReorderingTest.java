@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.NodeOrdering;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class NodeReorderingTest extends BaseTest {
+
+    // two triangles with interleaved node ids and a hub attached to the first one
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node {score: 0})" +
+        ", (b:Node {score: 1})" +
+        ", (c:Node {score: 2})" +
+        ", (d:Node {score: 3})" +
+        ", (e:Node {score: 4})" +
+        ", (f:Node {score: 5})" +
+        ", (g:Node {score: 6})" +
+        ", (a)-[:TYPE {prop: 1}]->(c)" +
+        ", (c)-[:TYPE {prop: 2}]->(e)" +
+        ", (e)-[:TYPE {prop: 3}]->(a)" +
+        ", (b)-[:TYPE {prop: 4}]->(d)" +
+        ", (d)-[:TYPE {prop: 5}]->(f)" +
+        ", (f)-[:TYPE {prop: 6}]->(b)" +
+        ", (g)-[:TYPE {prop: 7}]->(a)" +
+        ", (g)-[:TYPE {prop: 8}]->(c)" +
+        ", (g)-[:TYPE {prop: 9}]->(e)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @ParameterizedTest
+    @EnumSource(NodeOrdering.class)
+    void shouldRetainGraph(NodeOrdering ordering) {
+        for (Orientation orientation : Orientation.values()) {
+            Graph expected = loadGraph(orientation, NodeOrdering.NONE);
+            Graph actual = loadGraph(orientation, ordering);
+
+            assertGraphEquals(expected, actual);
+            for (long originalId = 0; originalId < expected.nodeCount(); originalId++) {
+                long expectedId = expected.toMappedNodeId(originalId);
+                long actualId = actual.toMappedNodeId(originalId);
+                assertEquals(originalId, actual.toOriginalNodeId(actualId));
+                assertEquals(
+                    expected.nodeProperties("score").nodeProperty(expectedId),
+                    actual.nodeProperties("score").nodeProperty(actualId)
+                );
+                assertEquals(neighbours(expected, expectedId, false), neighbours(actual, actualId, false));
+                assertEquals(neighbours(expected, expectedId, true), neighbours(actual, actualId, true));
+            }
+        }
+    }
+
+    @Test
+    void shouldOrderByDescendingDegree() {
+        Graph graph = loadGraph(Orientation.UNDIRECTED, NodeOrdering.DEGREE);
+
+        // a, c, e and the hub g have degree 3, b, d and f have degree 2
+        for (long nodeId = 1; nodeId < graph.nodeCount(); nodeId++) {
+            assertTrue(graph.degree(nodeId - 1) >= graph.degree(nodeId));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = NodeOrdering.class, names = {"BFS", "COMMUNITY"})
+    void shouldAssignConsecutiveIdsToConnectedNodes(NodeOrdering ordering) {
+        Graph graph = loadGraph(Orientation.UNDIRECTED, ordering);
+
+        assertConsecutive(graph, 0, 2, 4, 6);
+        assertConsecutive(graph, 1, 3, 5);
+    }
+
+    @Test
+    void shouldFailOnUnknownOrdering() {
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> NodeOrdering.parse("random")
+        );
+        assertEquals(
+            "Node ordering `random` is not supported. Must be one of: NONE, DEGREE, BFS, COMMUNITY.",
+            ex.getMessage()
+        );
+    }
+
+    private void assertConsecutive(Graph graph, long... originalIds) {
+        long[] mappedIds = LongStream.of(originalIds).map(graph::toMappedNodeId).sorted().toArray();
+        assertEquals(originalIds.length - 1, mappedIds[mappedIds.length - 1] - mappedIds[0]);
+    }
+
+    private Map<Long, Double> neighbours(Graph graph, long nodeId, boolean inverse) {
+        Map<Long, Double> neighbours = new HashMap<>();
+        if (inverse) {
+            graph.forEachInverseRelationship(nodeId, Double.NaN, (s, t, w) -> {
+                neighbours.put(graph.toOriginalNodeId(t), w);
+                return true;
+            });
+        } else {
+            graph.forEachRelationship(nodeId, Double.NaN, (s, t, w) -> {
+                neighbours.put(graph.toOriginalNodeId(t), w);
+                return true;
+            });
+        }
+        return neighbours;
+    }
+
+    private Graph loadGraph(Orientation orientation, NodeOrdering ordering) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(orientation)
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .indexInverse(true)
+            .nodeOrdering(ordering)
+            .build()
+            .load(NativeFactory.class);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.Aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class ParallelAggregationTest extends BaseTest {
+
+    private static final int NODE_COUNT = 100;
+
+    // two parallel relationships between every pair of nodes, more than fit into a sequentially sorted batch
+    private static final String DB_CYPHER =
+        "UNWIND range(0, " + (NODE_COUNT - 1) + ") AS id " +
+        "CREATE (:Node {id: id}) " +
+        "WITH count(*) AS ignore " +
+        "MATCH (a:Node), (b:Node) " +
+        "CREATE (a)-[:TYPE {prop: a.id + b.id}]->(b)" +
+        ", (a)-[:TYPE {prop: 1}]->(b)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Aggregation.class, mode = EnumSource.Mode.EXCLUDE, names = "DEFAULT")
+    void shouldImportSameGraph(Aggregation aggregation) {
+        for (Orientation orientation : Orientation.values()) {
+            Graph expected = loadGraph(orientation, aggregation, false);
+            Graph actual = loadGraph(orientation, aggregation, true);
+
+            assertGraphEquals(expected, actual);
+            assertEquals(expected.relationshipCount(), actual.relationshipCount());
+        }
+    }
+
+    @Test
+    void shouldAggregateParallelRelationships() {
+        Graph graph = loadGraph(Orientation.NATURAL, Aggregation.SUM, true);
+
+        assertEquals(NODE_COUNT * NODE_COUNT, graph.relationshipCount());
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            assertEquals(NODE_COUNT, graph.degree(nodeId));
+            graph.forEachRelationship(nodeId, Double.NaN, (source, target, weight) -> {
+                long sourceId = graph.toOriginalNodeId(source);
+                long targetId = graph.toOriginalNodeId(target);
+                assertEquals(sourceId + targetId + 1, weight);
+                return true;
+            });
+        }
+    }
+
+    private Graph loadGraph(Orientation orientation, Aggregation aggregation, boolean parallelAggregation) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(orientation)
+            .globalAggregation(aggregation)
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .parallelAggregation(parallelAggregation)
+            .build()
+            .graph(NativeFactory.class);
+    }
+}
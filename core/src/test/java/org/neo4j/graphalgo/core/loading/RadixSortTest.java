@@ -21,6 +21,10 @@ package org.neo4j.graphalgo.core.loading;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
 final class RadixSortTest {
@@ -39,6 +43,27 @@ final class RadixSortTest {
         assertArrayEquals(expectedByTarget(), data);
     }
 
+    @Test
+    void sortShouldBeStable() {
+        Random random = new Random(42);
+        long[] data = new long[4 * 10_000];
+        for (int i = 0; i < data.length; i += 4) {
+            // an odd number of sort passes leaves the sorted entries in the copy
+            data[i] = random.nextInt(1 << 20);
+            data[1 + i] = random.nextInt(100);
+            data[2 + i] = i;
+            data[3 + i] = -1L;
+        }
+
+        long[][] entries = new long[data.length / 4][];
+        Arrays.setAll(entries, entry -> Arrays.copyOfRange(data, 4 * entry, 4 * entry + 4));
+        Arrays.sort(entries, Comparator.comparingLong(entry -> entry[0]));
+        long[] expected = Arrays.stream(entries).flatMapToLong(Arrays::stream).toArray();
+
+        RadixSort.radixSort(data, RadixSort.newCopy(data), RadixSort.newHistogram(0), data.length);
+        assertArrayEquals(expected, data);
+    }
+
     @Test
     void sortLargeBatch() {
         long[] testcase = new long[7680];
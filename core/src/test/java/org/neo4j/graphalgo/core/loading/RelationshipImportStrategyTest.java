@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.RelationshipImportStrategy;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class RelationshipImportStrategyTest extends BaseTest {
+
+    // includes parallel relationships and a self loop
+    private static final String DB_CYPHER =
+        "CREATE " +
+        "  (a:Node)" +
+        ", (b:Node)" +
+        ", (c:Node)" +
+        ", (d:Node)" +
+        ", (a)-[:TYPE {prop: 1}]->(b)" +
+        ", (a)-[:TYPE {prop: 2}]->(b)" +
+        ", (a)-[:TYPE {prop: 3}]->(c)" +
+        ", (b)-[:TYPE {prop: 4}]->(c)" +
+        ", (c)-[:TYPE {prop: 5}]->(a)" +
+        ", (c)-[:TYPE {prop: 6}]->(c)" +
+        ", (d)-[:TYPE {prop: 7}]->(a)";
+
+    @BeforeEach
+    void setup() {
+        runQuery(DB_CYPHER);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Aggregation.class, mode = EnumSource.Mode.EXCLUDE, names = "DEFAULT")
+    void shouldImportSameGraph(Aggregation aggregation) {
+        for (Orientation orientation : Orientation.values()) {
+            Graph expected = loadGraph(orientation, aggregation, false, RelationshipImportStrategy.BUFFERED);
+            Graph actual = loadGraph(orientation, aggregation, false, RelationshipImportStrategy.COUNTING);
+
+            assertGraphEquals(expected, actual);
+            assertEquals(expected.relationshipCount(), actual.relationshipCount());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Orientation.class, names = {"NATURAL", "REVERSE"})
+    void shouldImportInverseIndex(Orientation orientation) {
+        Graph expected = loadGraph(orientation, Aggregation.NONE, true, RelationshipImportStrategy.BUFFERED);
+        Graph actual = loadGraph(orientation, Aggregation.NONE, true, RelationshipImportStrategy.COUNTING);
+
+        assertGraphEquals(expected, actual);
+        for (long nodeId = 0; nodeId < expected.nodeCount(); nodeId++) {
+            assertEquals(inverseNeighbours(expected, nodeId), inverseNeighbours(actual, nodeId));
+        }
+    }
+
+    @Test
+    void shouldNotExceedPeakMemoryOfBufferedImport() {
+        runQuery(
+            "UNWIND range(0, 999) AS i CREATE (:Dense) " +
+            "WITH count(*) AS ignored " +
+            "MATCH (n:Dense) WITH collect(n) AS nodes " +
+            "UNWIND range(0, 19999) AS i " +
+            "WITH nodes[i % 1000] AS a, nodes[(i * 7919 + 13) % 1000] AS b, i " +
+            "CREATE (a)-[:TYPE {prop: i}]->(b)"
+        );
+
+        PeakTracker buffered = new PeakTracker();
+        PeakTracker counting = new PeakTracker();
+        loadGraph(RelationshipImportStrategy.BUFFERED, buffered);
+        loadGraph(RelationshipImportStrategy.COUNTING, counting);
+
+        assertTrue(
+            counting.peak() < buffered.peak(),
+            String.format("peak of counting import %d >= peak of buffered import %d", counting.peak(), buffered.peak())
+        );
+    }
+
+    @Test
+    void shouldImportHalfUndirectedStorage() {
+        Graph expected = loadGraph(Orientation.UNDIRECTED, Aggregation.NONE, false, RelationshipImportStrategy.BUFFERED);
+        Graph actual = new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(Orientation.UNDIRECTED)
+            .globalAggregation(Aggregation.NONE)
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .halfUndirectedStorage(true)
+            .relationshipImportStrategy(RelationshipImportStrategy.COUNTING)
+            .build()
+            .graph(NativeFactory.class);
+
+        assertGraphEquals(expected, actual);
+    }
+
+    @Test
+    void shouldFailOnUnknownStrategy() {
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> RelationshipImportStrategy.parse("sorting")
+        );
+        assertEquals(
+            "Relationship import strategy `sorting` is not supported. Must be one of: BUFFERED, COUNTING.",
+            ex.getMessage()
+        );
+    }
+
+    private Map<Long, Double> inverseNeighbours(Graph graph, long nodeId) {
+        Map<Long, Double> neighbours = new HashMap<>();
+        graph.forEachInverseRelationship(nodeId, Double.NaN, (s, t, w) -> {
+            neighbours.merge(graph.toOriginalNodeId(t), w, Double::sum);
+            return true;
+        });
+        return neighbours;
+    }
+
+    private void loadGraph(RelationshipImportStrategy strategy, AllocationTracker tracker) {
+        new StoreLoaderBuilder()
+            .api(db)
+            .tracker(tracker)
+            .concurrency(1)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .relationshipImportStrategy(strategy)
+            .build()
+            .graph(NativeFactory.class);
+    }
+
+    private Graph loadGraph(
+        Orientation orientation,
+        Aggregation aggregation,
+        boolean indexInverse,
+        RelationshipImportStrategy strategy
+    ) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(orientation)
+            .globalAggregation(aggregation)
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .indexInverse(indexInverse)
+            .relationshipImportStrategy(strategy)
+            .build()
+            .graph(NativeFactory.class);
+    }
+
+    private static final class PeakTracker extends AllocationTracker {
+
+        private final AtomicLong peak = new AtomicLong();
+
+        @Override
+        public void add(long delta) {
+            super.add(delta);
+            peak.accumulateAndGet(tracked(), Math::max);
+        }
+
+        long peak() {
+            return peak.get();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.loading;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseTest;
+import org.neo4j.graphalgo.Orientation;
+import org.neo4j.graphalgo.PropertyMapping;
+import org.neo4j.graphalgo.StoreLoaderBuilder;
+import org.neo4j.graphalgo.api.Graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+
+class StoreScanTunerTest extends BaseTest {
+
+    private static final String DB_CYPHER =
+        "UNWIND range(0, 999) AS i " +
+        "CREATE (a:Node {score: i})-[:TYPE {prop: i}]->(b:Node {score: i + 1})";
+
+    @Test
+    void shouldIncreasePrefetchSizeAfterFirstWindow() {
+        StoreScanTuner tuner = new StoreScanTuner(100, 200, 1);
+
+        scanBatches(tuner, 4);
+
+        assertEquals(200, tuner.prefetchSize());
+        assertEquals(1, tuner.activeThreads());
+    }
+
+    @Test
+    void shouldStayWithinBounds() {
+        StoreScanTuner tuner = new StoreScanTuner(100, 200, 4);
+
+        for (int window = 0; window < 100; window++) {
+            scanBatches(tuner, 16);
+            assertTrue(tuner.prefetchSize() >= StoreScanTuner.MIN_PREFETCH_SIZE);
+            assertTrue(tuner.prefetchSize() <= tuner.maxPrefetchSize());
+            assertTrue(tuner.activeThreads() >= 1);
+            assertTrue(tuner.activeThreads() <= 4);
+        }
+    }
+
+    @Test
+    void shouldLoadSameGraphWithAdaptiveScanning() {
+        runQuery(DB_CYPHER);
+
+        Graph expected = loadGraph(false);
+        Graph actual = loadGraph(true);
+
+        assertGraphEquals(expected, actual);
+    }
+
+    private void scanBatches(StoreScanTuner tuner, int batches) {
+        for (int batch = 0; batch < batches; batch++) {
+            tuner.beforeBatch();
+            tuner.afterBatch(tuner.prefetchSize());
+        }
+    }
+
+    private Graph loadGraph(boolean adaptive) {
+        return new StoreLoaderBuilder()
+            .api(db)
+            .loadAnyLabel()
+            .loadAnyRelationshipType()
+            .globalOrientation(Orientation.UNDIRECTED)
+            .addNodeProperty(PropertyMapping.of("score", 0))
+            .addRelationshipProperty(PropertyMapping.of("prop", 0))
+            .adaptiveScanning(adaptive)
+            .warmUpPageCache(adaptive)
+            .build()
+            .graph(NativeFactory.class);
+    }
+}
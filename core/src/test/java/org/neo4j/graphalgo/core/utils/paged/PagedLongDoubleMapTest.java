@@ -124,6 +124,33 @@ final class PagedLongDoubleMapTest {
         assertEquals(expected, tracker.tracked());
     }
 
+    @Test
+    void densifyPagesWhileValuesArePut() {
+        AllocationTracker tracker = AllocationTracker.create();
+        PagedLongDoubleMap map = PagedLongDoubleMap.of(2 * PagedLongDoubleMap.PAGE_SIZE, tracker, 4);
+
+        int denseValues = (int) (PagedLongDoubleMap.DENSE_PAGE_THRESHOLD * PagedLongDoubleMap.PAGE_SIZE);
+        for (int i = 0; i < denseValues; i++) {
+            map.put(i, 1.0 + i);
+        }
+        map.put(PagedLongDoubleMap.PAGE_SIZE, 42.0);
+
+        // the first page is a dense array, the second one is still a hash map
+        long expected = sizeOfObjectArray(2)
+                        + sizeOfDoubleArray(PagedLongDoubleMap.PAGE_SIZE)
+                        + sizeOfObjectArray(2) + sizeOfIntArray(2)
+                        + sizeOfIntArray(9) + sizeOfDoubleArray(9);
+        assertEquals(expected, tracker.tracked());
+        assertEquals(denseValues + 1L, map.size());
+        assertEquals(1.0, map.getOrDefault(0L, 0.0));
+        assertEquals(-1.0, map.getOrDefault(denseValues, -1.0));
+        assertEquals(42.0, map.getOrDefault(PagedLongDoubleMap.PAGE_SIZE, 0.0));
+        assertEquals(OptionalLong.of(denseValues), map.getMaxValue());
+
+        assertEquals(expected, map.release());
+        assertEquals(0L, tracker.tracked());
+    }
+
     @Test
     void releaseMemory() {
         AllocationTracker tracker = AllocationTracker.create();
@@ -36,6 +36,18 @@ public final class SettingsProxy {
         return ConcurrencyControllerSettings.unlimitedCores;
     }
 
+    public static Setting<Long> catalogMemoryBudget() {
+        return GraphStoreCatalogSettings.catalogMemoryBudget;
+    }
+
+    public static Setting<Path> catalogSpillDirectory() {
+        return GraphStoreCatalogSettings.catalogSpillDirectory;
+    }
+
+    public static Setting<Path> neo4jHome() {
+        return GraphDatabaseSettings.neo4j_home;
+    }
+
     public static Setting<Boolean> boltEnabled() {
         return BoltConnector.enabled;
     }
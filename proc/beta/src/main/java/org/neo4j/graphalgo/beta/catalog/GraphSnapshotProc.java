@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.catalog;
+
+import org.neo4j.graphalgo.BaseProc;
+import org.neo4j.graphalgo.config.GraphSnapshotConfig;
+import org.neo4j.graphalgo.core.CypherMapWrapper;
+import org.neo4j.graphalgo.core.concurrency.Pools;
+import org.neo4j.graphalgo.core.loading.GraphStore;
+import org.neo4j.graphalgo.core.loading.GraphStoreCatalog;
+import org.neo4j.graphalgo.core.loading.GraphStoreSnapshot;
+import org.neo4j.graphalgo.core.loading.GraphStoreWithConfig;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.neo4j.procedure.Mode.READ;
+
+public class GraphSnapshotProc extends BaseProc {
+
+    static final String SNAPSHOT_DIRECTORY = "snapshots";
+
+    @Procedure(name = "gds.beta.graph.save", mode = READ)
+    @Description("Saves a named graph into a binary snapshot file.")
+    public Stream<GraphSnapshotResult> save(
+        @Name(value = "graphName") String graphName,
+        @Name(value = "fileName") String fileName,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        CypherMapWrapper cypherConfig = CypherMapWrapper.create(configuration);
+        GraphSnapshotConfig config = GraphSnapshotConfig.of(getUsername(), graphName, fileName, cypherConfig);
+        validateConfig(cypherConfig, config);
+
+        GraphSnapshotResult result = runWithExceptionLogging(
+            "Graph snapshot failed", () -> {
+                GraphStoreWithConfig graphStoreWithConfig = GraphStoreCatalog.get(getUsername(), graphName);
+                GraphStore graphStore = graphStoreWithConfig.graphStore();
+                try {
+                    Path snapshotDirectory = Files.createDirectories(snapshotDirectory());
+                    long start = System.nanoTime();
+                    long sizeInBytes = GraphStoreSnapshot.write(
+                        graphStore,
+                        graphStoreWithConfig.config(),
+                        snapshotDirectory.resolve(fileName),
+                        config.concurrency(),
+                        Pools.DEFAULT
+                    );
+                    long end = System.nanoTime();
+                    return new GraphSnapshotResult(
+                        graphName,
+                        fileName,
+                        graphStore.nodeCount(),
+                        graphStore.relationshipCount(),
+                        sizeInBytes,
+                        TimeUnit.NANOSECONDS.toMillis(end - start)
+                    );
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+
+        return Stream.of(result);
+    }
+
+    @Procedure(name = "gds.beta.graph.load", mode = READ)
+    @Description("Loads a binary snapshot file into the graph catalog.")
+    public Stream<GraphSnapshotResult> load(
+        @Name(value = "graphName") String graphName,
+        @Name(value = "fileName") String fileName,
+        @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration
+    ) {
+        validateGraphName(getUsername(), graphName);
+        CypherMapWrapper cypherConfig = CypherMapWrapper.create(configuration);
+        GraphSnapshotConfig config = GraphSnapshotConfig.of(getUsername(), graphName, fileName, cypherConfig);
+        validateConfig(cypherConfig, config);
+
+        GraphSnapshotResult result = runWithExceptionLogging(
+            "Graph snapshot loading failed", () -> {
+                Path file = snapshotDirectory().resolve(fileName);
+                if (!Files.isRegularFile(file)) {
+                    throw new IllegalArgumentException(String.format(
+                        "Cannot find graph snapshot with name '%s'.",
+                        fileName
+                    ));
+                }
+                try {
+                    long start = System.nanoTime();
+                    GraphStoreWithConfig graphStoreWithConfig = GraphStoreSnapshot.read(
+                        file,
+                        getUsername(),
+                        Optional.of(graphName),
+                        config.concurrency(),
+                        AllocationTracker.create()
+                    );
+                    long end = System.nanoTime();
+                    GraphStore graphStore = graphStoreWithConfig.graphStore();
+                    GraphStoreCatalog.set(graphStoreWithConfig.config(), graphStore);
+                    return new GraphSnapshotResult(
+                        graphName,
+                        fileName,
+                        graphStore.nodeCount(),
+                        graphStore.relationshipCount(),
+                        Files.size(file),
+                        TimeUnit.NANOSECONDS.toMillis(end - start)
+                    );
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+
+        return Stream.of(result);
+    }
+
+    /**
+     * Every user has their own snapshot directory, so that users can neither read nor overwrite each other's snapshots.
+     */
+    private Path snapshotDirectory() {
+        String username = getUsername();
+        if (username.contains("/") || username.contains("\\") || username.equals(".") || username.equals("..")) {
+            throw new IllegalArgumentException(String.format(
+                "User name `%s` cannot be used as a snapshot directory.",
+                username
+            ));
+        }
+        return api
+            .databaseLayout()
+            .getNeo4jLayout()
+            .homeDirectory()
+            .toPath()
+            .resolve(SNAPSHOT_DIRECTORY)
+            .resolve(username);
+    }
+
+    public static class GraphSnapshotResult {
+        public final String graphName;
+        public final String fileName;
+        public final long nodeCount;
+        public final long relationshipCount;
+        public final long sizeInBytes;
+        public final long snapshotMillis;
+
+        public GraphSnapshotResult(
+            String graphName,
+            String fileName,
+            long nodeCount,
+            long relationshipCount,
+            long sizeInBytes,
+            long snapshotMillis
+        ) {
+            this.graphName = graphName;
+            this.fileName = fileName;
+            this.nodeCount = nodeCount;
+            this.relationshipCount = relationshipCount;
+            this.sizeInBytes = sizeInBytes;
+            this.snapshotMillis = snapshotMillis;
+        }
+    }
+}
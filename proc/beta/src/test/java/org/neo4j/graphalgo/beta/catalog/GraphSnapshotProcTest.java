@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2017-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.beta.catalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphalgo.BaseProcTest;
+import org.neo4j.graphalgo.GdsCypher;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.catalog.GraphCreateProc;
+import org.neo4j.graphalgo.catalog.GraphDropProc;
+import org.neo4j.graphalgo.core.loading.GraphStoreCatalog;
+import org.neo4j.graphdb.QueryExecutionException;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphalgo.TestSupport.assertGraphEquals;
+import static org.neo4j.graphalgo.utils.ExceptionUtil.rootCause;
+
+class GraphSnapshotProcTest extends BaseProcTest {
+
+    private static final String DB_CYPHER =
+        "CREATE" +
+        "  (a:A { prop1: 0 })" +
+        ", (b:A { prop1: 1 })" +
+        ", (c:B { prop1: 2 })" +
+        ", (a)-[:REL1 { weight: 42 }]->(b)" +
+        ", (b)-[:REL1 { weight: 43 }]->(c)" +
+        ", (c)-[:REL2 { weight: 44 }]->(a)";
+
+    @BeforeEach
+    void setup() throws Exception {
+        registerProcedures(GraphCreateProc.class, GraphDropProc.class, GraphSnapshotProc.class);
+        runQuery(DB_CYPHER);
+    }
+
+    @AfterEach
+    void teardown() {
+        GraphStoreCatalog.removeAllLoadedGraphs();
+    }
+
+    @Test
+    void saveAndLoadGraph() {
+        runQuery(GdsCypher.call()
+            .withNodeLabel("A")
+            .withNodeLabel("B")
+            .withNodeProperty("prop1")
+            .withRelationshipType("REL1")
+            .withRelationshipType("REL2")
+            .withRelationshipProperty("weight")
+            .graphCreate("test-graph")
+            .yields());
+
+        runQueryWithRowConsumer("CALL gds.beta.graph.save('test-graph', 'test-graph.gds')", row -> {
+            assertEquals("test-graph", row.getString("graphName"));
+            assertEquals("test-graph.gds", row.getString("fileName"));
+            assertEquals(3, row.getNumber("nodeCount").longValue());
+            assertEquals(3, row.getNumber("relationshipCount").longValue());
+            assertThat(row.getNumber("sizeInBytes").longValue(), greaterThan(0L));
+        });
+
+        runQueryWithRowConsumer("CALL gds.beta.graph.load('restored-graph', 'test-graph.gds')", row -> {
+            assertEquals("restored-graph", row.getString("graphName"));
+            assertEquals(3, row.getNumber("nodeCount").longValue());
+            assertEquals(3, row.getNumber("relationshipCount").longValue());
+        });
+
+        Graph expected = GraphStoreCatalog.get(getUsername(), "test-graph").graphStore().getUnion();
+        Graph actual = GraphStoreCatalog.get(getUsername(), "restored-graph").graphStore().getUnion();
+        assertGraphEquals(expected, actual);
+    }
+
+    @Test
+    void failOnPathInFileName() {
+        runQuery(GdsCypher.call()
+            .withAnyLabel()
+            .withAnyRelationshipType()
+            .graphCreate("test-graph")
+            .yields());
+
+        assertError(
+            "CALL gds.beta.graph.save('test-graph', '../test-graph.gds')",
+            "`fileName` must be the name of a file in the snapshot directory, but was `../test-graph.gds`."
+        );
+    }
+
+    @Test
+    void failOnPathInGraphName() {
+        assertError(
+            "CALL gds.beta.graph.load('../restored-graph', 'test-graph.gds')",
+            "`graphName` must not contain path separators, but was `../restored-graph`."
+        );
+    }
+
+    @Test
+    void failOnSnapshotOfOtherUser() {
+        runQuery("alice", GdsCypher.call()
+            .withAnyLabel()
+            .withAnyRelationshipType()
+            .graphCreate("test-graph")
+            .yields(), emptyMap());
+        runQuery("alice", "CALL gds.beta.graph.save('test-graph', 'test-graph.gds')", emptyMap());
+
+        QueryExecutionException ex = assertThrows(
+            QueryExecutionException.class,
+            () -> runQuery("bob", "CALL gds.beta.graph.load('restored-graph', 'test-graph.gds')", emptyMap())
+        );
+        assertEquals("Cannot find graph snapshot with name 'test-graph.gds'.", rootCause(ex).getMessage());
+
+        runQuery("alice", "CALL gds.beta.graph.load('restored-graph', 'test-graph.gds')", emptyMap());
+        assertTrue(GraphStoreCatalog.exists("alice", "restored-graph"));
+    }
+
+    @Test
+    void failOnMissingSnapshot() {
+        assertError(
+            "CALL gds.beta.graph.load('restored-graph', 'missing.gds')",
+            "Cannot find graph snapshot with name 'missing.gds'."
+        );
+    }
+}
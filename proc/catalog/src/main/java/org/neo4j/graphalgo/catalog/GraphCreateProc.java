@@ -24,6 +24,7 @@ import org.neo4j.graphalgo.NodeProjections;
 import org.neo4j.graphalgo.RelationshipProjectionMappings;
 import org.neo4j.graphalgo.RelationshipProjections;
 import org.neo4j.graphalgo.api.GraphStoreFactory;
+import org.neo4j.graphalgo.compat.MapUtil;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromCypherConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromStoreConfig;
@@ -35,6 +36,8 @@ import org.neo4j.graphalgo.core.loading.CypherFactory;
 import org.neo4j.graphalgo.core.loading.GraphStore;
 import org.neo4j.graphalgo.core.loading.GraphStoreCatalog;
 import org.neo4j.graphalgo.core.loading.NativeFactory;
+import org.neo4j.graphalgo.core.loading.NodeOrderingStatistics;
+import org.neo4j.graphalgo.core.loading.StoreScanStatistics;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
 import org.neo4j.graphalgo.core.utils.mem.MemoryTreeWithDimensions;
@@ -45,7 +48,9 @@ import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.neo4j.graphalgo.RelationshipType.ALL_RELATIONSHIPS;
@@ -167,7 +172,8 @@ public class GraphCreateProc extends CatalogProc {
             : new GraphCreateNativeResult.Builder(config);
 
         try (ProgressTimer ignored = ProgressTimer.start(builder::withCreateMillis)) {
-            GraphLoader loader = newLoader(config, AllocationTracker.EMPTY);
+            // the catalog measures the footprint of the graph by its tracked allocations
+            GraphLoader loader = newLoader(config, AllocationTracker.create());
             GraphStoreFactory graphStoreFactory = loader.build(getFactoryClazz(config));
             GraphStoreFactory.ImportResult importResult = graphStoreFactory.build();
 
@@ -179,7 +185,9 @@ public class GraphCreateProc extends CatalogProc {
 
             builder
                 .withNodeCount(graphStore.nodeCount())
-                .withRelationshipCount(graphStore.relationshipCount());
+                .withRelationshipCount(graphStore.relationshipCount())
+                .withStoreScans(importResult.storeScans())
+                .withNodeOrdering(importResult.nodeOrdering());
 
             GraphStoreCatalog.set(catalogConfig, graphStore);
         }
@@ -245,6 +253,8 @@ public class GraphCreateProc extends CatalogProc {
             long nodeCount;
             long relationshipCount;
             long createMillis;
+            Map<String, StoreScanStatistics> storeScans = Collections.emptyMap();
+            Optional<NodeOrderingStatistics> nodeOrdering = Optional.empty();
 
             Builder(GraphCreateConfig config) {
                 this.graphName = config.graphName();
@@ -265,6 +275,16 @@ public class GraphCreateProc extends CatalogProc {
                 return this;
             }
 
+            Builder withStoreScans(Map<String, StoreScanStatistics> storeScans) {
+                this.storeScans = storeScans;
+                return this;
+            }
+
+            Builder withNodeOrdering(Optional<NodeOrderingStatistics> nodeOrdering) {
+                this.nodeOrdering = nodeOrdering;
+                return this;
+            }
+
             abstract GraphCreateResult build();
         }
     }
@@ -273,6 +293,8 @@ public class GraphCreateProc extends CatalogProc {
 
         public final Map<String, Object> nodeProjection;
         public final Map<String, Object> relationshipProjection;
+        public final Map<String, Object> storeScans;
+        public final Map<String, Object> nodeOrdering;
 
         GraphCreateNativeResult(
             String graphName,
@@ -280,11 +302,15 @@ public class GraphCreateProc extends CatalogProc {
             Map<String, Object> relationshipProjection,
             long nodeCount,
             long relationshipCount,
-            long createMillis
+            long createMillis,
+            Map<String, Object> storeScans,
+            Map<String, Object> nodeOrdering
         ) {
             super(graphName, nodeCount, relationshipCount, createMillis);
             this.nodeProjection = nodeProjection;
             this.relationshipProjection = relationshipProjection;
+            this.storeScans = storeScans;
+            this.nodeOrdering = nodeOrdering;
         }
 
         protected static final class Builder extends GraphCreateResult.Builder {
@@ -304,9 +330,33 @@ public class GraphCreateProc extends CatalogProc {
                     relationshipProjections.toObject(),
                     nodeCount,
                     relationshipCount,
-                    createMillis
+                    createMillis,
+                    storeScansToObject(),
+                    nodeOrderingToObject()
                 );
             }
+
+            private Map<String, Object> storeScansToObject() {
+                Map<String, Object> storeScansObject = new LinkedHashMap<>();
+                storeScans.forEach((store, statistics) -> storeScansObject.put(store, MapUtil.map(
+                    "prefetchSize", (long) statistics.prefetchSize(),
+                    "scannerThreads", (long) statistics.scannerThreads(),
+                    "warmedUpPages", statistics.warmedUpPages(),
+                    "adaptive", statistics.adaptive()
+                )));
+                return storeScansObject;
+            }
+
+            private Map<String, Object> nodeOrderingToObject() {
+                return nodeOrdering
+                    .map(statistics -> MapUtil.map(
+                        "nodeOrdering", statistics.nodeOrdering().name(),
+                        "compressedSizeBefore", statistics.compressedSizeBefore(),
+                        "compressedSizeAfter", statistics.compressedSizeAfter(),
+                        "compressionRatio", statistics.compressionRatio()
+                    ))
+                    .orElse(Collections.emptyMap());
+            }
         }
     }
 
@@ -49,19 +49,21 @@ public class GraphDeleteRelationshipProc extends CatalogProc {
         @Name(value = "relationshipType") String relationshipType
     ) {
 
-        GraphStoreWithConfig graphStoreWithConfig = GraphStoreCatalog.get(getUsername(), graphName);
+        try (GraphStoreCatalog.Pin pin = GraphStoreCatalog.pin(getUsername(), graphName)) {
+            GraphStoreWithConfig graphStoreWithConfig = pin.graphStoreWithConfig();
 
-        DeleteRelationshipsConfig.of(graphName, relationshipType).validate(graphStoreWithConfig.graphStore());
+            DeleteRelationshipsConfig.of(graphName, relationshipType).validate(graphStoreWithConfig.graphStore());
 
-        DeletionResult deletionResult = graphStoreWithConfig
-            .graphStore()
-            .deleteRelationships(RelationshipType.of(relationshipType));
+            DeletionResult deletionResult = graphStoreWithConfig
+                .graphStore()
+                .deleteRelationships(RelationshipType.of(relationshipType));
 
-        return Stream.of(new Result(
-            graphName,
-            relationshipType,
-            filterDeletionResult(deletionResult, relationshipType, graphStoreWithConfig.config())
-        ));
+            return Stream.of(new Result(
+                graphName,
+                relationshipType,
+                filterDeletionResult(deletionResult, relationshipType, graphStoreWithConfig.config())
+            ));
+        }
     }
 
     @Deprecated
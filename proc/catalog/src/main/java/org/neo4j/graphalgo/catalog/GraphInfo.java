@@ -20,8 +20,10 @@
 package org.neo4j.graphalgo.catalog;
 
 import org.HdrHistogram.AtomicHistogram;
+import org.neo4j.graphalgo.NodeLabel;
 import org.neo4j.graphalgo.core.utils.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.compat.MapUtil;
 import org.neo4j.graphalgo.config.AlgoBaseConfig;
 import org.neo4j.graphalgo.config.GraphCreateConfig;
@@ -29,10 +31,13 @@ import org.neo4j.graphalgo.config.GraphCreateFromCypherConfig;
 import org.neo4j.graphalgo.core.concurrency.ParallelUtil;
 import org.neo4j.graphalgo.core.concurrency.Pools;
 import org.neo4j.graphalgo.core.loading.GraphStore;
+import org.neo4j.graphalgo.core.loading.GraphStoreCatalogEntry;
+import org.neo4j.graphalgo.core.loading.LazyNodeProperties;
 import org.neo4j.graphalgo.core.utils.mem.MemoryUsage;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.util.Collections.emptyMap;
 
@@ -48,11 +53,19 @@ public class GraphInfo {
     public final String relationshipQuery;
     public final long nodeCount;
     public final long relationshipCount;
+    public final Map<String, Object> nodePropertyStorage;
     public final Map<String, Object> degreeDistribution;
     public final LocalDateTime creationTime;
     public final LocalDateTime modificationTime;
+    public final LocalDateTime lastAccessTime;
+    public final boolean spilled;
 
-    GraphInfo(GraphCreateConfig config, GraphStore graphStore, boolean computeHistogram) {
+    /**
+     * Spilled graphs are described without reading them back into memory,
+     * so their node property storage and degree distribution are reported as empty.
+     */
+    GraphInfo(GraphStoreCatalogEntry entry, boolean computeHistogram) {
+        GraphCreateConfig config = entry.config();
         this.graphName = config.graphName();
         this.creationTime = config.creationTime();
 
@@ -69,14 +82,38 @@ public class GraphInfo {
             this.relationshipQuery = null;
         }
 
-        this.modificationTime = graphStore.modificationTime();
-        this.nodeCount = graphStore.nodeCount();
-        this.relationshipCount = graphStore.relationshipCount();
-        this.degreeDistribution = computeHistogram ? computeHistogram(graphStore.getUnion()) : emptyMap();
-        this.sizeInBytes = MemoryUsage.sizeOf(graphStore);
+        this.modificationTime = entry.modificationTime();
+        this.lastAccessTime = entry.lastAccessTime();
+        this.spilled = entry.spilled();
+        this.nodeCount = entry.nodeCount();
+        this.relationshipCount = entry.relationshipCount();
+        this.nodePropertyStorage = entry.graphStore().map(GraphInfo::nodePropertyStorage).orElse(emptyMap());
+        this.degreeDistribution = computeHistogram
+            ? entry.graphStore().map(graphStore -> computeHistogram(graphStore.getUnion())).orElse(emptyMap())
+            : emptyMap();
+        this.sizeInBytes = entry.sizeInBytes();
         this.memoryUsage = MemoryUsage.humanReadable(this.sizeInBytes);
     }
 
+    /**
+     * Reports for every node property if it is stored with one value per node or only for the nodes that have a value.
+     * Properties that are stored differently for different labels are reported as `mixed`,
+     * lazily loaded properties that have not been accessed yet as `lazy`.
+     */
+    private static Map<String, Object> nodePropertyStorage(GraphStore graphStore) {
+        Map<String, Object> storage = new TreeMap<>();
+        for (NodeLabel nodeLabel : graphStore.nodeLabels()) {
+            for (String propertyKey : graphStore.nodePropertyKeys(nodeLabel)) {
+                NodeProperties values = graphStore.nodeProperty(nodeLabel, propertyKey).values();
+                String layout = values instanceof LazyNodeProperties && !((LazyNodeProperties) values).isLoaded()
+                    ? "lazy"
+                    : values.isSparse() ? "sparse" : "dense";
+                storage.merge(propertyKey, layout, (existing, current) -> existing.equals(current) ? existing : "mixed");
+            }
+        }
+        return storage;
+    }
+
     private Map<String, Object> computeHistogram(Graph graph) {
         int batchSize = Math.toIntExact(ParallelUtil.adjustedBatchSize(
             graph.nodeCount(),
@@ -56,32 +56,34 @@ public class GraphRemoveNodePropertiesProc extends CatalogProc {
         );
         // validation
         validateConfig(cypherConfig, config);
-        GraphStore graphStore = GraphStoreCatalog.get(getUsername(), graphName).graphStore();
-        config.validate(graphStore);
-        // removing
-        long propertiesRemoved = runWithExceptionLogging(
-            "Node property removal failed",
-            () -> {
-                long sum = config.nodeProperties()
-                    .stream()
-                    .map(graphStore::nodeProperty)
-                    .map(GraphStore.NodeProperty::values)
-                    .mapToLong(NodeProperties::size)
-                    .sum();
+        try (GraphStoreCatalog.Pin pin = GraphStoreCatalog.pin(getUsername(), graphName)) {
+            GraphStore graphStore = pin.graphStore();
+            config.validate(graphStore);
+            // removing
+            long propertiesRemoved = runWithExceptionLogging(
+                "Node property removal failed",
+                () -> {
+                    long sum = config.nodeProperties()
+                        .stream()
+                        .map(graphStore::nodeProperty)
+                        .map(GraphStore.NodeProperty::values)
+                        .mapToLong(NodeProperties::size)
+                        .sum();
 
-                config
-                    .nodeProperties()
-                    .forEach(property ->
-                        graphStore
-                            .nodeLabels()
-                            .forEach(label -> graphStore.removeNodeProperty(label, property))
-                    );
+                    config
+                        .nodeProperties()
+                        .forEach(property ->
+                            graphStore
+                                .nodeLabels()
+                                .forEach(label -> graphStore.removeNodeProperty(label, property))
+                        );
 
-                return sum;
-            }
-        );
-        // result
-        return Stream.of(new Result(graphName, nodeProperties, propertiesRemoved));
+                    return sum;
+                }
+            );
+            // result
+            return Stream.of(new Result(graphName, nodeProperties, propertiesRemoved));
+        }
     }
 
     public static class Result {
@@ -81,8 +81,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
 
         runQueryWithRowConsumer(query, map("relProjection", relProjection),
             row -> {
-                assertEquals(303552, row.getNumber("bytesMax").longValue());
-                assertEquals(303552, row.getNumber("bytesMin").longValue());
+                assertEquals(303658, row.getNumber("bytesMax").longValue());
+                assertEquals(303584, row.getNumber("bytesMin").longValue());
                 assertEquals(expectedPercentage, row.getNumber("heapPercentageMin").doubleValue());
                 assertEquals(expectedPercentage, row.getNumber("heapPercentageMax").doubleValue());
             }
@@ -103,8 +103,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
 
         runQueryWithRowConsumer(query, map("relProjection", relProjection),
             row -> {
-                assertEquals(30315240, row.getNumber("bytesMin").longValue());
-                assertEquals(30315240, row.getNumber("bytesMax").longValue());
+                assertEquals(30190280, row.getNumber("bytesMin").longValue());
+                assertEquals(30322152, row.getNumber("bytesMax").longValue());
                 assertEquals(expectedPercentage, row.getNumber("heapPercentageMin").doubleValue());
                 assertEquals(expectedPercentage, row.getNumber("heapPercentageMax").doubleValue());
             }
@@ -121,8 +121,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
 
         runQueryWithRowConsumer(query, map("relProjection", relProjection),
             row -> {
-                assertEquals(573984, row.getNumber("bytesMin").longValue());
-                assertEquals(573984, row.getNumber("bytesMax").longValue());
+                assertEquals(574016, row.getNumber("bytesMin").longValue());
+                assertEquals(574090, row.getNumber("bytesMax").longValue());
             }
         );
     }
@@ -162,8 +162,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
         String query = "CALL gds.graph.create.estimate('*', '*', {nodeCount: 42, relationshipCount: 1337})";
         runQueryWithRowConsumer(query,
             row -> {
-                assertEquals(303792, row.getNumber("bytesMin").longValue());
-                assertEquals(303792, row.getNumber("bytesMax").longValue());
+                assertEquals(303824, row.getNumber("bytesMin").longValue());
+                assertEquals(303962, row.getNumber("bytesMax").longValue());
                 assertEquals(42, row.getNumber("nodeCount").longValue());
                 assertEquals(1337, row.getNumber("relationshipCount").longValue());
             }
@@ -175,8 +175,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
         String query = "CALL gds.graph.create.estimate('*', '*', {nodeCount: 42, relationshipCount: 1337})";
         runQueryWithRowConsumer(query,
             row -> {
-                assertEquals(303792, row.getNumber("bytesMin").longValue());
-                assertEquals(303792, row.getNumber("bytesMax").longValue());
+                assertEquals(303824, row.getNumber("bytesMin").longValue());
+                assertEquals(303962, row.getNumber("bytesMax").longValue());
                 assertEquals(42, row.getNumber("nodeCount").longValue());
                 assertEquals(1337, row.getNumber("relationshipCount").longValue());
             }
@@ -188,8 +188,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
         String query = "CALL gds.graph.create.estimate('*', {`FOO`: {type: '*', properties: 'weight'}}, {nodeCount: 42, relationshipCount: 1337})";
         runQueryWithRowConsumer(query,
             row -> {
-                assertEquals(574224, row.getNumber("bytesMin").longValue());
-                assertEquals(574224, row.getNumber("bytesMax").longValue());
+                assertEquals(574256, row.getNumber("bytesMin").longValue());
+                assertEquals(574394, row.getNumber("bytesMax").longValue());
             }
         );
     }
@@ -199,8 +199,8 @@ class GraphCreateProcEstimateTest extends BaseProcTest {
         String query = "CALL gds.graph.create.estimate('*', '*', {nodeCount: 5000000000, relationshipCount: 20000000000})";
         runQueryWithRowConsumer(query,
             row -> {
-                assertEquals(171461586832L, row.getNumber("bytesMin").longValue());
-                assertEquals(231466207480L, row.getNumber("bytesMax").longValue());
+                assertEquals(170836586872L, row.getNumber("bytesMin").longValue());
+                assertEquals(231470022668L, row.getNumber("bytesMax").longValue());
                 assertEquals(5000000000L, row.getNumber("nodeCount").longValue());
                 assertEquals(20000000000L, row.getNumber("relationshipCount").longValue());
             }
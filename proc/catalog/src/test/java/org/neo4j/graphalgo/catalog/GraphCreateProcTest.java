@@ -58,6 +58,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
@@ -143,13 +144,72 @@ class GraphCreateProcTest extends BaseProcTest {
                 ),
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
         assertGraphExists(graphName);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void reportStoreScans() {
+        runQueryWithRowConsumer(
+            "CALL gds.graph.create('g', 'A', 'REL', {adaptiveScanning: true, warmUpPageCache: true}) YIELD storeScans",
+            row -> {
+                Map<String, Object> storeScans = (Map<String, Object>) row.get("storeScans");
+                assertEquals(Set.of("Node", "Relationship"), storeScans.keySet());
+                storeScans.values().forEach(scan -> {
+                    Map<String, Object> statistics = (Map<String, Object>) scan;
+                    assertEquals(true, statistics.get("adaptive"));
+                    assertTrue((long) statistics.get("prefetchSize") > 0);
+                    assertTrue((long) statistics.get("scannerThreads") > 0);
+                    assertTrue((long) statistics.get("warmedUpPages") > 0);
+                });
+            }
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reportCountingScanSeparately() {
+        runQueryWithRowConsumer(
+            "CALL gds.graph.create('g', 'A', 'REL', {relationshipImportStrategy: 'COUNTING'}) YIELD storeScans",
+            row -> {
+                Map<String, Object> storeScans = (Map<String, Object>) row.get("storeScans");
+                assertEquals(Set.of("Node", "RelationshipCount", "Relationship"), storeScans.keySet());
+            }
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reportNodeOrdering() {
+        runQueryWithRowConsumer(
+            "CALL gds.graph.create('g', 'A', 'REL', {nodeOrdering: 'DEGREE'}) YIELD nodeOrdering",
+            row -> {
+                Map<String, Object> nodeOrdering = (Map<String, Object>) row.get("nodeOrdering");
+                assertEquals(
+                    Set.of("nodeOrdering", "compressedSizeBefore", "compressedSizeAfter", "compressionRatio"),
+                    nodeOrdering.keySet()
+                );
+                assertEquals("DEGREE", nodeOrdering.get("nodeOrdering"));
+                assertTrue((double) nodeOrdering.get("compressionRatio") > 0);
+            }
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reportNoNodeOrderingByDefault() {
+        runQueryWithRowConsumer(
+            "CALL gds.graph.create('g', 'A', 'REL') YIELD nodeOrdering",
+            row -> assertEquals(Collections.emptyMap(), row.get("nodeOrdering"))
+        );
+    }
+
     @Test
     void createCypherProjection() {
         String graphName = "name";
@@ -252,7 +312,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 RELATIONSHIP_PROJECTION_KEY, isA(Map.class),
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -275,7 +337,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 RELATIONSHIP_PROJECTION_KEY, isA(Map.class),
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -348,7 +412,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 RELATIONSHIP_PROJECTION_KEY, desugaredRelProjection,
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -386,7 +452,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 )),
                 "nodeCount", 2L,
                 "relationshipCount", expectedRelationshipCount,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -422,7 +490,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 ),
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -528,7 +598,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 ),
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -569,7 +641,9 @@ class GraphCreateProcTest extends BaseProcTest {
                 ),
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
-                "createMillis", instanceOf(Long.class)
+                "createMillis", instanceOf(Long.class),
+                "storeScans", isA(Map.class),
+                "nodeOrdering", isA(Map.class)
             ))
         );
 
@@ -703,7 +777,9 @@ class GraphCreateProcTest extends BaseProcTest {
             ),
             "nodeCount", 2L,
             "relationshipCount", 1L,
-            "createMillis", instanceOf(Long.class)
+            "createMillis", instanceOf(Long.class),
+            "storeScans", isA(Map.class),
+            "nodeOrdering", isA(Map.class)
         )));
     }
 
@@ -730,7 +806,9 @@ class GraphCreateProcTest extends BaseProcTest {
             RELATIONSHIP_PROJECTION_KEY, isA(Map.class),
             "nodeCount", 2L,
             "relationshipCount", 1L,
-            "createMillis", instanceOf(Long.class)
+            "createMillis", instanceOf(Long.class),
+            "storeScans", isA(Map.class),
+            "nodeOrdering", isA(Map.class)
         )));
     }
 
@@ -93,6 +93,7 @@ class GraphDropProcTest extends BaseProcTest {
                     "relationshipQuery", null,
                     "nodeCount", 2L,
                     "relationshipCount", 1L,
+                    "nodePropertyStorage", emptyMap(),
                     "degreeDistribution", map(
                         "min", 0L,
                         "mean", 0.5D,
@@ -106,6 +107,8 @@ class GraphDropProcTest extends BaseProcTest {
                     ),
                     "creationTime", isA(LocalDateTime.class),
                     "modificationTime", isA(LocalDateTime.class),
+                    "lastAccessTime", isA(LocalDateTime.class),
+                    "spilled", false,
                     "memoryUsage", isA(String.class),
                     "sizeInBytes", isA(Long.class)
                 )
@@ -98,6 +98,7 @@ class GraphListProcTest extends BaseProcTest {
                 "relationshipQuery", null,
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
+                "nodePropertyStorage", emptyMap(),
                 "degreeDistribution", map(
                     "min", 0L,
                     "mean", 0.5D,
@@ -111,6 +112,8 @@ class GraphListProcTest extends BaseProcTest {
                 ),
                 "creationTime", isA(LocalDateTime.class),
                 "modificationTime", isA(LocalDateTime.class),
+                "lastAccessTime", isA(LocalDateTime.class),
+                "spilled", false,
                 "memoryUsage", instanceOf(String.class),
                 "sizeInBytes", instanceOf(Long.class)
             )
@@ -133,6 +136,7 @@ class GraphListProcTest extends BaseProcTest {
                 "relationshipQuery", ALL_RELATIONSHIPS_QUERY,
                 "nodeCount", 2L,
                 "relationshipCount", 1L,
+                "nodePropertyStorage", emptyMap(),
                 "degreeDistribution", map(
                     "min", 0L,
                     "mean", 0.5D,
@@ -146,6 +150,8 @@ class GraphListProcTest extends BaseProcTest {
                 ),
                 "creationTime", isA(LocalDateTime.class),
                 "modificationTime", isA(LocalDateTime.class),
+                "lastAccessTime", isA(LocalDateTime.class),
+                "spilled", false,
                 "memoryUsage", instanceOf(String.class),
                 "sizeInBytes", instanceOf(Long.class)
             )
@@ -247,6 +253,21 @@ class GraphListProcTest extends BaseProcTest {
         ));
     }
 
+    @Test
+    void listNodePropertyStorage() {
+        runQuery("CREATE (:B {score: 1, flag: 1}), (:B {score: 2}), (:B {score: 3}), (:B {score: 4})");
+        runQuery("CALL gds.graph.create('name', 'B', '*', {nodeProperties: ['score', 'flag']})");
+
+        assertCypherResult("CALL gds.graph.list() YIELD nodePropertyStorage", singletonList(
+            map(
+                "nodePropertyStorage", map(
+                    "flag", "sparse",
+                    "score", "dense"
+                )
+            )
+        ));
+    }
+
     @Test
     void calculateActualMemoryUsage() {
         runQuery("CALL gds.graph.create('name', 'A', 'REL')");
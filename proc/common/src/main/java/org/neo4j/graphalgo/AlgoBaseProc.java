@@ -72,6 +72,9 @@ public abstract class AlgoBaseProc<
 
     protected static final String STATS_DESCRIPTION = "Executes the algorithm and returns result statistics without writing the result to Neo4j.";
 
+    // keeps the named graph of a procedure that modifies it in memory, see GraphStoreCatalog#pin
+    private @Nullable GraphStoreCatalog.Pin graphStorePin;
+
     public String algoName() {
         return this.getClass().getSimpleName();
     }
@@ -235,7 +238,14 @@ public abstract class AlgoBaseProc<
             ? graphStore.relationshipTypes()
             : config.relationshipTypeIdentifiers();
 
-        return graphStore.getGraph(nodeLabels, relationshipTypes, weightProperty, config.concurrency());
+        return graphStore.getGraph(
+            nodeLabels,
+            relationshipTypes,
+            weightProperty,
+            config.concurrency(),
+            config.materializeUnion(),
+            config.materializeSubgraph()
+        );
     }
 
     private GraphStore getOrCreateGraphStore(Pair<CONFIG, Optional<String>> configAndName) {
@@ -244,7 +254,11 @@ public abstract class AlgoBaseProc<
 
         GraphStoreWithConfig graphCandidate;
 
-        if (maybeGraphName.isPresent()) {
+        if (maybeGraphName.isPresent() && modifiesGraphStore(config)) {
+            unpinGraphStore();
+            graphStorePin = GraphStoreCatalog.pin(getUsername(), maybeGraphName.get());
+            graphCandidate = graphStorePin.graphStoreWithConfig();
+        } else if (maybeGraphName.isPresent()) {
             graphCandidate = GraphStoreCatalog.get(getUsername(), maybeGraphName.get());
         } else if (config.implicitCreateConfig().isPresent()) {
             GraphCreateConfig createConfig = config.implicitCreateConfig().get();
@@ -260,6 +274,21 @@ public abstract class AlgoBaseProc<
         return graphCandidate.graphStore();
     }
 
+    private boolean modifiesGraphStore(CONFIG config) {
+        return config instanceof MutatePropertyConfig || config instanceof MutateRelationshipConfig;
+    }
+
+    /**
+     * Allows the named graph of a procedure that modifies it to be spilled again.
+     * Called once the procedure has modified the graph or failed.
+     */
+    protected void unpinGraphStore() {
+        if (graphStorePin != null) {
+            graphStorePin.close();
+            graphStorePin = null;
+        }
+    }
+
     private void validate(GraphStoreWithConfig graphStoreWithConfig, CONFIG config) {
         GraphStore graphStore = graphStoreWithConfig.graphStore();
         GraphCreateConfig graphCreateConfig = graphStoreWithConfig.config();
@@ -349,6 +378,22 @@ public abstract class AlgoBaseProc<
         CONFIG config = input.getOne();
         validateMemoryUsageIfImplemented(config);
 
+        try {
+            return computeWithGraphStore(builder, tracker, input, releaseAlgorithm, releaseTopology);
+        } catch (RuntimeException | Error e) {
+            unpinGraphStore();
+            throw e;
+        }
+    }
+
+    private ComputationResult<ALGO, ALGO_RESULT, CONFIG> computeWithGraphStore(
+        ImmutableComputationResult.Builder<ALGO, ALGO_RESULT, CONFIG> builder,
+        AllocationTracker tracker,
+        Pair<CONFIG, Optional<String>> input,
+        boolean releaseAlgorithm,
+        boolean releaseTopology
+    ) {
+        CONFIG config = input.getOne();
         GraphStore graphStore;
         Graph graph;
 
@@ -43,6 +43,14 @@ public abstract class MutateProc<
     protected abstract AbstractResultBuilder<PROC_RESULT> resultBuilder(ComputationResult<ALGO, ALGO_RESULT, CONFIG> computeResult);
 
     protected Stream<PROC_RESULT> mutate(ComputationResult<ALGO, ALGO_RESULT, CONFIG> computeResult) {
+        try {
+            return mutateGraphStore(computeResult);
+        } finally {
+            unpinGraphStore();
+        }
+    }
+
+    protected Stream<PROC_RESULT> mutateGraphStore(ComputationResult<ALGO, ALGO_RESULT, CONFIG> computeResult) {
         CONFIG config = computeResult.config();
         AbstractResultBuilder<PROC_RESULT> builder = resultBuilder(computeResult)
             .withCreateMillis(computeResult.createMillis())
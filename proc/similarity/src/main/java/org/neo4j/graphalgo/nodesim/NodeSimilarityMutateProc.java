@@ -101,7 +101,7 @@ public class NodeSimilarityMutateProc extends MutateProc<NodeSimilarity, NodeSim
     }
 
     @Override
-    public Stream<MutateResult> mutate(
+    protected Stream<MutateResult> mutateGraphStore(
         ComputationResult<NodeSimilarity, NodeSimilarityResult, NodeSimilarityMutateConfig> computationResult
     ) {
         NodeSimilarityMutateConfig config = computationResult.config();
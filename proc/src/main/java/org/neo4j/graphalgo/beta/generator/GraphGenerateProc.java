@@ -88,14 +88,16 @@ public final class GraphGenerateProc extends BaseProc {
         }
 
         try (ProgressTimer ignored = ProgressTimer.start(time -> stats.generateMillis = time)) {
-            RandomGraphGenerator generator = initializeGraphGenerator(nodeCount, averageDegree, config);
+            // the catalog measures the footprint of the graph by its tracked allocations
+            AllocationTracker tracker = AllocationTracker.create();
+            RandomGraphGenerator generator = initializeGraphGenerator(nodeCount, averageDegree, config, tracker);
 
             HugeGraph graph = generator.generate();
 
             GraphStore graphStore = GraphStore.of(graph, DUMMY_RELATIONSHIP_NAME, Optional.of(generator
                 .getMaybePropertyProducer()
                 .map(RelationshipPropertyProducer::getPropertyName)
-                .orElse("PROPERTY")), AllocationTracker.EMPTY);
+                .orElse("PROPERTY")), tracker);
 
             stats.nodes = graphStore.nodeCount();
             stats.relationships = graphStore.relationshipCount();
@@ -106,13 +108,22 @@ public final class GraphGenerateProc extends BaseProc {
     }
 
     RandomGraphGenerator initializeGraphGenerator(long nodeCount, long averageDegree, RandomGraphGeneratorConfig config) {
+        return initializeGraphGenerator(nodeCount, averageDegree, config, AllocationTracker.EMPTY);
+    }
+
+    private RandomGraphGenerator initializeGraphGenerator(
+        long nodeCount,
+        long averageDegree,
+        RandomGraphGeneratorConfig config,
+        AllocationTracker tracker
+    ) {
         return new RandomGraphGenerator(
             nodeCount,
             averageDegree,
             config.relationshipDistribution(),
             config.relationshipSeed(),
             getRelationshipPropertyProducer(config.relationshipProperty()),
-            config.aggregation(), config.orientation(), AllowSelfLoops.of(config.allowSelfLoops()), AllocationTracker.EMPTY
+            config.aggregation(), config.orientation(), AllowSelfLoops.of(config.allowSelfLoops()), tracker
         );
     }
 
@@ -96,7 +96,7 @@ class GraphCreateNativeProcDocTest extends BaseProcTest {
         String expected = "+-------------------------------------------------------------------------------+\n" +
                            "| requiredMemory          | bytesMin | bytesMax | nodeCount | relationshipCount |\n" +
                            "+-------------------------------------------------------------------------------+\n" +
-                           "| \"[561 KiB ... 564 KiB]\" | 574768   | 577952   | 100       | 1000              |\n" +
+                           "| \"[561 KiB ... 564 KiB]\" | 574792   | 578226   | 100       | 1000              |\n" +
                            "+-------------------------------------------------------------------------------+\n" +
                            "1 row\n";
 
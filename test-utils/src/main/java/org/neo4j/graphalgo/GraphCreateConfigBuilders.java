@@ -28,6 +28,9 @@ import org.neo4j.graphalgo.config.GraphCreateFromStoreConfig;
 import org.neo4j.graphalgo.config.ImmutableGraphCreateFromCypherConfig;
 import org.neo4j.graphalgo.config.ImmutableGraphCreateFromStoreConfig;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.RelationshipImportStrategy;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -66,7 +69,19 @@ final class GraphCreateConfigBuilders {
         @Builder.Switch(defaultName = "PROJECTION") AnyRelationshipType anyRelationshipType,
         Optional<Orientation> globalProjection,
         Optional<Aggregation> globalAggregation,
-        Optional<Boolean> validateRelationships
+        Optional<Boolean> validateRelationships,
+        Optional<Boolean> indexInverse,
+        Optional<Boolean> denseDegrees,
+        Optional<NodeOrdering> nodeOrdering,
+        Optional<PageStorage> pageStorage,
+        Optional<Boolean> lazyNodeProperties,
+        Optional<Boolean> halfUndirectedStorage,
+        Optional<Boolean> shareNodes,
+        Optional<Double> estimationSamplingRatio,
+        Optional<RelationshipImportStrategy> relationshipImportStrategy,
+        Optional<Boolean> adaptiveScanning,
+        Optional<Boolean> warmUpPageCache,
+        Optional<Boolean> parallelAggregation
     ) {
         // Node projections
         Map<String, NodeProjection> tempNP = new LinkedHashMap<>();
@@ -122,6 +137,18 @@ final class GraphCreateConfigBuilders {
             .relationshipProperties(relationshipPropertyMappings)
             .readConcurrency(concurrency.orElse(AlgoBaseConfig.DEFAULT_CONCURRENCY))
             .validateRelationships(validateRelationships.orElse(false))
+            .indexInverse(indexInverse.orElse(false))
+            .denseDegrees(denseDegrees.orElse(false))
+            .nodeOrdering(nodeOrdering.orElse(NodeOrdering.NONE))
+            .pageStorage(pageStorage.orElse(PageStorage.HEAP))
+            .lazyNodeProperties(lazyNodeProperties.orElse(false))
+            .halfUndirectedStorage(halfUndirectedStorage.orElse(false))
+            .shareNodes(shareNodes.orElse(false))
+            .estimationSamplingRatio(estimationSamplingRatio.orElse(0.0))
+            .relationshipImportStrategy(relationshipImportStrategy.orElse(RelationshipImportStrategy.BUFFERED))
+            .adaptiveScanning(adaptiveScanning.orElse(false))
+            .warmUpPageCache(warmUpPageCache.orElse(false))
+            .parallelAggregation(parallelAggregation.orElse(false))
             .build()
             .withNormalizedPropertyMappings();
     }
@@ -141,7 +168,8 @@ final class GraphCreateConfigBuilders {
         Optional<Integer> concurrency,
         Optional<Aggregation> globalAggregation,
         Optional<Boolean> validateRelationships,
-        Optional<Map<String, Object>> parameters
+        Optional<Map<String, Object>> parameters,
+        Optional<Integer> relationshipQueryPartitions
     ) {
         if (!(nodeQuery.isPresent() || anyLabel == AnyLabel.LOAD)) {
             throw new IllegalArgumentException("Missing nodeQuery or loadAnyLabel().");
@@ -182,6 +210,7 @@ final class GraphCreateConfigBuilders {
             .readConcurrency(concurrency.orElse(AlgoBaseConfig.DEFAULT_CONCURRENCY))
             .validateRelationships(validateRelationships.orElse(true))
             .parameters(parameters.orElse(Collections.emptyMap()))
+            .relationshipQueryPartitions(relationshipQueryPartitions.orElse(1))
             .build();
     }
 
@@ -27,6 +27,9 @@ import org.neo4j.graphalgo.config.GraphCreateConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromCypherConfig;
 import org.neo4j.graphalgo.config.GraphCreateFromStoreConfig;
 import org.neo4j.graphalgo.core.Aggregation;
+import org.neo4j.graphalgo.core.NodeOrdering;
+import org.neo4j.graphalgo.core.PageStorage;
+import org.neo4j.graphalgo.core.RelationshipImportStrategy;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ImmutableGraphLoader;
 import org.neo4j.graphalgo.core.concurrency.Pools;
@@ -75,7 +78,19 @@ final class GraphLoaderBuilders {
         @Builder.Switch(defaultName = "PROJECTION") GraphCreateConfigBuilders.AnyRelationshipType anyRelationshipType,
         Optional<Orientation> globalOrientation,
         Optional<Aggregation> globalAggregation,
-        Optional<Boolean> validateRelationships
+        Optional<Boolean> validateRelationships,
+        Optional<Boolean> indexInverse,
+        Optional<Boolean> denseDegrees,
+        Optional<NodeOrdering> nodeOrdering,
+        Optional<PageStorage> pageStorage,
+        Optional<Boolean> lazyNodeProperties,
+        Optional<Boolean> halfUndirectedStorage,
+        Optional<Boolean> shareNodes,
+        Optional<Double> estimationSamplingRatio,
+        Optional<RelationshipImportStrategy> relationshipImportStrategy,
+        Optional<Boolean> adaptiveScanning,
+        Optional<Boolean> warmUpPageCache,
+        Optional<Boolean> parallelAggregation
         ) {
 
         GraphCreateFromStoreConfig graphCreateConfig = GraphCreateConfigBuilders.storeConfig(
@@ -94,7 +109,19 @@ final class GraphLoaderBuilders {
             anyRelationshipType,
             globalOrientation,
             globalAggregation,
-            validateRelationships
+            validateRelationships,
+            indexInverse,
+            denseDegrees,
+            nodeOrdering,
+            pageStorage,
+            lazyNodeProperties,
+            halfUndirectedStorage,
+            shareNodes,
+            estimationSamplingRatio,
+            relationshipImportStrategy,
+            adaptiveScanning,
+            warmUpPageCache,
+            parallelAggregation
         );
 
         return createGraphLoader(api, executorService, tracker, terminationFlag, log, userName, graphCreateConfig);
@@ -123,7 +150,8 @@ final class GraphLoaderBuilders {
         Optional<Integer> concurrency,
         Optional<Aggregation> globalAggregation,
         Optional<Boolean> validateRelationships,
-        Optional<Map<String, Object>> parameters
+        Optional<Map<String, Object>> parameters,
+        Optional<Integer> relationshipQueryPartitions
     ) {
         GraphCreateFromCypherConfig graphCreateConfig = GraphCreateConfigBuilders.cypherConfig(
             userName,
@@ -136,7 +164,8 @@ final class GraphLoaderBuilders {
             concurrency,
             globalAggregation,
             validateRelationships,
-            parameters
+            parameters,
+            relationshipQueryPartitions
         );
 
         return createGraphLoader(api, Optional.empty(), tracker, terminationFlag, log, userName, graphCreateConfig);